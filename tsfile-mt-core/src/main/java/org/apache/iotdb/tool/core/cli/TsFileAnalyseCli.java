@@ -0,0 +1,264 @@
+package org.apache.iotdb.tool.core.cli;
+
+import org.apache.iotdb.tool.core.model.AggregatedSeries;
+import org.apache.iotdb.tool.core.model.LastPoint;
+import org.apache.iotdb.tool.core.model.TimeColumnStatistics;
+import org.apache.iotdb.tool.core.service.TsFileAnalyserV13;
+import org.apache.iotdb.tool.core.service.TsFileOverlapAnalyser;
+import org.apache.iotdb.tool.core.util.IoThrottle;
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+import org.apache.iotdb.tool.core.util.TimeRangeUtil;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry of the analyses, prints the same reports as the UI
+ *
+ * <p>usage: TsFileAnalyseCli [options] &lt;command&gt; &lt;tsfile path&gt;...
+ */
+public class TsFileAnalyseCli {
+
+  private static final String DISTRIBUTION = "distribution";
+
+  private static final String OVERLAP = "overlap";
+
+  private static final String CHUNK_OVERLAP = "chunk-overlap";
+
+  private static final String LAST = "last";
+
+  private static final String EXPORT = "export";
+
+  private static final String TIME_COLUMN = "time-column";
+
+  private static final String ALIGN_CHECK = "align-check";
+
+  private static final String AGGREGATE = "aggregate";
+
+  private static final String PARQUET = "parquet";
+
+  private static final String DIRECT_IO = "--direct-io";
+
+  private static final String MAX_BYTES_PER_SECOND = "--max-bytes-per-second=";
+
+  private static final String MAX_IOPS = "--max-iops=";
+
+  private static final String INDEX = "--index=";
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    // options come before the command
+    boolean directIo = false;
+    long maxBytesPerSecond = IoThrottle.UNLIMITED;
+    long maxIops = IoThrottle.UNLIMITED;
+    TsFileAnalyserV13.IndexMode indexMode = TsFileAnalyserV13.IndexMode.TREE;
+    int commandIndex = 0;
+    for (; commandIndex < args.length && args[commandIndex].startsWith("--"); commandIndex++) {
+      String option = args[commandIndex];
+      if (DIRECT_IO.equals(option)) {
+        directIo = true;
+      } else if (option.startsWith(MAX_BYTES_PER_SECOND)) {
+        maxBytesPerSecond = Long.parseLong(option.substring(MAX_BYTES_PER_SECOND.length()));
+      } else if (option.startsWith(MAX_IOPS)) {
+        maxIops = Long.parseLong(option.substring(MAX_IOPS.length()));
+      } else if (option.startsWith(INDEX) && parseIndexMode(option) != null) {
+        indexMode = parseIndexMode(option);
+      } else {
+        printUsage();
+        System.exit(1);
+      }
+    }
+    ScanIoOptions scanIoOptions = new ScanIoOptions(directIo, maxBytesPerSecond, maxIops);
+    args = Arrays.copyOfRange(args, commandIndex, args.length);
+    if (args.length < 2) {
+      printUsage();
+      System.exit(1);
+    }
+    switch (args[0]) {
+      case DISTRIBUTION:
+      case CHUNK_OVERLAP:
+      case ALIGN_CHECK:
+        TsFileAnalyserV13 tsFileAnalyserV13 = open(args[1], scanIoOptions, indexMode);
+        try {
+          if (DISTRIBUTION.equals(args[0])) {
+            System.out.print(tsFileAnalyserV13.fetchSizeDistribution().format());
+          } else if (CHUNK_OVERLAP.equals(args[0])) {
+            System.out.print(tsFileAnalyserV13.checkChunkOverlap().format());
+          } else {
+            System.out.print(tsFileAnalyserV13.checkAlignmentCandidates().format());
+          }
+        } finally {
+          tsFileAnalyserV13.getReader().close();
+        }
+        break;
+      case LAST:
+        TsFileAnalyserV13 lastAnalyser = open(args[1], scanIoOptions, indexMode);
+        try {
+          StringBuilder out = new StringBuilder();
+          for (LastPoint lastPoint : lastAnalyser.fetchLastPoints()) {
+            out.append(lastPoint.getDeviceId())
+                .append(TsFileConstant.PATH_SEPARATOR)
+                .append(lastPoint.getMeasurementId())
+                .append('\t')
+                .append(lastPoint.getTimestamp())
+                .append('\t')
+                .append(lastPoint.getValue())
+                .append('\n');
+          }
+          System.out.print(out);
+        } finally {
+          lastAnalyser.getReader().close();
+        }
+        break;
+      case TIME_COLUMN:
+        TsFileAnalyserV13 timeColumnAnalyser = open(args[1], scanIoOptions, indexMode);
+        try {
+          // the most irregular time columns first
+          List<Map.Entry<String, TimeColumnStatistics>> timeColumns =
+              new ArrayList<>(timeColumnAnalyser.fetchTimeColumnStatistics().entrySet());
+          timeColumns.sort(Comparator.comparingDouble(entry -> entry.getValue().getRegularity()));
+          StringBuilder out = new StringBuilder();
+          for (Map.Entry<String, TimeColumnStatistics> timeColumn : timeColumns) {
+            out.append(timeColumn.getKey())
+                .append('\t')
+                .append(timeColumn.getValue().format())
+                .append('\n');
+          }
+          System.out.print(out);
+        } finally {
+          timeColumnAnalyser.getReader().close();
+        }
+        break;
+      case EXPORT:
+        // CSV unless parquet is given
+        if (args.length < 3 || (args.length > 3 && !PARQUET.equals(args[3]))) {
+          printUsage();
+          System.exit(1);
+        }
+        TsFileAnalyserV13 exportAnalyser = open(args[1], scanIoOptions, indexMode);
+        try {
+          File directory = new File(args[2]);
+          int parallelism = Runtime.getRuntime().availableProcessors();
+          long pointCount =
+              args.length > 3
+                  ? exportAnalyser.exportSeriesToParquet(directory, parallelism)
+                  : exportAnalyser.exportSeriesToCsv(directory, parallelism);
+          System.out.println(pointCount + " points exported to " + args[2]);
+        } finally {
+          exportAnalyser.getReader().close();
+        }
+        break;
+      case AGGREGATE:
+        if (args.length != 5 && args.length != 7) {
+          printUsage();
+          System.exit(1);
+        }
+        // the whole series unless a time range is given
+        long startTime = args.length == 7 ? Long.parseLong(args[5]) : TimeRangeUtil.UNSET_START;
+        long endTime = args.length == 7 ? Long.parseLong(args[6]) : TimeRangeUtil.UNSET_END;
+        TsFileAnalyserV13 aggregateAnalyser = open(args[1], scanIoOptions, indexMode);
+        try {
+          AggregatedSeries series =
+              aggregateAnalyser.fetchAggregatedSeries(
+                  args[2], args[3], startTime, endTime, Long.parseLong(args[4]));
+          StringBuilder out = new StringBuilder("time\tcount\tavg\tmin\tmax\tfirst\tlast\n");
+          for (int i = 0; i < series.size(); i++) {
+            out.append(series.getBucketStartTimes()[i])
+                .append('\t')
+                .append(series.getCounts()[i])
+                .append('\t')
+                .append(series.getAvg(i))
+                .append('\t')
+                .append(series.getMinValues()[i])
+                .append('\t')
+                .append(series.getMaxValues()[i])
+                .append('\t')
+                .append(series.getFirstValues()[i])
+                .append('\t')
+                .append(series.getLastValues()[i])
+                .append('\n');
+          }
+          System.out.print(out);
+        } finally {
+          aggregateAnalyser.getReader().close();
+        }
+        break;
+      case OVERLAP:
+        // directories are searched recursively for tsfiles
+        List<String> filePaths = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+          File file = new File(args[i]);
+          if (file.isDirectory()) {
+            filePaths.addAll(TsFileOverlapAnalyser.listTsFiles(file));
+          } else {
+            filePaths.add(args[i]);
+          }
+        }
+        System.out.print(new TsFileOverlapAnalyser(filePaths).analyse().format());
+        break;
+      default:
+        printUsage();
+        System.exit(1);
+    }
+  }
+
+  private static TsFileAnalyserV13 open(
+      String filePath, ScanIoOptions scanIoOptions, TsFileAnalyserV13.IndexMode indexMode)
+      throws IOException {
+    return new TsFileAnalyserV13(
+        filePath, TsFileAnalyserV13.OpenMode.FOOTER_FIRST, scanIoOptions, indexMode);
+  }
+
+  /** @return null if the option names no index mode */
+  private static TsFileAnalyserV13.IndexMode parseIndexMode(String option) {
+    for (TsFileAnalyserV13.IndexMode indexMode : TsFileAnalyserV13.IndexMode.values()) {
+      if (indexMode.name().equalsIgnoreCase(option.substring(INDEX.length()))) {
+        return indexMode;
+      }
+    }
+    return null;
+  }
+
+  private static void printUsage() {
+    System.out.println("usage: TsFileAnalyseCli [options] <command> <tsfile path>...");
+    System.out.println("scan options, for the data section scan:");
+    System.out.println("  " + DIRECT_IO + "    bypass the OS page cache (O_DIRECT, Java 10+)");
+    System.out.println("  " + MAX_BYTES_PER_SECOND + "<n>    limit the scan throughput");
+    System.out.println("  " + MAX_IOPS + "<n>    limit the scan read requests per second");
+    System.out.println("index options, for the single-file commands:");
+    System.out.println("  " + INDEX + "tree    the index as an object tree (default)");
+    System.out.println(
+        "  " + INDEX + "compact    the index as flat arrays, metadata read from the file on use");
+    System.out.println(
+        "  " + INDEX + "mapped    the index memory-mapped off-heap, for many series");
+    System.out.println("commands:");
+    System.out.println(
+        "  " + DISTRIBUTION + " <tsfile>    page/chunk size histograms and small pages/chunks");
+    System.out.println(
+        "  " + OVERLAP + " <tsfile|dir>...    seq/unseq chunk overlap across files, index only");
+    System.out.println(
+        "  " + CHUNK_OVERLAP + " <tsfile>    out-of-order/overlapped chunks inside one file");
+    System.out.println(
+        "  " + LAST + " <tsfile>    latest time and value of every series, from the statistics");
+    System.out.println(
+        "  " + TIME_COLUMN + " <tsfile>    timestamp delta regularity of every time column");
+    System.out.println(
+        "  " + ALIGN_CHECK + " <tsfile>    non-aligned devices whose series share timestamps");
+    System.out.println(
+        "  "
+            + EXPORT
+            + " <tsfile> <dir> ["
+            + PARQUET
+            + "]    one CSV (or Parquet, a row group per chunk) file per series, in parallel");
+    System.out.println(
+        "  "
+            + AGGREGATE
+            + " <tsfile> <device> <measurement> <interval> [<start> <end>]"
+            + "    COUNT/AVG/MIN/MAX/FIRST/LAST per time bucket, the whole series by default");
+  }
+}
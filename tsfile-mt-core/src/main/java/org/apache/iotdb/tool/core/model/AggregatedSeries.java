@@ -0,0 +1,164 @@
+package org.apache.iotdb.tool.core.model;
+
+/**
+ * AggregatedSeries: group-by-time aggregation of a series, one entry per non-empty bucket ordered
+ * by time. A bucket is [bucketStartTime, bucketStartTime + interval).
+ */
+public class AggregatedSeries {
+
+  private String name;
+
+  private long interval;
+
+  private long[] bucketStartTimes;
+
+  private long[] counts;
+
+  private double[] sums;
+
+  private double[] minValues;
+
+  private double[] maxValues;
+
+  private double[] firstValues;
+
+  private double[] lastValues;
+
+  /** points that were decoded to build this series */
+  private long decodedPointCount;
+
+  /** points that were answered by page or chunk statistics without decoding */
+  private long statisticsPointCount;
+
+  public AggregatedSeries() {}
+
+  public AggregatedSeries(String name, long interval) {
+    this(
+        name,
+        interval,
+        new long[0],
+        new long[0],
+        new double[0],
+        new double[0],
+        new double[0],
+        new double[0],
+        new double[0]);
+  }
+
+  public AggregatedSeries(
+      String name,
+      long interval,
+      long[] bucketStartTimes,
+      long[] counts,
+      double[] sums,
+      double[] minValues,
+      double[] maxValues,
+      double[] firstValues,
+      double[] lastValues) {
+    this.name = name;
+    this.interval = interval;
+    this.bucketStartTimes = bucketStartTimes;
+    this.counts = counts;
+    this.sums = sums;
+    this.minValues = minValues;
+    this.maxValues = maxValues;
+    this.firstValues = firstValues;
+    this.lastValues = lastValues;
+  }
+
+  public int size() {
+    return bucketStartTimes == null ? 0 : bucketStartTimes.length;
+  }
+
+  public double getAvg(int bucket) {
+    return sums[bucket] / counts[bucket];
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  public void setInterval(long interval) {
+    this.interval = interval;
+  }
+
+  public long[] getBucketStartTimes() {
+    return bucketStartTimes;
+  }
+
+  public void setBucketStartTimes(long[] bucketStartTimes) {
+    this.bucketStartTimes = bucketStartTimes;
+  }
+
+  public long[] getCounts() {
+    return counts;
+  }
+
+  public void setCounts(long[] counts) {
+    this.counts = counts;
+  }
+
+  public double[] getSums() {
+    return sums;
+  }
+
+  public void setSums(double[] sums) {
+    this.sums = sums;
+  }
+
+  public double[] getMinValues() {
+    return minValues;
+  }
+
+  public void setMinValues(double[] minValues) {
+    this.minValues = minValues;
+  }
+
+  public double[] getMaxValues() {
+    return maxValues;
+  }
+
+  public void setMaxValues(double[] maxValues) {
+    this.maxValues = maxValues;
+  }
+
+  public double[] getFirstValues() {
+    return firstValues;
+  }
+
+  public void setFirstValues(double[] firstValues) {
+    this.firstValues = firstValues;
+  }
+
+  public double[] getLastValues() {
+    return lastValues;
+  }
+
+  public void setLastValues(double[] lastValues) {
+    this.lastValues = lastValues;
+  }
+
+  public long getDecodedPointCount() {
+    return decodedPointCount;
+  }
+
+  public void setDecodedPointCount(long decodedPointCount) {
+    this.decodedPointCount = decodedPointCount;
+  }
+
+  public long getStatisticsPointCount() {
+    return statisticsPointCount;
+  }
+
+  public void setStatisticsPointCount(long statisticsPointCount) {
+    this.statisticsPointCount = statisticsPointCount;
+  }
+}
@@ -0,0 +1,98 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * AlignmentCandidateModel: the non-aligned measurements of a device that write identical time
+ * columns, and what storing them as an aligned device would save. Estimates: the time bytes are
+ * the compressed share of the time column in the pages, the bitmap overhead is uncompressed.
+ */
+public class AlignmentCandidateModel {
+
+  private final String deviceId;
+
+  /** measurements sharing their time column with another measurement in some chunk group */
+  private final Set<String> measurements = new TreeSet<>();
+
+  /** chunks whose time column duplicates another chunk of the chunk group */
+  private long redundantChunkCount;
+
+  /** timestamps decoded once per duplicate time column, not needed once aligned */
+  private long redundantPointCount;
+
+  private long redundantTimeBytes;
+
+  /** [size][bitmap] every value page of an aligned chunk adds */
+  private long bitmapOverheadBytes;
+
+  public AlignmentCandidateModel(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  /**
+   * one group of chunks of a chunk group with identical time columns
+   *
+   * @param redundantChunks chunks of the group but one
+   */
+  public void addSharedGroup(
+      Set<String> groupMeasurements,
+      long redundantChunks,
+      long redundantPoints,
+      long redundantBytes,
+      long bitmapBytes) {
+    measurements.addAll(groupMeasurements);
+    redundantChunkCount += redundantChunks;
+    redundantPointCount += redundantPoints;
+    redundantTimeBytes += redundantBytes;
+    bitmapOverheadBytes += bitmapBytes;
+  }
+
+  /** bytes saved by aligned storage, negative if the bitmaps cost more than the time columns */
+  public long getNetSavedBytes() {
+    return redundantTimeBytes - bitmapOverheadBytes;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public Set<String> getMeasurements() {
+    return measurements;
+  }
+
+  public long getRedundantChunkCount() {
+    return redundantChunkCount;
+  }
+
+  public long getRedundantPointCount() {
+    return redundantPointCount;
+  }
+
+  public long getRedundantTimeBytes() {
+    return redundantTimeBytes;
+  }
+
+  public long getBitmapOverheadBytes() {
+    return bitmapOverheadBytes;
+  }
+
+  @Override
+  public String toString() {
+    return deviceId
+        + ": measurements:"
+        + measurements.size()
+        + ", redundant time columns:"
+        + redundantChunkCount
+        + ", saved bytes:"
+        + getNetSavedBytes()
+        + " ("
+        + redundantTimeBytes
+        + " time - "
+        + bitmapOverheadBytes
+        + " bitmap), saved timestamp decodes:"
+        + redundantPointCount
+        + ", "
+        + measurements;
+  }
+}
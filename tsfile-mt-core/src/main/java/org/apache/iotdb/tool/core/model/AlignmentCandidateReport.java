@@ -0,0 +1,70 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AlignmentCandidateReport: devices whose non-aligned measurements write identical time columns,
+ * most saved bytes first
+ */
+public class AlignmentCandidateReport {
+
+  private final List<AlignmentCandidateModel> devices;
+
+  private final int chunkGroupCount;
+
+  /** non-aligned chunks whose time column was decoded after the statistics matched */
+  private final long decodedChunkCount;
+
+  private final long chunkCount;
+
+  public AlignmentCandidateReport(
+      List<AlignmentCandidateModel> devices,
+      int chunkGroupCount,
+      long decodedChunkCount,
+      long chunkCount) {
+    this.devices = devices;
+    this.chunkGroupCount = chunkGroupCount;
+    this.decodedChunkCount = decodedChunkCount;
+    this.chunkCount = chunkCount;
+    this.devices.sort(
+        Comparator.comparingLong(AlignmentCandidateModel::getNetSavedBytes).reversed());
+  }
+
+  public long getNetSavedBytes() {
+    return devices.stream()
+        .mapToLong(AlignmentCandidateModel::getNetSavedBytes)
+        .filter(saved -> saved > 0)
+        .sum();
+  }
+
+  public List<AlignmentCandidateModel> getDevices() {
+    return devices;
+  }
+
+  public int getChunkGroupCount() {
+    return chunkGroupCount;
+  }
+
+  public long getDecodedChunkCount() {
+    return decodedChunkCount;
+  }
+
+  public long getChunkCount() {
+    return chunkCount;
+  }
+
+  /** plain text report, shared by the UI and the command line */
+  public String format() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "chunk groups:%d, non-aligned chunks:%d (time column decoded:%d), "
+                + "devices with shared time columns:%d, bytes saved by aligning them:%d%n",
+            chunkGroupCount, chunkCount, decodedChunkCount, devices.size(), getNetSavedBytes()));
+    for (AlignmentCandidateModel device : devices) {
+      sb.append("  ").append(device).append('\n');
+    }
+    return sb.toString();
+  }
+}
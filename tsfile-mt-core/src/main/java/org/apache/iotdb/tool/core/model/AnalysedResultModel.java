@@ -10,6 +10,12 @@ public class AnalysedResultModel {
   // 所有编码分析列表（直接按序展示）
   private List<EncodeCompressAnalysedModel> analysedList;
 
+  // 时间列分析时的时间间隔统计, 值列分析时为 null
+  private TimeColumnStatistics timeColumnStatistics;
+
+  // 对齐值列分析时每个 page 的空值密度, 非对齐序列为 null
+  private NullDensityStatistics nullDensityStatistics;
+
   public EncodeCompressAnalysedModel getCurrentAnalysed() {
     return currentAnalysed;
   }
@@ -25,4 +31,20 @@ public class AnalysedResultModel {
   public void setAnalysedList(List<EncodeCompressAnalysedModel> analysedList) {
     this.analysedList = analysedList;
   }
+
+  public TimeColumnStatistics getTimeColumnStatistics() {
+    return timeColumnStatistics;
+  }
+
+  public void setTimeColumnStatistics(TimeColumnStatistics timeColumnStatistics) {
+    this.timeColumnStatistics = timeColumnStatistics;
+  }
+
+  public NullDensityStatistics getNullDensityStatistics() {
+    return nullDensityStatistics;
+  }
+
+  public void setNullDensityStatistics(NullDensityStatistics nullDensityStatistics) {
+    this.nullDensityStatistics = nullDensityStatistics;
+  }
 }
@@ -0,0 +1,35 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.List;
+
+/**
+ * ArrowBatch: a decoded page (or an aligned time page and its value pages) as Arrow-layout
+ * vectors of equal length, a "Time" INT64 vector and one vector per value column. The rows match
+ * a record batch of the Arrow schema (Time: Int(64), &lt;measurement&gt;: ...).
+ */
+public class ArrowBatch {
+
+  private final int rowCount;
+
+  private final ArrowVector timeVector;
+
+  private final List<ArrowVector> valueVectors;
+
+  public ArrowBatch(int rowCount, ArrowVector timeVector, List<ArrowVector> valueVectors) {
+    this.rowCount = rowCount;
+    this.timeVector = timeVector;
+    this.valueVectors = valueVectors;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public ArrowVector getTimeVector() {
+    return timeVector;
+  }
+
+  public List<ArrowVector> getValueVectors() {
+    return valueVectors;
+  }
+}
@@ -0,0 +1,84 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ArrowVector: one column in the memory layout of an Apache Arrow vector, in direct little-endian
+ * buffers that an Arrow consumer can wrap as ArrowBufs without copying.
+ *
+ * <ul>
+ *   <li>validity: one bit per row, least significant bit first, 1 for a non-null row. Null if the
+ *       column has no null row.
+ *   <li>values: 8 bytes per INT64 (BigIntVector) or DOUBLE row, 4 bytes per INT32 or FLOAT row,
+ *       one bit per BOOLEAN row (BitVector), the UTF-8 bytes of all rows for TEXT (VarCharVector).
+ *       Null rows keep a zero slot.
+ *   <li>offsets: TEXT only, valueCount + 1 int32 offsets into the values.
+ * </ul>
+ */
+public class ArrowVector {
+
+  private final String name;
+
+  private final TSDataType dataType;
+
+  private final int valueCount;
+
+  private final int nullCount;
+
+  private final ByteBuffer validity;
+
+  private final ByteBuffer values;
+
+  private final ByteBuffer offsets;
+
+  public ArrowVector(
+      String name,
+      TSDataType dataType,
+      int valueCount,
+      int nullCount,
+      ByteBuffer validity,
+      ByteBuffer values,
+      ByteBuffer offsets) {
+    this.name = name;
+    this.dataType = dataType;
+    this.valueCount = valueCount;
+    this.nullCount = nullCount;
+    this.validity = validity;
+    this.values = values;
+    this.offsets = offsets;
+  }
+
+  public boolean isNull(int row) {
+    return validity != null && (validity.get(row >>> 3) & (1 << (row & 7))) == 0;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int getValueCount() {
+    return valueCount;
+  }
+
+  public int getNullCount() {
+    return nullCount;
+  }
+
+  public ByteBuffer getValidity() {
+    return validity;
+  }
+
+  public ByteBuffer getValues() {
+    return values;
+  }
+
+  public ByteBuffer getOffsets() {
+    return offsets;
+  }
+}
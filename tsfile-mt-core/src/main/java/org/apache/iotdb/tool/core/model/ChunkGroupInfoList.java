@@ -0,0 +1,99 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * ChunkGroupInfoList: chunk groups stored column-wise, a dictionary-encoded device id and an offset
+ * per chunk group (12 bytes) instead of a ChunkGroupInfo object with its own device name string.
+ *
+ * <p>{@link #get(int)} creates a short-lived ChunkGroupInfo view for existing callers, loops over
+ * many chunk groups should use {@link #getDeviceName(int)} and {@link #getOffset(int)}.
+ */
+public class ChunkGroupInfoList extends AbstractList<ChunkGroupInfo> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final StringDictionary deviceDictionary;
+
+  private int[] deviceIds = new int[INITIAL_CAPACITY];
+
+  private long[] offsets = new long[INITIAL_CAPACITY];
+
+  private int size;
+
+  public ChunkGroupInfoList() {
+    this(new StringDictionary());
+  }
+
+  /** @param deviceDictionary may be shared with the other compact structures of the file */
+  public ChunkGroupInfoList(StringDictionary deviceDictionary) {
+    this.deviceDictionary = deviceDictionary;
+  }
+
+  public void add(String deviceName, long offset) {
+    if (size == offsets.length) {
+      deviceIds = Arrays.copyOf(deviceIds, size * 2);
+      offsets = Arrays.copyOf(offsets, size * 2);
+    }
+    deviceIds[size] = deviceDictionary.encode(deviceName);
+    offsets[size] = offset;
+    size++;
+    modCount++;
+  }
+
+  /** only appending is supported */
+  @Override
+  public void add(int index, ChunkGroupInfo chunkGroupInfo) {
+    if (index != size) {
+      throw new UnsupportedOperationException("chunk groups can only be appended");
+    }
+    add(chunkGroupInfo.getDeviceName(), chunkGroupInfo.getOffset());
+  }
+
+  @Override
+  public ChunkGroupInfo get(int index) {
+    return new ChunkGroupInfo(getDeviceName(index), getOffset(index));
+  }
+
+  public String getDeviceName(int index) {
+    return deviceDictionary.decode(getDeviceId(index));
+  }
+
+  public int getDeviceId(int index) {
+    checkIndex(index);
+    return deviceIds[index];
+  }
+
+  public long getOffset(int index) {
+    checkIndex(index);
+    return offsets[index];
+  }
+
+  public StringDictionary getDeviceDictionary() {
+    return deviceDictionary;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+    modCount++;
+  }
+
+  /** release the unused capacity once the file has been loaded */
+  public void trimToSize() {
+    deviceIds = Arrays.copyOf(deviceIds, Math.max(size, 1));
+    offsets = Arrays.copyOf(offsets, Math.max(size, 1));
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index:" + index + ", size:" + size);
+    }
+  }
+}
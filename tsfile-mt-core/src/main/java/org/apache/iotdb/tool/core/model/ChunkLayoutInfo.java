@@ -0,0 +1,159 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.util.Arrays;
+
+/**
+ * ChunkLayoutInfo: byte layout of a chunk and its pages, recorded from the chunk header and page
+ * headers only
+ */
+public class ChunkLayoutInfo {
+
+  private static final int INITIAL_PAGE_CAPACITY = 4;
+
+  private final String deviceId;
+
+  private final String measurementId;
+
+  /** offset of the chunk marker */
+  private final long offset;
+
+  private final TSDataType dataType;
+
+  private final TSEncoding encodingType;
+
+  private final CompressionType compressionType;
+
+  private final byte chunkType;
+
+  /** chunk marker + chunk header + pages */
+  private long size;
+
+  private int pageCount;
+
+  /** offset of each page header */
+  private long[] pageOffsets = new long[INITIAL_PAGE_CAPACITY];
+
+  /** page header + page data */
+  private int[] pageSizes = new int[INITIAL_PAGE_CAPACITY];
+
+  private int[] pageUncompressedSizes = new int[INITIAL_PAGE_CAPACITY];
+
+  private int[] pageCompressedSizes = new int[INITIAL_PAGE_CAPACITY];
+
+  /** -1 if the page header carries no statistics (chunk with only one page) */
+  private int[] pagePointCounts = new int[INITIAL_PAGE_CAPACITY];
+
+  public ChunkLayoutInfo(String deviceId, long offset, ChunkHeader chunkHeader) {
+    this.deviceId = deviceId;
+    this.offset = offset;
+    this.measurementId = chunkHeader.getMeasurementID();
+    this.dataType = chunkHeader.getDataType();
+    this.encodingType = chunkHeader.getEncodingType();
+    this.compressionType = chunkHeader.getCompressionType();
+    this.chunkType = chunkHeader.getChunkType();
+  }
+
+  public void addPage(
+      long pageOffset, int pageSize, int uncompressedSize, int compressedSize, int pointCount) {
+    if (pageCount == pageOffsets.length) {
+      int capacity = pageCount << 1;
+      pageOffsets = Arrays.copyOf(pageOffsets, capacity);
+      pageSizes = Arrays.copyOf(pageSizes, capacity);
+      pageUncompressedSizes = Arrays.copyOf(pageUncompressedSizes, capacity);
+      pageCompressedSizes = Arrays.copyOf(pageCompressedSizes, capacity);
+      pagePointCounts = Arrays.copyOf(pagePointCounts, capacity);
+    }
+    pageOffsets[pageCount] = pageOffset;
+    pageSizes[pageCount] = pageSize;
+    pageUncompressedSizes[pageCount] = uncompressedSize;
+    pageCompressedSizes[pageCount] = compressedSize;
+    pagePointCounts[pageCount] = pointCount;
+    pageCount++;
+  }
+
+  /** index of the page containing the offset, or -1 if the offset is in the chunk header */
+  public int findPage(long position) {
+    int index = Arrays.binarySearch(pageOffsets, 0, pageCount, position);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /** compressed size / uncompressed size of the page */
+  public double getPageCompressionRatio(int page) {
+    return pageUncompressedSizes[page] == 0
+        ? 1
+        : (double) pageCompressedSizes[page] / pageUncompressedSizes[page];
+  }
+
+  public long getEnd() {
+    return offset + size;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String getMeasurementId() {
+    return measurementId;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public TSEncoding getEncodingType() {
+    return encodingType;
+  }
+
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  public byte getChunkType() {
+    return chunkType;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public void setSize(long size) {
+    this.size = size;
+  }
+
+  public int getPageCount() {
+    return pageCount;
+  }
+
+  public long getPageOffset(int page) {
+    return pageOffsets[page];
+  }
+
+  public int getPageSize(int page) {
+    return pageSizes[page];
+  }
+
+  public int getPageUncompressedSize(int page) {
+    return pageUncompressedSizes[page];
+  }
+
+  public int getPageCompressedSize(int page) {
+    return pageCompressedSizes[page];
+  }
+
+  public int getPagePointCount(int page) {
+    return pagePointCounts[page];
+  }
+
+  public void setPagePointCount(int page, int pointCount) {
+    pagePointCounts[page] = pointCount;
+  }
+}
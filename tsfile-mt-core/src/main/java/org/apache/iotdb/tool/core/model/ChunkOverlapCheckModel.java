@@ -0,0 +1,90 @@
+package org.apache.iotdb.tool.core.model;
+
+/** ChunkOverlapCheckModel: time order and overlap of the chunks and pages of a series in a file */
+public class ChunkOverlapCheckModel {
+
+  private String series;
+
+  /** chunks starting before the end of a chunk written earlier in the file */
+  private int outOfOrderChunkCount;
+
+  private SeriesOverlapModel chunkOverlap;
+
+  /** overlap of the pages of the series, null if no chunk overlaps */
+  private SeriesOverlapModel pageOverlap;
+
+  public ChunkOverlapCheckModel() {}
+
+  public ChunkOverlapCheckModel(
+      String series,
+      int outOfOrderChunkCount,
+      SeriesOverlapModel chunkOverlap,
+      SeriesOverlapModel pageOverlap) {
+    this.series = series;
+    this.outOfOrderChunkCount = outOfOrderChunkCount;
+    this.chunkOverlap = chunkOverlap;
+    this.pageOverlap = pageOverlap;
+  }
+
+  /** points which have to be decoded and merged instead of read in order */
+  public long getWastedDecodePoints() {
+    return pageOverlap == null ? 0 : pageOverlap.getOverlappedPointCount();
+  }
+
+  public String getSeries() {
+    return series;
+  }
+
+  public void setSeries(String series) {
+    this.series = series;
+  }
+
+  public int getOutOfOrderChunkCount() {
+    return outOfOrderChunkCount;
+  }
+
+  public void setOutOfOrderChunkCount(int outOfOrderChunkCount) {
+    this.outOfOrderChunkCount = outOfOrderChunkCount;
+  }
+
+  public SeriesOverlapModel getChunkOverlap() {
+    return chunkOverlap;
+  }
+
+  public void setChunkOverlap(SeriesOverlapModel chunkOverlap) {
+    this.chunkOverlap = chunkOverlap;
+  }
+
+  public SeriesOverlapModel getPageOverlap() {
+    return pageOverlap;
+  }
+
+  public void setPageOverlap(SeriesOverlapModel pageOverlap) {
+    this.pageOverlap = pageOverlap;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(series)
+        .append(": out of order chunks:")
+        .append(outOfOrderChunkCount)
+        .append(", overlapped chunks:")
+        .append(chunkOverlap.getOverlappedChunkCount())
+        .append('/')
+        .append(chunkOverlap.getChunkCount())
+        .append(", maxDepth:")
+        .append(chunkOverlap.getMaxDepth());
+    if (pageOverlap != null) {
+      sb.append(", overlapped pages:")
+          .append(pageOverlap.getOverlappedChunkCount())
+          .append('/')
+          .append(pageOverlap.getChunkCount())
+          .append(", wasted decode points:")
+          .append(getWastedDecodePoints())
+          .append('/')
+          .append(pageOverlap.getPointCount());
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,73 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * ChunkOverlapCheckReport: out-of-order and overlapping chunks and pages of a file, and the chunk
+ * groups a compaction has to rewrite
+ */
+public class ChunkOverlapCheckReport {
+
+  /** device@offset of each chunk group, in file order */
+  private final List<String> chunkGroupNames;
+
+  /** series with out-of-order or overlapping chunks */
+  private final List<ChunkOverlapCheckModel> seriesList;
+
+  /** index of the chunk groups holding overlapped chunks */
+  private final TreeSet<Integer> compactionChunkGroups = new TreeSet<>();
+
+  private final long pointCount;
+
+  public ChunkOverlapCheckReport(
+      List<String> chunkGroupNames, List<ChunkOverlapCheckModel> seriesList, long pointCount) {
+    this.chunkGroupNames = chunkGroupNames;
+    this.seriesList = seriesList;
+    this.pointCount = pointCount;
+    for (ChunkOverlapCheckModel model : seriesList) {
+      compactionChunkGroups.addAll(model.getChunkOverlap().getOverlappedSources());
+    }
+    this.seriesList.sort(
+        Comparator.comparingLong(ChunkOverlapCheckModel::getWastedDecodePoints).reversed());
+  }
+
+  public long getWastedDecodePoints() {
+    return seriesList.stream().mapToLong(ChunkOverlapCheckModel::getWastedDecodePoints).sum();
+  }
+
+  public List<String> getChunkGroupNames() {
+    return chunkGroupNames;
+  }
+
+  public List<ChunkOverlapCheckModel> getSeriesList() {
+    return seriesList;
+  }
+
+  public TreeSet<Integer> getCompactionChunkGroups() {
+    return compactionChunkGroups;
+  }
+
+  public long getPointCount() {
+    return pointCount;
+  }
+
+  /** plain text report, shared by the UI and the command line */
+  public String format() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "chunk groups:%d, series with out-of-order/overlapped chunks:%d, "
+                + "wasted decode points:%d/%d%n",
+            chunkGroupNames.size(), seriesList.size(), getWastedDecodePoints(), pointCount));
+    for (ChunkOverlapCheckModel model : seriesList) {
+      sb.append("  ").append(model).append('\n');
+    }
+    sb.append("chunk groups to compact (").append(compactionChunkGroups.size()).append("):\n");
+    for (int chunkGroup : compactionChunkGroups) {
+      sb.append("  ").append(chunkGroupNames.get(chunkGroup)).append('\n');
+    }
+    return sb.toString();
+  }
+}
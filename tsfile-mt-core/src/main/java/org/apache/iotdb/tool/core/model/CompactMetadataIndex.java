@@ -0,0 +1,321 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.util.Arrays;
+
+/**
+ * CompactMetadataIndex: the metadata index tree of {@link TimeSeriesMetadataNode} stored as struct
+ * of arrays. A node is an int, device and measurement ids are dictionary-encoded, the parent is an
+ * int link and the children of a node are the contiguous range [firstChild, firstChild +
+ * childCount), so nodes have to be added breadth first, all children of a node at once.
+ *
+ * <p>Series leaves only keep the offset of their TimeseriesMetadata and the summary of its
+ * statistics, the full metadata is read again from the file on demand. Every column of an aligned
+ * device is a leaf, a value column links the leaf of its time column.
+ *
+ * <p>Index nodes keep the name of their index entry, the first device or measurement below them,
+ * so {@link #findSeries(String, String)} walks down the tree like the TsFile reader does.
+ */
+public class CompactMetadataIndex implements IMetadataIndex {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final byte SERIES = 1;
+
+  private static final byte ALIGNED = 2;
+
+  private final StringDictionary deviceDictionary;
+
+  private final StringDictionary measurementDictionary;
+
+  private int size;
+
+  private byte[] nodeTypes = new byte[INITIAL_CAPACITY];
+
+  private byte[] flags = new byte[INITIAL_CAPACITY];
+
+  private int[] deviceIds = new int[INITIAL_CAPACITY];
+
+  private int[] measurementIds = new int[INITIAL_CAPACITY];
+
+  /** index node: code of the entry name, in the dictionary of its level; series: measurement */
+  private int[] names = new int[INITIAL_CAPACITY];
+
+  /** aligned value column: its time column, otherwise -1 */
+  private int[] timeColumns = new int[INITIAL_CAPACITY];
+
+  private int[] parents = new int[INITIAL_CAPACITY];
+
+  private int[] firstChildren = new int[INITIAL_CAPACITY];
+
+  private int[] childCounts = new int[INITIAL_CAPACITY];
+
+  /** series: offset of the TimeseriesMetadata, index node: end of the node */
+  private long[] positions = new long[INITIAL_CAPACITY];
+
+  private byte[] dataTypes = new byte[INITIAL_CAPACITY];
+
+  private long[] startTimes = new long[INITIAL_CAPACITY];
+
+  private long[] endTimes = new long[INITIAL_CAPACITY];
+
+  private long[] counts = new long[INITIAL_CAPACITY];
+
+  public CompactMetadataIndex() {
+    this(new StringDictionary(), new StringDictionary());
+  }
+
+  public CompactMetadataIndex(
+      StringDictionary deviceDictionary, StringDictionary measurementDictionary) {
+    this.deviceDictionary = deviceDictionary;
+    this.measurementDictionary = measurementDictionary;
+  }
+
+  /** @return the root, always node 0 */
+  public int addRoot(MetadataIndexNodeType nodeType) {
+    if (size != 0) {
+      throw new IllegalStateException("the root has already been added");
+    }
+    return append(-1, nodeType, null, null, 0);
+  }
+
+  /**
+   * add an index node below the parent
+   *
+   * @param nodeType type of the parent, whose entry the node is
+   * @param name name of the entry: a device id below device nodes, else a measurement id
+   */
+  public int addNode(int parent, MetadataIndexNodeType nodeType, String deviceId, String name) {
+    int node = append(parent, nodeType, deviceId, null, 0);
+    names[node] =
+        IMetadataIndex.isDeviceLevel(nodeType)
+            ? deviceDictionary.encode(name)
+            : measurementDictionary.encode(name);
+    return node;
+  }
+
+  /**
+   * add a series leaf below the parent
+   *
+   * @param aligned a column of an aligned device, the time column (VECTOR) or a value column
+   */
+  public int addSeries(
+      int parent,
+      String deviceId,
+      String measurementId,
+      long position,
+      boolean aligned,
+      TSDataType dataType,
+      long startTime,
+      long endTime,
+      long count) {
+    int series = append(parent, getNodeType(parent), deviceId, measurementId, position);
+    names[series] = measurementIds[series];
+    flags[series] = aligned ? SERIES | ALIGNED : SERIES;
+    dataTypes[series] = dataType.serialize();
+    startTimes[series] = startTime;
+    endTimes[series] = endTime;
+    counts[series] = count;
+    return series;
+  }
+
+  private int append(
+      int parent,
+      MetadataIndexNodeType nodeType,
+      String deviceId,
+      String measurementId,
+      long position) {
+    if (parent >= 0
+        && childCounts[parent] > 0
+        && firstChildren[parent] + childCounts[parent] != size) {
+      throw new IllegalStateException("children of node " + parent + " must be added together");
+    }
+    ensureCapacity(size + 1);
+    int node = size++;
+    nodeTypes[node] = nodeType.serialize();
+    deviceIds[node] = deviceDictionary.encode(deviceId);
+    measurementIds[node] = measurementDictionary.encode(measurementId);
+    names[node] = -1;
+    timeColumns[node] = -1;
+    parents[node] = parent;
+    firstChildren[node] = -1;
+    positions[node] = position;
+    if (parent >= 0) {
+      if (childCounts[parent] == 0) {
+        firstChildren[parent] = node;
+      }
+      childCounts[parent]++;
+    }
+    return node;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > positions.length) {
+      resize(Math.max(capacity, positions.length * 2));
+    }
+  }
+
+  /** release the unused capacity once the index has been built */
+  public void trimToSize() {
+    resize(Math.max(size, 1));
+  }
+
+  private void resize(int capacity) {
+    nodeTypes = Arrays.copyOf(nodeTypes, capacity);
+    flags = Arrays.copyOf(flags, capacity);
+    deviceIds = Arrays.copyOf(deviceIds, capacity);
+    measurementIds = Arrays.copyOf(measurementIds, capacity);
+    names = Arrays.copyOf(names, capacity);
+    timeColumns = Arrays.copyOf(timeColumns, capacity);
+    parents = Arrays.copyOf(parents, capacity);
+    firstChildren = Arrays.copyOf(firstChildren, capacity);
+    childCounts = Arrays.copyOf(childCounts, capacity);
+    positions = Arrays.copyOf(positions, capacity);
+    dataTypes = Arrays.copyOf(dataTypes, capacity);
+    startTimes = Arrays.copyOf(startTimes, capacity);
+    endTimes = Arrays.copyOf(endTimes, capacity);
+    counts = Arrays.copyOf(counts, capacity);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public MetadataIndexNodeType getNodeType(int node) {
+    return MetadataIndexNodeType.deserialize(nodeTypes[node]);
+  }
+
+  @Override
+  public boolean isSeries(int node) {
+    return (flags[node] & SERIES) != 0;
+  }
+
+  @Override
+  public boolean isAligned(int node) {
+    return (flags[node] & ALIGNED) != 0;
+  }
+
+  @Override
+  public String getDeviceId(int node) {
+    return deviceDictionary.decode(deviceIds[node]);
+  }
+
+  @Override
+  public String getMeasurementId(int node) {
+    return measurementDictionary.decode(measurementIds[node]);
+  }
+
+  @Override
+  public String getName(int node) {
+    return isNamedByDevice(node)
+        ? deviceDictionary.decode(names[node])
+        : measurementDictionary.decode(names[node]);
+  }
+
+  /** the entries of device nodes, the series are named by their measurement */
+  public boolean isNamedByDevice(int node) {
+    return !isSeries(node) && IMetadataIndex.isDeviceLevel(getNodeType(node));
+  }
+
+  @Override
+  public int compareName(int node, String key) {
+    return getName(node).compareTo(key);
+  }
+
+  /** @return -1 for the root */
+  @Override
+  public int getParent(int node) {
+    return parents[node];
+  }
+
+  /** @return -1 for a node without children */
+  @Override
+  public int getFirstChild(int node) {
+    return firstChildren[node];
+  }
+
+  @Override
+  public int getChildCount(int node) {
+    return childCounts[node];
+  }
+
+  @Override
+  public long getPosition(int node) {
+    return positions[node];
+  }
+
+  public void setPosition(int node, long position) {
+    positions[node] = position;
+  }
+
+  @Override
+  public int getTimeColumn(int series) {
+    return timeColumns[series];
+  }
+
+  /** link an aligned value column to the time column of its device */
+  public void setTimeColumn(int series, int timeColumn) {
+    timeColumns[series] = timeColumn;
+  }
+
+  /**
+   * @return end of the TimeseriesMetadata of the series, the next sibling or the end of the parent
+   */
+  @Override
+  public long getSeriesEnd(int series) {
+    int parent = parents[series];
+    return series + 1 < firstChildren[parent] + childCounts[parent]
+        ? positions[series + 1]
+        : positions[parent];
+  }
+
+  @Override
+  public TSDataType getDataType(int series) {
+    return TSDataType.deserialize(dataTypes[series]);
+  }
+
+  @Override
+  public long getStartTime(int series) {
+    return startTimes[series];
+  }
+
+  @Override
+  public long getEndTime(int series) {
+    return endTimes[series];
+  }
+
+  @Override
+  public long getCount(int series) {
+    return counts[series];
+  }
+
+  /**
+   * @return code of the entry name, in {@link #getDeviceDictionary()} if {@link
+   *     #isNamedByDevice(int)}, else in {@link #getMeasurementDictionary()}, -1 for the root
+   */
+  public int getNameCode(int node) {
+    return names[node];
+  }
+
+  /** @return code of the device id in {@link #getDeviceDictionary()}, -1 for none */
+  public int getDeviceCode(int node) {
+    return deviceIds[node];
+  }
+
+  /** @return code of the measurement id in {@link #getMeasurementDictionary()}, -1 for none */
+  public int getMeasurementCode(int node) {
+    return measurementIds[node];
+  }
+
+  public StringDictionary getDeviceDictionary() {
+    return deviceDictionary;
+  }
+
+  public StringDictionary getMeasurementDictionary() {
+    return measurementDictionary;
+  }
+}
@@ -0,0 +1,69 @@
+package org.apache.iotdb.tool.core.model;
+
+/** DownsampledSeries: points of a series after M4 downsampling, ordered by time */
+public class DownsampledSeries {
+
+  private String name;
+
+  private long[] times;
+
+  private double[] values;
+
+  /** points that were decoded to build this series */
+  private long decodedPointCount;
+
+  /** points that were answered by page or chunk statistics without decoding */
+  private long statisticsPointCount;
+
+  public DownsampledSeries() {}
+
+  public DownsampledSeries(String name, long[] times, double[] values) {
+    this.name = name;
+    this.times = times;
+    this.values = values;
+  }
+
+  public int size() {
+    return times == null ? 0 : times.length;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public void setTimes(long[] times) {
+    this.times = times;
+  }
+
+  public double[] getValues() {
+    return values;
+  }
+
+  public void setValues(double[] values) {
+    this.values = values;
+  }
+
+  public long getDecodedPointCount() {
+    return decodedPointCount;
+  }
+
+  public void setDecodedPointCount(long decodedPointCount) {
+    this.decodedPointCount = decodedPointCount;
+  }
+
+  public long getStatisticsPointCount() {
+    return statisticsPointCount;
+  }
+
+  public void setStatisticsPointCount(long statisticsPointCount) {
+    this.statisticsPointCount = statisticsPointCount;
+  }
+}
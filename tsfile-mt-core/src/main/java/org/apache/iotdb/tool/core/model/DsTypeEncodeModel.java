@@ -1,5 +1,6 @@
 package org.apache.iotdb.tool.core.model;
 
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 
@@ -16,6 +17,9 @@ public class DsTypeEncodeModel {
 
   private List<PublicBAOS> publicBAOS = new ArrayList<>();
 
+  /** one decoder per encoder, for the decode cost */
+  private List<Decoder> decoders = new ArrayList<>();
+
   public String getTypeName() {
     return typeName;
   }
@@ -40,6 +44,14 @@ public class DsTypeEncodeModel {
     this.encoders = encoders;
   }
 
+  public List<Decoder> getDecoders() {
+    return decoders;
+  }
+
+  public void setDecoders(List<Decoder> decoders) {
+    this.decoders = decoders;
+  }
+
   public List<PublicBAOS> getPublicBAOS() {
     return publicBAOS;
   }
@@ -17,6 +17,13 @@ public class EncodeCompressAnalysedModel {
 
   private long compressedCost;
 
+  /** encode, decompress and decode costs in ns, measured after warm-up */
+  private long encodeCost;
+
+  private long decompressCost;
+
+  private long decodeCost;
+
   private double score;
 
   public String getTypeName() {
@@ -83,6 +90,40 @@ public class EncodeCompressAnalysedModel {
     this.compressedCost = compressedCost;
   }
 
+  public long getEncodeCost() {
+    return encodeCost;
+  }
+
+  public void setEncodeCost(long encodeCost) {
+    this.encodeCost = encodeCost;
+  }
+
+  public long getDecompressCost() {
+    return decompressCost;
+  }
+
+  public void setDecompressCost(long decompressCost) {
+    this.decompressCost = decompressCost;
+  }
+
+  public long getDecodeCost() {
+    return decodeCost;
+  }
+
+  public void setDecodeCost(long decodeCost) {
+    this.decodeCost = decodeCost;
+  }
+
+  /** encode + compress */
+  public long getWriteCost() {
+    return encodeCost + compressedCost;
+  }
+
+  /** decompress + decode */
+  public long getReadCost() {
+    return decompressCost + decodeCost;
+  }
+
   public double getScore() {
     return score;
   }
@@ -102,6 +143,12 @@ public class EncodeCompressAnalysedModel {
         + score
         + " compressed cost : "
         + compressedCost
+        + " encode cost : "
+        + encodeCost
+        + " decompress cost : "
+        + decompressCost
+        + " decode cost : "
+        + decodeCost
         + " compressedSize : "
         + compressedSize
         + " uncompressedSize : "
@@ -0,0 +1,105 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/**
+ * Flat metadata index: nodes are ints in breadth-first order, node 0 is the root and the children
+ * of a node are the range [getFirstChild, getFirstChild + getChildCount). Series are leaves holding
+ * the offset and statistics summary of their TimeseriesMetadata, every column of an aligned device
+ * is one. The children of a node are sorted by name, as the entries of a MetadataIndexNode.
+ */
+public interface IMetadataIndex {
+  int size();
+
+  MetadataIndexNodeType getNodeType(int node);
+
+  boolean isSeries(int node);
+
+  boolean isAligned(int node);
+
+  String getDeviceId(int node);
+
+  String getMeasurementId(int node);
+
+  /**
+   * @return name of the index entry of the node: a device id for the entries of device nodes, a
+   *     measurement id for those of measurement nodes and for series, null for the root
+   */
+  String getName(int node);
+
+  /** compare the name of the node to the key, as {@link String#compareTo} */
+  int compareName(int node, String key);
+
+  int getParent(int node);
+
+  int getFirstChild(int node);
+
+  int getChildCount(int node);
+
+  long getPosition(int node);
+
+  long getSeriesEnd(int series);
+
+  /** @return the time column of an aligned value column, -1 for other series */
+  int getTimeColumn(int series);
+
+  TSDataType getDataType(int series);
+
+  long getStartTime(int series);
+
+  long getEndTime(int series);
+
+  long getCount(int series);
+
+  /**
+   * walk down from the root, binary searching the children of each node by name
+   *
+   * @param measurementId "" for the time column of an aligned device
+   * @return the series node, -1 if absent
+   */
+  default int findSeries(String deviceId, String measurementId) {
+    if (size() == 0) {
+      return -1;
+    }
+    int node = 0;
+    while (getChildCount(node) > 0) {
+      int first = getFirstChild(node);
+      int last = first + getChildCount(node) - 1;
+      if (isSeries(first)) {
+        int series = findChild(first, last, measurementId);
+        return series >= 0 && compareName(series, measurementId) == 0 ? series : -1;
+      }
+      MetadataIndexNodeType nodeType = getNodeType(first);
+      node = findChild(first, last, isDeviceLevel(nodeType) ? deviceId : measurementId);
+      if (node < 0
+          || (nodeType == MetadataIndexNodeType.LEAF_DEVICE && compareName(node, deviceId) != 0)) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /** @return the last node of [first, last] whose name is not greater than the key, -1 if none */
+  default int findChild(int first, int last, String key) {
+    int low = first;
+    int high = last;
+    int found = -1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (compareName(middle, key) <= 0) {
+        found = middle;
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return found;
+  }
+
+  /** entries of INTERNAL_DEVICE and LEAF_DEVICE nodes are named by devices */
+  static boolean isDeviceLevel(MetadataIndexNodeType nodeType) {
+    return nodeType == MetadataIndexNodeType.INTERNAL_DEVICE
+        || nodeType == MetadataIndexNodeType.LEAF_DEVICE;
+  }
+}
@@ -0,0 +1,86 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/** LastPoint: the latest point of a series in a file */
+public class LastPoint {
+
+  private String deviceId;
+
+  private String measurementId;
+
+  private TSDataType dataType;
+
+  private long timestamp;
+
+  /** Boolean, Integer, Long, Float, Double or Binary */
+  private Object value;
+
+  /** false if the point was decoded because the series has no statistics */
+  private boolean fromStatistics;
+
+  public LastPoint() {}
+
+  public LastPoint(
+      String deviceId,
+      String measurementId,
+      TSDataType dataType,
+      long timestamp,
+      Object value,
+      boolean fromStatistics) {
+    this.deviceId = deviceId;
+    this.measurementId = measurementId;
+    this.dataType = dataType;
+    this.timestamp = timestamp;
+    this.value = value;
+    this.fromStatistics = fromStatistics;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getMeasurementId() {
+    return measurementId;
+  }
+
+  public void setMeasurementId(String measurementId) {
+    this.measurementId = measurementId;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public void setDataType(TSDataType dataType) {
+    this.dataType = dataType;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  public void setValue(Object value) {
+    this.value = value;
+  }
+
+  public boolean isFromStatistics() {
+    return fromStatistics;
+  }
+
+  public void setFromStatistics(boolean fromStatistics) {
+    this.fromStatistics = fromStatistics;
+  }
+}
@@ -0,0 +1,410 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * MappedMetadataIndex: a {@link CompactMetadataIndex} written to a file and memory-mapped, so the
+ * index lives off-heap and costs the GC nothing.
+ *
+ * <p>Layout: a header, one fixed-width record per node, then a string table of device ids followed
+ * by measurement ids (offsets, then UTF-8 bytes), each part sorted as {@link String#compareTo}, so
+ * a code is found by binary search and codes compare as their strings. The accessors read the
+ * record fields in place, traversal and {@link #findSeries(String, String)} compare the names in
+ * the mapping and allocate nothing per node, only the string getters create Strings. The JDK cannot
+ * unmap a buffer explicitly, the mapping is released with the instance.
+ */
+public class MappedMetadataIndex implements IMetadataIndex, Closeable {
+
+  private static final int MAGIC = 0x54534D49;
+
+  /** magic, node count, device count, string count */
+  private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+  private static final int RECORD_SIZE = 64;
+
+  // field offsets in a record
+  private static final int NODE_TYPE = 0;
+  private static final int FLAGS = 1;
+  private static final int DATA_TYPE = 2;
+  private static final int DEVICE = 4;
+  private static final int MEASUREMENT = 8;
+  private static final int PARENT = 12;
+  private static final int FIRST_CHILD = 16;
+  private static final int CHILD_COUNT = 20;
+  private static final int POSITION = 24;
+  private static final int START_TIME = 32;
+  private static final int END_TIME = 40;
+  private static final int COUNT = 48;
+  private static final int NAME = 56;
+  private static final int TIME_COLUMN = 60;
+
+  private static final byte SERIES = 1;
+
+  private static final byte ALIGNED = 2;
+
+  private final File file;
+
+  private final MappedByteBuffer buffer;
+
+  private final int nodeCount;
+
+  /** measurement codes follow the device codes in the string table */
+  private final int deviceCount;
+
+  private final int stringCount;
+
+  private final int stringOffsetsStart;
+
+  private final int stringDataStart;
+
+  private MappedMetadataIndex(File file, MappedByteBuffer buffer) throws IOException {
+    this.file = file;
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IOException(file + " is not a mapped metadata index");
+    }
+    this.nodeCount = buffer.getInt(Integer.BYTES);
+    this.deviceCount = buffer.getInt(2 * Integer.BYTES);
+    this.stringCount = buffer.getInt(3 * Integer.BYTES);
+    this.stringOffsetsStart = HEADER_SIZE + nodeCount * RECORD_SIZE;
+    this.stringDataStart = stringOffsetsStart + (stringCount + 1) * Integer.BYTES;
+  }
+
+  /** write the index to the file and map it */
+  public static MappedMetadataIndex write(CompactMetadataIndex index, File file)
+      throws IOException {
+    StringDictionary devices = index.getDeviceDictionary();
+    StringDictionary measurements = index.getMeasurementDictionary();
+    int deviceCount = devices.size();
+    int stringCount = deviceCount + measurements.size();
+    // dictionary code -> code in the sorted string table
+    int[] deviceCodes = sortedCodes(devices, 0);
+    int[] measurementCodes = sortedCodes(measurements, deviceCount);
+    byte[][] strings = new byte[stringCount][];
+    long size =
+        HEADER_SIZE + (long) index.size() * RECORD_SIZE + (stringCount + 1L) * Integer.BYTES;
+    for (int i = 0; i < deviceCount; i++) {
+      strings[deviceCodes[i]] = devices.decode(i).getBytes(StandardCharsets.UTF_8);
+      size += strings[deviceCodes[i]].length;
+    }
+    for (int i = 0; i < measurements.size(); i++) {
+      strings[measurementCodes[i]] = measurements.decode(i).getBytes(StandardCharsets.UTF_8);
+      size += strings[measurementCodes[i]].length;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("metadata index of " + size + " bytes is too large to be mapped");
+    }
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(index.size());
+      out.writeInt(deviceCount);
+      out.writeInt(stringCount);
+      for (int node = 0; node < index.size(); node++) {
+        boolean series = index.isSeries(node);
+        out.writeByte(index.getNodeType(node).serialize());
+        out.writeByte(series ? (index.isAligned(node) ? SERIES | ALIGNED : SERIES) : 0);
+        out.writeByte(series ? index.getDataType(node).serialize() : 0);
+        out.writeByte(0);
+        out.writeInt(code(deviceCodes, index.getDeviceCode(node)));
+        out.writeInt(code(measurementCodes, index.getMeasurementCode(node)));
+        out.writeInt(index.getParent(node));
+        out.writeInt(index.getFirstChild(node));
+        out.writeInt(index.getChildCount(node));
+        out.writeLong(index.getPosition(node));
+        out.writeLong(index.getStartTime(node));
+        out.writeLong(index.getEndTime(node));
+        out.writeLong(index.getCount(node));
+        out.writeInt(
+            code(
+                index.isNamedByDevice(node) ? deviceCodes : measurementCodes,
+                index.getNameCode(node)));
+        out.writeInt(index.getTimeColumn(node));
+      }
+      int offset = 0;
+      for (byte[] string : strings) {
+        out.writeInt(offset);
+        offset += string.length;
+      }
+      out.writeInt(offset);
+      for (byte[] string : strings) {
+        out.write(string);
+      }
+    }
+    return open(file);
+  }
+
+  /** @return dictionary code -> code in the string table, the strings sorted from the first code */
+  private static int[] sortedCodes(StringDictionary dictionary, int firstCode) {
+    Integer[] order = new Integer[dictionary.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparing(dictionary::decode));
+    int[] codes = new int[order.length];
+    for (int i = 0; i < order.length; i++) {
+      codes[order[i]] = firstCode + i;
+    }
+    return codes;
+  }
+
+  private static int code(int[] codes, int dictionaryCode) {
+    return dictionaryCode < 0 ? -1 : codes[dictionaryCode];
+  }
+
+  public static MappedMetadataIndex open(File file) throws IOException {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        FileChannel channel = randomAccessFile.getChannel()) {
+      // the mapping stays valid after the channel is closed
+      return new MappedMetadataIndex(
+          file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  private int record(int node) {
+    if (node < 0 || node >= nodeCount) {
+      throw new IndexOutOfBoundsException("node:" + node + ", size:" + nodeCount);
+    }
+    return HEADER_SIZE + node * RECORD_SIZE;
+  }
+
+  @Override
+  public int size() {
+    return nodeCount;
+  }
+
+  @Override
+  public MetadataIndexNodeType getNodeType(int node) {
+    return MetadataIndexNodeType.deserialize(buffer.get(record(node) + NODE_TYPE));
+  }
+
+  @Override
+  public boolean isSeries(int node) {
+    return (buffer.get(record(node) + FLAGS) & SERIES) != 0;
+  }
+
+  @Override
+  public boolean isAligned(int node) {
+    return (buffer.get(record(node) + FLAGS) & ALIGNED) != 0;
+  }
+
+  @Override
+  public String getDeviceId(int node) {
+    return getString(getDeviceCode(node));
+  }
+
+  @Override
+  public String getMeasurementId(int node) {
+    return getString(getMeasurementCode(node));
+  }
+
+  @Override
+  public String getName(int node) {
+    return getString(getNameCode(node));
+  }
+
+  @Override
+  public int compareName(int node, String key) {
+    int code = getNameCode(node);
+    return code < 0 ? -1 : compareString(code, key);
+  }
+
+  /** @return code of the entry name in the string table, -1 for the root */
+  public int getNameCode(int node) {
+    return buffer.getInt(record(node) + NAME);
+  }
+
+  /** @return code in the string table, -1 for none */
+  public int getDeviceCode(int node) {
+    return buffer.getInt(record(node) + DEVICE);
+  }
+
+  /** @return code in the string table, -1 for none */
+  public int getMeasurementCode(int node) {
+    return buffer.getInt(record(node) + MEASUREMENT);
+  }
+
+  @Override
+  public int getParent(int node) {
+    return buffer.getInt(record(node) + PARENT);
+  }
+
+  @Override
+  public int getFirstChild(int node) {
+    return buffer.getInt(record(node) + FIRST_CHILD);
+  }
+
+  @Override
+  public int getChildCount(int node) {
+    return buffer.getInt(record(node) + CHILD_COUNT);
+  }
+
+  @Override
+  public long getPosition(int node) {
+    return buffer.getLong(record(node) + POSITION);
+  }
+
+  @Override
+  public long getSeriesEnd(int series) {
+    int parent = getParent(series);
+    return series + 1 < getFirstChild(parent) + getChildCount(parent)
+        ? getPosition(series + 1)
+        : getPosition(parent);
+  }
+
+  @Override
+  public int getTimeColumn(int series) {
+    return buffer.getInt(record(series) + TIME_COLUMN);
+  }
+
+  @Override
+  public TSDataType getDataType(int series) {
+    return TSDataType.deserialize(buffer.get(record(series) + DATA_TYPE));
+  }
+
+  @Override
+  public long getStartTime(int series) {
+    return buffer.getLong(record(series) + START_TIME);
+  }
+
+  @Override
+  public long getEndTime(int series) {
+    return buffer.getLong(record(series) + END_TIME);
+  }
+
+  @Override
+  public long getCount(int series) {
+    return buffer.getLong(record(series) + COUNT);
+  }
+
+  public String getString(int code) {
+    if (code < 0) {
+      return null;
+    }
+    int start = buffer.getInt(stringOffsetsStart + code * Integer.BYTES);
+    int end = buffer.getInt(stringOffsetsStart + (code + 1) * Integer.BYTES);
+    byte[] bytes = new byte[end - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(stringDataStart + start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** @return code of the device id in the string table, -1 if absent */
+  public int findDeviceCode(String deviceId) {
+    return findString(deviceId, 0, deviceCount);
+  }
+
+  /** @return code of the measurement id in the string table, -1 if absent */
+  public int findMeasurementCode(String measurementId) {
+    return findString(measurementId, deviceCount, stringCount);
+  }
+
+  /** binary search of the sorted part [fromCode, toCode) of the string table */
+  private int findString(String string, int fromCode, int toCode) {
+    int low = fromCode;
+    int high = toCode - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int compare = compareString(middle, string);
+      if (compare < 0) {
+        low = middle + 1;
+      } else if (compare > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * compare the string of the code to the key as {@link String#compareTo}: the UTF-8 bytes are
+   * decoded in place to UTF-16 chars
+   */
+  private int compareString(int code, String key) {
+    int position = stringDataStart + buffer.getInt(stringOffsetsStart + code * Integer.BYTES);
+    int end = stringDataStart + buffer.getInt(stringOffsetsStart + (code + 1) * Integer.BYTES);
+    int index = 0;
+    while (position < end) {
+      int b = buffer.get(position) & 0xFF;
+      int codePoint;
+      if (b < 0x80) {
+        codePoint = b;
+        position++;
+      } else if (b < 0xE0) {
+        codePoint = (b & 0x1F) << 6 | continuation(position + 1);
+        position += 2;
+      } else if (b < 0xF0) {
+        codePoint = (b & 0x0F) << 12 | continuation(position + 1) << 6 | continuation(position + 2);
+        position += 3;
+      } else {
+        codePoint =
+            (b & 0x07) << 18
+                | continuation(position + 1) << 12
+                | continuation(position + 2) << 6
+                | continuation(position + 3);
+        position += 4;
+      }
+      int compare;
+      if (Character.isBmpCodePoint(codePoint)) {
+        compare = compareChar((char) codePoint, key, index++);
+      } else {
+        compare = compareChar(Character.highSurrogate(codePoint), key, index++);
+        if (compare == 0) {
+          compare = compareChar(Character.lowSurrogate(codePoint), key, index++);
+        }
+      }
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return index == key.length() ? 0 : -1;
+  }
+
+  /** a string longer than the key is greater */
+  private static int compareChar(char c, String key, int index) {
+    return index == key.length() ? 1 : c - key.charAt(index);
+  }
+
+  private int continuation(int position) {
+    return buffer.get(position) & 0x3F;
+  }
+
+  /**
+   * the codes of the ids are binary searched first, an id missing from the file costs no walk
+   *
+   * @param measurementId "" for the time column of an aligned device
+   * @return the series node, -1 if absent
+   */
+  @Override
+  public int findSeries(String deviceId, String measurementId) {
+    if (findDeviceCode(deviceId) < 0 || findMeasurementCode(measurementId) < 0) {
+      return -1;
+    }
+    return IMetadataIndex.super.findSeries(deviceId, measurementId);
+  }
+
+  /** the mapping itself is released by the GC, the file is deleted now */
+  @Override
+  public void close() {
+    if (!file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+}
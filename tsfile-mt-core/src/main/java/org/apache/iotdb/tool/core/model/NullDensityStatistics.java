@@ -0,0 +1,90 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Arrays;
+
+/**
+ * NullDensityStatistics: the share of null rows in the pages of an aligned value column. Every
+ * value page carries a [size:int][bitmap] section before its values whatever its density, so a
+ * sparse column pays the bitmap for rows it does not store.
+ */
+public class NullDensityStatistics {
+
+  private long rowCount;
+
+  private long nullCount;
+
+  private long bitmapBytes;
+
+  private int pageCount;
+
+  private double[] pageNullDensities = new double[16];
+
+  /**
+   * the bitmap of a page
+   *
+   * @param bitmapBytes size of the [size:int][bitmap] section, 0 for an empty page
+   */
+  public void accept(int rows, int nulls, int bitmapBytes) {
+    if (pageCount == pageNullDensities.length) {
+      pageNullDensities = Arrays.copyOf(pageNullDensities, pageCount << 1);
+    }
+    pageNullDensities[pageCount++] = rows == 0 ? 1 : (double) nulls / rows;
+    rowCount += rows;
+    nullCount += nulls;
+    this.bitmapBytes += bitmapBytes;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public long getNullCount() {
+    return nullCount;
+  }
+
+  public long getBitmapBytes() {
+    return bitmapBytes;
+  }
+
+  public int getPageCount() {
+    return pageCount;
+  }
+
+  /** null rows / rows of every page in file order, 1 for an empty page */
+  public double[] getPageNullDensities() {
+    return Arrays.copyOf(pageNullDensities, pageCount);
+  }
+
+  public double getNullDensity() {
+    return rowCount == 0 ? 0 : (double) nullCount / rowCount;
+  }
+
+  public double getMinPageNullDensity() {
+    double min = pageCount == 0 ? 0 : 1;
+    for (int i = 0; i < pageCount; i++) {
+      min = Math.min(min, pageNullDensities[i]);
+    }
+    return min;
+  }
+
+  public double getMaxPageNullDensity() {
+    double max = 0;
+    for (int i = 0; i < pageCount; i++) {
+      max = Math.max(max, pageNullDensities[i]);
+    }
+    return max;
+  }
+
+  public String format() {
+    return String.format(
+        "rows: %d, nulls: %d (%.1f%%), pages: %d, page null density min/max: %.1f%%/%.1f%%, "
+            + "bitmap bytes: %d",
+        rowCount,
+        nullCount,
+        getNullDensity() * 100,
+        pageCount,
+        getMinPageNullDensity() * 100,
+        getMaxPageNullDensity() * 100,
+        bitmapBytes);
+  }
+}
@@ -0,0 +1,91 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Comparator;
+import java.util.List;
+
+/** OverlapReport: per-series chunk time-range overlap across sources (files or chunk groups) */
+public class OverlapReport {
+
+  /** max intervals printed per series */
+  private static final int MAX_PRINTED_INTERVALS = 5;
+
+  private final List<String> sourceNames;
+
+  private final boolean[] unseqSources;
+
+  private final List<SeriesOverlapModel> seriesOverlapList;
+
+  public OverlapReport(
+      List<String> sourceNames,
+      boolean[] unseqSources,
+      List<SeriesOverlapModel> seriesOverlapList) {
+    this.sourceNames = sourceNames;
+    this.unseqSources = unseqSources;
+    this.seriesOverlapList = seriesOverlapList;
+    // the series costing the most extra pages first
+    this.seriesOverlapList.sort(
+        Comparator.comparingLong(SeriesOverlapModel::getEstimatedExtraPages).reversed());
+  }
+
+  public long getEstimatedExtraPages() {
+    return seriesOverlapList.stream().mapToLong(SeriesOverlapModel::getEstimatedExtraPages).sum();
+  }
+
+  public long getOverlappedSeriesCount() {
+    return seriesOverlapList.stream().filter(SeriesOverlapModel::isOverlapped).count();
+  }
+
+  public List<String> getSourceNames() {
+    return sourceNames;
+  }
+
+  public boolean[] getUnseqSources() {
+    return unseqSources;
+  }
+
+  public List<SeriesOverlapModel> getSeriesOverlapList() {
+    return seriesOverlapList;
+  }
+
+  /** plain text report, shared by the UI and the command line */
+  public String format() {
+    int unseqCount = 0;
+    if (unseqSources != null) {
+      for (boolean unseq : unseqSources) {
+        unseqCount += unseq ? 1 : 0;
+      }
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "sources:%d (unseq:%d), series:%d, overlapped series:%d, extra pages~%d%n",
+            sourceNames.size(),
+            unseqCount,
+            seriesOverlapList.size(),
+            getOverlappedSeriesCount(),
+            getEstimatedExtraPages()));
+    for (SeriesOverlapModel model : seriesOverlapList) {
+      if (!model.isOverlapped()) {
+        continue;
+      }
+      sb.append(model).append('\n');
+      List<long[]> intervals = model.getOverlapIntervals();
+      for (int i = 0; i < Math.min(MAX_PRINTED_INTERVALS, intervals.size()); i++) {
+        sb.append("    [")
+            .append(intervals.get(i)[0])
+            .append(", ")
+            .append(intervals.get(i)[1])
+            .append("]\n");
+      }
+      if (intervals.size() > MAX_PRINTED_INTERVALS) {
+        sb.append("    ... ").append(intervals.size() - MAX_PRINTED_INTERVALS).append(" more\n");
+      }
+      sb.append("    sources:");
+      for (int source : model.getOverlappedSources()) {
+        sb.append(' ').append(sourceNames.get(source));
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,79 @@
+package org.apache.iotdb.tool.core.model;
+
+/** PointLookupResult: the page that can contain a timestamp and the row of the timestamp in it */
+public class PointLookupResult {
+
+  private String deviceId;
+
+  private String measurementId;
+
+  private long timestamp;
+
+  /** null if no page of the series covers the timestamp */
+  private IPageInfo pageInfo;
+
+  /** row of the timestamp in the decoded page, -1 if the page has no point at the timestamp */
+  private int row = -1;
+
+  private Object value;
+
+  public PointLookupResult() {}
+
+  public PointLookupResult(String deviceId, String measurementId, long timestamp) {
+    this.deviceId = deviceId;
+    this.measurementId = measurementId;
+    this.timestamp = timestamp;
+  }
+
+  public boolean isFound() {
+    return row >= 0;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getMeasurementId() {
+    return measurementId;
+  }
+
+  public void setMeasurementId(String measurementId) {
+    this.measurementId = measurementId;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public IPageInfo getPageInfo() {
+    return pageInfo;
+  }
+
+  public void setPageInfo(IPageInfo pageInfo) {
+    this.pageInfo = pageInfo;
+  }
+
+  public int getRow() {
+    return row;
+  }
+
+  public void setRow(int row) {
+    this.row = row;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  public void setValue(Object value) {
+    this.value = value;
+  }
+}
@@ -0,0 +1,151 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * PrimitiveColumn: values of one column of a page, stored in a typed primitive array indexed by
+ * row. Rows absent from the bitmap of an aligned value page are marked null.
+ */
+public class PrimitiveColumn {
+
+  private static final int MASK = 0x80;
+
+  private final TSDataType dataType;
+
+  private final int size;
+
+  /** same layout as the bitmap of a value page (MSB first), null means no null rows */
+  private byte[] bitmap;
+
+  private boolean[] booleanValues;
+
+  private int[] intValues;
+
+  private long[] longValues;
+
+  private float[] floatValues;
+
+  private double[] doubleValues;
+
+  private Binary[] binaryValues;
+
+  public PrimitiveColumn(TSDataType dataType, int size) {
+    this.dataType = dataType;
+    this.size = size;
+    switch (dataType) {
+      case BOOLEAN:
+        booleanValues = new boolean[size];
+        break;
+      case INT32:
+        intValues = new int[size];
+        break;
+      case INT64:
+        longValues = new long[size];
+        break;
+      case FLOAT:
+        floatValues = new float[size];
+        break;
+      case DOUBLE:
+        doubleValues = new double[size];
+        break;
+      case TEXT:
+        binaryValues = new Binary[size];
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  public boolean isNull(int row) {
+    return bitmap != null && ((bitmap[row >>> 3] & 0xFF) & (MASK >>> (row & 7))) == 0;
+  }
+
+  /** numeric view of a row, only for INT32, INT64, FLOAT, DOUBLE and BOOLEAN columns */
+  public double getDouble(int row) {
+    switch (dataType) {
+      case BOOLEAN:
+        return booleanValues[row] ? 1 : 0;
+      case INT32:
+        return intValues[row];
+      case INT64:
+        return longValues[row];
+      case FLOAT:
+        return floatValues[row];
+      case DOUBLE:
+        return doubleValues[row];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  public Object getObject(int row) {
+    if (isNull(row)) {
+      return null;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        return booleanValues[row];
+      case INT32:
+        return intValues[row];
+      case INT64:
+        return longValues[row];
+      case FLOAT:
+        return floatValues[row];
+      case DOUBLE:
+        return doubleValues[row];
+      case TEXT:
+        return binaryValues[row];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  public static boolean isNumeric(TSDataType dataType) {
+    return dataType == TSDataType.INT32
+        || dataType == TSDataType.INT64
+        || dataType == TSDataType.FLOAT
+        || dataType == TSDataType.DOUBLE;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public byte[] getBitmap() {
+    return bitmap;
+  }
+
+  public void setBitmap(byte[] bitmap) {
+    this.bitmap = bitmap;
+  }
+
+  public boolean[] getBooleanValues() {
+    return booleanValues;
+  }
+
+  public int[] getIntValues() {
+    return intValues;
+  }
+
+  public long[] getLongValues() {
+    return longValues;
+  }
+
+  public float[] getFloatValues() {
+    return floatValues;
+  }
+
+  public double[] getDoubleValues() {
+    return doubleValues;
+  }
+
+  public Binary[] getBinaryValues() {
+    return binaryValues;
+  }
+}
@@ -0,0 +1,43 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PrimitivePageData: the decoded content of a page (or of an aligned time page and its value
+ * pages), kept as primitive arrays instead of BatchData / TsPrimitiveType objects.
+ */
+public class PrimitivePageData {
+
+  private long[] times;
+
+  /** one column for a non-aligned page, one column per value page for an aligned page */
+  private List<PrimitiveColumn> valueColumns = new ArrayList<>();
+
+  public PrimitivePageData() {}
+
+  public PrimitivePageData(long[] times, List<PrimitiveColumn> valueColumns) {
+    this.times = times;
+    this.valueColumns = valueColumns;
+  }
+
+  public int size() {
+    return times == null ? 0 : times.length;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public void setTimes(long[] times) {
+    this.times = times;
+  }
+
+  public List<PrimitiveColumn> getValueColumns() {
+    return valueColumns;
+  }
+
+  public void setValueColumns(List<PrimitiveColumn> valueColumns) {
+    this.valueColumns = valueColumns;
+  }
+}
@@ -0,0 +1,166 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** SeriesOverlapModel: how the chunks of one series overlap in time */
+public class SeriesOverlapModel {
+
+  private String series;
+
+  private int chunkCount;
+
+  /** chunks whose time range intersects at least one other chunk */
+  private int overlappedChunkCount;
+
+  /** overlapped chunks coming from unsequence sources */
+  private int unseqOverlappedChunkCount;
+
+  /** max number of chunks covering the same timestamp */
+  private int maxDepth;
+
+  /** maximal [start, end] intervals covered by at least two chunks */
+  private List<long[]> overlapIntervals = new ArrayList<>();
+
+  private long overlappedDuration;
+
+  private long seriesDuration;
+
+  /** pages of the overlapped chunks, which a query has to decode and merge */
+  private long estimatedExtraPages;
+
+  private long pointCount;
+
+  /** points of the overlapped chunks */
+  private long overlappedPointCount;
+
+  /** sources (files, chunk groups) holding overlapped chunks */
+  private List<Integer> overlappedSources = new ArrayList<>();
+
+  public SeriesOverlapModel() {}
+
+  public SeriesOverlapModel(String series) {
+    this.series = series;
+  }
+
+  public boolean isOverlapped() {
+    return overlappedChunkCount > 0;
+  }
+
+  public String getSeries() {
+    return series;
+  }
+
+  public void setSeries(String series) {
+    this.series = series;
+  }
+
+  public int getChunkCount() {
+    return chunkCount;
+  }
+
+  public void setChunkCount(int chunkCount) {
+    this.chunkCount = chunkCount;
+  }
+
+  public int getOverlappedChunkCount() {
+    return overlappedChunkCount;
+  }
+
+  public void setOverlappedChunkCount(int overlappedChunkCount) {
+    this.overlappedChunkCount = overlappedChunkCount;
+  }
+
+  public int getUnseqOverlappedChunkCount() {
+    return unseqOverlappedChunkCount;
+  }
+
+  public void setUnseqOverlappedChunkCount(int unseqOverlappedChunkCount) {
+    this.unseqOverlappedChunkCount = unseqOverlappedChunkCount;
+  }
+
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  public void setMaxDepth(int maxDepth) {
+    this.maxDepth = maxDepth;
+  }
+
+  public List<long[]> getOverlapIntervals() {
+    return overlapIntervals;
+  }
+
+  public void setOverlapIntervals(List<long[]> overlapIntervals) {
+    this.overlapIntervals = overlapIntervals;
+  }
+
+  public long getOverlappedDuration() {
+    return overlappedDuration;
+  }
+
+  public void setOverlappedDuration(long overlappedDuration) {
+    this.overlappedDuration = overlappedDuration;
+  }
+
+  public long getSeriesDuration() {
+    return seriesDuration;
+  }
+
+  public void setSeriesDuration(long seriesDuration) {
+    this.seriesDuration = seriesDuration;
+  }
+
+  public long getEstimatedExtraPages() {
+    return estimatedExtraPages;
+  }
+
+  public void setEstimatedExtraPages(long estimatedExtraPages) {
+    this.estimatedExtraPages = estimatedExtraPages;
+  }
+
+  public long getPointCount() {
+    return pointCount;
+  }
+
+  public void setPointCount(long pointCount) {
+    this.pointCount = pointCount;
+  }
+
+  public long getOverlappedPointCount() {
+    return overlappedPointCount;
+  }
+
+  public void setOverlappedPointCount(long overlappedPointCount) {
+    this.overlappedPointCount = overlappedPointCount;
+  }
+
+  public List<Integer> getOverlappedSources() {
+    return overlappedSources;
+  }
+
+  public void setOverlappedSources(List<Integer> overlappedSources) {
+    this.overlappedSources = overlappedSources;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(series)
+        .append(": chunks:")
+        .append(overlappedChunkCount)
+        .append('/')
+        .append(chunkCount)
+        .append(" overlapped (unseq:")
+        .append(unseqOverlappedChunkCount)
+        .append("), maxDepth:")
+        .append(maxDepth)
+        .append(", extraPages~")
+        .append(estimatedExtraPages)
+        .append(
+            String.format(
+                ", overlapped time:%.1f%%",
+                seriesDuration == 0 ? 0 : overlappedDuration * 100.0 / seriesDuration));
+    return sb.toString();
+  }
+}
@@ -0,0 +1,146 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SeriesTimeIndex: sorted start and end times of the chunks of a non-aligned series and, loaded
+ * per chunk on demand, of their pages, so the pages that can contain a timestamp are found by
+ * binary searches instead of reading the series. Unsequence chunks and pages may overlap: the
+ * candidates are walked from the latest start time down, see {@link #find(long[], long[], long,
+ * int)}.
+ */
+public class SeriesTimeIndex {
+
+  private final List<ChunkMetadata> chunks;
+
+  private final long[] chunkStartTimes;
+
+  private final long[] chunkEndTimes;
+
+  /** pages of every chunk sorted by start time, null until loaded */
+  private final List<List<IPageInfo>> chunkPages;
+
+  private final long[][] pageStartTimes;
+
+  private final long[][] pageEndTimes;
+
+  public SeriesTimeIndex(List<ChunkMetadata> chunkMetadataList) {
+    chunks = new ArrayList<>(chunkMetadataList);
+    chunks.sort(Comparator.comparingLong(ChunkMetadata::getStartTime));
+    int size = chunks.size();
+    chunkStartTimes = new long[size];
+    chunkEndTimes = new long[size];
+    for (int i = 0; i < size; i++) {
+      chunkStartTimes[i] = chunks.get(i).getStartTime();
+      chunkEndTimes[i] = chunks.get(i).getEndTime();
+    }
+    chunkPages = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      chunkPages.add(null);
+    }
+    pageStartTimes = new long[size][];
+    pageEndTimes = new long[size][];
+  }
+
+  /**
+   * @param startTimes sorted ascending
+   * @return the last range [startTimes[i], endTimes[i]] containing the time, -1 if none. Ranges of
+   *     unsequence data may overlap, the later ones are checked first.
+   */
+  public static int find(long[] startTimes, long[] endTimes, long time) {
+    return find(startTimes, endTimes, time, startTimes.length);
+  }
+
+  /**
+   * the next candidate of a reverse walk over overlapping ranges: call with startTimes.length, then
+   * with the previous result, until -1
+   *
+   * @return the last range before {@code before} containing the time, -1 if none
+   */
+  public static int find(long[] startTimes, long[] endTimes, long time, int before) {
+    int low = 0;
+    int high = Math.min(before, startTimes.length) - 1;
+    // last index whose start time is not greater than the time
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (startTimes[middle] <= time) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    for (int i = high; i >= 0; i--) {
+      if (endTimes[i] >= time) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public int chunkCount() {
+    return chunks.size();
+  }
+
+  public ChunkMetadata getChunk(int chunk) {
+    return chunks.get(chunk);
+  }
+
+  /** @return the last chunk before {@code before} that can contain the time, -1 if none */
+  public int findChunk(long time, int before) {
+    return find(chunkStartTimes, chunkEndTimes, time, before);
+  }
+
+  public synchronized boolean isPagesLoaded(int chunk) {
+    return chunkPages.get(chunk) != null;
+  }
+
+  /** the only page of a chunk has no statistics of its own, the range of the chunk is used */
+  public synchronized void setPages(int chunk, List<IPageInfo> pageInfoList) {
+    List<IPageInfo> pages = new ArrayList<>(pageInfoList.size());
+    for (IPageInfo pageInfo : pageInfoList) {
+      if (pageInfo.getUncompressedSize() > 0) {
+        pages.add(pageInfo);
+      }
+    }
+    ChunkMetadata chunkMetadata = chunks.get(chunk);
+    pages.sort(Comparator.comparingLong(pageInfo -> startTime(pageInfo, chunkMetadata)));
+    long[] startTimes = new long[pages.size()];
+    long[] endTimes = new long[pages.size()];
+    for (int i = 0; i < pages.size(); i++) {
+      Statistics<? extends Serializable> statistics = pages.get(i).getStatistics();
+      startTimes[i] = startTime(pages.get(i), chunkMetadata);
+      endTimes[i] = statistics != null ? statistics.getEndTime() : chunkMetadata.getEndTime();
+    }
+    chunkPages.set(chunk, pages);
+    pageStartTimes[chunk] = startTimes;
+    pageEndTimes[chunk] = endTimes;
+  }
+
+  private static long startTime(IPageInfo pageInfo, ChunkMetadata chunkMetadata) {
+    return pageInfo.getStatistics() != null
+        ? pageInfo.getStatistics().getStartTime()
+        : chunkMetadata.getStartTime();
+  }
+
+  public synchronized int pageCount(int chunk) {
+    return chunkPages.get(chunk).size();
+  }
+
+  public synchronized IPageInfo getPage(int chunk, int page) {
+    return chunkPages.get(chunk).get(page);
+  }
+
+  /**
+   * @return the last page of the loaded chunk before {@code before} that can contain the time, -1
+   *     if none
+   */
+  public synchronized int findPage(int chunk, long time, int before) {
+    return find(pageStartTimes[chunk], pageEndTimes[chunk], time, before);
+  }
+}
@@ -0,0 +1,102 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SizeDistributionReport: page and chunk size histograms of a tsfile, for the whole file, per
+ * device and per data type, plus the series whose small pages or chunks inflate metadata and seek
+ * cost
+ */
+public class SizeDistributionReport {
+
+  public static final String POINTS_PER_PAGE = "points/page";
+
+  public static final String BYTES_PER_PAGE = "bytes/page";
+
+  public static final String PAGES_PER_CHUNK = "pages/chunk";
+
+  public static final String CHUNKS_PER_SERIES = "chunks/series";
+
+  public static final String BYTES_PER_CHUNK_GROUP = "bytes/chunkGroup";
+
+  /** histogram name -> histogram */
+  private final Map<String, SizeHistogram> fileHistograms = new LinkedHashMap<>();
+
+  /** device -> histogram name -> histogram */
+  private final Map<String, Map<String, SizeHistogram>> deviceHistograms = new TreeMap<>();
+
+  /** data type -> histogram name -> histogram */
+  private final Map<String, Map<String, SizeHistogram>> dataTypeHistograms = new TreeMap<>();
+
+  private final List<String> flaggedSeries = new ArrayList<>();
+
+  /** add the value to the histogram of the whole file, of the device and of the data type */
+  public void add(String histogramName, String deviceId, String dataType, long value) {
+    histogram(fileHistograms, histogramName).add(value);
+    if (deviceId != null) {
+      histogram(
+              deviceHistograms.computeIfAbsent(deviceId, k -> new LinkedHashMap<>()),
+              histogramName)
+          .add(value);
+    }
+    if (dataType != null) {
+      histogram(
+              dataTypeHistograms.computeIfAbsent(dataType, k -> new LinkedHashMap<>()),
+              histogramName)
+          .add(value);
+    }
+  }
+
+  private static SizeHistogram histogram(Map<String, SizeHistogram> scope, String histogramName) {
+    return scope.computeIfAbsent(histogramName, k -> new SizeHistogram());
+  }
+
+  public void flag(String series, String reason) {
+    flaggedSeries.add(series + ": " + reason);
+  }
+
+  public SizeHistogram getHistogram(String histogramName) {
+    return fileHistograms.get(histogramName);
+  }
+
+  public Map<String, Map<String, SizeHistogram>> getDeviceHistograms() {
+    return deviceHistograms;
+  }
+
+  public Map<String, Map<String, SizeHistogram>> getDataTypeHistograms() {
+    return dataTypeHistograms;
+  }
+
+  public List<String> getFlaggedSeries() {
+    return flaggedSeries;
+  }
+
+  /** plain text report, shared by the UI and the command line */
+  public String format() {
+    StringBuilder sb = new StringBuilder();
+    appendScope(sb, "== file", fileHistograms);
+    for (Map.Entry<String, Map<String, SizeHistogram>> entry : dataTypeHistograms.entrySet()) {
+      appendScope(sb, "== dataType " + entry.getKey(), entry.getValue());
+    }
+    for (Map.Entry<String, Map<String, SizeHistogram>> entry : deviceHistograms.entrySet()) {
+      appendScope(sb, "== device " + entry.getKey(), entry.getValue());
+    }
+    sb.append("== flagged series (").append(flaggedSeries.size()).append(")\n");
+    for (String flagged : flaggedSeries) {
+      sb.append("  ").append(flagged).append('\n');
+    }
+    return sb.toString();
+  }
+
+  private static void appendScope(
+      StringBuilder sb, String title, Map<String, SizeHistogram> scope) {
+    sb.append(title).append('\n');
+    for (Map.Entry<String, SizeHistogram> entry : scope.entrySet()) {
+      sb.append("  ").append(entry.getKey()).append(' ').append(entry.getValue().format("    "));
+    }
+  }
+}
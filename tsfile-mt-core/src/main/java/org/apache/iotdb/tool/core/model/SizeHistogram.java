@@ -0,0 +1,75 @@
+package org.apache.iotdb.tool.core.model;
+
+/** SizeHistogram: histogram with power-of-two buckets, bucket k holds values in [2^k, 2^(k+1)) */
+public class SizeHistogram {
+
+  private final long[] buckets = new long[Long.SIZE];
+
+  private long count;
+
+  private long sum;
+
+  private long min = Long.MAX_VALUE;
+
+  private long max = Long.MIN_VALUE;
+
+  public void add(long value) {
+    buckets[bucketOf(value)]++;
+    count++;
+    sum += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /** values <= 1 all fall into bucket 0 */
+  public static int bucketOf(long value) {
+    return value <= 1 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+  }
+
+  public long getBucket(int bucket) {
+    return buckets[bucket];
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getMin() {
+    return count == 0 ? 0 : min;
+  }
+
+  public long getMax() {
+    return count == 0 ? 0 : max;
+  }
+
+  public double getAverage() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /** one line summary followed by one line per non-empty bucket */
+  public String format(String indent) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "count:%d min:%d avg:%.1f max:%d%n", count, getMin(), getAverage(), getMax()));
+    for (int bucket = 0; bucket < buckets.length; bucket++) {
+      if (buckets[bucket] == 0) {
+        continue;
+      }
+      int width = (int) Math.max(1, buckets[bucket] * 40 / count);
+      sb.append(
+          String.format(
+              "%s[%d, %d) %8d %s%n",
+              indent,
+              bucket == 0 ? 0 : 1L << bucket,
+              bucket == Long.SIZE - 2 ? Long.MAX_VALUE : 1L << (bucket + 1),
+              buckets[bucket],
+              new String(new char[width]).replace('\0', '#')));
+    }
+    return sb.toString();
+  }
+}
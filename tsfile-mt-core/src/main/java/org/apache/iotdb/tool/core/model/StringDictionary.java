@@ -0,0 +1,46 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StringDictionary: dictionary encoding of device and measurement ids, every distinct string is
+ * kept once and referenced by its int code
+ */
+public class StringDictionary {
+
+  private final Map<String, Integer> codes = new HashMap<>();
+
+  private final List<String> strings = new ArrayList<>();
+
+  /** @return code of the string, -1 for null */
+  public synchronized int encode(String string) {
+    if (string == null) {
+      return -1;
+    }
+    Integer code = codes.get(string);
+    if (code == null) {
+      code = strings.size();
+      codes.put(string, code);
+      strings.add(string);
+    }
+    return code;
+  }
+
+  /** @return the string, null for -1 */
+  public synchronized String decode(int code) {
+    return code < 0 ? null : strings.get(code);
+  }
+
+  /** @return code of the string, -1 if it has never been encoded */
+  public synchronized int find(String string) {
+    Integer code = string == null ? null : codes.get(string);
+    return code == null ? -1 : code;
+  }
+
+  public synchronized int size() {
+    return strings.size();
+  }
+}
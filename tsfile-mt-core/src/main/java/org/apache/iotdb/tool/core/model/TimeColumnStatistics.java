@@ -0,0 +1,118 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TimeColumnStatistics: the regularity of the deltas between consecutive timestamps of a time
+ * column, page by page. A regular column (one dominant delta, low jitter) suits TS_2DIFF, an
+ * irregular one may encode smaller with another time encoding.
+ */
+public class TimeColumnStatistics {
+
+  /** distinct deltas counted for the mode, the others are only in the moments */
+  private static final int MAX_TRACKED_DELTAS = 1 << 16;
+
+  private long pointCount;
+
+  private long pageCount;
+
+  private long deltaCount;
+
+  private long minDelta = Long.MAX_VALUE;
+
+  private long maxDelta = Long.MIN_VALUE;
+
+  private double deltaSum;
+
+  private double deltaSquareSum;
+
+  private final Map<Long, Long> deltaCounts = new HashMap<>();
+
+  /** the times of a page, deltas are taken inside the page as the time encoders restart there */
+  public void accept(long[] times) {
+    pointCount += times.length;
+    pageCount++;
+    for (int i = 1; i < times.length; i++) {
+      long delta = times[i] - times[i - 1];
+      deltaCount++;
+      minDelta = Math.min(minDelta, delta);
+      maxDelta = Math.max(maxDelta, delta);
+      deltaSum += delta;
+      deltaSquareSum += (double) delta * delta;
+      if (deltaCounts.size() < MAX_TRACKED_DELTAS || deltaCounts.containsKey(delta)) {
+        deltaCounts.merge(delta, 1L, Long::sum);
+      }
+    }
+  }
+
+  public long getPointCount() {
+    return pointCount;
+  }
+
+  public long getPageCount() {
+    return pageCount;
+  }
+
+  public long getDeltaCount() {
+    return deltaCount;
+  }
+
+  public long getMinDelta() {
+    return deltaCount == 0 ? 0 : minDelta;
+  }
+
+  public long getMaxDelta() {
+    return deltaCount == 0 ? 0 : maxDelta;
+  }
+
+  public double getMeanDelta() {
+    return deltaCount == 0 ? 0 : deltaSum / deltaCount;
+  }
+
+  public double getDeltaStandardDeviation() {
+    if (deltaCount == 0) {
+      return 0;
+    }
+    double mean = getMeanDelta();
+    return Math.sqrt(Math.max(0, deltaSquareSum / deltaCount - mean * mean));
+  }
+
+  /** the most frequent delta, the sampling interval of a regular column */
+  public long getModeDelta() {
+    long modeDelta = 0;
+    long modeCount = 0;
+    for (Map.Entry<Long, Long> entry : deltaCounts.entrySet()) {
+      if (entry.getValue() > modeCount) {
+        modeDelta = entry.getKey();
+        modeCount = entry.getValue();
+      }
+    }
+    return modeDelta;
+  }
+
+  /** share of the deltas equal to the mode delta, 1 for a perfectly regular column */
+  public double getRegularity() {
+    return deltaCount == 0 ? 1 : (double) deltaCounts.getOrDefault(getModeDelta(), 0L) / deltaCount;
+  }
+
+  /** coefficient of variation of the deltas, 0 for a perfectly regular column */
+  public double getJitter() {
+    double mean = getMeanDelta();
+    return mean == 0 ? 0 : getDeltaStandardDeviation() / mean;
+  }
+
+  public String format() {
+    return String.format(
+        "points: %d, pages: %d, delta min/mode/mean/max: %d/%d/%.1f/%d, regularity: %.1f%%, "
+            + "jitter: %.3f",
+        pointCount,
+        pageCount,
+        getMinDelta(),
+        getModeDelta(),
+        getMeanDelta(),
+        getMaxDelta(),
+        getRegularity() * 100,
+        getJitter());
+  }
+}
@@ -0,0 +1,57 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Arrays;
+
+/**
+ * TimeRangeList: time ranges [startTime, endTime] of the chunks of one series with their point
+ * count and the source they come from (file index, chunk group index ...)
+ */
+public class TimeRangeList {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private long[] startTimes = new long[INITIAL_CAPACITY];
+
+  private long[] endTimes = new long[INITIAL_CAPACITY];
+
+  private long[] counts = new long[INITIAL_CAPACITY];
+
+  private int[] sources = new int[INITIAL_CAPACITY];
+
+  private int size;
+
+  public synchronized void add(long startTime, long endTime, long count, int source) {
+    if (size == startTimes.length) {
+      int capacity = size << 1;
+      startTimes = Arrays.copyOf(startTimes, capacity);
+      endTimes = Arrays.copyOf(endTimes, capacity);
+      counts = Arrays.copyOf(counts, capacity);
+      sources = Arrays.copyOf(sources, capacity);
+    }
+    startTimes[size] = startTime;
+    endTimes[size] = endTime;
+    counts[size] = count;
+    sources[size] = source;
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getStartTime(int index) {
+    return startTimes[index];
+  }
+
+  public long getEndTime(int index) {
+    return endTimes[index];
+  }
+
+  public long getCount(int index) {
+    return counts[index];
+  }
+
+  public int getSource(int index) {
+    return sources[index];
+  }
+}
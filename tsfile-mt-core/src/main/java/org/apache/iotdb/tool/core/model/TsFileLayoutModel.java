@@ -0,0 +1,150 @@
+package org.apache.iotdb.tool.core.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TsFileLayoutModel: byte-offset layout of the data section, chunk by chunk in file order, used to
+ * render the layout heatmap
+ */
+public class TsFileLayoutModel {
+
+  /** what a heatmap cell is coloured by */
+  public enum LayoutMetric {
+    /** compressed size / uncompressed size, weighted by page bytes */
+    COMPRESSION_RATIO,
+    /** points per page, weighted by page bytes */
+    POINT_COUNT,
+    /** ordinal of the encoding covering most bytes of the cell */
+    ENCODING
+  }
+
+  private final long fileSize;
+
+  private final List<ChunkLayoutInfo> chunkLayoutList;
+
+  private final long[] chunkOffsets;
+
+  public TsFileLayoutModel(long fileSize, List<ChunkLayoutInfo> chunkLayoutList) {
+    this.fileSize = fileSize;
+    this.chunkLayoutList = chunkLayoutList;
+    this.chunkOffsets = new long[chunkLayoutList.size()];
+    for (int i = 0; i < chunkOffsets.length; i++) {
+      chunkOffsets[i] = chunkLayoutList.get(i).getOffset();
+    }
+  }
+
+  /** chunk containing the position, or null if the position is outside every chunk */
+  public ChunkLayoutInfo findChunk(long position) {
+    int index = Arrays.binarySearch(chunkOffsets, position);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    if (index < 0 || position >= chunkLayoutList.get(index).getEnd()) {
+      return null;
+    }
+    return chunkLayoutList.get(index);
+  }
+
+  /** human readable description of what is stored at the position */
+  public String describe(long position) {
+    ChunkLayoutInfo chunk = findChunk(position);
+    if (chunk == null) {
+      return "offset " + position + ": not in a chunk (file header, chunk group header or index)";
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append("offset ")
+        .append(position)
+        .append(": ")
+        .append(chunk.getDeviceId())
+        .append('.')
+        .append(chunk.getMeasurementId())
+        .append(", chunk@")
+        .append(chunk.getOffset())
+        .append(' ')
+        .append(chunk.getEncodingType())
+        .append('/')
+        .append(chunk.getCompressionType());
+    int page = chunk.findPage(position);
+    if (page < 0) {
+      return sb.append(", chunk header").toString();
+    }
+    return sb.append(", page ")
+        .append(page + 1)
+        .append('/')
+        .append(chunk.getPageCount())
+        .append(", size:")
+        .append(chunk.getPageSize(page))
+        .append(", points:")
+        .append(chunk.getPagePointCount(page))
+        .append(String.format(", ratio:%.3f", chunk.getPageCompressionRatio(page)))
+        .toString();
+  }
+
+  /**
+   * aggregate the pages into equally sized byte ranges of the file
+   *
+   * @param cellCount number of cells covering the whole file
+   * @return value of each cell, NaN for cells not covered by any page
+   */
+  public double[] rasterize(int cellCount, LayoutMetric metric) {
+    double bytesPerCell = Math.max(1.0, (double) fileSize / cellCount);
+    double[] weights = new double[cellCount];
+    double[] values = new double[cellCount];
+    for (ChunkLayoutInfo chunk : chunkLayoutList) {
+      for (int page = 0; page < chunk.getPageCount(); page++) {
+        double value;
+        switch (metric) {
+          case COMPRESSION_RATIO:
+            value = chunk.getPageCompressionRatio(page);
+            break;
+          case POINT_COUNT:
+            value = chunk.getPagePointCount(page);
+            if (value < 0) {
+              continue;
+            }
+            break;
+          default:
+            value = chunk.getEncodingType().ordinal();
+        }
+        long start = chunk.getPageOffset(page);
+        long end = start + chunk.getPageSize(page);
+        int firstCell = (int) Math.min(cellCount - 1, start / bytesPerCell);
+        int lastCell = (int) Math.min(cellCount - 1, (end - 1) / bytesPerCell);
+        for (int cell = firstCell; cell <= lastCell; cell++) {
+          double overlap =
+              Math.min(end, (cell + 1) * bytesPerCell) - Math.max(start, cell * bytesPerCell);
+          if (overlap <= 0) {
+            continue;
+          }
+          if (metric == LayoutMetric.ENCODING) {
+            // categorical: keep the encoding with the largest overlap
+            if (overlap > weights[cell]) {
+              weights[cell] = overlap;
+              values[cell] = value;
+            }
+          } else {
+            weights[cell] += overlap;
+            values[cell] += overlap * value;
+          }
+        }
+      }
+    }
+    for (int cell = 0; cell < cellCount; cell++) {
+      if (weights[cell] == 0) {
+        values[cell] = Double.NaN;
+      } else if (metric != LayoutMetric.ENCODING) {
+        values[cell] /= weights[cell];
+      }
+    }
+    return values;
+  }
+
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  public List<ChunkLayoutInfo> getChunkLayoutList() {
+    return chunkLayoutList;
+  }
+}
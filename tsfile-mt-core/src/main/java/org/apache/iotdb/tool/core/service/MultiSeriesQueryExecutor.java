@@ -0,0 +1,257 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.util.TimeRangeUtil;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.BinaryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-series query: the series are read in parallel through the shared {@link TsFileQueryEngine}
+ * and k-way merged by timestamp into aligned rows, which are pushed to a {@link RowSink} one by
+ * one.
+ *
+ * <p>Every series buffers at most a few batches ahead of the merge. A reader task fills one batch
+ * and is only rescheduled while its queue has room, so a bounded pool serves any number of series
+ * without a reader blocking a thread, and the result is never materialized.
+ */
+public class MultiSeriesQueryExecutor {
+
+  private static final int BATCH_SIZE = 1024;
+
+  private static final int QUEUED_BATCHES = 4;
+
+  /** receives the aligned rows in time order */
+  public interface RowSink {
+    /**
+     * @param values one per path, null where the series has no point at the timestamp
+     * @return false to stop the query
+     */
+    boolean accept(long timestamp, Object[] values) throws IOException;
+  }
+
+  private final TsFileQueryEngine queryEngine;
+
+  private final int parallelism;
+
+  public MultiSeriesQueryExecutor(TsFileQueryEngine queryEngine, int parallelism) {
+    this.queryEngine = queryEngine;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  /**
+   * time filter of the searches: (startTimestamp, endTimestamp], an unset bound (see {@link
+   * TimeRangeUtil}) is open, 0 and negative timestamps are bounds
+   *
+   * @return null if both bounds are unset
+   */
+  public static IExpression timeFilter(long startTimestamp, long endTimestamp) {
+    boolean startSet = TimeRangeUtil.isStartSet(startTimestamp);
+    boolean endSet = TimeRangeUtil.isEndSet(endTimestamp);
+    if (startSet && endSet) {
+      return BinaryExpression.and(
+          new GlobalTimeExpression(TimeFilter.gt(startTimestamp)),
+          new GlobalTimeExpression(TimeFilter.ltEq(endTimestamp)));
+    } else if (endSet) {
+      return new GlobalTimeExpression(TimeFilter.ltEq(endTimestamp));
+    } else if (startSet) {
+      return new GlobalTimeExpression(TimeFilter.gt(startTimestamp));
+    }
+    return null;
+  }
+
+  /** @return number of rows passed to the sink */
+  public long query(List<Path> paths, long startTimestamp, long endTimestamp, RowSink sink)
+      throws IOException, InterruptedException {
+    if (paths.isEmpty()) {
+      return 0;
+    }
+    AtomicInteger threadIndex = new AtomicInteger();
+    ExecutorService pool =
+        Executors.newFixedThreadPool(
+            Math.min(parallelism, paths.size()),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "multi-series-query-" + threadIndex.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+    IExpression timeFilter = timeFilter(startTimestamp, endTimestamp);
+    List<SeriesReader> readers = new ArrayList<>(paths.size());
+    try {
+      for (int i = 0; i < paths.size(); i++) {
+        SeriesReader reader = new SeriesReader(i, paths.get(i), timeFilter, pool);
+        readers.add(reader);
+        reader.schedule();
+      }
+      return merge(readers, sink);
+    } finally {
+      for (SeriesReader reader : readers) {
+        reader.cancelled = true;
+      }
+      pool.shutdownNow();
+    }
+  }
+
+  private long merge(List<SeriesReader> readers, RowSink sink)
+      throws IOException, InterruptedException {
+    PriorityQueue<SeriesReader> heads =
+        new PriorityQueue<>(
+            readers.size(), (a, b) -> Long.compare(a.currentTime(), b.currentTime()));
+    for (SeriesReader reader : readers) {
+      if (reader.advance()) {
+        heads.add(reader);
+      }
+    }
+    long rowCount = 0;
+    while (!heads.isEmpty()) {
+      long timestamp = heads.peek().currentTime();
+      Object[] values = new Object[readers.size()];
+      while (!heads.isEmpty() && heads.peek().currentTime() == timestamp) {
+        SeriesReader reader = heads.poll();
+        values[reader.index] = reader.currentValue();
+        if (reader.advance()) {
+          heads.add(reader);
+        }
+      }
+      rowCount++;
+      if (!sink.accept(timestamp, values)) {
+        break;
+      }
+    }
+    return rowCount;
+  }
+
+  private static class Batch {
+    private static final Batch END = new Batch(0);
+
+    private final long[] times;
+    private final Object[] values;
+    private int size;
+    private Exception error;
+
+    private Batch(int capacity) {
+      this.times = new long[capacity];
+      this.values = new Object[capacity];
+    }
+  }
+
+  /** reads one series batch by batch on the pool, the merge consumes its queue */
+  private class SeriesReader {
+
+    private final int index;
+
+    private final Path path;
+
+    private final IExpression timeFilter;
+
+    private final ExecutorService pool;
+
+    private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+
+    /** a fill task is submitted or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private volatile boolean finished;
+
+    private volatile boolean cancelled;
+
+    /** only touched by the fill task */
+    private QueryDataSet dataSet;
+
+    /** only touched by the merge */
+    private Batch current;
+
+    private int position;
+
+    private SeriesReader(int index, Path path, IExpression timeFilter, ExecutorService pool) {
+      this.index = index;
+      this.path = path;
+      this.timeFilter = timeFilter;
+      this.pool = pool;
+    }
+
+    private void schedule() {
+      if (!finished
+          && !cancelled
+          && queue.remainingCapacity() > 0
+          && scheduled.compareAndSet(false, true)) {
+        pool.execute(this::fill);
+      }
+    }
+
+    private void fill() {
+      Batch batch;
+      try {
+        if (dataSet == null) {
+          dataSet =
+              queryEngine.query(
+                  QueryExpression.create(Collections.singletonList(path), timeFilter));
+        }
+        batch = new Batch(BATCH_SIZE);
+        while (batch.size < BATCH_SIZE && dataSet.hasNext()) {
+          RowRecord rowRecord = dataSet.next();
+          Field field = rowRecord.getFields().get(0);
+          batch.times[batch.size] = rowRecord.getTimestamp();
+          batch.values[batch.size] =
+              field == null || field.getDataType() == null
+                  ? null
+                  : field.getObjectValue(field.getDataType());
+          batch.size++;
+        }
+        if (batch.size == 0) {
+          batch = Batch.END;
+        }
+      } catch (Exception e) {
+        batch = new Batch(0);
+        batch.error = e;
+      }
+      if (batch.size == 0) {
+        finished = true;
+      }
+      // never blocks: only this task adds and it was scheduled while the queue had room
+      queue.offer(batch);
+      scheduled.set(false);
+      schedule();
+    }
+
+    /** move to the next point, @return false at the end of the series */
+    private boolean advance() throws IOException, InterruptedException {
+      if (current != null && ++position < current.size) {
+        return true;
+      }
+      current = queue.take();
+      schedule();
+      if (current.error != null) {
+        throw new IOException("Failed to read " + path, current.error);
+      }
+      position = 0;
+      return current.size > 0;
+    }
+
+    private long currentTime() {
+      return current.times[position];
+    }
+
+    private Object currentValue() {
+      return current.values[position];
+    }
+  }
+}
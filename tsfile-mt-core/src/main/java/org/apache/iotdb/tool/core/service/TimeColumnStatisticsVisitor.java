@@ -0,0 +1,51 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tool.core.model.TimeColumnStatistics;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 统计每个时间列的时间间隔规律性: 对齐设备共用一个时间列, 非对齐序列各有一个, value chunk 不统计.
+ * Keyed by the device of an aligned time column or by the path of a non-aligned series.
+ */
+public class TimeColumnStatisticsVisitor implements TsFileScanVisitor {
+
+  private final Map<String, TimeColumnStatistics> timeColumns = new TreeMap<>();
+
+  @Override
+  public boolean needsDecodedPages() {
+    return true;
+  }
+
+  @Override
+  public boolean needsDecodedValues() {
+    return false;
+  }
+
+  @Override
+  public void onDecodedPage(
+      String deviceId, ChunkHeader chunkHeader, PageHeader pageHeader, PrimitivePageData pageData) {
+    String key;
+    if ((chunkHeader.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
+        == TsFileConstant.TIME_COLUMN_MASK) {
+      key = deviceId;
+    } else if ((chunkHeader.getChunkType() & TsFileConstant.VALUE_COLUMN_MASK)
+        == TsFileConstant.VALUE_COLUMN_MASK) {
+      // shares the time column of its device
+      return;
+    } else {
+      key = deviceId + TsFileConstant.PATH_SEPARATOR + chunkHeader.getMeasurementID();
+    }
+    timeColumns.computeIfAbsent(key, k -> new TimeColumnStatistics()).accept(pageData.getTimes());
+  }
+
+  /** @return the device of an aligned time column or the path of a series -> statistics, by name */
+  public Map<String, TimeColumnStatistics> getTimeColumns() {
+    return timeColumns;
+  }
+}
@@ -1,6 +1,17 @@
 package org.apache.iotdb.tool.core.service;
 
 import org.apache.iotdb.tool.core.model.*;
+import org.apache.iotdb.tool.core.util.ArrowLayoutUtil;
+import org.apache.iotdb.tool.core.util.BucketAggregator;
+import org.apache.iotdb.tool.core.util.EncodeCandidateRegistry;
+import org.apache.iotdb.tool.core.util.GroupByTimeAggregator;
+import org.apache.iotdb.tool.core.util.M4Downsampler;
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+import org.apache.iotdb.tool.core.util.TimeRangeOverlapUtil;
+import org.apache.iotdb.tool.core.util.TimeRangeUtil;
+import org.apache.iotdb.tool.core.util.TsFileEncodeCompressAnalysedUtil;
+import org.apache.iotdb.tool.core.util.TsFilePrimitiveDecodeUtil;
+import org.apache.iotdb.tool.core.util.TsFileSizeDistributionUtil;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
@@ -15,16 +26,13 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
-import org.apache.iotdb.tsfile.read.TsFileReader;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.BinaryExpression;
-import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
-import org.apache.iotdb.tsfile.read.filter.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.ValueFilter;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.read.reader.page.AlignedPageReader;
@@ -32,6 +40,7 @@ import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.read.reader.page.TimePageReader;
 import org.apache.iotdb.tsfile.read.reader.page.ValuePageReader;
 import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -39,8 +48,10 @@ import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.*;
@@ -57,13 +68,57 @@ public class TsFileAnalyserV13 {
   private final String version;
   private final String filePath;
   private final TsFileAnalysedToolReader reader;
+
+  /** direct I/O and throttling of the data section scan */
+  private final ScanIoOptions scanIoOptions;
   private final List<ChunkGroupMetadataModel> chunkGroupMetadataModelList = new ArrayList<>();
   private final Map<Path, IMeasurementSchema> newSchema = new HashMap<>();
 
   private TimeSeriesMetadataNode timeSeriesMetadataNode;
   // TODO 为什么定义成 final
-  /** chunkGroupInfoList */
-  private final List<ChunkGroupInfo> chunkGroupInfoList = new ArrayList<>();
+  /** chunkGroupInfoList, stored column-wise */
+  private final ChunkGroupInfoList chunkGroupInfoList = new ChunkGroupInfoList();
+
+  /** how the metadata index is held, MAPPED once materialized */
+  private volatile IndexMode indexMode;
+
+  /** struct-of-arrays copy of the metadata index, built on demand */
+  private CompactMetadataIndex compactMetadataIndex;
+
+  /** off-heap copy of the metadata index, replaces the object tree once materialized */
+  private MappedMetadataIndex mappedMetadataIndex;
+
+  /**
+   * Path -> TimeseriesMetadata of the loaded index (aligned: of each value column), built with the
+   * object tree so per-series lookups need no I/O
+   */
+  private volatile Map<Path, TimeseriesMetadata> seriesMetadataMap;
+
+  /** shared by all searches on this file, created on the first query */
+  private TsFileQueryEngine queryEngine;
+
+  private int queryMetadataCacheSize = TsFileQueryEngine.DEFAULT_METADATA_CACHE_SIZE;
+
+  private int queryChunkCacheSize = TsFileQueryEngine.DEFAULT_CHUNK_CACHE_SIZE;
+
+  private static final int SERIES_TIME_INDEX_CACHE_SIZE = 1000;
+
+  /** encode candidates of a parameter sweep analysed besides PLAIN and the current encoding */
+  private static final int MAX_SWEEP_ENCODE_CANDIDATES = 4;
+
+  /** time indexes of the series looked up by timestamp, LRU */
+  private final Map<Path, SeriesTimeIndex> seriesTimeIndexes =
+      new LinkedHashMap<Path, SeriesTimeIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, SeriesTimeIndex> eldest) {
+          return size() > SERIES_TIME_INDEX_CACHE_SIZE;
+        }
+      };
+
+  /** chunk and page byte layout of the data section, in file order */
+  private final List<ChunkLayoutInfo> chunkLayoutList = new ArrayList<>();
+
+  private volatile TsFileLayoutModel fileLayout;
 
   private List<IMeasurementSchema> measurementSchemaList = new ArrayList<>();
 
@@ -71,6 +126,9 @@ public class TsFileAnalyserV13 {
 
   private double rateOfProcess;
 
+  /** position of the running data section scan / file size */
+  private volatile double scanProgress;
+
   private double loadOfPercent = 0.05;
 
   private double parseOfPercent = 0.9;
@@ -79,195 +137,125 @@ public class TsFileAnalyserV13 {
 
   private CountDownLatch countDownLatch = new CountDownLatch(1);
 
+  /** why the asynchronous load failed, null if it did not */
+  private volatile Exception loadFailure;
+
   private final byte CHUNK_HEADER_MASK = (byte) 0x3F;
 
+  /** how the data section is loaded when the file is opened */
+  public enum OpenMode {
+    /** 遍历数据区的每个 chunk header 和 page header */
+    FULL_SCAN,
+    /** 已封口的文件从索引推导 ChunkGroup，未封口或损坏的文件退回 FULL_SCAN */
+    FOOTER_FIRST,
+    /** 只加载索引（同步），数据区相关的接口不可用 */
+    INDEX_ONLY
+  }
+
+  /** how the metadata index is held in memory once loaded */
+  public enum IndexMode {
+    /** TimeSeriesMetadataNode 对象树，带全部 ChunkMetadata，UI 的索引视图使用 */
+    TREE,
+    /** 堆上的 CompactMetadataIndex，TimeseriesMetadata 按需从文件读取 */
+    COMPACT,
+    /** 写入临时文件并内存映射的 MappedMetadataIndex，堆上不保留索引 */
+    MAPPED
+  }
+
+  /** opens the file with {@link OpenMode#FULL_SCAN} */
   public TsFileAnalyserV13(String filePath) throws IOException {
+    this(filePath, OpenMode.FULL_SCAN);
+  }
+
+  public TsFileAnalyserV13(String filePath, OpenMode openMode) throws IOException {
+    this(filePath, openMode, ScanIoOptions.DEFAULT);
+  }
+
+  /**
+   * @param scanIoOptions used when the data section is scanned, by {@link OpenMode#FULL_SCAN}, by
+   *     the fallback of {@link OpenMode#FOOTER_FIRST} and by {@link #getFileLayout()}
+   */
+  public TsFileAnalyserV13(String filePath, OpenMode openMode, ScanIoOptions scanIoOptions)
+      throws IOException {
+    this(filePath, openMode, scanIoOptions, IndexMode.TREE);
+  }
+
+  /**
+   * @param indexMode the loaded representation of the index; with COMPACT or MAPPED the object
+   *     tree is never built and {@link #getTimeSeriesMetadataNode()} is not available
+   */
+  public TsFileAnalyserV13(
+      String filePath, OpenMode openMode, ScanIoOptions scanIoOptions, IndexMode indexMode)
+      throws IOException {
     this.filePath = filePath;
+    this.scanIoOptions = scanIoOptions;
+    this.indexMode = indexMode;
     reader = new TsFileAnalysedToolReader(filePath);
     fileSize = FSFactoryProducer.getFSFactory().getFile(filePath).length();
     version = reader.readVersionNumber() + "";
     rateOfProcess = loadOfPercent;
+    if (openMode == OpenMode.INDEX_ONLY) {
+      loadIndex();
+      rateOfProcess = 1.0;
+      countDownLatch.countDown();
+      return;
+    }
     // 异步加载
     new Thread(
             () -> {
               try {
-                initTsFileAnalysed();
-                timeSeriesMetadataNode = initTimeSeriesMetadataNodeAnalysed();
-                rateOfProcess = 1.0;
+                if (openMode == OpenMode.FULL_SCAN || !initChunkGroupInfoFromIndex()) {
+                  initTsFileAnalysed(chunkGroupInfoList);
+                  loadIndex();
+                  initFileLayout();
+                }
+                chunkGroupInfoList.trimToSize();
                 logger.info("init completed!");
+              } catch (Exception e) {
+                // the waiters get the failure instead of blocking
+                loadFailure = e;
+                logger.error("Failed to load TsFile {}", filePath, e);
+              } finally {
+                rateOfProcess = 1.0;
                 countDownLatch.countDown();
-              } catch (IOException e) {
-                throw new RuntimeException(e);
               }
             })
         .start();
   }
 
-  private void initTsFileAnalysed() throws IOException {
-
-    ChunkMetadata currentChunk;
-    String measurementID;
-    TSDataType dataType;
-    long fileOffsetOfChunk;
-
-    // ChunkMetadata of current ChunkGroup
-    List<IChunkMetadata> chunkMetadataList = new ArrayList<>();
-    List<List<ChunkHeader>> chunkHeaderLists = new ArrayList<>();
-
-    long headerLength = TSFileConfig.MAGIC_STRING.getBytes().length + Byte.BYTES;
-
-    reader.position(headerLength);
+  /**
+   * 只读取文件尾部的索引，用于只需要元数据（TimeseriesMetadata / ChunkMetadata statistics）的多文件分析，
+   * 数据区相关的接口不可用
+   */
+  public static TsFileAnalyserV13 openIndexOnly(String filePath) throws IOException {
+    return openIndexOnly(filePath, IndexMode.TREE);
+  }
 
-    byte marker;
-    List<long[]> timeBatch = new ArrayList<>();
-    String lastDeviceId = null;
-    long lastChunkGroupPosition = 0;
+  public static TsFileAnalyserV13 openIndexOnly(String filePath, IndexMode indexMode)
+      throws IOException {
+    return new TsFileAnalyserV13(filePath, OpenMode.INDEX_ONLY, ScanIoOptions.DEFAULT, indexMode);
+  }
 
-    //    List<IMeasurementSchema> measurementSchemaList = new ArrayList<>();
-    IChunkMetadata alignedTimeChunk = null;
-    List<IChunkMetadata> alignedValueChunk = new ArrayList<>();
-    List<ChunkHeader> chunkHeaderList = new ArrayList<>();
-    // 0 NonAligned, 1 TimeColumn, 2 ValueColumn
-    int alignedFlag = 0;
+  /**
+   * 遍历数据区，记录 ChunkGroup 与 chunk/page 布局; 文件损坏时保留损坏位置之前读到的内容
+   *
+   * @param chunkGroupInfos ChunkGroup 的存放列表
+   */
+  private void initTsFileAnalysed(List<ChunkGroupInfo> chunkGroupInfos) {
+    TsFileLayoutVisitor layoutVisitor =
+        new TsFileLayoutVisitor(chunkGroupInfos, this::setRateOfProcess);
+    TsFileDataScanner scanner = new TsFileDataScanner(filePath, scanIoOptions);
     try {
-      while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
-        switch (marker) {
-          case MetaMarker.CHUNK_HEADER:
-          case MetaMarker.TIME_CHUNK_HEADER:
-          case MetaMarker.VALUE_CHUNK_HEADER:
-          case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
-          case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
-          case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
-            ChunkHeader chunkHeader = reader.readChunkHeader(marker);
-            chunkHeaderList.add(chunkHeader);
-            // 跳过此 chunk，已经读取了 chunkHeader，直接加 dataSize 即可
-            reader.position(reader.position() + chunkHeader.getDataSize());
-            // 更新进度条
-            setRateOfProcess();
-            break;
-
-          case MetaMarker.CHUNK_GROUP_HEADER:
-            // if there is something wrong with the ChunkGroup Header, we will drop this ChunkGroup
-            // because we can not guarantee the correctness of the deviceId.
-            logger.info("Starting read a new ChunkGroupHeader, lastDeviceId:{}", lastDeviceId);
-            // 更新进度条
-            setRateOfProcess();
-            //            lastChunkGroupPosition = reader.position();
-            if (lastDeviceId != null) {
-              // schema of last chunk group
-              //              for (IMeasurementSchema tsSchema : measurementSchemaList) {
-              //                newSchema.putIfAbsent(
-              //                    new Path(lastDeviceId, tsSchema.getMeasurementId()), tsSchema);
-              //              }
-              //              measurementSchemaList = new ArrayList<>();
-
-              // 存储上一个 ChunkGroup 已读取的信息
-              //              if (alignedTimeChunk != null && alignedValueChunk.size() > 0) {
-              //                chunkMetadataList.add(
-              //                    new AlignedChunkMetadata(alignedTimeChunk, new
-              // ArrayList<>(alignedValueChunk)));
-              //                chunkHeaderLists.add(new ArrayList<>(chunkHeaderList));
-              //                alignedValueChunk.clear();
-              //                chunkHeaderList.clear();
-              //              }
-              //              chunkGroupMetadataModelList.add(
-              //                  new ChunkGroupMetadataModel(
-              //                      lastDeviceId,
-              //                      new ArrayList<>(chunkMetadataList),
-              //                      new ArrayList<>(chunkHeaderLists)));
-              //              chunkMetadataList.clear();
-              //              chunkHeaderLists.clear();
-
-              chunkGroupInfoList.add(new ChunkGroupInfo(lastDeviceId, lastChunkGroupPosition));
-            }
-
-            // this is a chunk group
-            //            lastChunkGroupPosition = reader.position() - 1;
-            lastChunkGroupPosition = reader.position();
-            //            chunkMetadataList = new ArrayList<>();
-            ChunkGroupHeader chunkGroupHeader = reader.readChunkGroupHeader();
-            lastDeviceId = chunkGroupHeader.getDeviceID();
-            break;
-            // plan index: 标记 chunkgroup 的结束（可用于类似断点续传、checkPoint、snapshot等）
-          case MetaMarker.OPERATION_INDEX_RANGE:
-            logger.info("Starting read OperationIndexRange, lastDeviceId:{}", lastDeviceId);
-            setRateOfProcess();
-            if (lastDeviceId != null) {
-              // schema of last chunk group
-              //              for (IMeasurementSchema tsSchema : measurementSchemaList) {
-              //                newSchema.putIfAbsent(
-              //                    new Path(lastDeviceId, tsSchema.getMeasurementId()), tsSchema);
-              //              }
-              //              measurementSchemaList = new ArrayList<>();
-              //              if (alignedTimeChunk != null && alignedValueChunk.size() > 0) {
-              //                chunkMetadataList.add(
-              //                    new AlignedChunkMetadata(alignedTimeChunk, new
-              // ArrayList<>(alignedValueChunk)));
-              //                chunkHeaderLists.add(new ArrayList<>(chunkHeaderList));
-              //                alignedValueChunk.clear();
-              //                chunkHeaderList.clear();
-              //              }
-              //              // last chunk group Metadata
-              //              chunkGroupMetadataModelList.add(
-              //                  new ChunkGroupMetadataModel(
-              //                      lastDeviceId,
-              //                      new ArrayList<>(chunkMetadataList), // 不需要
-              //                      new ArrayList<>(chunkHeaderLists))); // 需要
-              //              chunkMetadataList.clear();
-              //              chunkHeaderLists.clear();
-
-              chunkGroupInfoList.add(new ChunkGroupInfo(lastDeviceId, lastChunkGroupPosition));
-
-              lastDeviceId = null;
-              lastChunkGroupPosition = -1;
-            }
-            reader.readPlanIndex();
-            break;
-          default:
-            // the disk file is corrupted, using this file may be dangerous
-            logger.error("Unexpected marker:{}", marker);
-            throw new IOException("Unexpected marker " + marker);
-        }
-      }
-
-      // now we read the tail of the data section, so we are sure that the last
-      // ChunkGroupFooter is complete.
-      if (lastDeviceId != null && lastChunkGroupPosition != -1) {
-        logger.info("Read the tail of the data section, the lastDeviceId:{}", lastDeviceId);
-        setRateOfProcess();
-
-        chunkGroupInfoList.add(new ChunkGroupInfo(lastDeviceId, lastChunkGroupPosition));
-
-        // schema of last chunk group
-        //        for (IMeasurementSchema tsSchema : measurementSchemaList) {
-        //          newSchema.putIfAbsent(new Path(lastDeviceId, tsSchema.getMeasurementId()),
-        // tsSchema);
-        //        }
-        //        if (alignedTimeChunk != null && alignedValueChunk.size() > 0) {
-        //          chunkMetadataList.add(
-        //              new AlignedChunkMetadata(alignedTimeChunk, new
-        // ArrayList<>(alignedValueChunk)));
-        //          chunkHeaderLists.add(new ArrayList<>(chunkHeaderList));
-        //          alignedValueChunk.clear();
-        //          chunkHeaderList.clear();
-        //        }
-        // last chunk group Metadata
-        //        chunkGroupMetadataModelList.add(
-        //            new ChunkGroupMetadataModel(
-        //                lastDeviceId,
-        //                new ArrayList<>(chunkMetadataList),
-        //                new ArrayList<>(chunkHeaderLists)));
-        //        chunkMetadataList.clear();
-        //        chunkHeaderLists.clear();
-      }
-
+      scanner.register(layoutVisitor).scan();
     } catch (Exception e) {
+      // headers of a corrupted file also fail with unchecked exceptions
       logger.warn(
           "TsFile {} self-check cannot proceed at position {}, recovered, because : {}",
           filePath,
-          reader.position(),
+          scanner.getPosition(),
           e.getMessage());
     }
+    chunkLayoutList.addAll(layoutVisitor.getChunkLayouts());
   }
 
   private void setChunkStatistics(
@@ -301,12 +289,619 @@ public class TsFileAnalyserV13 {
     }
   }
 
-  private void setRateOfProcess() throws IOException {
-    rateOfProcess = loadOfPercent + reader.position() / (double) fileSize * parseOfPercent;
+  /**
+   * wait for the asynchronous load
+   *
+   * @throws IllegalStateException if the load failed
+   */
+  private void awaitLoaded() throws InterruptedException {
+    countDownLatch.await();
+    if (loadFailure != null) {
+      throw new IllegalStateException("Failed to load TsFile " + filePath, loadFailure);
+    }
+  }
+
+  private void setRateOfProcess(long position) {
+    scanProgress = position / (double) fileSize;
+    // a scan after the load, for the file layout, does not move the load progress back
+    if (countDownLatch.getCount() > 0) {
+      rateOfProcess = loadOfPercent + scanProgress * parseOfPercent;
+    }
+  }
+
+  /** load the index as {@link #indexMode}, once; the point count is that of the series columns */
+  private synchronized void loadIndex() throws IOException {
+    if (indexMode == IndexMode.TREE) {
+      if (timeSeriesMetadataNode == null) {
+        timeSeriesMetadataNode = initTimeSeriesMetadataNodeAnalysed();
+      }
+      return;
+    }
+    if (compactMetadataIndex != null || mappedMetadataIndex != null) {
+      return;
+    }
+    IMetadataIndex index =
+        indexMode == IndexMode.COMPACT ? getCompactMetadataIndex() : writeMappedIndex();
+    long count = 0;
+    for (int node = 0; node < index.size(); node++) {
+      // the time column of an aligned device
+      if (index.isSeries(node) && index.getDataType(node) != TSDataType.VECTOR) {
+        count += index.getCount(node);
+      }
+    }
+    allCount = count;
   }
 
   private TimeSeriesMetadataNode initTimeSeriesMetadataNodeAnalysed() throws IOException {
-    return reader.getAllTimeseriesMetadataWithOffset();
+    TimeSeriesMetadataNode node = reader.getAllTimeseriesMetadataWithOffset();
+    seriesMetadataMap = buildSeriesMetadataMap(node);
+    return node;
+  }
+
+  private Map<Path, TimeseriesMetadata> buildSeriesMetadataMap(TimeSeriesMetadataNode root) {
+    Map<Path, TimeseriesMetadata> map = new HashMap<>();
+    Deque<TimeSeriesMetadataNode> nodes = new ArrayDeque<>();
+    nodes.push(root);
+    while (!nodes.isEmpty()) {
+      TimeSeriesMetadataNode node = nodes.pop();
+      node.getChildren().forEach(nodes::push);
+      ITimeSeriesMetadata metadata = node.getTimeseriesMetadata();
+      if (metadata instanceof AlignedTimeSeriesMetadata) {
+        AlignedTimeSeriesMetadata alignedMetadata = (AlignedTimeSeriesMetadata) metadata;
+        TimeseriesMetadata timeMetadata = alignedMetadata.getTimeseriesMetadata();
+        map.put(new Path(node.getDeviceId(), timeMetadata.getMeasurementId()), timeMetadata);
+        for (TimeseriesMetadata valueMetadata : alignedMetadata.getValueTimeseriesMetadataList()) {
+          map.put(new Path(node.getDeviceId(), valueMetadata.getMeasurementId()), valueMetadata);
+        }
+      } else if (metadata instanceof TimeseriesMetadata) {
+        TimeseriesMetadata timeseriesMetadata = (TimeseriesMetadata) metadata;
+        map.put(
+            new Path(node.getDeviceId(), timeseriesMetadata.getMeasurementId()),
+            timeseriesMetadata);
+      }
+    }
+    return map;
+  }
+
+  /**
+   * 从已加载的索引中查找序列的 TimeseriesMetadata，O(1) 且不读文件
+   *
+   * @return null if the series does not exist or the object tree has been released
+   */
+  public TimeseriesMetadata getTimeseriesMetadata(String deviceId, String measurement) {
+    Map<Path, TimeseriesMetadata> map = seriesMetadataMap;
+    return map == null ? null : map.get(new Path(deviceId, measurement));
+  }
+
+  /**
+   * 文件内所有序列的最新点: 直接取已加载 TimeseriesMetadata 的 Statistics 中的 endTime 和 lastValue,
+   * 不读取数据区; 只有没有 Statistics 的非对齐序列才解码其最后一个 chunk
+   *
+   * @return one point per series holding data, ordered by device and measurement
+   */
+  public List<LastPoint> fetchLastPoints() throws IOException, InterruptedException {
+    awaitLoaded();
+    List<LastPoint> lastPoints = new ArrayList<>();
+    int[] decodedSeriesCount = new int[1];
+    forEachTimeseriesMetadata(
+        (deviceId, timeseriesMetadata) -> {
+          // the time column of an aligned device
+          if (timeseriesMetadata.getTSDataType() == TSDataType.VECTOR) {
+            return;
+          }
+          Statistics<? extends Serializable> statistics = timeseriesMetadata.getStatistics();
+          if (statistics != null) {
+            if (statistics.getCount() > 0) {
+              lastPoints.add(
+                  new LastPoint(
+                      deviceId,
+                      timeseriesMetadata.getMeasurementId(),
+                      timeseriesMetadata.getTSDataType(),
+                      statistics.getEndTime(),
+                      statistics.getLastValue(),
+                      true));
+            }
+            return;
+          }
+          LastPoint lastPoint =
+              decodeLastPoint(
+                  new Path(deviceId, timeseriesMetadata.getMeasurementId()), timeseriesMetadata);
+          if (lastPoint != null) {
+            lastPoints.add(lastPoint);
+          }
+          decodedSeriesCount[0]++;
+        });
+    lastPoints.sort(
+        Comparator.comparing(LastPoint::getDeviceId).thenComparing(LastPoint::getMeasurementId));
+    logger.info(
+        "fetched the last points of {} series, {} of them decoded",
+        lastPoints.size(),
+        decodedSeriesCount[0]);
+    return lastPoints;
+  }
+
+  /** the map of the object tree, it is only available in {@link IndexMode#TREE} */
+  private Map<Path, TimeseriesMetadata> loadedSeriesMetadataMap() throws IOException {
+    Map<Path, TimeseriesMetadata> map = seriesMetadataMap;
+    if (map == null) {
+      loadedTimeSeriesMetadataNode();
+      map = seriesMetadataMap;
+    }
+    return map;
+  }
+
+  /** receives a TimeseriesMetadata of the index: a non-aligned series or a column of a device */
+  public interface TimeseriesMetadataConsumer {
+    void accept(String deviceId, TimeseriesMetadata timeseriesMetadata) throws IOException;
+  }
+
+  /**
+   * 遍历索引中所有的 TimeseriesMetadata（含 ChunkMetadata）: 对象树取自内存，COMPACT / MAPPED 索引从文件读取，
+   * 同一索引节点下的序列一次读取
+   */
+  public void forEachTimeseriesMetadata(TimeseriesMetadataConsumer consumer) throws IOException {
+    IMetadataIndex index = flatIndex();
+    if (index == null) {
+      for (Map.Entry<Path, TimeseriesMetadata> entry : loadedSeriesMetadataMap().entrySet()) {
+        consumer.accept(entry.getKey().getDevice(), entry.getValue());
+      }
+      return;
+    }
+    for (int node = 0; node < index.size(); node++) {
+      int first = index.getFirstChild(node);
+      if (first < 0 || !index.isSeries(first)) {
+        continue;
+      }
+      // the series of a node are contiguous up to the end of the node
+      long start = index.getPosition(first);
+      ByteBuffer buffer = reader.readDataFromReader(start, (int) (index.getPosition(node) - start));
+      for (int series = first; series < first + index.getChildCount(node); series++) {
+        consumer.accept(
+            index.getDeviceId(series), TimeseriesMetadata.deserializeFrom(buffer, true));
+      }
+    }
+  }
+
+  /**
+   * the TimeseriesMetadata of a column, from the object tree or read from the file through the
+   * flat index
+   *
+   * @param measurement "" for the time column of an aligned device
+   * @return null if the file has no such series
+   */
+  private TimeseriesMetadata findTimeseriesMetadata(String deviceId, String measurement)
+      throws IOException {
+    IMetadataIndex index = flatIndex();
+    if (index == null) {
+      return loadedSeriesMetadataMap().get(new Path(deviceId, measurement));
+    }
+    int series = index.findSeries(deviceId, measurement);
+    return series < 0 ? null : readTimeseriesMetadata(index, series);
+  }
+
+  /**
+   * 将所有序列按 chunk 解码导出为 CSV，每个序列一个文件，按序列并行，每个线程同时只持有一个 chunk
+   *
+   * @param directory receives one &lt;device&gt;.&lt;measurement&gt;.csv per series
+   * @param parallelism series exported at the same time
+   * @return number of exported points
+   */
+  public long exportSeriesToCsv(File directory, int parallelism)
+      throws IOException, InterruptedException {
+    return newSeriesExporter(parallelism).exportCsv(directory);
+  }
+
+  /**
+   * 同 {@link #exportSeriesToCsv}，导出为 Parquet，每个 chunk 一个 row group，需要可选依赖
+   * parquet-format-structures
+   *
+   * @param directory receives one &lt;device&gt;.&lt;measurement&gt;.parquet per series
+   * @param parallelism series exported at the same time
+   * @return number of exported points
+   */
+  public long exportSeriesToParquet(File directory, int parallelism)
+      throws IOException, InterruptedException {
+    return newSeriesExporter(parallelism).exportParquet(directory);
+  }
+
+  private TsFileSeriesExporter newSeriesExporter(int parallelism)
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    Map<Path, TimeseriesMetadata> seriesMetadata = new HashMap<>();
+    forEachTimeseriesMetadata(
+        (deviceId, timeseriesMetadata) ->
+            seriesMetadata.put(
+                new Path(deviceId, timeseriesMetadata.getMeasurementId()), timeseriesMetadata));
+    return new TsFileSeriesExporter(filePath, seriesMetadata, parallelism);
+  }
+
+  /** decode the pages of the latest chunk backwards until a point is found */
+  private LastPoint decodeLastPoint(Path path, TimeseriesMetadata timeseriesMetadata)
+      throws IOException {
+    List<IChunkMetadata> chunkMetadataList = timeseriesMetadata.getChunkMetadataList();
+    if (chunkMetadataList == null || chunkMetadataList.isEmpty()) {
+      return null;
+    }
+    IChunkMetadata lastChunk =
+        Collections.max(chunkMetadataList, Comparator.comparingLong(IChunkMetadata::getEndTime));
+    if (lastChunk.getStatistics() != null && lastChunk.getStatistics().getCount() > 0) {
+      return new LastPoint(
+          path.getDevice(),
+          path.getMeasurement(),
+          timeseriesMetadata.getTSDataType(),
+          lastChunk.getStatistics().getEndTime(),
+          lastChunk.getStatistics().getLastValue(),
+          true);
+    }
+    if ((timeseriesMetadata.getTimeSeriesMetadataType() & TsFileConstant.VALUE_COLUMN_MASK) != 0) {
+      // a value column of an aligned device can not be decoded without its time column
+      logger.warn("no statistics for the aligned series {}, skipped", path);
+      return null;
+    }
+    List<IPageInfo> pageInfoList = fetchPageInfoListByChunkMetadata(lastChunk);
+    for (int i = pageInfoList.size() - 1; i >= 0; i--) {
+      if (pageInfoList.get(i).getUncompressedSize() == 0) {
+        continue;
+      }
+      PrimitivePageData pageData = fetchPrimitivePageData(pageInfoList.get(i));
+      long[] times = pageData.getTimes();
+      PrimitiveColumn column = pageData.getValueColumns().get(0);
+      for (int row = times.length - 1; row >= 0; row--) {
+        if (!column.isNull(row)) {
+          return new LastPoint(
+              path.getDevice(),
+              path.getMeasurement(),
+              timeseriesMetadata.getTSDataType(),
+              times[row],
+              column.getObject(row),
+              false);
+        }
+      }
+    }
+    return null;
+  }
+
+  /** 只有一个 page 的 chunk 没有 page statistics，点数取自索引中的 ChunkMetadata */
+  private void initFileLayout() throws IOException {
+    fileLayout = new TsFileLayoutModel(fileSize, chunkLayoutList);
+    forEachTimeseriesMetadata((deviceId, metadata) -> fillLayoutPointCounts(metadata));
+  }
+
+  private void fillLayoutPointCounts(TimeseriesMetadata timeseriesMetadata) {
+    if (timeseriesMetadata == null || timeseriesMetadata.getChunkMetadataList() == null) {
+      return;
+    }
+    for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+      ChunkLayoutInfo chunkLayout = fileLayout.findChunk(chunkMetadata.getOffsetOfChunkHeader());
+      if (chunkLayout != null
+          && chunkLayout.getPageCount() == 1
+          && chunkLayout.getPagePointCount(0) < 0
+          && chunkMetadata.getStatistics() != null) {
+        chunkLayout.setPagePointCount(0, (int) chunkMetadata.getStatistics().getCount());
+      }
+    }
+  }
+
+  /**
+   * footer-first: 已封口的文件只读取索引和 chunk header，由 ChunkMetadata 的 offset 推导 ChunkGroup 的位置。
+   *
+   * <p>所有 chunk 按 offset 排序，由 chunk header 得到每个 chunk 的结束位置。相邻两个 chunk 之间的空隙只能是
+   * [plan index][ChunkGroup header]，有 ChunkGroup header 即开始一个新的 ChunkGroup（同一设备连续的 ChunkGroup
+   * 也能区分），任何无法解释的空隙都退回 FULL_SCAN。
+   *
+   * @return false if the file is unsealed or the index does not match the data section
+   */
+  private boolean initChunkGroupInfoFromIndex() {
+    try {
+      if (!reader.isComplete()) {
+        logger.info("{} is not sealed, scan the data section", filePath);
+        return false;
+      }
+      loadIndex();
+      // chunk offset -> device
+      TreeMap<Long, String> chunkDeviceMap = new TreeMap<>();
+      forEachTimeseriesMetadata(
+          (deviceId, timeseriesMetadata) ->
+              putChunkDevice(chunkDeviceMap, deviceId, timeseriesMetadata));
+
+      ChunkGroupInfoList chunkGroupInfos =
+          new ChunkGroupInfoList(chunkGroupInfoList.getDeviceDictionary());
+      long previousChunkEnd = TSFileConfig.MAGIC_STRING.getBytes().length + Byte.BYTES;
+      String currentDevice = null;
+      for (Map.Entry<Long, String> entry : chunkDeviceMap.entrySet()) {
+        long chunkOffset = entry.getKey();
+        String deviceId = entry.getValue();
+        if (previousChunkEnd != chunkOffset) {
+          long chunkGroupOffset = readChunkGroupGap(previousChunkEnd, chunkOffset, deviceId);
+          if (chunkGroupOffset < 0) {
+            return false;
+          }
+          chunkGroupInfos.add(deviceId, chunkGroupOffset);
+          currentDevice = deviceId;
+        } else if (!deviceId.equals(currentDevice)) {
+          logger.warn(
+              "chunk of {} at {} follows a chunk of {} without a ChunkGroup header, "
+                  + "scan the data section",
+              deviceId,
+              chunkOffset,
+              currentDevice);
+          return false;
+        }
+        reader.position(chunkOffset);
+        ChunkHeader chunkHeader = reader.readChunkHeader(reader.readMarker());
+        previousChunkEnd = reader.position() + chunkHeader.getDataSize();
+      }
+      // the data section ends with an optional plan index and the separator
+      reader.position(previousChunkEnd);
+      byte marker = reader.readMarker();
+      if (marker == MetaMarker.OPERATION_INDEX_RANGE) {
+        reader.position(reader.position() + 2L * Long.BYTES);
+        marker = reader.readMarker();
+      }
+      if (marker != MetaMarker.SEPARATOR) {
+        logger.warn(
+            "unexpected marker {} after the last chunk at {}, scan the data section",
+            marker,
+            previousChunkEnd);
+        return false;
+      }
+      for (int i = 0; i < chunkGroupInfos.size(); i++) {
+        chunkGroupInfoList.add(chunkGroupInfos.getDeviceName(i), chunkGroupInfos.getOffset(i));
+      }
+      logger.info(
+          "derived {} ChunkGroups from the index of {}", chunkGroupInfos.size(), filePath);
+      return true;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failed to derive ChunkGroups from the index, scan the data section", e);
+      return false;
+    }
+  }
+
+  /**
+   * the bytes between two chunks: [plan index of the previous ChunkGroup][ChunkGroup header]
+   *
+   * @return offset of the ChunkGroup after its marker, as the data section scan records it, -1 if
+   *     the gap is not a ChunkGroup header of the device
+   */
+  private long readChunkGroupGap(long gapStart, long chunkOffset, String deviceId)
+      throws IOException {
+    reader.position(gapStart);
+    byte marker = reader.readMarker();
+    if (marker == MetaMarker.OPERATION_INDEX_RANGE) {
+      reader.position(reader.position() + 2L * Long.BYTES);
+      marker = reader.readMarker();
+    }
+    long chunkGroupOffset = reader.position();
+    if (marker != MetaMarker.CHUNK_GROUP_HEADER
+        || !deviceId.equals(reader.readChunkGroupHeader().getDeviceID())
+        || reader.position() != chunkOffset) {
+      logger.warn(
+          "bytes [{}, {}) before the chunk of {} are not a ChunkGroup header, "
+              + "scan the data section",
+          gapStart,
+          chunkOffset,
+          deviceId);
+      return -1;
+    }
+    return chunkGroupOffset;
+  }
+
+  private void putChunkDevice(
+      TreeMap<Long, String> chunkDeviceMap,
+      String deviceId,
+      TimeseriesMetadata timeseriesMetadata) {
+    if (timeseriesMetadata == null || timeseriesMetadata.getChunkMetadataList() == null) {
+      return;
+    }
+    for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+      chunkDeviceMap.put(chunkMetadata.getOffsetOfChunkHeader(), deviceId);
+    }
+  }
+
+  /**
+   * 文件数据区的 chunk/page 字节布局，只由 chunk header 和 page header 构建；footer-first 打开的文件在第一次
+   * 调用时遍历数据区，UI 需在后台线程调用，进度见 {@link #getFileLayoutProgress()}
+   */
+  public TsFileLayoutModel getFileLayout() throws InterruptedException {
+    // not under the lock: the loading thread takes it to load the index
+    awaitLoaded();
+    synchronized (this) {
+      if (fileLayout == null) {
+        initTsFileAnalysed(new ArrayList<>());
+        try {
+          initFileLayout();
+        } catch (IOException e) {
+          // the layout stays without the point counts of the one-page chunks
+          logger.error("Failed to read the index of {}", filePath, e);
+        }
+      }
+      return fileLayout;
+    }
+  }
+
+  /**
+   * 文件内 chunk 级别的乱序与重叠检查: 通过 ChunkMetadata statistics 检测每个序列乱序、重叠的 chunk，
+   * 对存在重叠的序列再检查 page 级别的重叠，统计需要解码合并的点数以及合并需要涉及的 ChunkGroup
+   */
+  public ChunkOverlapCheckReport checkChunkOverlap() throws IOException, InterruptedException {
+    awaitLoaded();
+    List<String> chunkGroupNames = new ArrayList<>(chunkGroupInfoList.size());
+    Map<String, TimeRangeList> seriesChunkRanges = new LinkedHashMap<>();
+    Map<String, List<Pair<IChunkMetadata, Integer>>> seriesChunks = new HashMap<>();
+    for (int i = 0; i < chunkGroupInfoList.size(); i++) {
+      String deviceName = chunkGroupInfoList.getDeviceName(i);
+      long chunkGroupOffset = chunkGroupInfoList.getOffset(i);
+      chunkGroupNames.add(deviceName + "@" + chunkGroupOffset);
+      ChunkListInfo chunkListInfo = fetchChunkListByChunkGroupOffset(chunkGroupOffset);
+      for (IChunkMetadata chunkMetadata : chunkListInfo.getChunkMetadataList()) {
+        // 对齐序列按每个值列检查
+        List<IChunkMetadata> columns =
+            chunkMetadata instanceof AlignedChunkMetadata
+                ? ((AlignedChunkMetadata) chunkMetadata).getValueChunkMetadataList()
+                : Collections.singletonList(chunkMetadata);
+        for (IChunkMetadata column : columns) {
+          if (column == null || column.getStatistics() == null) {
+            continue;
+          }
+          String series = deviceName + TsFileConstant.PATH_SEPARATOR + column.getMeasurementUid();
+          seriesChunkRanges
+              .computeIfAbsent(series, k -> new TimeRangeList())
+              .add(
+                  column.getStartTime(), column.getEndTime(), column.getStatistics().getCount(), i);
+          seriesChunks.computeIfAbsent(series, k -> new ArrayList<>()).add(new Pair<>(column, i));
+        }
+      }
+    }
+
+    long pointCount = 0;
+    long pointsPerPage = TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+    List<ChunkOverlapCheckModel> seriesList = new ArrayList<>();
+    for (Map.Entry<String, TimeRangeList> entry : seriesChunkRanges.entrySet()) {
+      SeriesOverlapModel chunkOverlap =
+          TimeRangeOverlapUtil.analyse(entry.getKey(), entry.getValue(), null, pointsPerPage);
+      pointCount += chunkOverlap.getPointCount();
+      int outOfOrderChunkCount = TimeRangeOverlapUtil.countOutOfOrder(entry.getValue());
+      if (!chunkOverlap.isOverlapped() && outOfOrderChunkCount == 0) {
+        continue;
+      }
+      SeriesOverlapModel pageOverlap = null;
+      if (chunkOverlap.isOverlapped()) {
+        // 只读取 page header
+        TimeRangeList pageRanges = new TimeRangeList();
+        for (Pair<IChunkMetadata, Integer> chunk : seriesChunks.get(entry.getKey())) {
+          for (IPageInfo pageInfo : fetchPageInfoListByChunkMetadata(chunk.left)) {
+            // 只有一个 page 的 chunk 使用 chunk 的统计信息，多 page chunk 中的空 page 跳过
+            boolean onlyOnePage =
+                ((byte) (pageInfo.getChunkType() & CHUNK_HEADER_MASK)) != MetaMarker.CHUNK_HEADER;
+            Statistics<? extends Serializable> statistics =
+                onlyOnePage ? chunk.left.getStatistics() : pageInfo.getStatistics();
+            if (statistics != null && statistics.getCount() > 0) {
+              pageRanges.add(
+                  statistics.getStartTime(),
+                  statistics.getEndTime(),
+                  statistics.getCount(),
+                  chunk.right);
+            }
+          }
+        }
+        pageOverlap =
+            TimeRangeOverlapUtil.analyse(entry.getKey(), pageRanges, null, pointsPerPage);
+      }
+      seriesList.add(
+          new ChunkOverlapCheckModel(
+              entry.getKey(), outOfOrderChunkCount, chunkOverlap, pageOverlap));
+    }
+    return new ChunkOverlapCheckReport(chunkGroupNames, seriesList, pointCount);
+  }
+
+  /**
+   * 对齐存储候选检查: 找出非对齐设备中时间列完全相同的序列, 按对齐设备存储时这些时间列只需存一份、解码一次.
+   * 先按 chunk 的 statistics (起止时间和点数) 在每个 ChunkGroup 内分组, 只对可能相同的 chunk 解码时间列并比较哈希
+   */
+  public AlignmentCandidateReport checkAlignmentCandidates()
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    Map<String, AlignmentCandidateModel> devices = new LinkedHashMap<>();
+    long chunkCount = 0;
+    long decodedChunkCount = 0;
+    for (int i = 0; i < chunkGroupInfoList.size(); i++) {
+      String deviceName = chunkGroupInfoList.getDeviceName(i);
+      ChunkListInfo chunkListInfo =
+          fetchChunkListByChunkGroupOffset(chunkGroupInfoList.getOffset(i));
+      Map<String, List<IChunkMetadata>> sameStatistics = new HashMap<>();
+      for (IChunkMetadata chunkMetadata : chunkListInfo.getChunkMetadataList()) {
+        if (chunkMetadata instanceof AlignedChunkMetadata
+            || chunkMetadata.getStatistics() == null) {
+          continue;
+        }
+        chunkCount++;
+        Statistics<? extends Serializable> statistics = chunkMetadata.getStatistics();
+        sameStatistics
+            .computeIfAbsent(
+                statistics.getStartTime()
+                    + ","
+                    + statistics.getEndTime()
+                    + ","
+                    + statistics.getCount(),
+                k -> new ArrayList<>())
+            .add(chunkMetadata);
+      }
+      for (List<IChunkMetadata> candidates : sameStatistics.values()) {
+        if (candidates.size() < 2) {
+          continue;
+        }
+        // 统计信息相同的 chunk 再比较解码后的时间列
+        Map<Long, List<ChunkTimeColumn>> sameTimes = new HashMap<>();
+        for (IChunkMetadata chunkMetadata : candidates) {
+          ChunkTimeColumn timeColumn = fetchChunkTimeColumn(chunkMetadata);
+          sameTimes.computeIfAbsent(timeColumn.hash, k -> new ArrayList<>()).add(timeColumn);
+          decodedChunkCount++;
+        }
+        for (List<ChunkTimeColumn> shared : sameTimes.values()) {
+          if (shared.size() < 2) {
+            continue;
+          }
+          Set<String> measurements = new TreeSet<>();
+          long redundantPoints = 0;
+          long redundantBytes = 0;
+          long bitmapBytes = 0;
+          // 保留时间列最小的一个, 其余的时间列可以省去, 每个值 page 增加 [size][bitmap]
+          shared.sort(Comparator.comparingLong(timeColumn -> timeColumn.timeBytes));
+          for (int j = 0; j < shared.size(); j++) {
+            ChunkTimeColumn timeColumn = shared.get(j);
+            measurements.add(timeColumn.measurement);
+            if (j > 0) {
+              redundantPoints += timeColumn.pointCount;
+              redundantBytes += timeColumn.timeBytes;
+            }
+            bitmapBytes += timeColumn.bitmapBytes;
+          }
+          devices
+              .computeIfAbsent(deviceName, AlignmentCandidateModel::new)
+              .addSharedGroup(
+                  measurements, shared.size() - 1, redundantPoints, redundantBytes, bitmapBytes);
+        }
+      }
+    }
+    return new AlignmentCandidateReport(
+        new ArrayList<>(devices.values()),
+        chunkGroupInfoList.size(),
+        decodedChunkCount,
+        chunkCount);
+  }
+
+  /** decode only the time column of every page of a non-aligned chunk */
+  private ChunkTimeColumn fetchChunkTimeColumn(IChunkMetadata chunkMetadata) throws IOException {
+    ChunkTimeColumn timeColumn = new ChunkTimeColumn(chunkMetadata.getMeasurementUid());
+    for (IPageInfo pageInfo : fetchPageInfoListByChunkMetadata(chunkMetadata)) {
+      if (pageInfo.getUncompressedSize() == 0) {
+        continue;
+      }
+      PageHeader pageHeader = fetchPageHeader(pageInfo);
+      ByteBuffer pageData = reader.readPage(pageHeader, pageInfo.getCompressionType());
+      // [timeBufferLength][time column][value column]
+      ByteBuffer lengthBuffer = pageData.duplicate();
+      int timeBufferLength = ReadWriteForEncodingUtils.readUnsignedVarInt(lengthBuffer);
+      int timeSectionLength = lengthBuffer.position() - pageData.position() + timeBufferLength;
+      long[] times =
+          TsFilePrimitiveDecodeUtil.decodePageTimes(
+              pageData.duplicate(),
+              Decoder.getDecoderByType(
+                  TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+                  TSDataType.INT64),
+              pointCount(pageHeader));
+      timeColumn.accept(
+          times,
+          (long) pageHeader.getCompressedSize()
+              * timeSectionLength
+              / pageHeader.getUncompressedSize());
+    }
+    return timeColumn;
+  }
+
+  /** page 和 chunk 大小分布，用于调整写入端的 page/chunk 大小配置 */
+  public SizeDistributionReport fetchSizeDistribution() throws InterruptedException {
+    return TsFileSizeDistributionUtil.analyse(getFileLayout(), chunkGroupInfoList);
   }
 
   /**
@@ -321,6 +916,7 @@ public class TsFileAnalyserV13 {
 
     // 1. 读 chunkGroup header
     ChunkGroupHeader chunkGroupHeader = reader.readChunkGroupHeader();
+    String deviceId = chunkGroupHeader.getDeviceID();
 
     List<long[]> timeBatch = new ArrayList<>();
     List<IChunkMetadata> alignedValueChunkMetadata = new ArrayList<>();
@@ -335,7 +931,7 @@ public class TsFileAnalyserV13 {
         && (marker != MetaMarker.OPERATION_INDEX_RANGE)
         && (marker != MetaMarker.SEPARATOR)) {
       chunkGroupMetaInfo.setMarker(marker);
-      fetchChunkInfo(chunkGroupMetaInfo);
+      fetchChunkInfo(chunkGroupMetaInfo, deviceId);
     }
 
     // 3. 存储上 ChunkGroup 已读取的信息
@@ -359,6 +955,17 @@ public class TsFileAnalyserV13 {
 
   // 将某一 chunk 的元信息添加至相应 chunkgroup 的 List 中
   public void fetchChunkInfo(ChunkGroupMetaInfo chunkGroupMetaInfo) throws IOException {
+    fetchChunkInfo(chunkGroupMetaInfo, null);
+  }
+
+  /**
+   * 将某一 chunk 的元信息添加至相应 chunkgroup 的 List 中；只有一个 page 的 chunk 优先使用索引中 ChunkMetadata
+   * 的 statistics，索引不可用（未封口的文件）时才解码 page 重建 statistics
+   *
+   * @param deviceId device of the chunk group, null to always decode
+   */
+  public void fetchChunkInfo(ChunkGroupMetaInfo chunkGroupMetaInfo, String deviceId)
+      throws IOException {
     long chunkOffset = reader.position() - 1;
     // ChunkHeader 中的 marker：判断 chunk 的开始，对齐或非对齐
     ChunkHeader chunkHeader = reader.readChunkHeader(chunkGroupMetaInfo.getMarker());
@@ -414,16 +1021,32 @@ public class TsFileAnalyserV13 {
           chunkHeader.increasePageNums(1);
         }
       } else {
-        // only one page without statistic, we need to iterate each point to generate chunk
-        // statistic
+        // only one page without statistic, the chunk statistic is taken from the index
         PageHeader pageHeader = reader.readPageHeader(chunkHeader.getDataType(), false);
-        System.out.println(
-            "only one page without statistic, reader position1:" + reader.position());
+        Statistics<? extends Serializable> indexedStatistics =
+            findIndexedChunkStatistics(deviceId, measurementID, chunkOffset);
+        if (indexedStatistics != null) {
+          reader.skipPageData(pageHeader);
+          chunkStatistics = indexedStatistics;
+          if ((chunkHeader.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
+              == TsFileConstant.TIME_COLUMN_MASK) {
+            alignedFlag = 1;
+          } else if ((chunkHeader.getChunkType() & TsFileConstant.VALUE_COLUMN_MASK)
+              == TsFileConstant.VALUE_COLUMN_MASK) {
+            alignedFlag = 2;
+          }
+          chunkHeader.increasePageNums(1);
+          addChunkMetadata(
+              chunkGroupMetaInfo,
+              chunkHeader,
+              new ChunkMetadata(measurementID, dataType, chunkOffset, chunkStatistics),
+              alignedFlag);
+          return;
+        }
+        // not in the index, we need to iterate each point to generate chunk statistic
         Decoder valueDecoder =
             Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
         ByteBuffer pageData = reader.readPage(pageHeader, chunkHeader.getCompressionType());
-        System.out.println(
-            "only one page without statistic, reader position2:" + reader.position());
         Decoder timeDecoder =
             Decoder.getDecoderByType(
                 TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
@@ -445,8 +1068,14 @@ public class TsFileAnalyserV13 {
           // Value Chunk with only one page
           ValuePageReader valuePageReader =
               new ValuePageReader(pageHeader, pageData, chunkHeader.getDataType(), valueDecoder);
+          // the time chunk may have been resolved from the index without decoding its times
           TsPrimitiveType[] valueBatch =
-              valuePageReader.nextValueBatch(chunkGroupMetaInfo.getTimeBatch().get(0));
+              chunkGroupMetaInfo.getTimeBatch().isEmpty()
+                  ? null
+                  : valuePageReader.nextValueBatch(chunkGroupMetaInfo.getTimeBatch().get(0));
+          if (valueBatch == null) {
+            logger.warn("No decoded time column for the value chunk {}", measurementID);
+          }
           // 遍历每个数据点，并更新 chunk 的 statistic
           if (valueBatch != null && valueBatch.length != 0) {
             for (int i = 0; i < valueBatch.length; i++) {
@@ -482,7 +1111,15 @@ public class TsFileAnalyserV13 {
     // 构建 chunkMetadata
     ChunkMetadata chunkMetadata =
         new ChunkMetadata(measurementID, dataType, chunkOffset, chunkStatistics);
+    addChunkMetadata(chunkGroupMetaInfo, chunkHeader, chunkMetadata, alignedFlag);
+  }
 
+  /** @param alignedFlag 0 NonAligned, 1 TimeColumn, 2 ValueColumn */
+  private void addChunkMetadata(
+      ChunkGroupMetaInfo chunkGroupMetaInfo,
+      ChunkHeader chunkHeader,
+      ChunkMetadata chunkMetadata,
+      int alignedFlag) {
     if (alignedFlag == 1) {
       chunkGroupMetaInfo.setAlignedTimeChunkMetadata(chunkMetadata);
       chunkGroupMetaInfo.getChunkHeaderList().add(chunkHeader);
@@ -498,6 +1135,37 @@ public class TsFileAnalyserV13 {
     }
   }
 
+  /**
+   * @return statistics of the chunk from the loaded index, null if the index is not available or
+   *     does not hold the chunk
+   */
+  private Statistics<? extends Serializable> findIndexedChunkStatistics(
+      String deviceId, String measurementId, long chunkOffset) {
+    if (deviceId == null) {
+      return null;
+    }
+    TimeseriesMetadata timeseriesMetadata = getTimeseriesMetadata(deviceId, measurementId);
+    if (timeseriesMetadata == null || timeseriesMetadata.getChunkMetadataList() == null) {
+      return null;
+    }
+    // chunks of a series are listed in file order
+    List<IChunkMetadata> chunkMetadataList = timeseriesMetadata.getChunkMetadataList();
+    int low = 0;
+    int high = chunkMetadataList.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long offset = chunkMetadataList.get(mid).getOffsetOfChunkHeader();
+      if (offset < chunkOffset) {
+        low = mid + 1;
+      } else if (offset > chunkOffset) {
+        high = mid - 1;
+      } else {
+        return chunkMetadataList.get(mid).getStatistics();
+      }
+    }
+    return null;
+  }
+
   /**
    * 通过chunkMetadata获取chunk实例
    *
@@ -506,7 +1174,7 @@ public class TsFileAnalyserV13 {
   public ChunkModel fetchChunkByChunkMetadata(ChunkMetadata chunkMetadata)
       throws IOException, InterruptedException {
 
-    countDownLatch.await();
+    awaitLoaded();
     long offsetOfChunkHeader = chunkMetadata.getOffsetOfChunkHeader();
     reader.position(offsetOfChunkHeader);
     byte marker = reader.readMarker();
@@ -583,7 +1251,7 @@ public class TsFileAnalyserV13 {
    */
   public List<IPageInfo> fetchPageInfoListByIChunkMetadata(IChunkMetadata iChunkMetadata)
       throws IOException, InterruptedException {
-    countDownLatch.await();
+    awaitLoaded();
     List<IPageInfo> pageInfoList = new ArrayList<>();
     if (iChunkMetadata instanceof AlignedChunkMetadata) {
       AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) iChunkMetadata;
@@ -641,16 +1309,8 @@ public class TsFileAnalyserV13 {
           chunkStatistics.mergeStatistics(pageHeader.getStatistics());
           pageInfo.setStatistics(pageHeader.getStatistics());
         }
-        Decoder valueDecoder =
-            Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
-        ByteBuffer pageData = reader.readPage(pageHeader, chunkHeader.getCompressionType());
-        Decoder timeDecoder =
-            Decoder.getDecoderByType(
-                TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
-                TSDataType.INT64);
-        PageReader pageReader =
-            new PageReader(
-                pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, null);
+        // only the page header is needed here, the page data is read when the page is opened
+        reader.skipPageData(pageHeader);
 
         pageInfo.setUncompressedSize(pageHeader.getUncompressedSize());
         pageInfo.setCompressedSize(pageHeader.getCompressedSize());
@@ -668,16 +1328,7 @@ public class TsFileAnalyserV13 {
       // only one page without statistic, we need to iterate each point to generate
       // statistic
       PageHeader pageHeader = reader.readPageHeader(chunkHeader.getDataType(), false);
-      Decoder valueDecoder =
-          Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
-      ByteBuffer pageData = reader.readPage(pageHeader, chunkHeader.getCompressionType());
-      Decoder timeDecoder =
-          Decoder.getDecoderByType(
-              TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
-              TSDataType.INT64);
-      PageReader pageReader =
-          new PageReader(
-              pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, null);
+      reader.skipPageData(pageHeader);
 
       pageInfo.setUncompressedSize(pageHeader.getUncompressedSize());
       pageInfo.setCompressedSize(pageHeader.getCompressedSize());
@@ -758,6 +1409,310 @@ public class TsFileAnalyserV13 {
     return batchData;
   }
 
+  /**
+   * 通过 primitive decode path 获取页数据, 不构建 BatchData
+   *
+   * @param pageInfo PageInfo or AlignedPageInfo
+   * @return PrimitivePageData, one value column per value page for aligned pages
+   */
+  public PrimitivePageData fetchPrimitivePageData(IPageInfo pageInfo) throws IOException {
+    Decoder timeDecoder =
+        Decoder.getDecoderByType(
+            TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+            TSDataType.INT64);
+    if (pageInfo.getDataType() != TSDataType.VECTOR) {
+      PageHeader pageHeader = fetchPageHeader(pageInfo);
+      ByteBuffer pageData = reader.readPage(pageHeader, pageInfo.getCompressionType());
+      Decoder valueDecoder =
+          Decoder.getDecoderByType(pageInfo.getEncodingType(), pageInfo.getDataType());
+      return TsFilePrimitiveDecodeUtil.decodePage(
+          pageData, pageInfo.getDataType(), timeDecoder, valueDecoder, pointCount(pageHeader));
+    }
+    // 对齐时间序列: time page + value pages
+    IPageInfo timePageInfo = ((AlignedPageInfo) pageInfo).getTimePageInfo();
+    PageHeader timePageHeader = fetchPageHeader(timePageInfo);
+    ByteBuffer timeBuffer = reader.readPage(timePageHeader, timePageInfo.getCompressionType());
+    long[] times =
+        TsFilePrimitiveDecodeUtil.decodeTimes(timeBuffer, timeDecoder, pointCount(timePageHeader));
+    List<PrimitiveColumn> valueColumns = new ArrayList<>();
+    for (IPageInfo valuePageInfo : ((AlignedPageInfo) pageInfo).getValuePageInfoList()) {
+      PageHeader valuePageHeader = fetchPageHeader(valuePageInfo);
+      ByteBuffer valueBuffer =
+          reader.readPage(valuePageHeader, valuePageInfo.getCompressionType());
+      Decoder valueDecoder =
+          Decoder.getDecoderByType(valuePageInfo.getEncodingType(), valuePageInfo.getDataType());
+      valueColumns.add(
+          TsFilePrimitiveDecodeUtil.decodeValuePage(
+              valueBuffer, valuePageInfo.getDataType(), valueDecoder, times.length));
+    }
+    return new PrimitivePageData(times, valueColumns);
+  }
+
+  /**
+   * 将 chunk 的每个页解码为 Arrow 内存布局的向量 (Time + 每个值列一个向量), 交给 Arrow consumer 或写
+   * IPC 文件时不需要逐点构建对象
+   *
+   * @param chunkMetadata ChunkMetadata or AlignedChunkMetadata
+   * @return one batch per page
+   */
+  public List<ArrowBatch> fetchArrowBatches(IChunkMetadata chunkMetadata)
+      throws IOException, InterruptedException {
+    List<String> names = valueColumnNames(chunkMetadata);
+    List<ArrowBatch> batches = new ArrayList<>();
+    for (IPageInfo pageInfo : fetchPageInfoListByIChunkMetadata(chunkMetadata)) {
+      batches.add(ArrowLayoutUtil.toArrowBatch(fetchPrimitivePageData(pageInfo), names));
+    }
+    return batches;
+  }
+
+  /** names of the value columns of a chunk, one for a non-aligned chunk */
+  static List<String> valueColumnNames(IChunkMetadata chunkMetadata) {
+    List<String> names = new ArrayList<>();
+    if (chunkMetadata instanceof AlignedChunkMetadata) {
+      for (IChunkMetadata valueChunkMetadata :
+          ((AlignedChunkMetadata) chunkMetadata).getValueChunkMetadataList()) {
+        names.add(valueChunkMetadata.getMeasurementUid());
+      }
+    } else {
+      names.add(chunkMetadata.getMeasurementUid());
+    }
+    return names;
+  }
+
+  private int pointCount(PageHeader pageHeader) {
+    return pageHeader.getStatistics() == null ? -1 : (int) pageHeader.getStatistics().getCount();
+  }
+
+  /**
+   * 按时间点查找: 在序列 chunk 和 page 的有序起止时间数组上二分查找可能包含该时间戳的 page. 乱序数据的
+   * chunk/page 可能重叠, 从起始时间最晚的候选开始逆序解码, 直到某个 page 确实含有该时间戳
+   *
+   * @return the page holding the timestamp and its row, else the latest page covering the timestamp
+   *     without a point at it, the page is null if no page covers the timestamp
+   */
+  public PointLookupResult lookupPoint(String deviceId, String measurement, long timestamp)
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    PointLookupResult result = new PointLookupResult(deviceId, measurement, timestamp);
+    TimeseriesMetadata timeseriesMetadata = findTimeseriesMetadata(deviceId, measurement);
+    if (timeseriesMetadata != null
+        && (timeseriesMetadata.getTimeSeriesMetadataType() & TsFileConstant.VALUE_COLUMN_MASK)
+            != 0) {
+      throw new IOException(
+          "Can not look up the aligned series " + deviceId + "." + measurement + " by time");
+    }
+    SeriesTimeIndex timeIndex = getSeriesTimeIndex(new Path(deviceId, measurement));
+    for (int chunk = timeIndex.findChunk(timestamp, timeIndex.chunkCount());
+        chunk >= 0;
+        chunk = timeIndex.findChunk(timestamp, chunk)) {
+      if (!timeIndex.isPagesLoaded(chunk)) {
+        timeIndex.setPages(chunk, fetchPageInfoListByChunkMetadata(timeIndex.getChunk(chunk)));
+      }
+      for (int page = timeIndex.findPage(chunk, timestamp, timeIndex.pageCount(chunk));
+          page >= 0;
+          page = timeIndex.findPage(chunk, timestamp, page)) {
+        IPageInfo pageInfo = timeIndex.getPage(chunk, page);
+        if (result.getPageInfo() == null) {
+          result.setPageInfo(pageInfo);
+        }
+        PrimitivePageData pageData = fetchPrimitivePageData(pageInfo);
+        int row = Arrays.binarySearch(pageData.getTimes(), timestamp);
+        if (row >= 0) {
+          result.setPageInfo(pageInfo);
+          result.setRow(row);
+          result.setValue(pageData.getValueColumns().get(0).getObject(row));
+          return result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private SeriesTimeIndex getSeriesTimeIndex(Path path) throws IOException {
+    synchronized (seriesTimeIndexes) {
+      SeriesTimeIndex timeIndex = seriesTimeIndexes.get(path);
+      if (timeIndex == null) {
+        timeIndex =
+            new SeriesTimeIndex(
+                fetchChunkListsByDeviceIdAndMeasurementId(path.getDevice(), path.getMeasurement()));
+        seriesTimeIndexes.put(path, timeIndex);
+      }
+      return timeIndex;
+    }
+  }
+
+  /**
+   * M4 降采样: 获取一个页内各数值列的降采样结果, 用于页数据的图表展示
+   *
+   * @param pageInfo PageInfo or AlignedPageInfo
+   * @param bucketCount pixel width of the chart
+   * @return one DownsampledSeries per numeric value column
+   */
+  public List<DownsampledSeries> fetchDownsampledPage(IPageInfo pageInfo, int bucketCount)
+      throws IOException {
+    PrimitivePageData pageData = fetchPrimitivePageData(pageInfo);
+    List<DownsampledSeries> seriesList = new ArrayList<>();
+    long[] times = pageData.getTimes();
+    if (times.length == 0) {
+      return seriesList;
+    }
+    for (PrimitiveColumn column : pageData.getValueColumns()) {
+      if (column.getDataType() == TSDataType.TEXT) {
+        seriesList.add(new DownsampledSeries(null, new long[0], new double[0]));
+        continue;
+      }
+      M4Downsampler downsampler =
+          new M4Downsampler(times[0], times[times.length - 1], bucketCount);
+      downsampler.accept(times, column);
+      seriesList.add(downsampler.result(null));
+    }
+    return seriesList;
+  }
+
+  /**
+   * M4 降采样: 获取一条非对齐时间序列的降采样结果. 完全落在一个 bucket 内的 chunk 或 page 直接使用其
+   * Statistics, 不读取也不解码页数据
+   *
+   * @param startTime inclusive, {@link TimeRangeUtil#UNSET_START} for the start of the series
+   * @param endTime inclusive, {@link TimeRangeUtil#UNSET_END} for the end of the series
+   * @param bucketCount pixel width of the chart
+   */
+  public DownsampledSeries fetchDownsampledSeries(
+      String deviceId, String measurement, long startTime, long endTime, int bucketCount)
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    String name = deviceId + TsFileConstant.PATH_SEPARATOR + measurement;
+    List<ChunkMetadata> chunkMetadataList =
+        fetchChunkListsByDeviceIdAndMeasurementId(deviceId, measurement);
+    if (chunkMetadataList == null || chunkMetadataList.isEmpty()) {
+      return new DownsampledSeries(name, new long[0], new double[0]);
+    }
+    TSDataType dataType = chunkMetadataList.get(0).getDataType();
+    if (dataType == TSDataType.TEXT || dataType == TSDataType.VECTOR) {
+      throw new IOException("Can not draw the series " + name + " of type " + dataType);
+    }
+    long[] range = resolveTimeRange(chunkMetadataList, startTime, endTime);
+    if (range[1] < range[0]) {
+      return new DownsampledSeries(name, new long[0], new double[0]);
+    }
+
+    M4Downsampler downsampler = new M4Downsampler(range[0], range[1], bucketCount);
+    aggregateChunks(chunkMetadataList, dataType, downsampler);
+    DownsampledSeries series = downsampler.result(name);
+    logger.info(
+        "downsample {} into {} points, decoded points:{}, points from statistics:{}",
+        name,
+        series.size(),
+        series.getDecodedPointCount(),
+        series.getStatisticsPointCount());
+    return series;
+  }
+
+  /**
+   * 按时间分组聚合: 获取一条非对齐时间序列每个时间桶的 COUNT/AVG/MIN/MAX/FIRST/LAST. 完全落在一个桶内的
+   * chunk 或 page 直接合并其 Statistics, 只解码跨越桶边界的页
+   *
+   * @param startTime inclusive start of the first bucket, {@link TimeRangeUtil#UNSET_START} for the
+   *     start of the series
+   * @param endTime inclusive, {@link TimeRangeUtil#UNSET_END} for the end of the series
+   * @param interval width of a bucket
+   */
+  public AggregatedSeries fetchAggregatedSeries(
+      String deviceId, String measurement, long startTime, long endTime, long interval)
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    String name = deviceId + TsFileConstant.PATH_SEPARATOR + measurement;
+    List<ChunkMetadata> chunkMetadataList =
+        fetchChunkListsByDeviceIdAndMeasurementId(deviceId, measurement);
+    if (chunkMetadataList == null || chunkMetadataList.isEmpty()) {
+      return new AggregatedSeries(name, interval);
+    }
+    TSDataType dataType = chunkMetadataList.get(0).getDataType();
+    if (dataType == TSDataType.TEXT || dataType == TSDataType.VECTOR) {
+      throw new IOException("Can not aggregate the series " + name + " of type " + dataType);
+    }
+    long[] range = resolveTimeRange(chunkMetadataList, startTime, endTime);
+    if (range[1] < range[0]) {
+      return new AggregatedSeries(name, interval);
+    }
+
+    GroupByTimeAggregator aggregator = new GroupByTimeAggregator(range[0], range[1], interval);
+    aggregateChunks(chunkMetadataList, dataType, aggregator);
+    AggregatedSeries series = aggregator.result(name);
+    logger.info(
+        "aggregate {} into {} buckets, decoded points:{}, points from statistics:{}",
+        name,
+        series.size(),
+        series.getDecodedPointCount(),
+        series.getStatisticsPointCount());
+    return series;
+  }
+
+  /**
+   * @return [start, end], an unset bound (see {@link TimeRangeUtil}) is replaced by the one of the
+   *     series; 0 and negative timestamps are valid bounds
+   */
+  private long[] resolveTimeRange(
+      List<ChunkMetadata> chunkMetadataList, long startTime, long endTime) {
+    boolean startSet = TimeRangeUtil.isStartSet(startTime);
+    boolean endSet = TimeRangeUtil.isEndSet(endTime);
+    long rangeStart = startTime;
+    long rangeEnd = endTime;
+    if (!startSet || !endSet) {
+      long seriesStart = Long.MAX_VALUE;
+      long seriesEnd = Long.MIN_VALUE;
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        seriesStart = Math.min(seriesStart, chunkMetadata.getStartTime());
+        seriesEnd = Math.max(seriesEnd, chunkMetadata.getEndTime());
+      }
+      rangeStart = startSet ? rangeStart : seriesStart;
+      rangeEnd = endSet ? rangeEnd : seriesEnd;
+    }
+    return new long[] {rangeStart, rangeEnd};
+  }
+
+  /**
+   * feed the chunks of a non-aligned series to the aggregator: statistics for the chunks and pages
+   * inside one bucket, decoded points for the rest
+   */
+  private void aggregateChunks(
+      List<ChunkMetadata> chunkMetadataList, TSDataType dataType, BucketAggregator aggregator)
+      throws IOException {
+    // boolean statistics have no min and max value
+    boolean statisticsUsable = PrimitiveColumn.isNumeric(dataType);
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (!aggregator.overlaps(chunkMetadata.getStartTime(), chunkMetadata.getEndTime())) {
+        continue;
+      }
+      if (statisticsUsable
+          && aggregator.inSingleBucket(chunkMetadata.getStartTime(), chunkMetadata.getEndTime())) {
+        aggregator.accept(chunkMetadata.getStatistics());
+        continue;
+      }
+      for (IPageInfo pageInfo : fetchPageInfoListByChunkMetadata(chunkMetadata)) {
+        if (pageInfo.getUncompressedSize() == 0) {
+          continue;
+        }
+        // the only page of a chunk has no statistics of its own
+        Statistics<? extends Serializable> pageStatistics =
+            pageInfo.getStatistics() != null
+                ? pageInfo.getStatistics()
+                : chunkMetadata.getStatistics();
+        if (!aggregator.overlaps(pageStatistics.getStartTime(), pageStatistics.getEndTime())) {
+          continue;
+        }
+        if (statisticsUsable
+            && aggregator.inSingleBucket(
+                pageStatistics.getStartTime(), pageStatistics.getEndTime())) {
+          aggregator.accept(pageStatistics);
+          continue;
+        }
+        PrimitivePageData pageData = fetchPrimitivePageData(pageInfo);
+        aggregator.accept(pageData.getTimes(), pageData.getValueColumns().get(0));
+      }
+    }
+  }
+
   private PageHeader fetchPageHeader(IPageInfo pageInfo) throws IOException {
     // [uncompressedSize:int][compressedSize:int][statistics?][batchData]
     reader.position(pageInfo.getPosition());
@@ -792,7 +1747,7 @@ public class TsFileAnalyserV13 {
       int offset,
       int limit)
       throws IOException, InterruptedException {
-    countDownLatch.await();
+    awaitLoaded();
     if (Objects.equals(device, "") || Objects.equals(measurement, "")) {
       logger.warn(
           "device or measurement is empty, please check. device:[{}], measurement:[{}]",
@@ -800,31 +1755,21 @@ public class TsFileAnalyserV13 {
           measurement);
       return null;
     }
-    TsFileReader tsFileReader = new TsFileReader(reader);
     Path path = new Path(device, measurement);
     List<Path> paths = new ArrayList<>();
     paths.add(path);
-    IExpression timeFilter;
-    if (startTimestamp > 0 && endTimestamp > 0) {
-      timeFilter =
-          BinaryExpression.and(
-              new GlobalTimeExpression(TimeFilter.gt(startTimestamp)),
-              new GlobalTimeExpression(TimeFilter.ltEq(endTimestamp)));
-    } else if (endTimestamp > 0) {
-      timeFilter = new GlobalTimeExpression(TimeFilter.ltEq(endTimestamp));
-    } else {
-      timeFilter = new GlobalTimeExpression(TimeFilter.gt(startTimestamp));
-    }
+    IExpression timeFilter = MultiSeriesQueryExecutor.timeFilter(startTimestamp, endTimestamp);
 
     QueryExpression queryExpression;
     if (!(Objects.equals(value, ""))) {
       IExpression valueFilter = new SingleSeriesExpression(path, ValueFilter.eq(value));
-      IExpression finalExpression = BinaryExpression.and(timeFilter, valueFilter);
+      IExpression finalExpression =
+          timeFilter == null ? valueFilter : BinaryExpression.and(timeFilter, valueFilter);
       queryExpression = QueryExpression.create(paths, finalExpression);
     } else {
       queryExpression = QueryExpression.create(paths, timeFilter);
     }
-    QueryDataSet result = tsFileReader.query(queryExpression);
+    QueryDataSet result = getQueryEngine().query(queryExpression);
     if (limit > 0) {
       result.setRowLimit(limit);
     }
@@ -835,8 +1780,149 @@ public class TsFileAnalyserV13 {
     return result;
   }
 
+  /**
+   * 多序列查询：各序列并行读取，按时间戳归并成对齐的行，逐行交给 sink，结果不在内存中物化
+   *
+   * @param paths the columns of the rows, in order
+   * @param sink receives (timestamp, values) in time order, a value is null where its series has
+   *     no point
+   * @return number of rows
+   */
+  public long queryAlignedRows(
+      List<Path> paths,
+      long startTimestamp,
+      long endTimestamp,
+      MultiSeriesQueryExecutor.RowSink sink)
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    MultiSeriesQueryExecutor executor =
+        new MultiSeriesQueryExecutor(
+            getQueryEngine(), Runtime.getRuntime().availableProcessors());
+    long rowCount = executor.query(paths, startTimestamp, endTimestamp, sink);
+    logger.info("Aligned query of {} series returned {} rows", paths.size(), rowCount);
+    return rowCount;
+  }
+
+  /**
+   * 单次遍历数据区，把 chunk group、chunk、page header 及（按需）解压、解码后的 page 事件分发给所有 visitor
+   *
+   * @param visitors analyses sharing the pass, see {@link TsFileScanVisitor}
+   */
+  public void scanDataSection(TsFileScanVisitor... visitors) throws IOException {
+    TsFileDataScanner scanner = new TsFileDataScanner(filePath, scanIoOptions);
+    for (TsFileScanVisitor visitor : visitors) {
+      scanner.register(visitor);
+    }
+    scanner.scan();
+  }
+
+  /** the query engine of this file, its caches stay warm between searches */
+  public synchronized TsFileQueryEngine getQueryEngine() throws IOException {
+    if (queryEngine == null) {
+      queryEngine =
+          new TsFileQueryEngine(
+              reader,
+              path ->
+                  fetchChunkListsByDeviceIdAndMeasurementId(
+                      path.getDevice(), path.getMeasurement()),
+              queryMetadataCacheSize,
+              queryChunkCacheSize);
+    }
+    return queryEngine;
+  }
+
+  /**
+   * @param metadataCacheSize series whose chunk metadata lists the query engine caches
+   * @param chunkCacheSize chunks the query engine caches
+   */
+  public synchronized void setQueryCacheSize(int metadataCacheSize, int chunkCacheSize) {
+    this.queryMetadataCacheSize = metadataCacheSize;
+    this.queryChunkCacheSize = chunkCacheSize;
+    // recreated with the new sizes on the next query
+    queryEngine = null;
+  }
+
+  public synchronized int getQueryMetadataCacheSize() {
+    return queryMetadataCacheSize;
+  }
+
+  public synchronized int getQueryChunkCacheSize() {
+    return queryChunkCacheSize;
+  }
+
+  /**
+   * 预热查询引擎: 在第一次查询之前把设备下各序列的 ChunkMetadata 加载进缓存，超出缓存容量的序列不加载
+   *
+   * @param deviceIds devices selected for the search
+   * @return number of series whose chunk metadata is cached
+   */
+  public int warmUpQueryEngine(Collection<String> deviceIds)
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    Set<String> devices = new HashSet<>(deviceIds);
+    List<Path> paths = new ArrayList<>();
+    IMetadataIndex index = flatIndex();
+    if (index == null) {
+      for (Path path : loadedSeriesMetadataMap().keySet()) {
+        // not the time column of an aligned device
+        if (devices.contains(path.getDevice()) && !path.getMeasurement().isEmpty()) {
+          paths.add(path);
+        }
+      }
+    } else {
+      for (int node = 0; node < index.size(); node++) {
+        if (index.isSeries(node)
+            && index.getDataType(node) != TSDataType.VECTOR
+            && devices.contains(index.getDeviceId(node))) {
+          paths.add(new Path(index.getDeviceId(node), index.getMeasurementId(node)));
+        }
+      }
+    }
+    TsFileQueryEngine engine;
+    int cacheSize;
+    synchronized (this) {
+      engine = getQueryEngine();
+      cacheSize = queryMetadataCacheSize;
+    }
+    if (paths.size() > cacheSize) {
+      paths = paths.subList(0, cacheSize);
+    }
+    engine.warmUp(paths);
+    logger.info("warmed up the query engine with {} series of {}", paths.size(), deviceIds);
+    return paths.size();
+  }
+
   public AnalysedResultModel fetchAnalysedResultWithDeviceAndMeasurement(
       String deviceId, String measurement) throws IOException {
+    return fetchAnalysedResultWithDeviceAndMeasurement(
+        deviceId, measurement, TsFileEncodeCompressAnalysedUtil.ScoringProfile.BALANCED);
+  }
+
+  /**
+   * 分析序列各编码与压缩方式的大小、编码/压缩/解压/解码耗时并打分
+   *
+   * @param profile READ_WEIGHTED ranks by decompress and decode cost for read-heavy workloads
+   */
+  public AnalysedResultModel fetchAnalysedResultWithDeviceAndMeasurement(
+      String deviceId, String measurement, TsFileEncodeCompressAnalysedUtil.ScoringProfile profile)
+      throws IOException {
+    return fetchAnalysedResultWithDeviceAndMeasurement(deviceId, measurement, profile, null);
+  }
+
+  /**
+   * @param registry encode and compress candidates, null for the default settings. A registry with
+   *     parameter sweeps is pruned on the first page to the encode candidates with the smallest
+   *     output, the same candidates are then analysed on every page.
+   */
+  public AnalysedResultModel fetchAnalysedResultWithDeviceAndMeasurement(
+      String deviceId,
+      String measurement,
+      TsFileEncodeCompressAnalysedUtil.ScoringProfile profile,
+      EncodeCandidateRegistry registry)
+      throws IOException {
+    EncodeCandidateRegistry candidates =
+        registry == null ? TsFileEncodeCompressAnalysedUtil.getDefaultRegistry() : registry;
+    boolean prune = candidates.hasParameterSweeps();
     List<ChunkMetadata> chunkMetadataList =
         fetchChunkListsByDeviceIdAndMeasurementId(deviceId, measurement);
     AnalysedResultModel resultModel = new AnalysedResultModel();
@@ -845,6 +1931,8 @@ public class TsFileAnalyserV13 {
     List<EncodeCompressAnalysedModel> allModelList = new ArrayList<>();
     Map<String, EncodeCompressAnalysedModel> map = new HashMap<>();
     String currentKey = "";
+    // only for the value columns of an aligned device
+    NullDensityStatistics nullDensityStatistics = null;
     for (IChunkMetadata metadata : chunkMetadataList) {
       long startTime1 = System.currentTimeMillis();
       List<IPageInfo> pageInfoList = fetchPageInfoListByChunkMetadata(metadata);
@@ -853,25 +1941,46 @@ public class TsFileAnalyserV13 {
           currentKey =
               pageInfo.getEncodingType().name() + "-" + pageInfo.getCompressionType().name();
         }
+        TsPrimitiveType[] values;
+        byte[] bitmapSection = null;
         if ((pageInfo.getChunkType() & TsFileConstant.VALUE_COLUMN_MASK)
             == TsFileConstant.VALUE_COLUMN_MASK) {
-          // tsPrimitive
-          TsPrimitiveType[] values = fetchValueBatch(pageInfo);
-          countSize += values.length;
-          List<EncodeCompressAnalysedModel> models =
-              generateEncodeAndCompressAnalysedWithTsPrimitives(values);
-          if (models != null) {
-            allModelList.addAll(models);
+          if (nullDensityStatistics == null) {
+            nullDensityStatistics = new NullDensityStatistics();
+          }
+          if (pageInfo.getUncompressedSize() == 0) {
+            // an empty value page, every row is null
+            nullDensityStatistics.accept(0, 0, 0);
+            continue;
           }
+          // only the rows that are not null are decoded and analysed
+          TsFileValuePageReader pageReader = fetchValuePageReader(pageInfo);
+          values = pageReader.nonNullValueBatch();
+          bitmapSection = pageReader.getBitmapSection();
+          nullDensityStatistics.accept(
+              pageReader.getRowCount(),
+              pageReader.getRowCount() - values.length,
+              bitmapSection.length);
         } else {
           // BatchData
-          BatchData batchData = fetchBatchDataByPageInfo(pageInfo);
-          countSize += batchData.length();
-          List<EncodeCompressAnalysedModel> models =
-              generateEncodeAndCompressAnalysedWithBatchData(batchData);
-          if (models != null) {
-            allModelList.addAll(models);
-          }
+          values = toTsPrimitives(fetchBatchDataByPageInfo(pageInfo));
+        }
+        countSize += values.length;
+        if (prune && values.length > 0) {
+          candidates =
+              candidates.prune(
+                  values,
+                  MAX_SWEEP_ENCODE_CANDIDATES,
+                  Collections.singleton(pageInfo.getEncodingType().name()));
+          prune = false;
+        }
+        List<EncodeCompressAnalysedModel> models =
+            bitmapSection == null
+                ? generateEncodeAndCompressAnalysedWithTsPrimitives(values, candidates)
+                : generateEncodeAndCompressAnalysedWithTsPrimitives(
+                    values, candidates, bitmapSection);
+        if (models != null) {
+          allModelList.addAll(models);
         }
       }
       logger.info(
@@ -882,6 +1991,113 @@ public class TsFileAnalyserV13 {
               + countSize);
     }
 
+    mergeAnalysedModels(allModelList, map);
+    logger.info(
+        "encode analyse cost : "
+            + (System.currentTimeMillis() - startTime)
+            + " countSize : "
+            + countSize);
+    List<EncodeCompressAnalysedModel> sortedModels = sortedAnalysedModel(map, profile);
+
+    resultModel.setAnalysedList(sortedModels);
+    resultModel.setCurrentAnalysed(map.get(currentKey));
+    resultModel.setNullDensityStatistics(nullDensityStatistics);
+    return resultModel;
+  }
+
+  /**
+   * 时间列编码分析: 统计时间间隔的规律性与抖动, 并按 INT64 的各编码与压缩方式分析时间列的大小与耗时.
+   * 对齐序列分析设备的时间列
+   *
+   * @param registry encode and compress candidates, null for the default settings
+   */
+  public AnalysedResultModel fetchTimeColumnAnalysed(
+      String deviceId,
+      String measurement,
+      TsFileEncodeCompressAnalysedUtil.ScoringProfile profile,
+      EncodeCandidateRegistry registry)
+      throws IOException {
+    EncodeCandidateRegistry candidates =
+        registry == null ? TsFileEncodeCompressAnalysedUtil.getDefaultRegistry() : registry;
+    TimeseriesMetadata timeseriesMetadata = findTimeseriesMetadata(deviceId, measurement);
+    if (timeseriesMetadata != null
+        && (timeseriesMetadata.getTimeSeriesMetadataType() & TsFileConstant.VALUE_COLUMN_MASK)
+            != 0) {
+      // the time column of the aligned device
+      measurement = "";
+    }
+    String timeEncoding = TSFileDescriptor.getInstance().getConfig().getTimeEncoder();
+    boolean prune = candidates.hasParameterSweeps();
+    TimeColumnStatistics timeColumnStatistics = new TimeColumnStatistics();
+    List<EncodeCompressAnalysedModel> allModelList = new ArrayList<>();
+    String currentKey = "";
+    for (ChunkMetadata chunkMetadata :
+        fetchChunkListsByDeviceIdAndMeasurementId(deviceId, measurement)) {
+      for (IPageInfo pageInfo : fetchPageInfoListByChunkMetadata(chunkMetadata)) {
+        if (currentKey.isEmpty()) {
+          currentKey = timeEncoding + "-" + pageInfo.getCompressionType().name();
+        }
+        long[] times = fetchPageTimes(pageInfo);
+        timeColumnStatistics.accept(times);
+        TsPrimitiveType[] values = new TsPrimitiveType[times.length];
+        for (int i = 0; i < times.length; i++) {
+          values[i] = new TsPrimitiveType.TsLong(times[i]);
+        }
+        if (prune && values.length > 0) {
+          candidates =
+              candidates.prune(
+                  values, MAX_SWEEP_ENCODE_CANDIDATES, Collections.singleton(timeEncoding));
+          prune = false;
+        }
+        List<EncodeCompressAnalysedModel> models =
+            generateEncodeAndCompressAnalysedWithTsPrimitives(values, candidates);
+        if (models != null) {
+          allModelList.addAll(models);
+        }
+      }
+    }
+    Map<String, EncodeCompressAnalysedModel> map = new HashMap<>();
+    mergeAnalysedModels(allModelList, map);
+    AnalysedResultModel resultModel = new AnalysedResultModel();
+    resultModel.setAnalysedList(sortedAnalysedModel(map, profile));
+    resultModel.setCurrentAnalysed(map.get(currentKey));
+    resultModel.setTimeColumnStatistics(timeColumnStatistics);
+    return resultModel;
+  }
+
+  /**
+   * 统计文件中每个时间列的时间间隔规律性: 对齐设备共用一个时间列, 非对齐序列各有一个. 顺序遍历一次数据区, 只解码时间列
+   *
+   * @return the device of an aligned time column or the path of a series -> statistics, by name
+   */
+  public Map<String, TimeColumnStatistics> fetchTimeColumnStatistics()
+      throws IOException, InterruptedException {
+    awaitLoaded();
+    TimeColumnStatisticsVisitor visitor = new TimeColumnStatisticsVisitor();
+    scanDataSection(visitor);
+    return visitor.getTimeColumns();
+  }
+
+  /** the timestamps of a page of a non-aligned chunk or of an aligned time chunk */
+  private long[] fetchPageTimes(IPageInfo pageInfo) throws IOException {
+    PageHeader pageHeader = fetchPageHeader(pageInfo);
+    ByteBuffer pageData = reader.readPage(pageHeader, pageInfo.getCompressionType());
+    Decoder timeDecoder =
+        Decoder.getDecoderByType(
+            TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+            TSDataType.INT64);
+    if ((pageInfo.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
+        == TsFileConstant.TIME_COLUMN_MASK) {
+      return TsFilePrimitiveDecodeUtil.decodeTimes(pageData, timeDecoder, pointCount(pageHeader));
+    }
+    return TsFilePrimitiveDecodeUtil.decodePageTimes(
+        pageData, timeDecoder, pointCount(pageHeader));
+  }
+
+  /** sum the models of the pages per encoding and compression */
+  private static void mergeAnalysedModels(
+      List<EncodeCompressAnalysedModel> allModelList,
+      Map<String, EncodeCompressAnalysedModel> map) {
     for (EncodeCompressAnalysedModel model : allModelList) {
       String key = model.getEncodeName() + "-" + model.getCompressName();
       if (map.containsKey(key)) {
@@ -891,37 +2107,38 @@ public class TsFileAnalyserV13 {
         existModel.setCompressedSize(existModel.getCompressedSize() + model.getCompressedSize());
         existModel.setUncompressSize(existModel.getUncompressSize() + model.getUncompressSize());
         existModel.setCompressedCost(existModel.getCompressedCost() + model.getCompressedCost());
+        existModel.setEncodeCost(existModel.getEncodeCost() + model.getEncodeCost());
+        existModel.setDecompressCost(existModel.getDecompressCost() + model.getDecompressCost());
+        existModel.setDecodeCost(existModel.getDecodeCost() + model.getDecodeCost());
       } else {
         map.put(key, model);
       }
     }
-    logger.info(
-        "encode analyse cost : "
-            + (System.currentTimeMillis() - startTime)
-            + " countSize : "
-            + countSize);
-    List<EncodeCompressAnalysedModel> sortedModels = sortedAnalysedModel(map);
-
-    resultModel.setAnalysedList(sortedModels);
-    resultModel.setCurrentAnalysed(map.get(currentKey));
-    return resultModel;
   }
 
-  private List<ChunkMetadata> fetchChunkListsByDeviceIdAndMeasurementId(
+  /** chunk metadata of the series sorted by start time, from the loaded index when available */
+  List<ChunkMetadata> fetchChunkListsByDeviceIdAndMeasurementId(
       String deviceId, String measurement) throws IOException {
-    List<ChunkMetadata> chunkList = reader.getChunkMetadataList(new Path(deviceId, measurement));
+    TimeseriesMetadata timeseriesMetadata = findTimeseriesMetadata(deviceId, measurement);
+    if (timeseriesMetadata == null || timeseriesMetadata.getChunkMetadataList() == null) {
+      return new ArrayList<>();
+    }
+    List<ChunkMetadata> chunkList =
+        new ArrayList<>(timeseriesMetadata.getChunkMetadataList().size());
+    for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+      chunkList.add((ChunkMetadata) chunkMetadata);
+    }
+    chunkList.sort(Comparator.comparingLong(IChunkMetadata::getStartTime));
     return chunkList;
   }
 
-  private TsPrimitiveType[] fetchValueBatch(IPageInfo pageInfo) throws IOException {
+  private TsFileValuePageReader fetchValuePageReader(IPageInfo pageInfo) throws IOException {
 
     PageHeader pageHeader = fetchPageHeader(pageInfo);
     ByteBuffer dataBuffer = reader.readPage(pageHeader, pageInfo.getCompressionType());
     Decoder valueDecoder =
         Decoder.getDecoderByType(pageInfo.getEncodingType(), pageInfo.getDataType());
-    TsFileValuePageReader pageReader =
-        new TsFileValuePageReader(pageHeader, dataBuffer, pageInfo.getDataType(), valueDecoder);
-    return pageReader.allValueBatch();
+    return new TsFileValuePageReader(pageHeader, dataBuffer, pageInfo.getDataType(), valueDecoder);
   }
 
   public long getFileSize() {
@@ -948,9 +2165,30 @@ public class TsFileAnalyserV13 {
    * 获取timeSeriesMetadataNode
    *
    * @return TimeSeriesMetadataNode
+   * @throws IllegalStateException if the index is not held as {@link IndexMode#TREE}, after {@link
+   *     #materializeMappedIndex()} too
    */
   public TimeSeriesMetadataNode getTimeSeriesMetadataNode() throws InterruptedException {
-    countDownLatch.await();
+    awaitLoaded();
+    try {
+      return loadedTimeSeriesMetadataNode();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** the object tree, loaded on first use; there is none unless the index is held as TREE */
+  private synchronized TimeSeriesMetadataNode loadedTimeSeriesMetadataNode() throws IOException {
+    if (indexMode != IndexMode.TREE) {
+      throw new IllegalStateException(
+          "the index of " + filePath + " is held as " + indexMode + ", use getMetadataIndex()");
+    }
+    if (timeSeriesMetadataNode == null) {
+      // allCount has already been counted by the first load
+      long count = allCount;
+      timeSeriesMetadataNode = initTimeSeriesMetadataNodeAnalysed();
+      allCount = count;
+    }
     return timeSeriesMetadataNode;
   }
 
@@ -962,15 +2200,139 @@ public class TsFileAnalyserV13 {
     return rateOfProcess;
   }
 
+  /**
+   * progress of {@link #getFileLayout()}: 1 once the layout is built, otherwise the position of the
+   * data section scan building it
+   */
+  public double getFileLayoutProgress() {
+    return fileLayout != null ? 1.0 : scanProgress;
+  }
+
   public List<ChunkGroupMetadataModel> getChunkGroupMetadataModelList() {
     return chunkGroupMetadataModelList;
   }
 
-  public List<ChunkGroupInfo> getChunkGroupInfoList() {
+  public ChunkGroupInfoList getChunkGroupInfoList() {
     return chunkGroupInfoList;
   }
 
+  /**
+   * 以 struct-of-arrays 形式保存的索引树，只保留每个序列 TimeseriesMetadata 的位置和统计摘要，
+   * 用于序列很多、对象树放不进堆的文件，完整的元数据通过 {@link #readTimeseriesMetadata(int)} 按需读取
+   */
+  public synchronized CompactMetadataIndex getCompactMetadataIndex() throws IOException {
+    if (compactMetadataIndex == null) {
+      compactMetadataIndex = reader.buildCompactMetadataIndex();
+    }
+    return compactMetadataIndex;
+  }
+
+  /**
+   * 将索引写入临时文件并内存映射（堆外、定长记录 + 字符串表），之后释放堆上的 CompactMetadataIndex 和
+   * TimeSeriesMetadataNode 对象树；遍历与查找通过 flyweight 访问器直接读取映射内存，不再分配对象。
+   * 之后最新点、文件布局、序列查找与导出都基于映射索引，{@link #getTimeSeriesMetadataNode()} 抛出
+   * IllegalStateException
+   */
+  public MappedMetadataIndex materializeMappedIndex() throws IOException, InterruptedException {
+    // not under the lock: the loading thread takes it
+    awaitLoaded();
+    synchronized (this) {
+      MappedMetadataIndex index = writeMappedIndex();
+      indexMode = IndexMode.MAPPED;
+      return index;
+    }
+  }
+
+  private synchronized MappedMetadataIndex writeMappedIndex() throws IOException {
+    if (mappedMetadataIndex == null) {
+      File indexFile = File.createTempFile("tsfile-mt-index-", ".idx");
+      indexFile.deleteOnExit();
+      mappedMetadataIndex = MappedMetadataIndex.write(getCompactMetadataIndex(), indexFile);
+      compactMetadataIndex = null;
+      timeSeriesMetadataNode = null;
+      seriesMetadataMap = null;
+      logger.info(
+          "materialized {} index nodes of {} into {}",
+          mappedMetadataIndex.size(),
+          filePath,
+          indexFile);
+    }
+    return mappedMetadataIndex;
+  }
+
+  /** the mapped index once materialized, the compact index otherwise */
+  public synchronized IMetadataIndex getMetadataIndex() throws IOException {
+    return mappedMetadataIndex != null ? mappedMetadataIndex : getCompactMetadataIndex();
+  }
+
+  public IndexMode getIndexMode() {
+    return indexMode;
+  }
+
+  /** the flat index the readers go through, null while the object tree is the loaded index */
+  private IMetadataIndex flatIndex() throws IOException {
+    return indexMode == IndexMode.TREE ? null : getMetadataIndex();
+  }
+
+  /**
+   * read the full TimeseriesMetadata (with chunk metadata) of a series of the flat index
+   *
+   * @return an AlignedTimeSeriesMetadata of the time column and the value column for an aligned
+   *     value column
+   */
+  public ITimeSeriesMetadata readTimeseriesMetadata(int series) throws IOException {
+    IMetadataIndex index = getMetadataIndex();
+    TimeseriesMetadata timeseriesMetadata = readTimeseriesMetadata(index, series);
+    int timeColumn = index.getTimeColumn(series);
+    if (timeColumn < 0) {
+      return timeseriesMetadata;
+    }
+    return new AlignedTimeSeriesMetadata(
+        readTimeseriesMetadata(index, timeColumn),
+        Collections.singletonList(timeseriesMetadata));
+  }
+
+  private TimeseriesMetadata readTimeseriesMetadata(IMetadataIndex index, int series)
+      throws IOException {
+    long position = index.getPosition(series);
+    return TimeseriesMetadata.deserializeFrom(
+        reader.readDataFromReader(position, (int) (index.getSeriesEnd(series) - position)), true);
+  }
+
+  /** the decoded time column of a chunk, reduced to a hash and what it costs */
+  private static class ChunkTimeColumn {
+
+    private final String measurement;
+
+    private long hash = 1;
+
+    private long pointCount;
+
+    /** compressed share of the time column in the pages */
+    private long timeBytes;
+
+    /** [size:int][bitmap] the pages would carry as aligned value pages */
+    private long bitmapBytes;
+
+    private ChunkTimeColumn(String measurement) {
+      this.measurement = measurement;
+    }
+
+    private void accept(long[] times, long pageTimeBytes) {
+      for (long time : times) {
+        hash = Long.rotateLeft(hash ^ (time * 0x9E3779B97F4A7C15L), 31) * 0xBF58476D1CE4E5B9L;
+      }
+      pointCount += times.length;
+      timeBytes += pageTimeBytes;
+      bitmapBytes += Integer.BYTES + (times.length + 7) / 8;
+    }
+  }
+
   private class TsFileAnalysedToolReader extends TsFileSequenceReader {
+
+    /** device -> its aligned time column, the value columns may be in a later leaf node */
+    private final Map<String, TimeseriesMetadata> alignedTimeColumns = new HashMap<>();
+
     public TsFileAnalysedToolReader(String file) throws IOException {
       super(file);
     }
@@ -997,7 +2359,7 @@ public class TsFileAnalyserV13 {
         throws IOException {
       try {
         if (type.equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
-          TimeseriesMetadata alignedTime = null;
+          TimeseriesMetadata alignedTime = alignedTimeColumns.get(deviceId);
           List<TimeseriesMetadata> alignedValues = new ArrayList<>();
           AlignedTimeSeriesMetadata alignedTimeSeriesMetadata = null;
           boolean aligned = true;
@@ -1019,6 +2381,7 @@ public class TsFileAnalyserV13 {
               }
               aligned = true;
               alignedTime = new TimeseriesMetadata(timeseriesMetadata);
+              alignedTimeColumns.put(deviceId, alignedTime);
             } else if ((timeseriesMetadata.getTimeSeriesMetadataType()
                     & TsFileConstant.VALUE_COLUMN_MASK)
                 == TsFileConstant.VALUE_COLUMN_MASK) {
@@ -1041,7 +2404,7 @@ public class TsFileAnalyserV13 {
                       new Path(deviceId, timeseriesMetadata.getMeasurementId()),
                       timeseriesMetadata));
               TimeSeriesMetadataNode leafNode = new TimeSeriesMetadataNode();
-              leafNode.setChildren(new ArrayList<>());
+              leafNode.setChildren(Collections.emptyList());
               leafNode.setPosition(pos);
               leafNode.setDeviceId(deviceId);
               leafNode.setMeasurementId(timeseriesMetadata.getMeasurementId());
@@ -1113,7 +2476,7 @@ public class TsFileAnalyserV13 {
             new AlignedTimeSeriesMetadata(alignedTime, new ArrayList<>(alignedValues));
 
         TimeSeriesMetadataNode leafNode = new TimeSeriesMetadataNode();
-        leafNode.setChildren(new ArrayList<>());
+        leafNode.setChildren(Collections.emptyList());
         leafNode.setPosition(pos);
         leafNode.setDeviceId(deviceId);
         leafNode.setMeasurementId(alignedValues.get(0).getMeasurementId());
@@ -1168,6 +2531,100 @@ public class TsFileAnalyserV13 {
       return node;
     }
 
+    /**
+     * 广度优先遍历索引，同一节点的子节点连续存放；序列的 TimeseriesMetadata 只反序列化统计信息，
+     * 跳过 ChunkMetadata 列表
+     */
+    public CompactMetadataIndex buildCompactMetadataIndex() throws IOException {
+      if (tsFileMetaData == null) {
+        readFileMetadata();
+      }
+      CompactMetadataIndex index = new CompactMetadataIndex();
+      MetadataIndexNode rootNode = tsFileMetaData.getMetadataIndex();
+      int root = index.addRoot(rootNode.getNodeType());
+      index.setPosition(root, rootNode.getEndOffset());
+      // node, start, end, type of the entry, device
+      Deque<Object[]> pending = new ArrayDeque<>();
+      // device -> its time column, the value columns may be in a later leaf node
+      Map<String, Integer> timeColumns = new HashMap<>();
+      addCompactChildren(index, root, rootNode, null, pending);
+      while (!pending.isEmpty()) {
+        Object[] entry = pending.poll();
+        int node = (int) entry[0];
+        long start = (long) entry[1];
+        MetadataIndexNodeType type = (MetadataIndexNodeType) entry[3];
+        String deviceId = (String) entry[4];
+        ByteBuffer buffer = readData(start, (long) entry[2]);
+        if (type.equals(MetadataIndexNodeType.LEAF_MEASUREMENT)) {
+          addCompactSeries(index, node, start, buffer, deviceId, timeColumns);
+        } else {
+          MetadataIndexNode metadataIndexNode = MetadataIndexNode.deserializeFrom(buffer);
+          addCompactChildren(index, node, metadataIndexNode, deviceId, pending);
+        }
+        index.setPosition(node, start + buffer.position());
+      }
+      index.trimToSize();
+      return index;
+    }
+
+    private void addCompactChildren(
+        CompactMetadataIndex index,
+        int node,
+        MetadataIndexNode metadataIndexNode,
+        String deviceId,
+        Deque<Object[]> pending) {
+      List<MetadataIndexEntry> children = metadataIndexNode.getChildren();
+      MetadataIndexNodeType type = metadataIndexNode.getNodeType();
+      for (int i = 0; i < children.size(); i++) {
+        long endOffset =
+            i == children.size() - 1
+                ? metadataIndexNode.getEndOffset()
+                : children.get(i + 1).getOffset();
+        // deviceId should be determined by LEAF_DEVICE node
+        String childDeviceId =
+            type.equals(MetadataIndexNodeType.LEAF_DEVICE) ? children.get(i).getName() : deviceId;
+        int child = index.addNode(node, type, childDeviceId, children.get(i).getName());
+        pending.add(
+            new Object[] {child, children.get(i).getOffset(), endOffset, type, childDeviceId});
+      }
+    }
+
+    /** 对齐设备的时间列和每个值列各是一个序列，值列指向时间列 */
+    private void addCompactSeries(
+        CompactMetadataIndex index,
+        int node,
+        long startOffset,
+        ByteBuffer buffer,
+        String deviceId,
+        Map<String, Integer> timeColumns) {
+      while (buffer.hasRemaining()) {
+        long pos = startOffset + buffer.position();
+        TimeseriesMetadata timeseriesMetadata = TimeseriesMetadata.deserializeFrom(buffer, false);
+        byte type = timeseriesMetadata.getTimeSeriesMetadataType();
+        boolean timeColumn =
+            (type & TsFileConstant.TIME_COLUMN_MASK) == TsFileConstant.TIME_COLUMN_MASK;
+        boolean valueColumn =
+            (type & TsFileConstant.VALUE_COLUMN_MASK) == TsFileConstant.VALUE_COLUMN_MASK;
+        Statistics<? extends Serializable> statistics = timeseriesMetadata.getStatistics();
+        int series =
+            index.addSeries(
+                node,
+                deviceId,
+                timeseriesMetadata.getMeasurementId(),
+                pos,
+                timeColumn || valueColumn,
+                timeseriesMetadata.getTSDataType(),
+                statistics.getStartTime(),
+                statistics.getEndTime(),
+                statistics.getCount());
+        if (timeColumn) {
+          timeColumns.put(deviceId, series);
+        } else if (valueColumn) {
+          index.setTimeColumn(series, timeColumns.getOrDefault(deviceId, -1));
+        }
+      }
+    }
+
     public ByteBuffer readDataFromReader(long start, int totalSize) throws IOException {
       return readData(start, totalSize);
     }
@@ -0,0 +1,48 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.IPageInfo;
+import org.apache.iotdb.tool.core.util.ArrowVectorUtil;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the chunks of a file as Apache Arrow vectors: one VectorSchemaRoot per page, a "Time"
+ * vector and a nullable vector per value column, allocated by the caller's allocator. Kept apart
+ * from {@link TsFileAnalyserV13} so that Arrow stays an optional dependency: only the callers of
+ * this class need arrow-vector on the classpath.
+ */
+public class TsFileArrowReader {
+
+  private final TsFileAnalyserV13 analyser;
+
+  private final BufferAllocator allocator;
+
+  public TsFileArrowReader(TsFileAnalyserV13 analyser, BufferAllocator allocator) {
+    this.analyser = analyser;
+    this.allocator = allocator;
+  }
+
+  /** @return a root per page of the chunk, to be closed by the caller */
+  public List<VectorSchemaRoot> readChunk(IChunkMetadata chunkMetadata)
+      throws IOException, InterruptedException {
+    List<String> names = TsFileAnalyserV13.valueColumnNames(chunkMetadata);
+    List<VectorSchemaRoot> roots = new ArrayList<>();
+    try {
+      for (IPageInfo pageInfo : analyser.fetchPageInfoListByIChunkMetadata(chunkMetadata)) {
+        roots.add(
+            ArrowVectorUtil.toVectorSchemaRoot(
+                analyser.fetchPrimitivePageData(pageInfo), names, allocator));
+      }
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      roots.forEach(VectorSchemaRoot::close);
+      throw e;
+    }
+    return roots;
+  }
+}
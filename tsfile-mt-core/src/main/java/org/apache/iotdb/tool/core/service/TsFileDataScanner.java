@@ -0,0 +1,320 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tool.core.util.ReadAheadInputStream;
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+import org.apache.iotdb.tool.core.util.TsFilePrimitiveDecodeUtil;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One pass over the data section feeding every registered {@link TsFileScanVisitor}: the I/O, the
+ * header parsing, the decompression and the decoding of a page happen once however many analyses
+ * subscribe, and the last two only if some visitor needs them.
+ *
+ * <p>Usage: register the visitors, then {@link #scan()}. A scanner scans once.
+ */
+public class TsFileDataScanner {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileDataScanner.class);
+
+  private static final int READ_AHEAD_BLOCK_SIZE = 4 * 1024 * 1024;
+
+  private static final int READ_AHEAD_BLOCKS = 4;
+
+  private static final byte CHUNK_HEADER_MASK = (byte) 0x3F;
+
+  private final String filePath;
+
+  private final ScanIoOptions scanIoOptions;
+
+  private final List<TsFileScanVisitor> visitors = new ArrayList<>();
+
+  private final List<TsFileScanVisitor> pageDataVisitors = new ArrayList<>();
+
+  private final List<TsFileScanVisitor> decodedPageVisitors = new ArrayList<>();
+
+  /** times of the pages of the last aligned time chunk, for its value chunks */
+  private final List<long[]> alignedTimePages = new ArrayList<>();
+
+  /** some visitor of decoded pages needs their values, else only the times are decoded */
+  private boolean decodeValues;
+
+  private boolean scanned;
+
+  private long pageCount;
+
+  private long decompressedPageCount;
+
+  private long decodedPageCount;
+
+  /** where the scan stopped, at the separator or at a corrupted position */
+  private long position;
+
+  public TsFileDataScanner(String filePath, ScanIoOptions scanIoOptions) {
+    this.filePath = filePath;
+    this.scanIoOptions = scanIoOptions;
+  }
+
+  public TsFileDataScanner register(TsFileScanVisitor visitor) {
+    visitors.add(visitor);
+    if (visitor.needsPageData()) {
+      pageDataVisitors.add(visitor);
+    }
+    if (visitor.needsDecodedPages()) {
+      decodedPageVisitors.add(visitor);
+      decodeValues |= visitor.needsDecodedValues();
+    }
+    return this;
+  }
+
+  public synchronized void scan() throws IOException {
+    if (scanned) {
+      throw new IllegalStateException("the data section of " + filePath + " is already scanned");
+    }
+    scanned = true;
+    long headerLength = TSFileConfig.MAGIC_STRING.getBytes().length + Byte.BYTES;
+    long startTime = System.currentTimeMillis();
+    try (ReadAheadInputStream in =
+        new ReadAheadInputStream(
+            filePath, headerLength, READ_AHEAD_BLOCK_SIZE, READ_AHEAD_BLOCKS, scanIoOptions)) {
+      try {
+        scanMarkers(in);
+      } finally {
+        position = in.position();
+      }
+    }
+    for (TsFileScanVisitor visitor : visitors) {
+      visitor.onEnd();
+    }
+    logger.info(
+        "scanned {} pages of {} for {} visitors ({} on page data, {} on decoded pages), cost {} ms",
+        pageCount,
+        filePath,
+        visitors.size(),
+        pageDataVisitors.size(),
+        decodedPageVisitors.size(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  private void scanMarkers(ReadAheadInputStream in) throws IOException {
+    String deviceId = null;
+    byte marker;
+    while ((marker = readMarker(in)) != MetaMarker.SEPARATOR) {
+      switch (marker) {
+        case MetaMarker.CHUNK_HEADER:
+        case MetaMarker.TIME_CHUNK_HEADER:
+        case MetaMarker.VALUE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+          long chunkOffset = in.position() - Byte.BYTES;
+          ChunkHeader chunkHeader = ChunkHeader.deserializeFrom(in, marker);
+          for (TsFileScanVisitor visitor : visitors) {
+            visitor.onChunk(deviceId, chunkOffset, chunkHeader);
+          }
+          scanChunk(in, deviceId, chunkHeader);
+          break;
+        case MetaMarker.CHUNK_GROUP_HEADER:
+          long chunkGroupOffset = in.position() - Byte.BYTES;
+          ChunkGroupHeader chunkGroupHeader = ChunkGroupHeader.deserializeFrom(in, true);
+          deviceId = chunkGroupHeader.getDeviceID();
+          alignedTimePages.clear();
+          for (TsFileScanVisitor visitor : visitors) {
+            visitor.onChunkGroup(chunkGroupOffset, chunkGroupHeader);
+          }
+          break;
+        case MetaMarker.OPERATION_INDEX_RANGE:
+          long operationIndexOffset = in.position() - Byte.BYTES;
+          byte[] planIndexes = new byte[2 * Long.BYTES];
+          readFully(in, planIndexes);
+          ByteBuffer planIndexBuffer = ByteBuffer.wrap(planIndexes);
+          long minPlanIndex = planIndexBuffer.getLong();
+          long maxPlanIndex = planIndexBuffer.getLong();
+          for (TsFileScanVisitor visitor : visitors) {
+            visitor.onOperationIndexRange(operationIndexOffset, minPlanIndex, maxPlanIndex);
+          }
+          break;
+        default:
+          throw new IOException("Unexpected marker " + marker + " at " + (in.position() - 1));
+      }
+    }
+  }
+
+  private void scanChunk(ReadAheadInputStream in, String deviceId, ChunkHeader chunkHeader)
+      throws IOException {
+    long chunkDataEnd = in.position() + chunkHeader.getDataSize();
+    // the only page of a chunk has no statistics
+    boolean hasStatistics =
+        ((byte) (chunkHeader.getChunkType() & CHUNK_HEADER_MASK)) == MetaMarker.CHUNK_HEADER;
+    boolean timeChunk =
+        (chunkHeader.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
+            == TsFileConstant.TIME_COLUMN_MASK;
+    boolean valueChunk =
+        (chunkHeader.getChunkType() & TsFileConstant.VALUE_COLUMN_MASK)
+            == TsFileConstant.VALUE_COLUMN_MASK;
+    if (timeChunk) {
+      alignedTimePages.clear();
+    }
+    // without values to decode, the pages of a value chunk are not decoded at all
+    boolean decode = !decodedPageVisitors.isEmpty() && (decodeValues || !valueChunk);
+    boolean decompress = !pageDataVisitors.isEmpty() || decode;
+    int pageIndex = 0;
+    while (in.position() < chunkDataEnd) {
+      long pageOffset = in.position();
+      PageHeader pageHeader =
+          PageHeader.deserializeFrom(in, chunkHeader.getDataType(), hasStatistics);
+      pageCount++;
+      for (TsFileScanVisitor visitor : visitors) {
+        visitor.onPageHeader(deviceId, chunkHeader, pageOffset, pageHeader);
+      }
+      if (!decompress) {
+        skipFully(in, pageHeader.getCompressedSize());
+        pageIndex++;
+        continue;
+      }
+      ByteBuffer pageData = readPageData(in, chunkHeader, pageHeader);
+      decompressedPageCount++;
+      for (TsFileScanVisitor visitor : pageDataVisitors) {
+        visitor.onPageData(deviceId, chunkHeader, pageHeader, pageData.duplicate());
+      }
+      if (decode) {
+        PrimitivePageData decodedPage =
+            decodePage(
+                chunkHeader, pageHeader, pageData.duplicate(), timeChunk, valueChunk, pageIndex);
+        decodedPageCount++;
+        for (TsFileScanVisitor visitor : decodedPageVisitors) {
+          visitor.onDecodedPage(deviceId, chunkHeader, pageHeader, decodedPage);
+        }
+      }
+      pageIndex++;
+    }
+  }
+
+  /** pages scanned */
+  public long getPageCount() {
+    return pageCount;
+  }
+
+  /** pages decompressed, at most once each whatever the number of visitors */
+  public long getDecompressedPageCount() {
+    return decompressedPageCount;
+  }
+
+  /** pages decoded, at most once each whatever the number of visitors */
+  public long getDecodedPageCount() {
+    return decodedPageCount;
+  }
+
+  /** the position the scan stopped at, the separator or a corrupted position */
+  public long getPosition() {
+    return position;
+  }
+
+  private ByteBuffer readPageData(
+      ReadAheadInputStream in, ChunkHeader chunkHeader, PageHeader pageHeader) throws IOException {
+    byte[] compressed = new byte[pageHeader.getCompressedSize()];
+    readFully(in, compressed);
+    if (compressed.length == 0) {
+      // an empty value page, every row is null
+      return ByteBuffer.allocate(0);
+    }
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    return ByteBuffer.wrap(unCompressor.uncompress(compressed));
+  }
+
+  private PrimitivePageData decodePage(
+      ChunkHeader chunkHeader,
+      PageHeader pageHeader,
+      ByteBuffer pageData,
+      boolean timeChunk,
+      boolean valueChunk,
+      int pageIndex)
+      throws IOException {
+    int expectedCount =
+        pageHeader.getStatistics() == null ? -1 : (int) pageHeader.getStatistics().getCount();
+    if (timeChunk) {
+      long[] times =
+          TsFilePrimitiveDecodeUtil.decodeTimes(pageData, newTimeDecoder(), expectedCount);
+      alignedTimePages.add(times);
+      return new PrimitivePageData(times, Collections.emptyList());
+    }
+    if (!decodeValues) {
+      return new PrimitivePageData(
+          TsFilePrimitiveDecodeUtil.decodePageTimes(pageData, newTimeDecoder(), expectedCount),
+          Collections.emptyList());
+    }
+    Decoder valueDecoder =
+        Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    if (valueChunk) {
+      if (pageIndex >= alignedTimePages.size()) {
+        throw new IOException(
+            "no time page " + pageIndex + " for the value chunk " + chunkHeader.getMeasurementID());
+      }
+      long[] times = alignedTimePages.get(pageIndex);
+      List<PrimitiveColumn> valueColumns = new ArrayList<>(1);
+      valueColumns.add(
+          TsFilePrimitiveDecodeUtil.decodeValuePage(
+              pageData, chunkHeader.getDataType(), valueDecoder, times.length));
+      return new PrimitivePageData(times, valueColumns);
+    }
+    return TsFilePrimitiveDecodeUtil.decodePage(
+        pageData, chunkHeader.getDataType(), newTimeDecoder(), valueDecoder, expectedCount);
+  }
+
+  private static Decoder newTimeDecoder() {
+    return Decoder.getDecoderByType(
+        TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+        TSDataType.INT64);
+  }
+
+  private static byte readMarker(ReadAheadInputStream in) throws IOException {
+    int marker = in.read();
+    if (marker < 0) {
+      throw new EOFException("reach the end of file before the metadata separator");
+    }
+    return (byte) marker;
+  }
+
+  private static void readFully(ReadAheadInputStream in, byte[] bytes) throws IOException {
+    int offset = 0;
+    while (offset < bytes.length) {
+      int read = in.read(bytes, offset, bytes.length - offset);
+      if (read < 0) {
+        throw new EOFException("reach the end of file before the metadata separator");
+      }
+      offset += read;
+    }
+  }
+
+  private static void skipFully(ReadAheadInputStream in, long bytes) throws IOException {
+    long remaining = bytes;
+    while (remaining > 0) {
+      long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        throw new EOFException("reach the end of file inside a page");
+      }
+      remaining -= skipped;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.ChunkGroupInfo;
+import org.apache.iotdb.tool.core.model.ChunkLayoutInfo;
+import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * 遍历数据区时记录 ChunkGroup 与 chunk/page 的字节布局，只用到 header，不需要 page data.
+ *
+ * <p>A chunk group or a chunk is recorded once it is complete, when the next one or the end of the
+ * data section is reached: if the scan stops at a corrupted position, what was read before it is
+ * kept and the incomplete tail is dropped.
+ */
+public class TsFileLayoutVisitor implements TsFileScanVisitor {
+
+  private final List<ChunkGroupInfo> chunkGroupInfos;
+
+  private final List<ChunkLayoutInfo> chunkLayouts = new ArrayList<>();
+
+  private final LongConsumer progress;
+
+  private ChunkGroupInfo currentChunkGroup;
+
+  private ChunkLayoutInfo currentChunk;
+
+  /**
+   * @param chunkGroupInfos where the chunk groups are added, offset after the chunk group marker
+   * @param progress called with the offset of every chunk group and chunk
+   */
+  public TsFileLayoutVisitor(List<ChunkGroupInfo> chunkGroupInfos, LongConsumer progress) {
+    this.chunkGroupInfos = chunkGroupInfos;
+    this.progress = progress;
+  }
+
+  @Override
+  public void onChunkGroup(long offset, ChunkGroupHeader chunkGroupHeader) {
+    commitChunk();
+    commitChunkGroup();
+    currentChunkGroup = new ChunkGroupInfo(chunkGroupHeader.getDeviceID(), offset + Byte.BYTES);
+    progress.accept(offset);
+  }
+
+  @Override
+  public void onOperationIndexRange(long offset, long minPlanIndex, long maxPlanIndex) {
+    commitChunk();
+    commitChunkGroup();
+    progress.accept(offset);
+  }
+
+  @Override
+  public void onChunk(String deviceId, long offset, ChunkHeader chunkHeader) {
+    commitChunk();
+    currentChunk = new ChunkLayoutInfo(deviceId, offset, chunkHeader);
+    // the serialized chunk header counts the marker
+    currentChunk.setSize((long) chunkHeader.getSerializedSize() + chunkHeader.getDataSize());
+    progress.accept(offset);
+  }
+
+  @Override
+  public void onPageHeader(
+      String deviceId, ChunkHeader chunkHeader, long offset, PageHeader pageHeader) {
+    currentChunk.addPage(
+        offset,
+        pageHeader.getSerializedPageSize(),
+        pageHeader.getUncompressedSize(),
+        pageHeader.getCompressedSize(),
+        pageHeader.getStatistics() == null ? -1 : (int) pageHeader.getStatistics().getCount());
+  }
+
+  @Override
+  public void onEnd() {
+    commitChunk();
+    commitChunkGroup();
+  }
+
+  /** chunks in file order, complete ones only */
+  public List<ChunkLayoutInfo> getChunkLayouts() {
+    return chunkLayouts;
+  }
+
+  private void commitChunk() {
+    if (currentChunk != null) {
+      chunkLayouts.add(currentChunk);
+      currentChunk = null;
+    }
+  }
+
+  private void commitChunkGroup() {
+    if (currentChunkGroup != null) {
+      chunkGroupInfos.add(currentChunkGroup);
+      currentChunkGroup = null;
+    }
+  }
+}
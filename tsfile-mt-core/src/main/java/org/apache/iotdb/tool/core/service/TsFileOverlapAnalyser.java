@@ -0,0 +1,182 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.OverlapReport;
+import org.apache.iotdb.tool.core.model.SeriesOverlapModel;
+import org.apache.iotdb.tool.core.model.TimeRangeList;
+import org.apache.iotdb.tool.core.util.TimeRangeOverlapUtil;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sequence/unsequence overlap across TsFiles, computed from the index only: the ChunkMetadata
+ * statistics of every series are swept to find the time ranges read by more than one chunk, which
+ * forces a merge read.
+ */
+public class TsFileOverlapAnalyser {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileOverlapAnalyser.class);
+
+  private static final String TSFILE_SUFFIX = ".tsfile";
+
+  /** IoTDB keeps unsequence files under data/unsequence */
+  private static final String UNSEQUENCE_DIR = "unsequence";
+
+  private final List<String> filePaths;
+
+  private final boolean[] unseqFiles;
+
+  private final long pointsPerPage;
+
+  private final int threadCount;
+
+  public TsFileOverlapAnalyser(List<String> filePaths) {
+    this(
+        filePaths,
+        TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage(),
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param pointsPerPage points per page used to estimate the pages of an overlapped chunk
+   * @param threadCount files whose index is loaded in parallel
+   */
+  public TsFileOverlapAnalyser(List<String> filePaths, long pointsPerPage, int threadCount) {
+    this.filePaths = filePaths;
+    this.pointsPerPage = pointsPerPage;
+    this.threadCount = threadCount;
+    this.unseqFiles = new boolean[filePaths.size()];
+    for (int i = 0; i < filePaths.size(); i++) {
+      unseqFiles[i] = isUnsequence(filePaths.get(i));
+    }
+  }
+
+  public static boolean isUnsequence(String filePath) {
+    File parent = new File(filePath).getAbsoluteFile().getParentFile();
+    while (parent != null) {
+      if (UNSEQUENCE_DIR.equals(parent.getName())) {
+        return true;
+      }
+      parent = parent.getParentFile();
+    }
+    return false;
+  }
+
+  /** all tsfiles under the directory, recursively */
+  public static List<String> listTsFiles(File directory) {
+    List<String> filePaths = new ArrayList<>();
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return filePaths;
+    }
+    for (File file : files) {
+      if (file.isDirectory()) {
+        filePaths.addAll(listTsFiles(file));
+      } else if (file.getName().endsWith(TSFILE_SUFFIX)) {
+        filePaths.add(file.getPath());
+      }
+    }
+    return filePaths;
+  }
+
+  public OverlapReport analyse() throws IOException, InterruptedException {
+    Map<String, TimeRangeList> seriesRanges = new ConcurrentHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threadCount));
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < filePaths.size(); i++) {
+        int fileIndex = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  collectChunkRanges(fileIndex, seriesRanges);
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    List<SeriesOverlapModel> seriesOverlapList = new ArrayList<>(seriesRanges.size());
+    for (Map.Entry<String, TimeRangeList> entry : seriesRanges.entrySet()) {
+      seriesOverlapList.add(
+          TimeRangeOverlapUtil.analyse(
+              entry.getKey(), entry.getValue(), unseqFiles, pointsPerPage));
+    }
+    List<String> fileNames = new ArrayList<>(filePaths.size());
+    for (int i = 0; i < filePaths.size(); i++) {
+      fileNames.add((unseqFiles[i] ? "unseq:" : "seq:") + filePaths.get(i));
+    }
+    return new OverlapReport(fileNames, unseqFiles, seriesOverlapList);
+  }
+
+  /** load the index of one file and record the time range of each chunk per series */
+  private void collectChunkRanges(int fileIndex, Map<String, TimeRangeList> seriesRanges)
+      throws IOException {
+    long startTime = System.currentTimeMillis();
+    // the compact index, the TimeseriesMetadata of one index node at a time are on the heap
+    TsFileAnalyserV13 analyser =
+        TsFileAnalyserV13.openIndexOnly(
+            filePaths.get(fileIndex), TsFileAnalyserV13.IndexMode.COMPACT);
+    try {
+      analyser.forEachTimeseriesMetadata(
+          (deviceId, timeseriesMetadata) -> {
+            // the time column of an aligned device
+            if (timeseriesMetadata.getTSDataType() != TSDataType.VECTOR) {
+              collectChunkRanges(fileIndex, deviceId, timeseriesMetadata, seriesRanges);
+            }
+          });
+    } finally {
+      analyser.getReader().close();
+    }
+    logger.debug(
+        "load index of {} cost: {}",
+        filePaths.get(fileIndex),
+        System.currentTimeMillis() - startTime);
+  }
+
+  private void collectChunkRanges(
+      int fileIndex,
+      String deviceId,
+      TimeseriesMetadata timeseriesMetadata,
+      Map<String, TimeRangeList> seriesRanges) {
+    if (timeseriesMetadata == null || timeseriesMetadata.getChunkMetadataList() == null) {
+      return;
+    }
+    TimeRangeList ranges =
+        seriesRanges.computeIfAbsent(
+            deviceId + TsFileConstant.PATH_SEPARATOR + timeseriesMetadata.getMeasurementId(),
+            k -> new TimeRangeList());
+    for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+      if (chunkMetadata.getStatistics() == null) {
+        continue;
+      }
+      ranges.add(
+          chunkMetadata.getStartTime(),
+          chunkMetadata.getEndTime(),
+          chunkMetadata.getStatistics().getCount(),
+          fileIndex);
+    }
+  }
+}
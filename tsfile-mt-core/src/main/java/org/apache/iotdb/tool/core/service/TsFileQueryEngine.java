@@ -0,0 +1,130 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.CachedChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.read.query.executor.TsFileExecutor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Long-lived query engine of an open file. Unlike a new TsFileReader per search, the chunk metadata
+ * and chunk caches survive between queries, so repeated searches on the same file hit memory.
+ * Chunk metadata is resolved from the loaded index instead of the on-disk metadata index.
+ *
+ * <p>Queries may run concurrently: both caches are synchronized and the sequence reader is only
+ * read with positional reads on this path.
+ */
+public class TsFileQueryEngine {
+
+  public static final int DEFAULT_METADATA_CACHE_SIZE = 10000;
+
+  public static final int DEFAULT_CHUNK_CACHE_SIZE = 1000;
+
+  /** chunk metadata of a series, e.g. from the index loaded by TsFileAnalyserV13 */
+  public interface ChunkMetadataSource {
+    List<? extends IChunkMetadata> get(Path path) throws IOException;
+  }
+
+  private final IndexedMetadataQuerier metadataQuerier;
+
+  private final IChunkLoader chunkLoader;
+
+  /**
+   * @param metadataCacheSize series whose chunk metadata lists are cached
+   * @param chunkCacheSize chunks cached by the chunk loader
+   */
+  public TsFileQueryEngine(
+      TsFileSequenceReader reader,
+      ChunkMetadataSource chunkMetadataSource,
+      int metadataCacheSize,
+      int chunkCacheSize)
+      throws IOException {
+    this.metadataQuerier =
+        new IndexedMetadataQuerier(reader, chunkMetadataSource, metadataCacheSize);
+    this.chunkLoader = new CachedChunkLoaderImpl(reader, chunkCacheSize);
+  }
+
+  public QueryDataSet query(QueryExpression queryExpression) throws IOException {
+    // the executor is stateless, the caches are shared by all queries
+    return new TsFileExecutor(metadataQuerier, chunkLoader).execute(queryExpression);
+  }
+
+  /** load the chunk metadata of the series into the cache before the first query */
+  public void warmUp(List<Path> paths) throws IOException {
+    metadataQuerier.loadChunkMetaDatas(paths);
+  }
+
+  /** bounded LRU of chunk metadata lists filled from the loaded index */
+  private static class IndexedMetadataQuerier extends MetadataQuerierByFileImpl {
+
+    private final ChunkMetadataSource chunkMetadataSource;
+
+    private final Map<Path, List<IChunkMetadata>> cache;
+
+    private IndexedMetadataQuerier(
+        TsFileSequenceReader reader, ChunkMetadataSource chunkMetadataSource, int cacheSize)
+        throws IOException {
+      super(reader);
+      this.chunkMetadataSource = chunkMetadataSource;
+      this.cache =
+          new LinkedHashMap<Path, List<IChunkMetadata>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, List<IChunkMetadata>> eldest) {
+              return size() > cacheSize;
+            }
+          };
+    }
+
+    @Override
+    public List<IChunkMetadata> getChunkMetaDataList(Path path) throws IOException {
+      List<IChunkMetadata> chunkMetadataList;
+      synchronized (cache) {
+        chunkMetadataList = cache.get(path);
+      }
+      if (chunkMetadataList == null) {
+        chunkMetadataList = new ArrayList<>(chunkMetadataSource.get(path));
+        synchronized (cache) {
+          cache.put(path, chunkMetadataList);
+        }
+      }
+      // the executor may modify the list it gets
+      return new ArrayList<>(chunkMetadataList);
+    }
+
+    @Override
+    public Map<Path, List<IChunkMetadata>> getChunkMetaDataMap(List<Path> paths)
+        throws IOException {
+      Map<Path, List<IChunkMetadata>> chunkMetadataMap = new HashMap<>();
+      for (Path path : paths) {
+        chunkMetadataMap.put(path, getChunkMetaDataList(path));
+      }
+      return chunkMetadataMap;
+    }
+
+    @Override
+    public void loadChunkMetaDatas(List<Path> paths) throws IOException {
+      for (Path path : paths) {
+        getChunkMetaDataList(path);
+      }
+    }
+
+    @Override
+    public void clear() {
+      synchronized (cache) {
+        cache.clear();
+      }
+      super.clear();
+    }
+  }
+}
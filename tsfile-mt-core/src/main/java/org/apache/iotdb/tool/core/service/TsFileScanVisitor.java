@@ -0,0 +1,75 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An analysis fed by {@link TsFileDataScanner}. All visitors registered on a scanner share one pass
+ * over the data section, events come in file order. A page is decompressed only if a visitor
+ * {@link #needsPageData() needs its data} and decoded only if one {@link #needsDecodedPages()
+ * needs the points}, and then once for all of them.
+ */
+public interface TsFileScanVisitor {
+
+  /** subscribe to {@link #onPageData} */
+  default boolean needsPageData() {
+    return false;
+  }
+
+  /** subscribe to {@link #onDecodedPage} */
+  default boolean needsDecodedPages() {
+    return false;
+  }
+
+  /**
+   * with {@link #needsDecodedPages()}: false if the times are enough. If no visitor needs the
+   * values they are not decoded, and the pages of aligned value chunks are not passed to {@link
+   * #onDecodedPage}.
+   */
+  default boolean needsDecodedValues() {
+    return true;
+  }
+
+  /** @param offset offset of the chunk group marker */
+  default void onChunkGroup(long offset, ChunkGroupHeader chunkGroupHeader) throws IOException {}
+
+  /**
+   * the plan index range closing the chunk group before it
+   *
+   * @param offset offset of the marker
+   */
+  default void onOperationIndexRange(long offset, long minPlanIndex, long maxPlanIndex)
+      throws IOException {}
+
+  /** @param offset offset of the chunk marker */
+  default void onChunk(String deviceId, long offset, ChunkHeader chunkHeader) throws IOException {}
+
+  /**
+   * @param offset offset of the page header
+   * @param pageHeader without statistics if it is the only page of the chunk
+   */
+  default void onPageHeader(
+      String deviceId, ChunkHeader chunkHeader, long offset, PageHeader pageHeader)
+      throws IOException {}
+
+  /** @param pageData uncompressed page data, a view of its own for every visitor */
+  default void onPageData(
+      String deviceId, ChunkHeader chunkHeader, PageHeader pageHeader, ByteBuffer pageData)
+      throws IOException {}
+
+  /**
+   * @param pageData the points of the page. A page of an aligned time chunk has no value column, a
+   *     page of a value chunk carries the times of the corresponding time page.
+   */
+  default void onDecodedPage(
+      String deviceId, ChunkHeader chunkHeader, PageHeader pageHeader, PrimitivePageData pageData)
+      throws IOException {}
+
+  /** the end of the data section */
+  default void onEnd() throws IOException {}
+}
@@ -0,0 +1,396 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tool.core.util.CsvRowWriter;
+import org.apache.iotdb.tool.core.util.ParquetSeriesWriter;
+import org.apache.iotdb.tool.core.util.TsFilePrimitiveDecodeUtil;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports every series of a file to a CSV or Parquet file of its own (Time,value), decoding chunk
+ * by chunk through the primitive decode path; a chunk is a row group of the Parquet file. Series
+ * are exported in parallel, each worker with its own reader and at most one chunk in memory. The
+ * value columns of an aligned device are one task: each time chunk is decoded once and shared by
+ * the value chunks of all the columns, which keeps a file per column open. Chunks are written in
+ * the order of their start time, the points of overlapping unsequence chunks are not merged.
+ */
+public class TsFileSeriesExporter {
+
+  /** output file format, Parquet needs the optional parquet-format-structures dependency */
+  public enum Format {
+    CSV(".csv"),
+    PARQUET(".parquet");
+
+    private final String extension;
+
+    Format(String extension) {
+      this.extension = extension;
+    }
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileSeriesExporter.class);
+
+  private static final byte CHUNK_HEADER_MASK = (byte) 0x3F;
+
+  private final String filePath;
+
+  private final int parallelism;
+
+  private final List<ExportTask> tasks = new ArrayList<>();
+
+  private int seriesCount;
+
+  /**
+   * @param seriesMetadataMap the loaded index, see {@link TsFileAnalyserV13}: aligned devices
+   *     hold their time column under the measurement ""
+   */
+  public TsFileSeriesExporter(
+      String filePath, Map<Path, TimeseriesMetadata> seriesMetadataMap, int parallelism) {
+    this.filePath = filePath;
+    this.parallelism = Math.max(1, parallelism);
+    // one task per aligned device, over its time chunks
+    Map<String, ExportTask> deviceTasks = new HashMap<>();
+    for (Map.Entry<Path, TimeseriesMetadata> entry : seriesMetadataMap.entrySet()) {
+      if (entry.getValue().getTSDataType() == TSDataType.VECTOR) {
+        ExportTask task = new ExportTask(chunkMetadataList(entry.getValue()), true);
+        deviceTasks.put(entry.getKey().getDevice(), task);
+        tasks.add(task);
+      }
+    }
+    for (Map.Entry<Path, TimeseriesMetadata> entry : seriesMetadataMap.entrySet()) {
+      TimeseriesMetadata timeseriesMetadata = entry.getValue();
+      if (timeseriesMetadata.getTSDataType() == TSDataType.VECTOR) {
+        continue;
+      }
+      seriesCount++;
+      boolean aligned =
+          (timeseriesMetadata.getTimeSeriesMetadataType() & TsFileConstant.VALUE_COLUMN_MASK)
+              != 0;
+      if (!aligned) {
+        ExportTask task = new ExportTask(chunkMetadataList(timeseriesMetadata), false);
+        task.paths.add(entry.getKey());
+        task.dataTypes.add(timeseriesMetadata.getTSDataType());
+        tasks.add(task);
+        continue;
+      }
+      ExportTask task = deviceTasks.get(entry.getKey().getDevice());
+      if (task == null) {
+        throw new IllegalArgumentException(
+            "no time column of the aligned series " + entry.getKey());
+      }
+      task.addValueColumn(
+          entry.getKey(),
+          timeseriesMetadata.getTSDataType(),
+          chunkMetadataList(timeseriesMetadata));
+    }
+    tasks.removeIf(task -> task.paths.isEmpty());
+    tasks.sort(Comparator.comparing(task -> task.paths.get(0).getFullPath()));
+  }
+
+  private static List<ChunkMetadata> chunkMetadataList(TimeseriesMetadata timeseriesMetadata) {
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    if (timeseriesMetadata.getChunkMetadataList() != null) {
+      for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+        chunkMetadataList.add((ChunkMetadata) chunkMetadata);
+      }
+    }
+    chunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getStartTime));
+    return chunkMetadataList;
+  }
+
+  public int getSeriesCount() {
+    return seriesCount;
+  }
+
+  /**
+   * @param directory receives one &lt;device&gt;.&lt;measurement&gt;.csv per series
+   * @return number of exported points
+   */
+  public long exportCsv(File directory) throws IOException, InterruptedException {
+    return export(directory, Format.CSV);
+  }
+
+  /**
+   * @param directory receives one &lt;device&gt;.&lt;measurement&gt;.parquet per series, a row
+   *     group per chunk
+   * @return number of exported points
+   */
+  public long exportParquet(File directory) throws IOException, InterruptedException {
+    return export(directory, Format.PARQUET);
+  }
+
+  private long export(File directory, Format format) throws IOException, InterruptedException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Can not create the directory " + directory);
+    }
+    long startTime = System.currentTimeMillis();
+    AtomicInteger nextTask = new AtomicInteger();
+    AtomicLong pointCount = new AtomicLong();
+    List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < Math.min(parallelism, tasks.size()); i++) {
+      Thread worker =
+          new Thread(
+              () -> {
+                try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+                  int task;
+                  while (failures.isEmpty() && (task = nextTask.getAndIncrement()) < tasks.size()) {
+                    pointCount.addAndGet(export(reader, tasks.get(task), directory, format));
+                  }
+                } catch (IOException e) {
+                  failures.add(e);
+                } catch (RuntimeException e) {
+                  failures.add(new IOException(e));
+                }
+              },
+              "series-export-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    if (!failures.isEmpty()) {
+      throw failures.get(0);
+    }
+    logger.info(
+        "exported {} points of {} series from {} to {} as {}, cost {} ms",
+        pointCount.get(),
+        seriesCount,
+        filePath,
+        directory,
+        format,
+        System.currentTimeMillis() - startTime);
+    return pointCount.get();
+  }
+
+  private long export(
+      TsFileSequenceReader reader, ExportTask task, File directory, Format format)
+      throws IOException {
+    if (!task.aligned) {
+      long pointCount = 0;
+      try (SeriesWriter writer =
+          openWriter(directory, task.paths.get(0), task.dataTypes.get(0), format)) {
+        for (ChunkMetadata chunkMetadata : task.chunks) {
+          pointCount += writer.writeChunk(decodeChunk(reader, chunkMetadata, null));
+        }
+      }
+      return pointCount;
+    }
+    List<SeriesWriter> writers = new ArrayList<>(task.paths.size());
+    try {
+      for (int column = 0; column < task.paths.size(); column++) {
+        writers.add(
+            openWriter(directory, task.paths.get(column), task.dataTypes.get(column), format));
+      }
+      long pointCount = 0;
+      for (ChunkMetadata timeChunk : task.chunks) {
+        // decoded once for the value chunks of all the columns
+        List<long[]> timePages = null;
+        for (int column = 0; column < task.paths.size(); column++) {
+          ChunkMetadata valueChunk =
+              task.valueChunks.get(column).get(timeChunk.getOffsetOfChunkHeader());
+          if (valueChunk == null) {
+            continue;
+          }
+          if (timePages == null) {
+            timePages = new ArrayList<>();
+            for (PrimitivePageData page : decodeChunk(reader, timeChunk, null)) {
+              timePages.add(page.getTimes());
+            }
+          }
+          pointCount += writers.get(column).writeChunk(decodeChunk(reader, valueChunk, timePages));
+        }
+      }
+      return pointCount;
+    } finally {
+      for (SeriesWriter writer : writers) {
+        writer.close();
+      }
+    }
+  }
+
+  private static SeriesWriter openWriter(
+      File directory, Path path, TSDataType dataType, Format format) throws IOException {
+    File file = new File(directory, fileName(path, format));
+    if (format == Format.PARQUET) {
+      ParquetSeriesWriter parquetWriter = new ParquetSeriesWriter(file, path, dataType);
+      return new SeriesWriter() {
+        @Override
+        public long writeChunk(List<PrimitivePageData> pages) throws IOException {
+          return parquetWriter.writeRowGroup(pages);
+        }
+
+        @Override
+        public void close() throws IOException {
+          parquetWriter.close();
+        }
+      };
+    }
+    CsvRowWriter csvWriter = new CsvRowWriter(file, Collections.singletonList(path));
+    return new SeriesWriter() {
+      @Override
+      public long writeChunk(List<PrimitivePageData> pages) throws IOException {
+        long pointCount = 0;
+        for (PrimitivePageData page : pages) {
+          pointCount += csvWriter.writeColumn(page.getTimes(), page.getValueColumns().get(0));
+        }
+        return pointCount;
+      }
+
+      @Override
+      public void close() throws IOException {
+        csvWriter.close();
+      }
+    };
+  }
+
+  /**
+   * decode the pages of a chunk read with one positional read
+   *
+   * @param timePages the times of every page of the time chunk if this is an aligned value chunk
+   */
+  private static List<PrimitivePageData> decodeChunk(
+      TsFileSequenceReader reader, ChunkMetadata chunkMetadata, List<long[]> timePages)
+      throws IOException {
+    Chunk chunk = reader.readMemChunk(chunkMetadata);
+    ChunkHeader chunkHeader = chunk.getHeader();
+    ByteBuffer chunkData = chunk.getData();
+    boolean hasStatistics =
+        ((byte) (chunkHeader.getChunkType() & CHUNK_HEADER_MASK)) == MetaMarker.CHUNK_HEADER;
+    boolean timeChunk =
+        (chunkHeader.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
+            == TsFileConstant.TIME_COLUMN_MASK;
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    List<PrimitivePageData> pages = new ArrayList<>();
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader =
+          hasStatistics
+              ? PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType())
+              : PageHeader.deserializeFrom(chunkData, chunk.getChunkStatistic());
+      byte[] compressed = new byte[pageHeader.getCompressedSize()];
+      chunkData.get(compressed);
+      ByteBuffer pageData =
+          compressed.length == 0 ? null : ByteBuffer.wrap(unCompressor.uncompress(compressed));
+      int expectedCount =
+          pageHeader.getStatistics() == null ? -1 : (int) pageHeader.getStatistics().getCount();
+      if (timeChunk) {
+        long[] times =
+            TsFilePrimitiveDecodeUtil.decodeTimes(pageData, timeDecoder(), expectedCount);
+        pages.add(new PrimitivePageData(times, Collections.emptyList()));
+        continue;
+      }
+      Decoder valueDecoder =
+          Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+      if (timePages != null) {
+        long[] times = timePages.get(pages.size());
+        List<PrimitiveColumn> valueColumns = new ArrayList<>(1);
+        valueColumns.add(
+            TsFilePrimitiveDecodeUtil.decodeValuePage(
+                pageData, chunkHeader.getDataType(), valueDecoder, times.length));
+        pages.add(new PrimitivePageData(times, valueColumns));
+      } else {
+        pages.add(
+            TsFilePrimitiveDecodeUtil.decodePage(
+                pageData, chunkHeader.getDataType(), timeDecoder(), valueDecoder, expectedCount));
+      }
+    }
+    return pages;
+  }
+
+  private static Decoder timeDecoder() {
+    return Decoder.getDecoderByType(
+        TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+        TSDataType.INT64);
+  }
+
+  /** characters not allowed in file names on common file systems are replaced */
+  static String fileName(Path path, Format format) {
+    return path.getFullPath().replaceAll("[\\\\/:*?\"<>|]", "_") + format.extension;
+  }
+
+  /** the file of one series, written a chunk at a time */
+  private interface SeriesWriter extends Closeable {
+
+    /** @return number of written points, null rows skipped */
+    long writeChunk(List<PrimitivePageData> pages) throws IOException;
+  }
+
+  /** a non-aligned series, or the value columns of an aligned device over its time chunks */
+  private static class ExportTask {
+
+    private final List<Path> paths = new ArrayList<>();
+
+    private final List<TSDataType> dataTypes = new ArrayList<>();
+
+    /** the chunks of the series, or the time chunks of the device, by start time */
+    private final List<ChunkMetadata> chunks;
+
+    private final boolean aligned;
+
+    /** per value column: offset of the time chunk -> the value chunk following it */
+    private final List<Map<Long, ChunkMetadata>> valueChunks = new ArrayList<>();
+
+    /** offset -> time chunk, a value chunk follows its time chunk */
+    private final NavigableMap<Long, ChunkMetadata> timeChunkOffsets = new TreeMap<>();
+
+    private ExportTask(List<ChunkMetadata> chunks, boolean aligned) {
+      this.chunks = chunks;
+      this.aligned = aligned;
+      if (aligned) {
+        for (ChunkMetadata chunkMetadata : chunks) {
+          timeChunkOffsets.put(chunkMetadata.getOffsetOfChunkHeader(), chunkMetadata);
+        }
+      }
+    }
+
+    private void addValueColumn(
+        Path path, TSDataType dataType, List<ChunkMetadata> columnChunks) {
+      Map<Long, ChunkMetadata> byTimeChunk = new HashMap<>();
+      for (ChunkMetadata chunkMetadata : columnChunks) {
+        Long timeChunk = timeChunkOffsets.floorKey(chunkMetadata.getOffsetOfChunkHeader());
+        if (timeChunk == null) {
+          throw new IllegalArgumentException("no time chunk before the value chunk of " + path);
+        }
+        byTimeChunk.put(timeChunk, chunkMetadata);
+      }
+      paths.add(path);
+      dataTypes.add(dataType);
+      valueChunks.add(byTimeChunk);
+    }
+  }
+}
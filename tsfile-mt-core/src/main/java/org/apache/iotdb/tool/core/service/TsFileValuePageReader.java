@@ -73,45 +73,83 @@ public class TsFileValuePageReader {
    */
   public TsPrimitiveType[] allValueBatch() {
     TsPrimitiveType[] valueBatch = new TsPrimitiveType[size];
-    if (valueBuffer == null) {
+    if (valueBuffer == null || bitmap == null) {
       return valueBatch;
     }
-    for (int i = 0; i < size; i++) {
-      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-        continue;
-      }
-      switch (dataType) {
-        case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          valueBatch[i] = new TsPrimitiveType.TsBoolean(aBoolean);
-          break;
-        case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          valueBatch[i] = new TsPrimitiveType.TsInt(anInt);
-          break;
-        case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          valueBatch[i] = new TsPrimitiveType.TsLong(aLong);
-          break;
-        case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          valueBatch[i] = new TsPrimitiveType.TsFloat(aFloat);
-          break;
-        case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          valueBatch[i] = new TsPrimitiveType.TsDouble(aDouble);
-          break;
-        case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          valueBatch[i] = new TsPrimitiveType.TsBinary(aBinary);
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    // a zero byte is 8 null rows, the set bits of the others are visited without testing each row
+    for (int i = 0; i < bitmap.length; i++) {
+      int bits = bitmap[i] & lastByteMask(i);
+      while (bits != 0) {
+        int bit = Integer.numberOfLeadingZeros(bits) - (Integer.SIZE - Byte.SIZE);
+        valueBatch[i * 8 + bit] = readValue();
+        bits &= ~(MASK >>> bit);
       }
     }
     return valueBatch;
   }
 
+  /**
+   * the values of the rows that are not null, in row order. The values of a page are stored
+   * without gaps, so they are read one after the other without looking at the bitmap.
+   */
+  public TsPrimitiveType[] nonNullValueBatch() {
+    TsPrimitiveType[] valueBatch = new TsPrimitiveType[getNonNullCount()];
+    for (int i = 0; i < valueBatch.length; i++) {
+      valueBatch[i] = readValue();
+    }
+    return valueBatch;
+  }
+
+  /** rows of the page, null or not */
+  public int getRowCount() {
+    return size;
+  }
+
+  public int getNonNullCount() {
+    if (valueBuffer == null || bitmap == null) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = 0; i < bitmap.length; i++) {
+      count += Integer.bitCount(bitmap[i] & lastByteMask(i));
+    }
+    return count;
+  }
+
+  /** the serialized [size:int][bitmap] section, empty for an empty page */
+  public byte[] getBitmapSection() {
+    if (bitmap == null) {
+      return new byte[0];
+    }
+    return ByteBuffer.allocate(Integer.BYTES + bitmap.length).putInt(size).put(bitmap).array();
+  }
+
+  /** the bits of the last byte past the last row are not rows */
+  private int lastByteMask(int index) {
+    int tail = size % 8;
+    return index == bitmap.length - 1 && tail != 0 ? (0xFF << (8 - tail)) & 0xFF : 0xFF;
+  }
+
+  private TsPrimitiveType readValue() {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsPrimitiveType.TsBoolean(valueDecoder.readBoolean(valueBuffer));
+      case INT32:
+        return new TsPrimitiveType.TsInt(valueDecoder.readInt(valueBuffer));
+      case INT64:
+        return new TsPrimitiveType.TsLong(valueDecoder.readLong(valueBuffer));
+      case FLOAT:
+        return new TsPrimitiveType.TsFloat(valueDecoder.readFloat(valueBuffer));
+      case DOUBLE:
+        return new TsPrimitiveType.TsDouble(valueDecoder.readDouble(valueBuffer));
+      case TEXT:
+        Binary aBinary = valueDecoder.readBinary(valueBuffer);
+        return new TsPrimitiveType.TsBinary(aBinary);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   public TSDataType getDataType() {
     return dataType;
   }
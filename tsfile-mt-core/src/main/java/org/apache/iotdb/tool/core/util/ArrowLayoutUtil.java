@@ -0,0 +1,209 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.ArrowBatch;
+import org.apache.iotdb.tool.core.model.ArrowVector;
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays the primitive columns of a decoded page out as Arrow vectors. A numeric array is copied
+ * into its value buffer at once. The MSB-first bitmap of an aligned value page becomes the
+ * LSB-first validity buffer a byte at a time, and booleans are packed eight to a byte. The bytes
+ * of a TEXT value are copied once, after the offsets. No object is created per point.
+ *
+ * <p>The writers fill any little-endian buffer: the direct buffers of an {@link ArrowBatch} here,
+ * or the buffers of Apache Arrow vectors in {@link ArrowVectorUtil}.
+ */
+public class ArrowLayoutUtil {
+
+  public static final String TIME_COLUMN = "Time";
+
+  /** a byte with its bits in reverse order, from the TsFile bitmap to the Arrow validity */
+  private static final byte[] REVERSED_BITS = new byte[256];
+
+  static {
+    for (int i = 0; i < REVERSED_BITS.length; i++) {
+      REVERSED_BITS[i] = (byte) (Integer.reverse(i) >>> 24);
+    }
+  }
+
+  private ArrowLayoutUtil() {}
+
+  /** @param names names of the value columns, in the order of the columns of the page */
+  public static ArrowBatch toArrowBatch(PrimitivePageData pageData, List<String> names) {
+    checkNames(pageData, names);
+    long[] times = pageData.getTimes() == null ? new long[0] : pageData.getTimes();
+    ByteBuffer timeBuffer = allocate(times.length * Long.BYTES);
+    timeBuffer.asLongBuffer().put(times);
+    ArrowVector timeVector =
+        new ArrowVector(TIME_COLUMN, TSDataType.INT64, times.length, 0, null, timeBuffer, null);
+    List<ArrowVector> valueVectors = new ArrayList<>(names.size());
+    for (int i = 0; i < names.size(); i++) {
+      valueVectors.add(
+          toArrowVector(names.get(i), pageData.getValueColumns().get(i), times.length));
+    }
+    return new ArrowBatch(times.length, timeVector, valueVectors);
+  }
+
+  /** @param rowCount rows of the page, rows of an aligned column beyond its bitmap are null */
+  public static ArrowVector toArrowVector(String name, PrimitiveColumn column, int rowCount) {
+    ByteBuffer validity = null;
+    int nullCount = rowCount - Math.min(rowCount, column.getSize());
+    if (column.getBitmap() != null || nullCount > 0) {
+      validity = allocate(validityBufferSize(rowCount));
+      nullCount = writeValidity(validity, column, rowCount);
+      if (nullCount == 0) {
+        validity = null;
+      }
+    }
+    ByteBuffer values;
+    ByteBuffer offsets = null;
+    if (column.getDataType() == TSDataType.TEXT) {
+      offsets = allocate((rowCount + 1) * Integer.BYTES);
+      values = allocate(textDataSize(column, rowCount));
+      writeText(offsets, values, column, rowCount);
+    } else {
+      values = allocate(valueBufferSize(column.getDataType(), rowCount));
+      writeValues(values, column, rowCount);
+    }
+    return new ArrowVector(
+        name, column.getDataType(), rowCount, nullCount, validity, values, offsets);
+  }
+
+  /** bytes of the validity buffer, or of the values of a BOOLEAN column */
+  public static int validityBufferSize(int rowCount) {
+    return (rowCount + 7) >>> 3;
+  }
+
+  /** bytes of the values of a fixed width column */
+  public static int valueBufferSize(TSDataType dataType, int rowCount) {
+    switch (dataType) {
+      case BOOLEAN:
+        return validityBufferSize(rowCount);
+      case INT32:
+      case FLOAT:
+        return rowCount * Integer.BYTES;
+      case INT64:
+      case DOUBLE:
+        return rowCount * Long.BYTES;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /** bytes of the values of a TEXT column */
+  public static int textDataSize(PrimitiveColumn column, int rowCount) {
+    Binary[] binaryValues = column.getBinaryValues();
+    int dataSize = 0;
+    for (int row = 0; row < Math.min(rowCount, column.getSize()); row++) {
+      if (binaryValues[row] != null) {
+        dataSize += binaryValues[row].getLength();
+      }
+    }
+    return dataSize;
+  }
+
+  /**
+   * write the validity of the column, 1 for a non-null row, from index 0
+   *
+   * @return the null count
+   */
+  public static int writeValidity(ByteBuffer validity, PrimitiveColumn column, int rowCount) {
+    int valueCount = Math.min(rowCount, column.getSize());
+    byte[] bitmap = column.getBitmap();
+    int nonNullCount = 0;
+    for (int i = 0; i < validityBufferSize(rowCount); i++) {
+      int bits;
+      if (bitmap == null) {
+        bits = 0xFF;
+      } else {
+        bits = i < bitmap.length ? REVERSED_BITS[bitmap[i] & 0xFF] & 0xFF : 0;
+      }
+      // rows beyond the values of the column are null
+      int rows = valueCount - (i << 3);
+      if (rows < 8) {
+        bits &= rows > 0 ? (1 << rows) - 1 : 0;
+      }
+      validity.put(i, (byte) bits);
+      nonNullCount += Integer.bitCount(bits);
+    }
+    return rowCount - nonNullCount;
+  }
+
+  /** write the values of a fixed width column from index 0, null rows keep their slot */
+  public static void writeValues(ByteBuffer values, PrimitiveColumn column, int rowCount) {
+    int valueCount = Math.min(rowCount, column.getSize());
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        boolean[] booleanValues = column.getBooleanValues();
+        for (int i = 0; i < valueCount; i += 8) {
+          int bits = 0;
+          for (int bit = 0; bit < Math.min(8, valueCount - i); bit++) {
+            if (booleanValues[i + bit]) {
+              bits |= 1 << bit;
+            }
+          }
+          values.put(i >>> 3, (byte) bits);
+        }
+        break;
+      case INT32:
+        values.asIntBuffer().put(column.getIntValues(), 0, valueCount);
+        break;
+      case INT64:
+        values.asLongBuffer().put(column.getLongValues(), 0, valueCount);
+        break;
+      case FLOAT:
+        values.asFloatBuffer().put(column.getFloatValues(), 0, valueCount);
+        break;
+      case DOUBLE:
+        values.asDoubleBuffer().put(column.getDoubleValues(), 0, valueCount);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(column.getDataType()));
+    }
+  }
+
+  /**
+   * write the rowCount + 1 offsets and the bytes of a TEXT column from index 0
+   *
+   * @param data {@link #textDataSize} bytes
+   */
+  public static void writeText(
+      ByteBuffer offsets, ByteBuffer data, PrimitiveColumn column, int rowCount) {
+    int valueCount = Math.min(rowCount, column.getSize());
+    Binary[] binaryValues = column.getBinaryValues();
+    // a duplicate is big-endian
+    ByteBuffer offsetBytes = offsets.duplicate().order(offsets.order());
+    offsetBytes.clear();
+    IntBuffer offsetBuffer = offsetBytes.asIntBuffer();
+    ByteBuffer dataBuffer = data.duplicate();
+    dataBuffer.clear();
+    offsetBuffer.put(0);
+    for (int row = 0; row < rowCount; row++) {
+      if (row < valueCount && binaryValues[row] != null) {
+        dataBuffer.put(binaryValues[row].getValues());
+      }
+      offsetBuffer.put(dataBuffer.position());
+    }
+  }
+
+  static void checkNames(PrimitivePageData pageData, List<String> names) {
+    if (names.size() != pageData.getValueColumns().size()) {
+      throw new IllegalArgumentException(
+          names.size() + " names for " + pageData.getValueColumns().size() + " value columns");
+    }
+  }
+
+  private static ByteBuffer allocate(int size) {
+    return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,136 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes pages into Apache Arrow vectors: a BigIntVector "Time" and one nullable vector per value
+ * column (BitVector, IntVector, BigIntVector, Float4Vector, Float8Vector or VarCharVector). The
+ * buffers are allocated by the caller's allocator and written in place by {@link ArrowLayoutUtil},
+ * ready for an Arrow consumer or an ArrowStreamWriter / ArrowFileWriter.
+ *
+ * <p>Arrow is an optional dependency of tsfile-mt-core: callers of this class bring arrow-vector
+ * and an allocator implementation (arrow-memory-unsafe or arrow-memory-netty), and on Java 9+ run
+ * with {@code --add-opens=java.base/java.nio=ALL-UNNAMED}.
+ */
+public class ArrowVectorUtil {
+
+  private ArrowVectorUtil() {}
+
+  /**
+   * @param names names of the value columns, in the order of the columns of the page
+   * @return a root owning its vectors, to be closed by the caller
+   */
+  public static VectorSchemaRoot toVectorSchemaRoot(
+      PrimitivePageData pageData, List<String> names, BufferAllocator allocator) {
+    ArrowLayoutUtil.checkNames(pageData, names);
+    long[] times = pageData.getTimes() == null ? new long[0] : pageData.getTimes();
+    List<FieldVector> vectors = new ArrayList<>(names.size() + 1);
+    try {
+      BigIntVector timeVector =
+          new BigIntVector(
+              Field.notNullable(ArrowLayoutUtil.TIME_COLUMN, new ArrowType.Int(64, true)),
+              allocator);
+      vectors.add(timeVector);
+      timeVector.allocateNew(times.length);
+      timeVector.getValidityBuffer().setOne(0, ArrowLayoutUtil.validityBufferSize(times.length));
+      nioBuffer(timeVector.getDataBuffer(), times.length * Long.BYTES).asLongBuffer().put(times);
+      timeVector.setValueCount(times.length);
+      for (int i = 0; i < names.size(); i++) {
+        vectors.add(
+            toFieldVector(
+                names.get(i), pageData.getValueColumns().get(i), times.length, allocator));
+      }
+    } catch (RuntimeException e) {
+      vectors.forEach(FieldVector::close);
+      throw e;
+    }
+    List<Field> fields = new ArrayList<>(vectors.size());
+    for (FieldVector vector : vectors) {
+      fields.add(vector.getField());
+    }
+    return new VectorSchemaRoot(fields, vectors, times.length);
+  }
+
+  /**
+   * @param rowCount rows of the page, rows of an aligned column beyond its bitmap are null
+   * @return a nullable vector, to be closed by the caller
+   */
+  public static FieldVector toFieldVector(
+      String name, PrimitiveColumn column, int rowCount, BufferAllocator allocator) {
+    TSDataType dataType = column.getDataType();
+    FieldVector vector = Field.nullable(name, toArrowType(dataType)).createVector(allocator);
+    try {
+      if (dataType == TSDataType.TEXT) {
+        VarCharVector varCharVector = (VarCharVector) vector;
+        int dataSize = ArrowLayoutUtil.textDataSize(column, rowCount);
+        varCharVector.allocateNew(dataSize, rowCount);
+        ArrowLayoutUtil.writeText(
+            nioBuffer(varCharVector.getOffsetBuffer(), (rowCount + 1) * Integer.BYTES),
+            nioBuffer(varCharVector.getDataBuffer(), dataSize),
+            column,
+            rowCount);
+        // the offsets are written, no empty row to fill in
+        varCharVector.setLastSet(rowCount - 1);
+      } else {
+        ((BaseFixedWidthVector) vector).allocateNew(rowCount);
+        ArrowLayoutUtil.writeValues(
+            nioBuffer(
+                vector.getDataBuffer(), ArrowLayoutUtil.valueBufferSize(dataType, rowCount)),
+            column,
+            rowCount);
+      }
+      ArrowLayoutUtil.writeValidity(
+          nioBuffer(vector.getValidityBuffer(), ArrowLayoutUtil.validityBufferSize(rowCount)),
+          column,
+          rowCount);
+      vector.setValueCount(rowCount);
+    } catch (RuntimeException e) {
+      vector.close();
+      throw e;
+    }
+    return vector;
+  }
+
+  public static ArrowType toArrowType(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return ArrowType.Bool.INSTANCE;
+      case INT32:
+        return new ArrowType.Int(32, true);
+      case INT64:
+        return new ArrowType.Int(64, true);
+      case FLOAT:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+      case DOUBLE:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+      case TEXT:
+        return ArrowType.Utf8.INSTANCE;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /** the memory of an Arrow buffer, little-endian as Arrow lays it out */
+  private static ByteBuffer nioBuffer(ArrowBuf buffer, int length) {
+    return buffer.nioBuffer(0, length).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,22 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+/**
+ * Aggregates a series into time buckets. A chunk or page lying entirely inside one bucket is fed
+ * with its statistics, only the ones straddling a bucket boundary are decoded.
+ */
+public interface BucketAggregator {
+
+  boolean overlaps(long start, long end);
+
+  /** true if [start, end] is inside the range and inside a single bucket */
+  boolean inSingleBucket(long start, long end);
+
+  /** feed the statistics of a page or chunk checked by {@link #inSingleBucket(long, long)} */
+  void accept(Statistics<?> statistics);
+
+  /** feed decoded points, null rows of an aligned column are skipped */
+  void accept(long[] times, PrimitiveColumn column);
+}
@@ -0,0 +1,90 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A compression with one setting of its parameters, tried by the encoding advisor. The compressed
+ * data is decompressed by the uncompressor of the type, so a parameter may only change how hard
+ * the compressor works, not the format.
+ */
+public class CompressCandidate {
+
+  /** compresses exactly the given bytes */
+  public interface Compressor {
+    byte[] compress(byte[] data) throws IOException;
+  }
+
+  private final CompressionType compressionType;
+
+  /** e.g. "level=9", empty for the default setting */
+  private final String parameters;
+
+  private final Compressor compressor;
+
+  private final IUnCompressor unCompressor;
+
+  public CompressCandidate(
+      CompressionType compressionType, String parameters, Compressor compressor) {
+    this.compressionType = compressionType;
+    this.parameters = parameters;
+    this.compressor = compressor;
+    this.unCompressor = IUnCompressor.getUnCompressor(compressionType);
+  }
+
+  /** the compressor tsfile writes with, reused: the compressors are stateless */
+  public static CompressCandidate of(CompressionType compressionType, ICompressor compressor) {
+    return new CompressCandidate(compressionType, "", compressor::compress);
+  }
+
+  /** GZIP with a deflate level, 1 (fastest) to 9 (smallest) */
+  public static CompressCandidate gzip(int level) {
+    return new CompressCandidate(
+        CompressionType.GZIP, "level=" + level, data -> gzipCompress(data, level));
+  }
+
+  private static byte[] gzipCompress(byte[] data, int level) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 32);
+    try (OutputStream gzip = new LevelGZIPOutputStream(out, level)) {
+      gzip.write(data);
+    }
+    return out.toByteArray();
+  }
+
+  /** the name of the compression type, followed by the parameters if not the default setting */
+  public String getName() {
+    return parameters.isEmpty()
+        ? compressionType.name()
+        : compressionType.name() + "(" + parameters + ")";
+  }
+
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  public boolean isDefault() {
+    return parameters.isEmpty();
+  }
+
+  public byte[] compress(byte[] data) throws IOException {
+    return compressor.compress(data);
+  }
+
+  public byte[] uncompress(byte[] compressed) throws IOException {
+    return unCompressor.uncompress(compressed);
+  }
+
+  private static class LevelGZIPOutputStream extends GZIPOutputStream {
+
+    private LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+      super(out);
+      def.setLevel(level);
+    }
+  }
+}
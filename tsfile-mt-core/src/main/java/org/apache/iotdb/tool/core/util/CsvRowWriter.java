@@ -0,0 +1,127 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.service.MultiSeriesQueryExecutor;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the aligned rows of a multi-series query as CSV: a "Time,path..." header, then one line
+ * per row with an empty cell where a series has no point.
+ */
+public class CsvRowWriter implements MultiSeriesQueryExecutor.RowSink, Closeable {
+
+  private final Writer writer;
+
+  private final StringBuilder line = new StringBuilder();
+
+  public CsvRowWriter(File file, List<Path> paths) throws IOException {
+    this(
+        new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)),
+        paths);
+  }
+
+  public CsvRowWriter(Writer writer, List<Path> paths) throws IOException {
+    this.writer = writer;
+    line.append("Time");
+    for (Path path : paths) {
+      line.append(',');
+      appendCell(line, path.getFullPath());
+    }
+    writeLine();
+  }
+
+  @Override
+  public boolean accept(long timestamp, Object[] values) throws IOException {
+    line.append(timestamp);
+    for (Object value : values) {
+      line.append(',');
+      if (value != null) {
+        appendCell(line, value.toString());
+      }
+    }
+    writeLine();
+    return true;
+  }
+
+  /**
+   * write the decoded points of one series without boxing them, null rows of an aligned column are
+   * skipped
+   *
+   * @return number of written rows
+   */
+  public int writeColumn(long[] times, PrimitiveColumn column) throws IOException {
+    int written = 0;
+    for (int row = 0; row < times.length; row++) {
+      if (column.isNull(row)) {
+        continue;
+      }
+      line.append(times[row]).append(',');
+      switch (column.getDataType()) {
+        case BOOLEAN:
+          line.append(column.getBooleanValues()[row]);
+          break;
+        case INT32:
+          line.append(column.getIntValues()[row]);
+          break;
+        case INT64:
+          line.append(column.getLongValues()[row]);
+          break;
+        case FLOAT:
+          line.append(column.getFloatValues()[row]);
+          break;
+        case DOUBLE:
+          line.append(column.getDoubleValues()[row]);
+          break;
+        default:
+          appendCell(line, column.getBinaryValues()[row].getStringValue());
+      }
+      writeLine();
+      written++;
+    }
+    return written;
+  }
+
+  private void writeLine() throws IOException {
+    line.append('\n');
+    writer.append(line);
+    line.setLength(0);
+  }
+
+  /** quote the cell if it contains a separator, a quote or a line break */
+  static void appendCell(StringBuilder builder, String cell) {
+    boolean quote = false;
+    for (int i = 0; i < cell.length() && !quote; i++) {
+      char c = cell.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      builder.append(cell);
+      return;
+    }
+    builder.append('"');
+    for (int i = 0; i < cell.length(); i++) {
+      char c = cell.charAt(i);
+      if (c == '"') {
+        builder.append('"');
+      }
+      builder.append(c);
+    }
+    builder.append('"');
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
@@ -0,0 +1,55 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.util.function.Supplier;
+
+/** An encoding with one setting of its parameters, tried by the encoding advisor. */
+public class EncodeCandidate {
+
+  private final TSEncoding encoding;
+
+  /** e.g. "block_size=256", empty for the default setting */
+  private final String parameters;
+
+  private final Supplier<Encoder> encoderFactory;
+
+  public EncodeCandidate(TSEncoding encoding, Supplier<Encoder> encoderFactory) {
+    this(encoding, "", encoderFactory);
+  }
+
+  public EncodeCandidate(TSEncoding encoding, String parameters, Supplier<Encoder> encoderFactory) {
+    this.encoding = encoding;
+    this.parameters = parameters;
+    this.encoderFactory = encoderFactory;
+  }
+
+  /** the encoding name, followed by the parameters if not the default setting */
+  public String getName() {
+    return parameters.isEmpty() ? encoding.name() : encoding.name() + "(" + parameters + ")";
+  }
+
+  public TSEncoding getEncoding() {
+    return encoding;
+  }
+
+  public String getParameters() {
+    return parameters;
+  }
+
+  public boolean isDefault() {
+    return parameters.isEmpty();
+  }
+
+  public Encoder newEncoder() {
+    return encoderFactory.get();
+  }
+
+  /** the decoders read the parameters of the encoder from the encoded data */
+  public Decoder newDecoder(TSDataType dataType) {
+    return Decoder.getDecoderByType(encoding, dataType);
+  }
+}
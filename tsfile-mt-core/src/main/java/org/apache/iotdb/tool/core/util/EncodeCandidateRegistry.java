@@ -0,0 +1,250 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.DsTypeEncodeModel;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DictionaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The encodings, per data type, and the compressions the encoding advisor tries, each candidate
+ * being one setting of the parameters. {@link #defaults()} holds the default settings, {@link
+ * #withParameterSweeps()} adds other settings. As every encode candidate is compressed with every
+ * compress candidate, a sweep is {@link #prune pruned} on a sample before the analysis.
+ */
+public class EncodeCandidateRegistry {
+
+  private static final int[] DELTA_BLOCK_SIZES = {32, 256, 1024};
+
+  private static final int[] FLOAT_MAX_POINT_NUMBERS = {2, 4};
+
+  private static final int[] GZIP_LEVELS = {1, 9};
+
+  private final Map<TSDataType, List<EncodeCandidate>> encodeCandidates =
+      new EnumMap<>(TSDataType.class);
+
+  private final List<CompressCandidate> compressCandidates = new ArrayList<>();
+
+  /** encoders and decoders keep state between calls, reused per thread and per data type */
+  private final ThreadLocal<Map<TSDataType, DsTypeEncodeModel>> encodeModels =
+      ThreadLocal.withInitial(() -> new EnumMap<>(TSDataType.class));
+
+  public EncodeCandidateRegistry register(TSDataType dataType, EncodeCandidate candidate) {
+    encodeCandidates.computeIfAbsent(dataType, type -> new ArrayList<>()).add(candidate);
+    return this;
+  }
+
+  public EncodeCandidateRegistry register(CompressCandidate candidate) {
+    compressCandidates.add(candidate);
+    return this;
+  }
+
+  public List<EncodeCandidate> getEncodeCandidates(TSDataType dataType) {
+    return encodeCandidates.getOrDefault(dataType, Collections.emptyList());
+  }
+
+  public List<CompressCandidate> getCompressCandidates() {
+    return compressCandidates;
+  }
+
+  /** whether some candidate is not a default setting */
+  public boolean hasParameterSweeps() {
+    for (List<EncodeCandidate> candidates : encodeCandidates.values()) {
+      for (EncodeCandidate candidate : candidates) {
+        if (!candidate.isDefault()) {
+          return true;
+        }
+      }
+    }
+    for (CompressCandidate candidate : compressCandidates) {
+      if (!candidate.isDefault()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** the encodings of each data type and the compressions, with their default settings */
+  public static EncodeCandidateRegistry defaults() {
+    EncodeCandidateRegistry registry = new EncodeCandidateRegistry();
+    registry
+        .register(TSDataType.INT32, plain(TSDataType.INT32))
+        .register(TSDataType.INT32, new EncodeCandidate(TSEncoding.GORILLA, IntGorillaEncoder::new))
+        .register(TSDataType.INT32, new EncodeCandidate(TSEncoding.RLE, IntRleEncoder::new))
+        .register(
+            TSDataType.INT32,
+            new EncodeCandidate(TSEncoding.TS_2DIFF, DeltaBinaryEncoder.IntDeltaEncoder::new));
+    registry
+        .register(TSDataType.INT64, plain(TSDataType.INT64))
+        .register(
+            TSDataType.INT64, new EncodeCandidate(TSEncoding.GORILLA, LongGorillaEncoder::new))
+        .register(TSDataType.INT64, new EncodeCandidate(TSEncoding.RLE, LongRleEncoder::new))
+        .register(
+            TSDataType.INT64,
+            new EncodeCandidate(TSEncoding.TS_2DIFF, DeltaBinaryEncoder.LongDeltaEncoder::new));
+    registry
+        .register(TSDataType.FLOAT, plain(TSDataType.FLOAT))
+        .register(
+            TSDataType.FLOAT,
+            new EncodeCandidate(TSEncoding.GORILLA, SinglePrecisionEncoderV2::new));
+    registry
+        .register(TSDataType.DOUBLE, plain(TSDataType.DOUBLE))
+        .register(
+            TSDataType.DOUBLE,
+            new EncodeCandidate(TSEncoding.GORILLA, DoublePrecisionEncoderV2::new));
+    registry
+        .register(TSDataType.TEXT, plain(TSDataType.TEXT))
+        .register(
+            TSDataType.TEXT, new EncodeCandidate(TSEncoding.DICTIONARY, DictionaryEncoder::new));
+    return registry
+        .register(CompressCandidate.of(CompressionType.SNAPPY, new ICompressor.SnappyCompressor()))
+        .register(CompressCandidate.of(CompressionType.GZIP, new ICompressor.GZIPCompressor()))
+        .register(CompressCandidate.of(CompressionType.LZ4, new ICompressor.IOTDBLZ4Compressor()))
+        .register(
+            CompressCandidate.of(CompressionType.UNCOMPRESSED, new ICompressor.NoCompressor()));
+  }
+
+  /**
+   * the defaults plus TS_2DIFF block sizes for integers, TS_2DIFF and RLE with a max point number
+   * (decimal places kept, lossy) for floats, and GZIP levels
+   */
+  public static EncodeCandidateRegistry withParameterSweeps() {
+    EncodeCandidateRegistry registry = defaults();
+    for (int blockSize : DELTA_BLOCK_SIZES) {
+      registry
+          .register(
+              TSDataType.INT32,
+              new EncodeCandidate(
+                  TSEncoding.TS_2DIFF,
+                  "block_size=" + blockSize,
+                  () -> new DeltaBinaryEncoder.IntDeltaEncoder(blockSize)))
+          .register(
+              TSDataType.INT64,
+              new EncodeCandidate(
+                  TSEncoding.TS_2DIFF,
+                  "block_size=" + blockSize,
+                  () -> new DeltaBinaryEncoder.LongDeltaEncoder(blockSize)));
+    }
+    for (TSDataType dataType : new TSDataType[] {TSDataType.FLOAT, TSDataType.DOUBLE}) {
+      for (TSEncoding encoding : new TSEncoding[] {TSEncoding.TS_2DIFF, TSEncoding.RLE}) {
+        for (int maxPointNumber : FLOAT_MAX_POINT_NUMBERS) {
+          registry.register(
+              dataType,
+              new EncodeCandidate(
+                  encoding,
+                  "max_point_number=" + maxPointNumber,
+                  () -> new FloatEncoder(encoding, dataType, maxPointNumber)));
+        }
+      }
+    }
+    for (int level : GZIP_LEVELS) {
+      registry.register(CompressCandidate.gzip(level));
+    }
+    return registry;
+  }
+
+  /**
+   * keep, for the data type of the sample, the encode candidates giving the smallest encoded sample
+   * so the analysis compresses fewer candidates. Default PLAIN, the baseline of the analysis, and
+   * the candidates named in keep are never pruned. All the compress candidates are kept.
+   *
+   * @param sample values of a page, all of one data type
+   * @param maxCandidates encode candidates kept besides the mandatory ones
+   * @param keep names of candidates to keep, e.g. the encoding the series is written with
+   */
+  public EncodeCandidateRegistry prune(
+      TsPrimitiveType[] sample, int maxCandidates, Collection<String> keep) {
+    EncodeCandidateRegistry pruned = new EncodeCandidateRegistry();
+    pruned.encodeCandidates.putAll(encodeCandidates);
+    pruned.compressCandidates.addAll(compressCandidates);
+    if (sample.length == 0) {
+      return pruned;
+    }
+    TSDataType dataType = sample[0].getDataType();
+    List<EncodeCandidate> candidates = getEncodeCandidates(dataType);
+    long[] encodedSizes = new long[candidates.size()];
+    List<Integer> ranking = new ArrayList<>();
+    for (int i = 0; i < candidates.size(); i++) {
+      Encoder encoder = candidates.get(i).newEncoder();
+      PublicBAOS baos = new PublicBAOS();
+      for (TsPrimitiveType value : sample) {
+        TsFileEncodeCompressAnalysedUtil.tsPrimitiveTypeEncode(value, encoder, baos);
+      }
+      try {
+        encoder.flush(baos);
+        encodedSizes[i] = baos.size();
+      } catch (IOException e) {
+        // an encoder failing on the sample is not worth analysing
+        encodedSizes[i] = Long.MAX_VALUE;
+      }
+      ranking.add(i);
+    }
+    ranking.sort(Comparator.comparingLong(i -> encodedSizes[i]));
+    Set<Integer> kept = new HashSet<>(ranking.subList(0, Math.min(maxCandidates, ranking.size())));
+    List<EncodeCandidate> keptCandidates = new ArrayList<>();
+    for (int i = 0; i < candidates.size(); i++) {
+      EncodeCandidate candidate = candidates.get(i);
+      boolean baseline = candidate.isDefault() && candidate.getEncoding() == TSEncoding.PLAIN;
+      if (baseline || keep.contains(candidate.getName()) || kept.contains(i)) {
+        keptCandidates.add(candidate);
+      }
+    }
+    pruned.encodeCandidates.put(dataType, keptCandidates);
+    return pruned;
+  }
+
+  /** encoders, decoders and buffers of the candidates of the data type, null if none */
+  DsTypeEncodeModel encodeModel(TSDataType dataType) {
+    Map<TSDataType, DsTypeEncodeModel> models = encodeModels.get();
+    DsTypeEncodeModel model = models.get(dataType);
+    if (model == null && !getEncodeCandidates(dataType).isEmpty()) {
+      model = new DsTypeEncodeModel();
+      model.setTypeName(dataType.name());
+      List<String> encodeNameList = new ArrayList<>();
+      List<Encoder> encoders = new ArrayList<>();
+      List<Decoder> decoders = new ArrayList<>();
+      List<PublicBAOS> baos = new ArrayList<>();
+      for (EncodeCandidate candidate : getEncodeCandidates(dataType)) {
+        encodeNameList.add(candidate.getName());
+        encoders.add(candidate.newEncoder());
+        decoders.add(candidate.newDecoder(dataType));
+        baos.add(new PublicBAOS());
+      }
+      model.setEncodeNameList(encodeNameList);
+      model.setEncoders(encoders);
+      model.setDecoders(decoders);
+      model.setPublicBAOS(baos);
+      models.put(dataType, model);
+    }
+    return model;
+  }
+
+  private static EncodeCandidate plain(TSDataType dataType) {
+    return new EncodeCandidate(TSEncoding.PLAIN, () -> new PlainEncoder(dataType, 128));
+  }
+}
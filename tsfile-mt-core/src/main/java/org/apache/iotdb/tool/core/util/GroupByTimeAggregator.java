@@ -0,0 +1,203 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.AggregatedSeries;
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+/**
+ * Group-by-time aggregation: COUNT, SUM (so AVG), MIN, MAX, FIRST and LAST of every fixed-width
+ * bucket [startTime + i * interval, startTime + (i + 1) * interval). All of them can be merged from
+ * page or chunk statistics, so only the pages straddling a bucket boundary need to be decoded.
+ */
+public class GroupByTimeAggregator implements BucketAggregator {
+
+  /** the bucket arrays are allocated up front */
+  public static final int MAX_BUCKET_COUNT = 1 << 24;
+
+  private final long startTime;
+
+  private final long endTime;
+
+  private final long interval;
+
+  private final int bucketCount;
+
+  private final long[] counts;
+  private final double[] sums;
+  private final double[] minValues;
+  private final double[] maxValues;
+  private final long[] firstTimes;
+  private final double[] firstValues;
+  private final long[] lastTimes;
+  private final double[] lastValues;
+
+  private long decodedPointCount;
+
+  private long statisticsPointCount;
+
+  /**
+   * @param startTime inclusive start of the time range, the start of the first bucket
+   * @param endTime inclusive end of the time range
+   * @param interval width of a bucket, e.g. 60_000 for one minute in ms precision
+   */
+  public GroupByTimeAggregator(long startTime, long endTime, long interval) {
+    if (interval <= 0 || endTime < startTime) {
+      throw new IllegalArgumentException(
+          "illegal group by time range [" + startTime + ", " + endTime + "] / " + interval);
+    }
+    long count = ((endTime - startTime) / interval) + 1;
+    if (count > MAX_BUCKET_COUNT) {
+      throw new IllegalArgumentException(
+          count + " buckets exceed " + MAX_BUCKET_COUNT + ", use a larger interval");
+    }
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.interval = interval;
+    this.bucketCount = (int) count;
+    counts = new long[bucketCount];
+    sums = new double[bucketCount];
+    minValues = new double[bucketCount];
+    maxValues = new double[bucketCount];
+    firstTimes = new long[bucketCount];
+    firstValues = new double[bucketCount];
+    lastTimes = new long[bucketCount];
+    lastValues = new double[bucketCount];
+  }
+
+  public int bucketOf(long time) {
+    return (int) ((time - startTime) / interval);
+  }
+
+  @Override
+  public boolean overlaps(long start, long end) {
+    return end >= startTime && start <= endTime;
+  }
+
+  @Override
+  public boolean inSingleBucket(long start, long end) {
+    return start >= startTime && end <= endTime && bucketOf(start) == bucketOf(end);
+  }
+
+  @Override
+  public void accept(Statistics<?> statistics) {
+    int bucket = bucketOf(statistics.getStartTime());
+    update(
+        bucket,
+        statistics.getCount(),
+        sumOf(statistics),
+        M4Downsampler.toDouble(statistics.getMinValue()),
+        M4Downsampler.toDouble(statistics.getMaxValue()),
+        statistics.getStartTime(),
+        M4Downsampler.toDouble(statistics.getFirstValue()),
+        statistics.getEndTime(),
+        M4Downsampler.toDouble(statistics.getLastValue()));
+    statisticsPointCount += statistics.getCount();
+  }
+
+  public void accept(long time, double value) {
+    if (time < startTime || time > endTime) {
+      return;
+    }
+    update(bucketOf(time), 1, value, value, value, time, value, time, value);
+    decodedPointCount++;
+  }
+
+  @Override
+  public void accept(long[] times, PrimitiveColumn column) {
+    for (int i = 0; i < times.length; i++) {
+      if (!column.isNull(i)) {
+        accept(times[i], column.getDouble(i));
+      }
+    }
+  }
+
+  private void update(
+      int bucket,
+      long count,
+      double sum,
+      double min,
+      double max,
+      long firstTime,
+      double first,
+      long lastTime,
+      double last) {
+    if (counts[bucket] == 0) {
+      counts[bucket] = count;
+      sums[bucket] = sum;
+      minValues[bucket] = min;
+      maxValues[bucket] = max;
+      firstTimes[bucket] = firstTime;
+      firstValues[bucket] = first;
+      lastTimes[bucket] = lastTime;
+      lastValues[bucket] = last;
+      return;
+    }
+    counts[bucket] += count;
+    sums[bucket] += sum;
+    minValues[bucket] = Math.min(minValues[bucket], min);
+    maxValues[bucket] = Math.max(maxValues[bucket], max);
+    if (firstTime < firstTimes[bucket]) {
+      firstTimes[bucket] = firstTime;
+      firstValues[bucket] = first;
+    }
+    if (lastTime >= lastTimes[bucket]) {
+      lastTimes[bucket] = lastTime;
+      lastValues[bucket] = last;
+    }
+  }
+
+  /** non-empty buckets only */
+  public AggregatedSeries result(String name) {
+    int size = 0;
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      if (counts[bucket] > 0) {
+        size++;
+      }
+    }
+    long[] bucketStartTimes = new long[size];
+    long[] resultCounts = new long[size];
+    double[] resultSums = new double[size];
+    double[] resultMins = new double[size];
+    double[] resultMaxs = new double[size];
+    double[] resultFirsts = new double[size];
+    double[] resultLasts = new double[size];
+    int i = 0;
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      if (counts[bucket] == 0) {
+        continue;
+      }
+      bucketStartTimes[i] = startTime + bucket * interval;
+      resultCounts[i] = counts[bucket];
+      resultSums[i] = sums[bucket];
+      resultMins[i] = minValues[bucket];
+      resultMaxs[i] = maxValues[bucket];
+      resultFirsts[i] = firstValues[bucket];
+      resultLasts[i] = lastValues[bucket];
+      i++;
+    }
+    AggregatedSeries series =
+        new AggregatedSeries(
+            name,
+            interval,
+            bucketStartTimes,
+            resultCounts,
+            resultSums,
+            resultMins,
+            resultMaxs,
+            resultFirsts,
+            resultLasts);
+    series.setDecodedPointCount(decodedPointCount);
+    series.setStatisticsPointCount(statisticsPointCount);
+    return series;
+  }
+
+  /** INT32 statistics keep a long sum, the other numeric types a double sum */
+  private static double sumOf(Statistics<?> statistics) {
+    switch (statistics.getType()) {
+      case INT32:
+        return statistics.getSumLongValue();
+      default:
+        return statistics.getSumDoubleValue();
+    }
+  }
+}
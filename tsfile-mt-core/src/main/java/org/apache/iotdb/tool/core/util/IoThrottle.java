@@ -0,0 +1,57 @@
+package org.apache.iotdb.tool.core.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the bytes per second and the read requests per second of a scan. Every request reserves
+ * the time it costs under both limits and waits until the previous reservations have passed, so
+ * the reads are spread evenly instead of bursting.
+ */
+public class IoThrottle {
+
+  /** no limit */
+  public static final long UNLIMITED = 0;
+
+  private final long maxBytesPerSecond;
+
+  private final long maxIops;
+
+  /** time at which the next request may start */
+  private long nextFreeNanos = Long.MIN_VALUE;
+
+  /**
+   * @param maxBytesPerSecond {@link #UNLIMITED} or the bytes read per second
+   * @param maxIops {@link #UNLIMITED} or the read requests per second
+   */
+  public IoThrottle(long maxBytesPerSecond, long maxIops) {
+    this.maxBytesPerSecond = maxBytesPerSecond;
+    this.maxIops = maxIops;
+  }
+
+  public boolean isUnlimited() {
+    return maxBytesPerSecond <= 0 && maxIops <= 0;
+  }
+
+  /** block until a read of the given size may be issued */
+  public void acquire(long bytes) throws InterruptedException {
+    long waitNanos = reserve(bytes, System.nanoTime());
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  /** @return nanos to wait before the read starts */
+  synchronized long reserve(long bytes, long nowNanos) {
+    long cost = 0;
+    if (maxBytesPerSecond > 0) {
+      cost = (long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / maxBytesPerSecond);
+    }
+    if (maxIops > 0) {
+      cost = Math.max(cost, TimeUnit.SECONDS.toNanos(1) / maxIops);
+    }
+    // idle time is not saved up for a later burst
+    long start = nextFreeNanos == Long.MIN_VALUE ? nowNanos : Math.max(nowNanos, nextFreeNanos);
+    nextFreeNanos = start + cost;
+    return start - nowNanos;
+  }
+}
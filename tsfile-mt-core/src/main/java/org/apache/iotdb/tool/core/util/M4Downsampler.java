@@ -0,0 +1,180 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.DownsampledSeries;
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import java.util.Arrays;
+
+/**
+ * M4 downsampling: keep the first, last, min and max point of every pixel bucket, which renders
+ * exactly the same line chart as the raw points. Pages or chunks lying entirely inside one bucket
+ * can be fed with their statistics instead of their points.
+ */
+public class M4Downsampler implements BucketAggregator {
+
+  private final long startTime;
+
+  private final long endTime;
+
+  private final int bucketCount;
+
+  private final double bucketWidth;
+
+  private final boolean[] hasData;
+  private final long[] firstTimes;
+  private final double[] firstValues;
+  private final long[] lastTimes;
+  private final double[] lastValues;
+  private final long[] minTimes;
+  private final double[] minValues;
+  private final long[] maxTimes;
+  private final double[] maxValues;
+
+  private long decodedPointCount;
+
+  private long statisticsPointCount;
+
+  /**
+   * @param startTime inclusive start of the time range
+   * @param endTime inclusive end of the time range
+   * @param bucketCount normally the pixel width of the chart
+   */
+  public M4Downsampler(long startTime, long endTime, int bucketCount) {
+    if (bucketCount <= 0 || endTime < startTime) {
+      throw new IllegalArgumentException(
+          "illegal downsample range [" + startTime + ", " + endTime + "] / " + bucketCount);
+    }
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.bucketCount = bucketCount;
+    this.bucketWidth = ((double) endTime - startTime + 1) / bucketCount;
+    hasData = new boolean[bucketCount];
+    firstTimes = new long[bucketCount];
+    firstValues = new double[bucketCount];
+    lastTimes = new long[bucketCount];
+    lastValues = new double[bucketCount];
+    minTimes = new long[bucketCount];
+    minValues = new double[bucketCount];
+    maxTimes = new long[bucketCount];
+    maxValues = new double[bucketCount];
+  }
+
+  public int bucketOf(long time) {
+    int bucket = (int) ((time - startTime) / bucketWidth);
+    return Math.min(bucket, bucketCount - 1);
+  }
+
+  @Override
+  public boolean overlaps(long start, long end) {
+    return end >= startTime && start <= endTime;
+  }
+
+  @Override
+  public boolean inSingleBucket(long start, long end) {
+    return start >= startTime && end <= endTime && bucketOf(start) == bucketOf(end);
+  }
+
+  @Override
+  public void accept(Statistics<?> statistics) {
+    long start = statistics.getStartTime();
+    long end = statistics.getEndTime();
+    // the time of the extreme values is not recorded, any time inside the bucket draws the same
+    long middle = start + ((end - start) >>> 1);
+    int bucket = bucketOf(start);
+    update(bucket, start, toDouble(statistics.getFirstValue()));
+    update(bucket, end, toDouble(statistics.getLastValue()));
+    update(bucket, middle, toDouble(statistics.getMinValue()));
+    update(bucket, middle, toDouble(statistics.getMaxValue()));
+    statisticsPointCount += statistics.getCount();
+  }
+
+  public void accept(long time, double value) {
+    if (time < startTime || time > endTime) {
+      return;
+    }
+    update(bucketOf(time), time, value);
+    decodedPointCount++;
+  }
+
+  @Override
+  public void accept(long[] times, PrimitiveColumn column) {
+    for (int i = 0; i < times.length; i++) {
+      if (!column.isNull(i)) {
+        accept(times[i], column.getDouble(i));
+      }
+    }
+  }
+
+  private void update(int bucket, long time, double value) {
+    if (!hasData[bucket]) {
+      hasData[bucket] = true;
+      firstTimes[bucket] = lastTimes[bucket] = minTimes[bucket] = maxTimes[bucket] = time;
+      firstValues[bucket] = lastValues[bucket] = minValues[bucket] = maxValues[bucket] = value;
+      return;
+    }
+    if (time < firstTimes[bucket]) {
+      firstTimes[bucket] = time;
+      firstValues[bucket] = value;
+    }
+    if (time >= lastTimes[bucket]) {
+      lastTimes[bucket] = time;
+      lastValues[bucket] = value;
+    }
+    if (value < minValues[bucket]) {
+      minTimes[bucket] = time;
+      minValues[bucket] = value;
+    }
+    if (value > maxValues[bucket]) {
+      maxTimes[bucket] = time;
+      maxValues[bucket] = value;
+    }
+  }
+
+  /** at most four points per bucket, ordered by time */
+  public DownsampledSeries result(String name) {
+    long[] times = new long[bucketCount << 2];
+    double[] values = new double[bucketCount << 2];
+    long[] bucketTimes = new long[4];
+    double[] bucketValues = new double[4];
+    int size = 0;
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      if (!hasData[bucket]) {
+        continue;
+      }
+      bucketTimes[0] = firstTimes[bucket];
+      bucketValues[0] = firstValues[bucket];
+      // min and max in time order
+      boolean minFirst = minTimes[bucket] <= maxTimes[bucket];
+      bucketTimes[1] = minFirst ? minTimes[bucket] : maxTimes[bucket];
+      bucketValues[1] = minFirst ? minValues[bucket] : maxValues[bucket];
+      bucketTimes[2] = minFirst ? maxTimes[bucket] : minTimes[bucket];
+      bucketValues[2] = minFirst ? maxValues[bucket] : minValues[bucket];
+      bucketTimes[3] = lastTimes[bucket];
+      bucketValues[3] = lastValues[bucket];
+      for (int i = 0; i < 4; i++) {
+        if (size > 0 && times[size - 1] == bucketTimes[i] && values[size - 1] == bucketValues[i]) {
+          continue;
+        }
+        times[size] = bucketTimes[i];
+        values[size] = bucketValues[i];
+        size++;
+      }
+    }
+    DownsampledSeries series =
+        new DownsampledSeries(name, Arrays.copyOf(times, size), Arrays.copyOf(values, size));
+    series.setDecodedPointCount(decodedPointCount);
+    series.setStatisticsPointCount(statisticsPointCount);
+    return series;
+  }
+
+  static double toDouble(Object value) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    }
+    throw new IllegalArgumentException("statistics value is not numeric: " + value);
+  }
+}
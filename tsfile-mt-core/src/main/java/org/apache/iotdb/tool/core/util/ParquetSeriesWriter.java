@@ -0,0 +1,319 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.format.ConvertedType;
+import org.apache.parquet.format.DataPageHeader;
+import org.apache.parquet.format.Encoding;
+import org.apache.parquet.format.FieldRepetitionType;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.format.Type;
+import org.apache.parquet.format.Util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the points of one series as a Parquet file of two required columns, "Time" (INT64) and
+ * the series, PLAIN encoded and uncompressed. Each call of {@link #writeRowGroup} is a row group,
+ * one data page per decoded page: the exporter passes a chunk at a time, so the row groups follow
+ * the chunks of the TsFile and only the pages of one chunk are held in memory. Null rows of an
+ * aligned column are skipped. The footer is written on close.
+ *
+ * <p>Only the Thrift structures of parquet-format-structures are needed, an optional dependency
+ * of tsfile-mt-core, without Hadoop.
+ */
+public class ParquetSeriesWriter implements Closeable {
+
+  private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+  private static final String TIME_COLUMN = "Time";
+
+  private final OutputStream out;
+
+  private final String valueColumn;
+
+  private final TSDataType dataType;
+
+  private final List<RowGroup> rowGroups = new ArrayList<>();
+
+  private long position;
+
+  private long rowCount;
+
+  public ParquetSeriesWriter(File file, Path path, TSDataType dataType) throws IOException {
+    this(new BufferedOutputStream(new FileOutputStream(file)), path, dataType);
+  }
+
+  public ParquetSeriesWriter(OutputStream out, Path path, TSDataType dataType)
+      throws IOException {
+    this.out = out;
+    this.valueColumn = path.getFullPath();
+    this.dataType = dataType;
+    // fails before anything is written
+    toParquetType(dataType);
+    write(MAGIC);
+  }
+
+  /**
+   * write the pages of one chunk as a row group, the first value column of each page is the series
+   *
+   * @return number of written rows
+   */
+  public long writeRowGroup(List<PrimitivePageData> pages) throws IOException {
+    List<byte[]> timePages = new ArrayList<>(pages.size());
+    List<byte[]> valuePages = new ArrayList<>(pages.size());
+    List<Integer> pageRows = new ArrayList<>(pages.size());
+    long groupRows = 0;
+    for (PrimitivePageData page : pages) {
+      PrimitiveColumn column = page.getValueColumns().get(0);
+      int rows = nonNullCount(column, page.size());
+      if (rows == 0) {
+        continue;
+      }
+      timePages.add(encodeTimes(page.getTimes(), column, rows));
+      valuePages.add(encodeValues(column, page.size(), rows));
+      pageRows.add(rows);
+      groupRows += rows;
+    }
+    if (groupRows == 0) {
+      return 0;
+    }
+    long groupOffset = position;
+    ColumnChunk timeChunk =
+        writeColumnChunk(TIME_COLUMN, Type.INT64, timePages, pageRows, groupRows);
+    ColumnChunk valueChunk =
+        writeColumnChunk(valueColumn, toParquetType(dataType), valuePages, pageRows, groupRows);
+    long groupSize = position - groupOffset;
+    RowGroup rowGroup = new RowGroup(Arrays.asList(timeChunk, valueChunk), groupSize, groupRows);
+    rowGroup.setFile_offset(groupOffset);
+    rowGroup.setTotal_compressed_size(groupSize);
+    rowGroups.add(rowGroup);
+    rowCount += groupRows;
+    return groupRows;
+  }
+
+  private ColumnChunk writeColumnChunk(
+      String name, Type type, List<byte[]> pages, List<Integer> pageRows, long valueCount)
+      throws IOException {
+    long chunkOffset = position;
+    ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+    for (int i = 0; i < pages.size(); i++) {
+      byte[] page = pages.get(i);
+      // required columns have no repetition or definition levels
+      PageHeader pageHeader = new PageHeader(PageType.DATA_PAGE, page.length, page.length);
+      pageHeader.setData_page_header(
+          new DataPageHeader(pageRows.get(i), Encoding.PLAIN, Encoding.RLE, Encoding.RLE));
+      headerBytes.reset();
+      Util.writePageHeader(pageHeader, headerBytes);
+      write(headerBytes.toByteArray());
+      write(page);
+    }
+    long chunkSize = position - chunkOffset;
+    ColumnMetaData metaData =
+        new ColumnMetaData(
+            type,
+            Collections.singletonList(Encoding.PLAIN),
+            Collections.singletonList(name),
+            CompressionCodec.UNCOMPRESSED,
+            valueCount,
+            chunkSize,
+            chunkSize,
+            chunkOffset);
+    ColumnChunk columnChunk = new ColumnChunk(chunkOffset);
+    columnChunk.setMeta_data(metaData);
+    return columnChunk;
+  }
+
+  private static int nonNullCount(PrimitiveColumn column, int rowCount) {
+    if (column.getBitmap() == null) {
+      return rowCount;
+    }
+    int count = 0;
+    for (int row = 0; row < rowCount; row++) {
+      if (!column.isNull(row)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static byte[] encodeTimes(long[] times, PrimitiveColumn column, int rows) {
+    ByteBuffer buffer = allocate(rows * Long.BYTES);
+    if (rows == times.length) {
+      buffer.asLongBuffer().put(times, 0, rows);
+      return buffer.array();
+    }
+    for (int row = 0; row < times.length; row++) {
+      if (!column.isNull(row)) {
+        buffer.putLong(times[row]);
+      }
+    }
+    return buffer.array();
+  }
+
+  /** PLAIN values of the non-null rows: little-endian numbers, LSB-first booleans */
+  private static byte[] encodeValues(PrimitiveColumn column, int rowCount, int rows) {
+    boolean dense = rows == rowCount;
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        byte[] bits = new byte[(rows + 7) >>> 3];
+        boolean[] booleanValues = column.getBooleanValues();
+        for (int row = 0, i = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            if (booleanValues[row]) {
+              bits[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+            i++;
+          }
+        }
+        return bits;
+      case INT32:
+        ByteBuffer ints = allocate(rows * Integer.BYTES);
+        if (dense) {
+          ints.asIntBuffer().put(column.getIntValues(), 0, rows);
+        } else {
+          for (int row = 0; row < rowCount; row++) {
+            if (!column.isNull(row)) {
+              ints.putInt(column.getIntValues()[row]);
+            }
+          }
+        }
+        return ints.array();
+      case INT64:
+        ByteBuffer longs = allocate(rows * Long.BYTES);
+        if (dense) {
+          longs.asLongBuffer().put(column.getLongValues(), 0, rows);
+        } else {
+          for (int row = 0; row < rowCount; row++) {
+            if (!column.isNull(row)) {
+              longs.putLong(column.getLongValues()[row]);
+            }
+          }
+        }
+        return longs.array();
+      case FLOAT:
+        ByteBuffer floats = allocate(rows * Float.BYTES);
+        if (dense) {
+          floats.asFloatBuffer().put(column.getFloatValues(), 0, rows);
+        } else {
+          for (int row = 0; row < rowCount; row++) {
+            if (!column.isNull(row)) {
+              floats.putFloat(column.getFloatValues()[row]);
+            }
+          }
+        }
+        return floats.array();
+      case DOUBLE:
+        ByteBuffer doubles = allocate(rows * Double.BYTES);
+        if (dense) {
+          doubles.asDoubleBuffer().put(column.getDoubleValues(), 0, rows);
+        } else {
+          for (int row = 0; row < rowCount; row++) {
+            if (!column.isNull(row)) {
+              doubles.putDouble(column.getDoubleValues()[row]);
+            }
+          }
+        }
+        return doubles.array();
+      case TEXT:
+        // each value is its length, then its bytes
+        Binary[] binaryValues = column.getBinaryValues();
+        int size = 0;
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            size += Integer.BYTES + binaryValues[row].getLength();
+          }
+        }
+        ByteBuffer texts = allocate(size);
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            texts.putInt(binaryValues[row].getLength()).put(binaryValues[row].getValues());
+          }
+        }
+        return texts.array();
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(column.getDataType()));
+    }
+  }
+
+  private static Type toParquetType(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return Type.BOOLEAN;
+      case INT32:
+        return Type.INT32;
+      case INT64:
+        return Type.INT64;
+      case FLOAT:
+        return Type.FLOAT;
+      case DOUBLE:
+        return Type.DOUBLE;
+      case TEXT:
+        return Type.BYTE_ARRAY;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private static ByteBuffer allocate(int size) {
+    return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private void write(byte[] bytes) throws IOException {
+    out.write(bytes);
+    position += bytes.length;
+  }
+
+  /** write the footer: the schema and the row groups */
+  @Override
+  public void close() throws IOException {
+    try {
+      SchemaElement root = new SchemaElement("schema");
+      root.setNum_children(2);
+      SchemaElement time = new SchemaElement(TIME_COLUMN);
+      time.setType(Type.INT64);
+      time.setRepetition_type(FieldRepetitionType.REQUIRED);
+      SchemaElement value = new SchemaElement(valueColumn);
+      value.setType(toParquetType(dataType));
+      value.setRepetition_type(FieldRepetitionType.REQUIRED);
+      if (dataType == TSDataType.TEXT) {
+        value.setConverted_type(ConvertedType.UTF8);
+      }
+      FileMetaData fileMetaData =
+          new FileMetaData(1, Arrays.asList(root, time, value), rowCount, rowGroups);
+      fileMetaData.setCreated_by("tsfile-mt");
+      ByteArrayOutputStream footer = new ByteArrayOutputStream();
+      Util.writeFileMetaData(fileMetaData, footer);
+      write(footer.toByteArray());
+      write(allocate(Integer.BYTES).putInt(footer.size()).array());
+      write(MAGIC);
+    } finally {
+      out.close();
+    }
+  }
+}
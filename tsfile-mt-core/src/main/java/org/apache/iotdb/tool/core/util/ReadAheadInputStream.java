@@ -0,0 +1,321 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sequential read-ahead over a file: an I/O thread reads large contiguous blocks into a bounded
+ * ring of buffers while the caller parses the previous blocks in memory. The I/O thread blocks when
+ * every buffer is waiting to be parsed (backpressure), the caller blocks when no block has been
+ * read yet.
+ *
+ * <p>Skipping past the blocks already in flight makes the I/O thread seek instead of reading
+ * through the skipped bytes.
+ *
+ * <p>With {@link ScanIoOptions#isDirectIo()} the file is opened with O_DIRECT and read into aligned
+ * off-heap buffers, bypassing the OS page cache. The JDK option is only available since Java 10,
+ * on older JDKs or file systems without O_DIRECT the stream falls back to buffered reads.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReadAheadInputStream.class);
+
+  /** used when the block size of the file store cannot be queried */
+  private static final int DEFAULT_DIRECT_IO_ALIGNMENT = 4096;
+
+  private final FileChannel channel;
+
+  /** 1 for buffered reads, the file store block size for direct I/O */
+  private final int alignment;
+
+  private final IoThrottle throttle;
+
+  private final int blockSize;
+
+  private final int blockCount;
+
+  /** empty buffers for the I/O thread */
+  private final BlockingQueue<ByteBuffer> freeBuffers;
+
+  /** blocks read by the I/O thread, in file order */
+  private final BlockingQueue<Block> filledBlocks;
+
+  private final Thread ioThread;
+
+  private final Object seekLock = new Object();
+
+  /** bumped on every seek, blocks of older generations are dropped */
+  private int generation;
+
+  private long seekPosition;
+
+  private volatile boolean closed;
+
+  private Block currentBlock;
+
+  /** position of the next byte returned to the caller */
+  private long position;
+
+  /**
+   * @param startPosition position of the first byte to read
+   * @param blockSize bytes read by the I/O thread at once
+   * @param blockCount buffers in the ring, the read-ahead is (blockCount - 1) * blockSize
+   */
+  public ReadAheadInputStream(String filePath, long startPosition, int blockSize, int blockCount)
+      throws IOException {
+    this(filePath, startPosition, blockSize, blockCount, ScanIoOptions.DEFAULT);
+  }
+
+  public ReadAheadInputStream(
+      String filePath, long startPosition, int blockSize, int blockCount, ScanIoOptions options)
+      throws IOException {
+    Path path = Paths.get(filePath);
+    FileChannel directChannel = options.isDirectIo() ? openDirect(path) : null;
+    this.channel =
+        directChannel != null ? directChannel : FileChannel.open(path, StandardOpenOption.READ);
+    this.alignment = directChannel != null ? directIoAlignment(path) : 1;
+    this.throttle = options.newThrottle();
+    // direct reads must cover whole file system blocks
+    this.blockSize = (blockSize + alignment - 1) / alignment * alignment;
+    this.blockCount = blockCount;
+    this.freeBuffers = new ArrayBlockingQueue<>(blockCount);
+    this.filledBlocks = new ArrayBlockingQueue<>(blockCount);
+    for (int i = 0; i < blockCount; i++) {
+      freeBuffers.add(directChannel != null ? allocateAligned() : ByteBuffer.allocate(blockSize));
+    }
+    this.position = startPosition;
+    this.seekPosition = startPosition;
+    this.ioThread = new Thread(this::readBlocks, "read-ahead-" + Paths.get(filePath).getFileName());
+    ioThread.setDaemon(true);
+    ioThread.start();
+  }
+
+  /** @return null when O_DIRECT is not supported by the JDK or the file system */
+  private static FileChannel openDirect(Path path) {
+    try {
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      OpenOption direct =
+          (OpenOption)
+              Enum.valueOf(
+                  (Class<Enum>) Class.forName("com.sun.nio.file.ExtendedOpenOption"), "DIRECT");
+      // alignedSlice is needed for the buffers, it comes with the same JDK versions
+      ByteBuffer.class.getMethod("alignedSlice", int.class);
+      return FileChannel.open(path, StandardOpenOption.READ, direct);
+    } catch (Exception e) {
+      logger.warn("Direct I/O is not available for {}, use buffered reads: {}", path, e.toString());
+      return null;
+    }
+  }
+
+  private static int directIoAlignment(Path path) {
+    try {
+      // FileStore.getBlockSize() since Java 10
+      Object blockSize =
+          Class.forName("java.nio.file.FileStore")
+              .getMethod("getBlockSize")
+              .invoke(Files.getFileStore(path));
+      return (int) (long) (Long) blockSize;
+    } catch (Exception e) {
+      return DEFAULT_DIRECT_IO_ALIGNMENT;
+    }
+  }
+
+  private ByteBuffer allocateAligned() throws IOException {
+    try {
+      return (ByteBuffer)
+          ByteBuffer.class
+              .getMethod("alignedSlice", int.class)
+              .invoke(ByteBuffer.allocateDirect(blockSize + alignment), alignment);
+    } catch (ReflectiveOperationException e) {
+      throw new IOException("cannot allocate an aligned buffer", e);
+    }
+  }
+
+  /** I/O stage */
+  private void readBlocks() {
+    long readPosition = -1;
+    int readGeneration = -1;
+    try {
+      while (!closed) {
+        // bytes before the seek position in an aligned block
+        int skipInBlock = 0;
+        synchronized (seekLock) {
+          if (readGeneration != generation) {
+            readGeneration = generation;
+            readPosition = seekPosition / alignment * alignment;
+            skipInBlock = (int) (seekPosition - readPosition);
+          }
+        }
+        ByteBuffer buffer = freeBuffers.take();
+        buffer.clear();
+        if (!throttle.isUnlimited()) {
+          throttle.acquire(buffer.capacity());
+        }
+        boolean eof = false;
+        while (buffer.hasRemaining()) {
+          int read = channel.read(buffer, readPosition + buffer.position());
+          // a short direct read only happens at the end of file, the next offset is not aligned
+          if (read < 0 || (alignment > 1 && buffer.hasRemaining())) {
+            eof = true;
+            break;
+          }
+        }
+        buffer.flip();
+        buffer.position(Math.min(skipInBlock, buffer.limit()));
+        filledBlocks.put(new Block(buffer, readPosition, readGeneration, eof, null));
+        readPosition += buffer.limit();
+        if (eof) {
+          // nothing left to read ahead until the caller seeks
+          synchronized (seekLock) {
+            while (!closed && readGeneration == generation) {
+              seekLock.wait();
+            }
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      filledBlocks.offer(new Block(null, readPosition, readGeneration, true, e));
+    }
+  }
+
+  public long position() {
+    return position;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!fillCurrentBlock()) {
+      return -1;
+    }
+    position++;
+    return currentBlock.buffer.get() & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!fillCurrentBlock()) {
+      return -1;
+    }
+    int read = Math.min(len, currentBlock.buffer.remaining());
+    currentBlock.buffer.get(b, off, read);
+    position += read;
+    return read;
+  }
+
+  /** skip exactly n bytes, seeking when the target is beyond the read-ahead window */
+  @Override
+  public long skip(long n) throws IOException {
+    long target = position + n;
+    // right after a seek the I/O thread starts reading at the current position
+    long readAheadStart =
+        currentBlock == null ? position : currentBlock.start + currentBlock.buffer.limit();
+    long windowEnd = readAheadStart + (long) (blockCount - 1) * blockSize;
+    if (target > windowEnd) {
+      seek(target);
+      return n;
+    }
+    while (position < target) {
+      if (!fillCurrentBlock()) {
+        throw new EOFException("skip beyond the end of file at " + position);
+      }
+      int skipped = (int) Math.min(target - position, currentBlock.buffer.remaining());
+      currentBlock.buffer.position(currentBlock.buffer.position() + skipped);
+      position += skipped;
+    }
+    return n;
+  }
+
+  private void seek(long target) {
+    recycleCurrentBlock();
+    synchronized (seekLock) {
+      generation++;
+      seekPosition = target;
+      seekLock.notifyAll();
+    }
+    position = target;
+  }
+
+  /** @return false at the end of file */
+  private boolean fillCurrentBlock() throws IOException {
+    while (currentBlock == null || !currentBlock.buffer.hasRemaining()) {
+      if (currentBlock != null && currentBlock.eof) {
+        return false;
+      }
+      recycleCurrentBlock();
+      Block block;
+      try {
+        block = filledBlocks.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("interrupted while waiting for the read-ahead", e);
+      }
+      if (block.error != null) {
+        throw block.error;
+      }
+      int currentGeneration;
+      synchronized (seekLock) {
+        currentGeneration = generation;
+      }
+      if (block.generation != currentGeneration) {
+        // read before the last seek
+        freeBuffers.add(block.buffer);
+        continue;
+      }
+      currentBlock = block;
+    }
+    return true;
+  }
+
+  private void recycleCurrentBlock() {
+    if (currentBlock != null) {
+      freeBuffers.add(currentBlock.buffer);
+      currentBlock = null;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    ioThread.interrupt();
+    synchronized (seekLock) {
+      seekLock.notifyAll();
+    }
+    channel.close();
+  }
+
+  private static class Block {
+    private final ByteBuffer buffer;
+    /** file position of the first byte of the buffer */
+    private final long start;
+
+    private final int generation;
+    private final boolean eof;
+    private final IOException error;
+
+    private Block(ByteBuffer buffer, long start, int generation, boolean eof, IOException error) {
+      this.buffer = buffer;
+      this.start = start;
+      this.generation = generation;
+      this.eof = eof;
+      this.error = error;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package org.apache.iotdb.tool.core.util;
+
+/**
+ * How the data section scan reads the file. Direct I/O keeps the scan out of the OS page cache so
+ * an inspection on a live IoTDB host does not evict the database's hot pages, the throttle keeps it
+ * from saturating the disk.
+ */
+public class ScanIoOptions {
+
+  public static final ScanIoOptions DEFAULT =
+      new ScanIoOptions(false, IoThrottle.UNLIMITED, IoThrottle.UNLIMITED);
+
+  private final boolean directIo;
+
+  private final long maxBytesPerSecond;
+
+  private final long maxIops;
+
+  public ScanIoOptions(boolean directIo, long maxBytesPerSecond, long maxIops) {
+    this.directIo = directIo;
+    this.maxBytesPerSecond = maxBytesPerSecond;
+    this.maxIops = maxIops;
+  }
+
+  public boolean isDirectIo() {
+    return directIo;
+  }
+
+  public long getMaxBytesPerSecond() {
+    return maxBytesPerSecond;
+  }
+
+  public long getMaxIops() {
+    return maxIops;
+  }
+
+  public IoThrottle newThrottle() {
+    return new IoThrottle(maxBytesPerSecond, maxIops);
+  }
+
+  @Override
+  public String toString() {
+    return "directIo:"
+        + directIo
+        + ", maxBytesPerSecond:"
+        + maxBytesPerSecond
+        + ", maxIops:"
+        + maxIops;
+  }
+}
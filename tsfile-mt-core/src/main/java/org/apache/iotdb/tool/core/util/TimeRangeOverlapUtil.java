@@ -0,0 +1,127 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.SeriesOverlapModel;
+import org.apache.iotdb.tool.core.model.TimeRangeList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/** overlap of chunk time ranges, computed from statistics only */
+public class TimeRangeOverlapUtil {
+
+  /**
+   * sweep the time ranges of one series
+   *
+   * @param ranges chunk time ranges, the source of a range is an index into unseqSources
+   * @param unseqSources whether a source is unsequence, may be null
+   * @param pointsPerPage points per page used to estimate the page count of a chunk
+   */
+  public static SeriesOverlapModel analyse(
+      String series, TimeRangeList ranges, boolean[] unseqSources, long pointsPerPage) {
+    SeriesOverlapModel model = new SeriesOverlapModel(series);
+    int size = ranges.size();
+    model.setChunkCount(size);
+    if (size == 0) {
+      return model;
+    }
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(ranges.getStartTime(a), ranges.getStartTime(b)));
+
+    // 1. a range overlaps an earlier one if an earlier range ends after its start,
+    // and a later one if the next start is before its end
+    boolean[] overlapped = new boolean[size];
+    long maxEndTime = Long.MIN_VALUE;
+    for (int k = 0; k < size; k++) {
+      int index = order[k];
+      if (k > 0 && maxEndTime >= ranges.getStartTime(index)) {
+        overlapped[index] = true;
+      }
+      if (k + 1 < size && ranges.getStartTime(order[k + 1]) <= ranges.getEndTime(index)) {
+        overlapped[index] = true;
+      }
+      maxEndTime = Math.max(maxEndTime, ranges.getEndTime(index));
+    }
+    int overlappedChunkCount = 0;
+    int unseqOverlappedChunkCount = 0;
+    long extraPages = 0;
+    long pointCount = 0;
+    long overlappedPointCount = 0;
+    TreeSet<Integer> overlappedSources = new TreeSet<>();
+    for (int i = 0; i < size; i++) {
+      pointCount += ranges.getCount(i);
+      if (!overlapped[i]) {
+        continue;
+      }
+      overlappedChunkCount++;
+      overlappedPointCount += ranges.getCount(i);
+      overlappedSources.add(ranges.getSource(i));
+      if (unseqSources != null && unseqSources[ranges.getSource(i)]) {
+        unseqOverlappedChunkCount++;
+      }
+      extraPages += Math.max(1, (ranges.getCount(i) + pointsPerPage - 1) / pointsPerPage);
+    }
+    model.setOverlappedChunkCount(overlappedChunkCount);
+    model.setUnseqOverlappedChunkCount(unseqOverlappedChunkCount);
+    model.setEstimatedExtraPages(extraPages);
+    model.setPointCount(pointCount);
+    model.setOverlappedPointCount(overlappedPointCount);
+    model.setOverlappedSources(new ArrayList<>(overlappedSources));
+
+    // 2. sweep start and end times (both inclusive) for the depth and the overlap intervals
+    long[] startTimes = new long[size];
+    long[] endTimes = new long[size];
+    long minStartTime = Long.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      startTimes[i] = ranges.getStartTime(i);
+      endTimes[i] = ranges.getEndTime(i);
+      minStartTime = Math.min(minStartTime, startTimes[i]);
+    }
+    Arrays.sort(startTimes);
+    Arrays.sort(endTimes);
+    List<long[]> intervals = new ArrayList<>();
+    int depth = 0;
+    int maxDepth = 0;
+    long intervalStart = 0;
+    long overlappedDuration = 0;
+    int i = 0;
+    int j = 0;
+    while (j < size) {
+      if (i < size && startTimes[i] <= endTimes[j]) {
+        if (++depth == 2) {
+          intervalStart = startTimes[i];
+        }
+        maxDepth = Math.max(maxDepth, depth);
+        i++;
+      } else {
+        if (--depth == 1) {
+          intervals.add(new long[] {intervalStart, endTimes[j]});
+          overlappedDuration += endTimes[j] - intervalStart + 1;
+        }
+        j++;
+      }
+    }
+    model.setMaxDepth(maxDepth);
+    model.setOverlapIntervals(intervals);
+    model.setOverlappedDuration(overlappedDuration);
+    model.setSeriesDuration(maxEndTime - minStartTime + 1);
+    return model;
+  }
+
+  /** ranges, in insertion (file) order, starting before the end of an earlier range */
+  public static int countOutOfOrder(TimeRangeList ranges) {
+    int outOfOrderCount = 0;
+    long maxEndTime = Long.MIN_VALUE;
+    for (int i = 0; i < ranges.size(); i++) {
+      if (i > 0 && ranges.getStartTime(i) <= maxEndTime) {
+        outOfOrderCount++;
+      }
+      maxEndTime = Math.max(maxEndTime, ranges.getEndTime(i));
+    }
+    return outOfOrderCount;
+  }
+}
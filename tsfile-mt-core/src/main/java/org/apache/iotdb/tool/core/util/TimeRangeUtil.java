@@ -0,0 +1,23 @@
+package org.apache.iotdb.tool.core.util;
+
+/**
+ * Bounds of the time ranges of the queries, downsampling and aggregations: {@link #UNSET_START}
+ * and {@link #UNSET_END} stand for the start and the end of the data, every other timestamp, 0 and
+ * negative ones included, is a bound.
+ */
+public class TimeRangeUtil {
+
+  public static final long UNSET_START = Long.MIN_VALUE;
+
+  public static final long UNSET_END = Long.MAX_VALUE;
+
+  private TimeRangeUtil() {}
+
+  public static boolean isStartSet(long startTime) {
+    return startTime != UNSET_START;
+  }
+
+  public static boolean isEndSet(long endTime) {
+    return endTime != UNSET_END;
+  }
+}
@@ -2,32 +2,20 @@ package org.apache.iotdb.tool.core.util;
 
 import org.apache.iotdb.tool.core.model.DsTypeEncodeModel;
 import org.apache.iotdb.tool.core.model.EncodeCompressAnalysedModel;
-import org.apache.iotdb.tsfile.compress.ICompressor;
-import org.apache.iotdb.tsfile.encoding.encoder.*;
-import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.BatchData;
-import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class TsFileEncodeCompressAnalysedUtil {
-  /**
-   * support compression type array
-   */
-  private static final CompressionType[] compressTypes =
-      new CompressionType[] {
-        CompressionType.SNAPPY,
-        CompressionType.GZIP,
-        CompressionType.LZ4,
-        CompressionType.UNCOMPRESSED
-      };
-
   /**
    * compressed rate weight
    */
@@ -48,6 +36,63 @@ public class TsFileEncodeCompressAnalysedUtil {
    */
   private static final double zeroRate = 0.8;
 
+  /**
+   * untimed rounds before the timed ones, so the JIT and the codec buffers are warm
+   */
+  private static final int warmUpRounds = 1;
+
+  /**
+   * timed rounds of compress, decompress and decode, the fastest one is kept
+   */
+  private static final int measureRounds = 3;
+
+  /**
+   * the encodings and compressions with their default settings
+   */
+  private static final EncodeCandidateRegistry defaultRegistry = EncodeCandidateRegistry.defaults();
+
+  /**
+   * keeps the decoded values alive so the timed decode loop is not optimized away
+   */
+  private static volatile long decodeSink;
+
+  /**
+   * weights of the recommendation score, see {@link #sortedAnalysedModel(Map, ScoringProfile)}
+   */
+  public enum ScoringProfile {
+    /** compressed size and write cost (encode + compress) */
+    BALANCED(compressedWeight, compressedSequenceWeight, compressedCostWeight, 0),
+    /** compressed size and mostly read cost (decompress + decode), for read-heavy workloads */
+    READ_WEIGHTED(compressedWeight, compressedSequenceWeight, 1, 6);
+
+    private final double sizeWeight;
+
+    private final double sizeSequenceWeight;
+
+    private final double writeCostWeight;
+
+    private final double readCostWeight;
+
+    ScoringProfile(
+        double sizeWeight,
+        double sizeSequenceWeight,
+        double writeCostWeight,
+        double readCostWeight) {
+      this.sizeWeight = sizeWeight;
+      this.sizeSequenceWeight = sizeSequenceWeight;
+      this.writeCostWeight = writeCostWeight;
+      this.readCostWeight = readCostWeight;
+    }
+  }
+
+  /**
+   * the registry of the default settings, used when no registry is given
+   * @return default registry
+   */
+  public static EncodeCandidateRegistry getDefaultRegistry() {
+    return defaultRegistry;
+  }
+
   /**
    * generate encode and compress analysed with batchData
    * @param batchData batch data
@@ -56,18 +101,22 @@ public class TsFileEncodeCompressAnalysedUtil {
    */
   public static List<EncodeCompressAnalysedModel> generateEncodeAndCompressAnalysedWithBatchData(
       BatchData batchData) throws IOException {
-    //
-    DsTypeEncodeModel encodeModel = generateDsTypeEncodeModel(batchData.getDataType());
-    if (encodeModel == null) {
-      return null;
-    }
-    List<Encoder> encoders = encodeModel.getEncoders();
-    List<PublicBAOS> publicBAOS = encodeModel.getPublicBAOS();
+    return generateEncodeAndCompressAnalysedWithTsPrimitives(toTsPrimitives(batchData));
+  }
+
+  /**
+   * the values of the batch data
+   * @param batchData batch data
+   * @return tsPrimitiveType array
+   */
+  public static TsPrimitiveType[] toTsPrimitives(BatchData batchData) {
+    TsPrimitiveType[] values = new TsPrimitiveType[batchData.length()];
+    int count = 0;
     while (batchData.hasCurrent()) {
-      tsPrimitiveTypeEncode(batchData.currentTsPrimitiveType(), encoders, publicBAOS);
+      values[count++] = batchData.currentTsPrimitiveType();
       batchData.next();
     }
-    return generateEncodeAndCompressAnalysedBase(encodeModel);
+    return count == values.length ? values : Arrays.copyOf(values, count);
   }
 
   /**
@@ -78,315 +127,315 @@ public class TsFileEncodeCompressAnalysedUtil {
    */
   public static List<EncodeCompressAnalysedModel> generateEncodeAndCompressAnalysedWithTsPrimitives(
       TsPrimitiveType[] tsPrimitiveTypes) throws IOException {
-    //
-    DsTypeEncodeModel encodeModel = generateDsTypeEncodeModel(tsPrimitiveTypes[0].getDataType());
+    return generateEncodeAndCompressAnalysedWithTsPrimitives(tsPrimitiveTypes, defaultRegistry);
+  }
+
+  /**
+   * generate encode and compress analysed of the candidates of a registry
+   * @param tsPrimitiveTypes tsPrimitiveType array, null elements (absent rows) are skipped
+   * @param registry encode and compress candidates
+   * @return EncodeCompressAnalysedModel list, null if no value or no candidate for the data type
+   * @throws IOException throw io exception
+   */
+  public static List<EncodeCompressAnalysedModel> generateEncodeAndCompressAnalysedWithTsPrimitives(
+      TsPrimitiveType[] tsPrimitiveTypes, EncodeCandidateRegistry registry) throws IOException {
+    return generateEncodeAndCompressAnalysedWithTsPrimitives(
+        withoutNulls(tsPrimitiveTypes), registry, new byte[0]);
+  }
+
+  /**
+   * generate encode and compress analysed of an aligned value page: the [size][bitmap] section
+   * is part of the page whatever the encoding, so it is counted in every size and compressed
+   * with the encoded values
+   * @param values the values of the rows that are not null
+   * @param registry encode and compress candidates
+   * @param bitmapSection the serialized [size:int][bitmap] of the page
+   * @return EncodeCompressAnalysedModel list, null if no value or no candidate for the data type
+   * @throws IOException throw io exception
+   */
+  public static List<EncodeCompressAnalysedModel> generateEncodeAndCompressAnalysedWithTsPrimitives(
+      TsPrimitiveType[] values, EncodeCandidateRegistry registry, byte[] bitmapSection)
+      throws IOException {
+    if (values.length == 0) {
+      return null;
+    }
+    DsTypeEncodeModel encodeModel = registry.encodeModel(values[0].getDataType());
     if (encodeModel == null) {
       return null;
     }
-    List<Encoder> encoders = encodeModel.getEncoders();
-    List<PublicBAOS> publicBAOS = encodeModel.getPublicBAOS();
-    for (int i = 0; i < tsPrimitiveTypes.length; i++) {
-      tsPrimitiveTypeEncode(tsPrimitiveTypes[i], encoders, publicBAOS);
+    return generateEncodeAndCompressAnalysedBase(
+        encodeModel, registry.getCompressCandidates(), values, bitmapSection);
+  }
+
+  /**
+   * the values without the null elements
+   * @param values values, may contain nulls
+   * @return the same array if it contains no null
+   */
+  static TsPrimitiveType[] withoutNulls(TsPrimitiveType[] values) {
+    int count = 0;
+    for (TsPrimitiveType value : values) {
+      if (value != null) {
+        count++;
+      }
+    }
+    if (count == values.length) {
+      return values;
+    }
+    TsPrimitiveType[] nonNullValues = new TsPrimitiveType[count];
+    count = 0;
+    for (TsPrimitiveType value : values) {
+      if (value != null) {
+        nonNullValues[count++] = value;
+      }
     }
-    return generateEncodeAndCompressAnalysedBase(encodeModel);
+    return nonNullValues;
   }
 
   /**
-   * generate encode and compress analysed base method
+   * generate encode and compress analysed base method: every encoder encodes all the values on
+   * its own, so its encode cost can be timed, then the encoded bytes (exactly baos.size()) are
+   * compressed, decompressed and decoded
    * @param encodeModel  encode model
+   * @param compressCandidates compressions to try on every encoding
+   * @param values values of one page
+   * @param pagePrefix bytes the page stores before the values, the same for every encoding
    * @return EncodeCompressAnalysedModel list
    * @throws IOException throw io exception
    */
   private static List<EncodeCompressAnalysedModel> generateEncodeAndCompressAnalysedBase(
-      DsTypeEncodeModel encodeModel) throws IOException {
+      DsTypeEncodeModel encodeModel,
+      List<CompressCandidate> compressCandidates,
+      TsPrimitiveType[] values,
+      byte[] pagePrefix)
+      throws IOException {
     List<PublicBAOS> publicBAOS = encodeModel.getPublicBAOS();
     List<String> encodeNameList = encodeModel.getEncodeNameList();
     List<EncodeCompressAnalysedModel> modelList = new ArrayList<>();
     List<Encoder> encoders = encodeModel.getEncoders();
-    for (int i = 0; i < encodeModel.getEncoders().size(); i++) {
-      encoders.get(i).flush(publicBAOS.get(i));
+    List<Decoder> decoders = encodeModel.getDecoders();
+    TSDataType dataType = TSDataType.valueOf(encodeModel.getTypeName());
+    byte[][] encoded = new byte[encoders.size()][];
+    long[] encodeCosts = new long[encoders.size()];
+    // PLAIN with the default setting is the baseline of the origin size
+    int plainIndex = Math.max(0, encodeNameList.indexOf(TSEncoding.PLAIN.name()));
+    for (int i = 0; i < encoders.size(); i++) {
+      Encoder encoder = encoders.get(i);
+      PublicBAOS baos = publicBAOS.get(i);
+      long encodeCost = 0;
+      for (int round = 0; round <= warmUpRounds; round++) {
+        baos.reset();
+        long startTime = System.nanoTime();
+        for (TsPrimitiveType value : values) {
+          tsPrimitiveTypeEncode(value, encoder, baos);
+        }
+        encoder.flush(baos);
+        encodeCost = System.nanoTime() - startTime;
+      }
+      encoded[i] = baos.toByteArray();
+      encodeCosts[i] = encodeCost;
     }
-    long uncompressSize = publicBAOS.get(0).size();
-    for (int i = 0; i < encodeModel.getEncoders().size(); i++) {
-      for (int j = 0; j < compressTypes.length; j++) {
-        modelList.add(
+    long uncompressSize = pagePrefix.length + encoded[plainIndex].length;
+    for (int i = 0; i < encoders.size(); i++) {
+      long decodeCost = Long.MAX_VALUE;
+      for (int round = 0; round < warmUpRounds + measureRounds; round++) {
+        long cost = decode(decoders.get(i), dataType, encoded[i]);
+        if (round >= warmUpRounds) {
+          decodeCost = Math.min(decodeCost, cost);
+        }
+      }
+      byte[] page = encoded[i];
+      if (pagePrefix.length > 0) {
+        page = new byte[pagePrefix.length + encoded[i].length];
+        System.arraycopy(pagePrefix, 0, page, 0, pagePrefix.length);
+        System.arraycopy(encoded[i], 0, page, pagePrefix.length, encoded[i].length);
+      }
+      for (CompressCandidate compressCandidate : compressCandidates) {
+        EncodeCompressAnalysedModel model =
             generateAnalysedModel(
-                compressTypes[j],
+                compressCandidate,
                 encodeNameList.get(i),
                 uncompressSize,
                 encodeModel.getTypeName(),
-                publicBAOS.get(i)));
+                page);
+        model.setEncodeCost(encodeCosts[i]);
+        model.setDecodeCost(decodeCost);
+        modelList.add(model);
       }
     }
-    for (PublicBAOS baos : publicBAOS) {
-      baos.close();
-    }
     return modelList;
   }
 
   /**
    * encode tsPrimitiveType data
    * @param tsPrimitiveType tsPrimitiveType
-   * @param encoders encode list
-   * @param publicBAOS publicBAOS list
+   * @param encoder encoder
+   * @param baos baos of the encoder
    */
-  private static void tsPrimitiveTypeEncode(
-      TsPrimitiveType tsPrimitiveType, List<Encoder> encoders, List<PublicBAOS> publicBAOS) {
+  static void tsPrimitiveTypeEncode(
+      TsPrimitiveType tsPrimitiveType, Encoder encoder, PublicBAOS baos) {
     switch (tsPrimitiveType.getDataType()) {
       case INT64:
-        long longValue = tsPrimitiveType.getLong();
-        for (int i = 0; i < encoders.size(); i++) {
-          encoders.get(i).encode(longValue, publicBAOS.get(i));
-        }
+        encoder.encode(tsPrimitiveType.getLong(), baos);
         return;
       case INT32:
-        int intValue = tsPrimitiveType.getInt();
-        for (int i = 0; i < encoders.size(); i++) {
-          encoders.get(i).encode(intValue, publicBAOS.get(i));
-        }
+        encoder.encode(tsPrimitiveType.getInt(), baos);
         return;
       case FLOAT:
-        float floatValue = tsPrimitiveType.getFloat();
-        for (int i = 0; i < encoders.size(); i++) {
-          encoders.get(i).encode(floatValue, publicBAOS.get(i));
-        }
+        encoder.encode(tsPrimitiveType.getFloat(), baos);
         return;
       case DOUBLE:
-        double doubleValue = tsPrimitiveType.getDouble();
-        for (int i = 0; i < encoders.size(); i++) {
-          encoders.get(i).encode(doubleValue, publicBAOS.get(i));
-        }
+        encoder.encode(tsPrimitiveType.getDouble(), baos);
         return;
       case TEXT:
-        Binary textValue = tsPrimitiveType.getBinary();
-        for (int i = 0; i < encoders.size(); i++) {
-          encoders.get(i).encode(textValue, publicBAOS.get(i));
-        }
+        encoder.encode(tsPrimitiveType.getBinary(), baos);
         return;
       default:
     }
   }
 
   /**
-   * generate dsTypeEncodeModel
-   * @param dataType data type
-   * @return dsTypeEncodeModel
-   */
-  private static DsTypeEncodeModel generateDsTypeEncodeModel(TSDataType dataType) {
-
-    switch (dataType) {
-      case INT64:
-        return generateLongEncodeModel(dataType.name());
-      case INT32:
-        return generateIntEncodeModel(dataType.name());
-      case FLOAT:
-        return generateFloatEncodeModel(dataType.name());
-      case DOUBLE:
-        return generateDoubleEncodeModel(dataType.name());
-      case TEXT:
-        return generateTextEncodeModel(dataType.name());
-      default:
-        return null;
-    }
-  }
-
-  /**
-   * generate int encode model
-   * @param typeName int type name
-   * @return int dsTypeEncodeModel
+   * decode all the values of the encoded bytes
+   * @return decode cost in ns
    */
-  private static DsTypeEncodeModel generateIntEncodeModel(String typeName) {
-    List<String> encodeNameList = new ArrayList<>();
-    encodeNameList.add(TSEncoding.PLAIN.name());
-    encodeNameList.add(TSEncoding.GORILLA.name());
-    encodeNameList.add(TSEncoding.RLE.name());
-    encodeNameList.add(TSEncoding.TS_2DIFF.name());
-    PlainEncoder plainEncoder = new PlainEncoder(TSDataType.INT32, 128);
-    IntGorillaEncoder gorillaEncoder = new IntGorillaEncoder();
-    IntRleEncoder rleEncoder = new IntRleEncoder();
-    DeltaBinaryEncoder.IntDeltaEncoder deltaEncoder = new DeltaBinaryEncoder.IntDeltaEncoder();
-    List<Encoder> encoders = new ArrayList<>();
-    encoders.add(plainEncoder);
-    encoders.add(gorillaEncoder);
-    encoders.add(rleEncoder);
-    encoders.add(deltaEncoder);
-    return generateEncodeModel(typeName, encoders, encodeNameList);
-  }
-
-  /**
-   * generate long encode model
-   * @param typeName long type name
-   * @return long type dsTypeEncodeModel
-   */
-  private static DsTypeEncodeModel generateLongEncodeModel(String typeName) {
-
-    List<String> encodeNameList = new ArrayList<>();
-    encodeNameList.add(TSEncoding.PLAIN.name());
-    encodeNameList.add(TSEncoding.GORILLA.name());
-    encodeNameList.add(TSEncoding.RLE.name());
-    encodeNameList.add(TSEncoding.TS_2DIFF.name());
-    PlainEncoder plainEncoder = new PlainEncoder(TSDataType.INT64, 128);
-    LongGorillaEncoder gorillaEncoder = new LongGorillaEncoder();
-    LongRleEncoder rleEncoder = new LongRleEncoder();
-    DeltaBinaryEncoder.LongDeltaEncoder deltaEncoder = new DeltaBinaryEncoder.LongDeltaEncoder();
-    List<Encoder> encoders = new ArrayList<>();
-    encoders.add(plainEncoder);
-    encoders.add(gorillaEncoder);
-    encoders.add(rleEncoder);
-    encoders.add(deltaEncoder);
-    return generateEncodeModel(typeName, encoders, encodeNameList);
-  }
-
-  /**
-   * generate float encode model
-   * @param typeName float type name
-   * @return dsTypeEncodeModel
-   */
-  private static DsTypeEncodeModel generateFloatEncodeModel(String typeName) {
-    List<String> encodeNameList = new ArrayList<>();
-    encodeNameList.add(TSEncoding.PLAIN.name());
-    encodeNameList.add(TSEncoding.GORILLA.name());
-    PlainEncoder plainEncoder = new PlainEncoder(TSDataType.FLOAT, 128);
-    SinglePrecisionEncoderV2 gorillaEncoder = new SinglePrecisionEncoderV2();
-    List<Encoder> encoders = new ArrayList<>();
-    encoders.add(plainEncoder);
-    encoders.add(gorillaEncoder);
-    return generateEncodeModel(typeName, encoders, encodeNameList);
-  }
-
-  /**
-   * generate double encode model
-   * @param typeName double type name
-   * @return dsTypeEncodeModel
-   */
-  private static DsTypeEncodeModel generateDoubleEncodeModel(String typeName) {
-    List<String> encodeNameList = new ArrayList<>();
-    encodeNameList.add(TSEncoding.PLAIN.name());
-    encodeNameList.add(TSEncoding.GORILLA.name());
-    PlainEncoder plainEncoder = new PlainEncoder(TSDataType.DOUBLE, 128);
-    DoublePrecisionEncoderV2 gorillaEncoder = new DoublePrecisionEncoderV2();
-
-    List<Encoder> encoders = new ArrayList<>();
-    encoders.add(plainEncoder);
-    encoders.add(gorillaEncoder);
-
-    return generateEncodeModel(typeName, encoders, encodeNameList);
-  }
-
-  /**
-   * generate text encode model
-   * @param typeName text type name
-   * @return dsTypeEncodeModel
-   */
-  private static DsTypeEncodeModel generateTextEncodeModel(String typeName) {
-    List<String> encodeNameList = new ArrayList<>();
-    encodeNameList.add(TSEncoding.PLAIN.name());
-    encodeNameList.add(TSEncoding.DICTIONARY.name());
-    PlainEncoder plainEncoder = new PlainEncoder(TSDataType.TEXT, 128);
-    DictionaryEncoder dictionaryEncoder = new DictionaryEncoder();
-    List<Encoder> encoders = new ArrayList<>();
-    encoders.add(plainEncoder);
-    encoders.add(dictionaryEncoder);
-    return generateEncodeModel(typeName, encoders, encodeNameList);
-  }
-
-  /**
-   *
-   * @param typeName type name
-   * @param encoders encode list
-   * @param encodeNameList encodeName list
-   * @return dsTypeEncodeModel
-   */
-  private static DsTypeEncodeModel generateEncodeModel(
-      String typeName, List<Encoder> encoders, List<String> encodeNameList) {
-    DsTypeEncodeModel model = new DsTypeEncodeModel();
-    model.setTypeName(typeName);
-
-    List<PublicBAOS> baos = new ArrayList<>();
-    for (int i = 0; i < encoders.size(); i++) {
-      baos.add(new PublicBAOS());
+  private static long decode(Decoder decoder, TSDataType dataType, byte[] encoded)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(encoded);
+    decoder.reset();
+    long checksum = 0;
+    long startTime = System.nanoTime();
+    while (decoder.hasNext(buffer)) {
+      switch (dataType) {
+        case INT64:
+          checksum += decoder.readLong(buffer);
+          break;
+        case INT32:
+          checksum += decoder.readInt(buffer);
+          break;
+        case FLOAT:
+          checksum += Float.floatToRawIntBits(decoder.readFloat(buffer));
+          break;
+        case DOUBLE:
+          checksum += Double.doubleToRawLongBits(decoder.readDouble(buffer));
+          break;
+        default:
+          checksum += decoder.readBinary(buffer).getLength();
+      }
     }
-    model.setEncodeNameList(encodeNameList);
-    model.setEncoders(encoders);
-    model.setPublicBAOS(baos);
-    return model;
+    long decodeCost = System.nanoTime() - startTime;
+    decodeSink = checksum;
+    return decodeCost;
   }
 
   /**
    * 组装EncodeCompressAnalysedModel模型
-   * @param compressionType compress type
+   * @param compressCandidate compress candidate
    * @param encodeName  encode name
    * @param originSize  origin size
    * @param typeName  type name
-   * @param baos  baos
+   * @param encoded  encoded bytes
    * @return  encode compress analysed model
    * @throws IOException throw io exception
    */
   private static EncodeCompressAnalysedModel generateAnalysedModel(
-      CompressionType compressionType,
+      CompressCandidate compressCandidate,
       String encodeName,
       long originSize,
       String typeName,
-      PublicBAOS baos)
+      byte[] encoded)
       throws IOException {
-    ICompressor compressor;
-    if (compressionType.equals(CompressionType.SNAPPY)) {
-      compressor = new ICompressor.SnappyCompressor();
-    } else if (compressionType.equals(CompressionType.GZIP)) {
-      compressor = new ICompressor.GZIPCompressor();
-    } else if (compressionType.equals(CompressionType.LZ4)) {
-      compressor = new ICompressor.IOTDBLZ4Compressor();
-    } else {
-      compressor = new ICompressor.NoCompressor();
+    byte[] compressed = null;
+    long compressedCost = Long.MAX_VALUE;
+    long decompressCost = Long.MAX_VALUE;
+    for (int round = 0; round < warmUpRounds + measureRounds; round++) {
+      long startTime = System.nanoTime();
+      compressed = compressCandidate.compress(encoded);
+      long compressTime = System.nanoTime() - startTime;
+      startTime = System.nanoTime();
+      compressCandidate.uncompress(compressed);
+      long decompressTime = System.nanoTime() - startTime;
+      if (round >= warmUpRounds) {
+        compressedCost = Math.min(compressedCost, compressTime);
+        decompressCost = Math.min(decompressCost, decompressTime);
+      }
     }
-    long startTime = System.nanoTime();
-    long compressedSize = compressor.compress(baos.getBuf()).length;
-    long compressedCost = System.nanoTime() - startTime;
     EncodeCompressAnalysedModel model = new EncodeCompressAnalysedModel();
-    model.setCompressName(compressionType.name());
-    model.setCompressedSize(compressedSize);
-    model.setUncompressSize(baos.size());
+    model.setCompressName(compressCandidate.getName());
+    model.setCompressedSize(compressed.length);
+    model.setUncompressSize(encoded.length);
     model.setTypeName(typeName);
     model.setEncodeName(encodeName);
-    model.setEncodedSize(baos.size());
+    model.setEncodedSize(encoded.length);
     model.setOriginSize(originSize);
     model.setCompressedCost(compressedCost);
+    model.setDecompressCost(decompressCost);
     return model;
   }
 
   /**
-   * sorted analysed model
+   * sorted analysed model, scored with {@link ScoringProfile#BALANCED}
    * @param map encodeCompressAnalysedModel map
    * @return EncodeCompressAnalysedModel list
    */
-  public static List<EncodeCompressAnalysedModel> sortedAnalysedModel(Map<String,EncodeCompressAnalysedModel> map) {
-    List<EncodeCompressAnalysedModel> sortedCostModels = map.values().stream().sorted(Comparator.comparing(EncodeCompressAnalysedModel::getCompressedCost)).collect(Collectors.toList());
-    List<EncodeCompressAnalysedModel> sortedCompressedModels = map.values().stream().sorted(Comparator.comparing(EncodeCompressAnalysedModel::getCompressedSize)).collect(Collectors.toList());
-    Map<String, EncodeCompressAnalysedModel> scoresMap = new HashMap<>();
+  public static List<EncodeCompressAnalysedModel> sortedAnalysedModel(
+      Map<String, EncodeCompressAnalysedModel> map) {
+    return sortedAnalysedModel(map, ScoringProfile.BALANCED);
+  }
+
+  /**
+   * sorted analysed model: the compression rate plus a rank score for the compressed size, the
+   * write cost and the read cost, each weighted by the profile
+   * @param map encodeCompressAnalysedModel map
+   * @param profile scoring weights
+   * @return EncodeCompressAnalysedModel list, best score first
+   */
+  public static List<EncodeCompressAnalysedModel> sortedAnalysedModel(
+      Map<String, EncodeCompressAnalysedModel> map, ScoringProfile profile) {
+    List<EncodeCompressAnalysedModel> models = new ArrayList<>(map.values());
     // 计算压缩得分
-    for (int i = 0; i < sortedCompressedModels.size(); i ++) {
-      EncodeCompressAnalysedModel model = sortedCompressedModels.get(i);
-      double compressedScores = compressedWeight * (1 - (double)model.getCompressedSize()/model.getOriginSize());
-      double sequenceScores = 0;
-      double rate = (double)i/ sortedCostModels.size();
-      if (rate < zeroRate) {
-        sequenceScores = compressedSequenceWeight * (1 - rate);
-      }
-      model.setScore(compressedScores + sequenceScores);
-      String key = model.getCompressName() + "-" + model.getEncodeName();
-      scoresMap.put(key, model);
+    for (EncodeCompressAnalysedModel model : models) {
+      double compressedRate =
+          model.getOriginSize() == 0
+              ? 1
+              : (double) model.getCompressedSize() / model.getOriginSize();
+      model.setScore(profile.sizeWeight * (1 - compressedRate));
     }
+    addSequenceScores(
+        models,
+        Comparator.comparingLong(EncodeCompressAnalysedModel::getCompressedSize),
+        profile.sizeSequenceWeight);
     // 计算耗时得分
-    for (int i = 0 ; i < sortedCostModels.size(); i++) {
-      EncodeCompressAnalysedModel model = sortedCostModels.get(i);
-      double sequenceScores = 0;
-      double rate = (double)i/ sortedCostModels.size();
+    addSequenceScores(
+        models,
+        Comparator.comparingLong(EncodeCompressAnalysedModel::getWriteCost),
+        profile.writeCostWeight);
+    addSequenceScores(
+        models,
+        Comparator.comparingLong(EncodeCompressAnalysedModel::getReadCost),
+        profile.readCostWeight);
+    return models.stream()
+        .sorted(Comparator.comparing(EncodeCompressAnalysedModel::getScore).reversed())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * the best ranked models get up to weight points, the last (1 - zeroRate) of them none
+   */
+  private static void addSequenceScores(
+      List<EncodeCompressAnalysedModel> models,
+      Comparator<EncodeCompressAnalysedModel> comparator,
+      double weight) {
+    if (weight == 0) {
+      return;
+    }
+    List<EncodeCompressAnalysedModel> sortedModels =
+        models.stream().sorted(comparator).collect(Collectors.toList());
+    for (int i = 0; i < sortedModels.size(); i++) {
+      double rate = (double) i / sortedModels.size();
       if (rate < zeroRate) {
-        sequenceScores = compressedCostWeight * (1 - rate);
+        EncodeCompressAnalysedModel model = sortedModels.get(i);
+        model.setScore(model.getScore() + weight * (1 - rate));
       }
-      String key = model.getCompressName() + "-" + model.getEncodeName();
-      scoresMap.get(key).setScore(scoresMap.get(key).getScore() + sequenceScores);
     }
-    return scoresMap.values().stream().sorted(Comparator.comparing(EncodeCompressAnalysedModel::getScore).reversed()).collect(Collectors.toList());
   }
 }
@@ -0,0 +1,157 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive decode path: decode uncompressed page data straight into primitive arrays, without
+ * going through BatchData or TsPrimitiveType.
+ */
+public class TsFilePrimitiveDecodeUtil {
+
+  private static final int MASK = 0x80;
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  /**
+   * decode a non-aligned page
+   *
+   * @param pageData uncompressed page data: [timeBufferLength][time column][value column]
+   * @param expectedCount point count from the page statistics, or -1 if unknown
+   * @return PrimitivePageData with a single value column
+   */
+  public static PrimitivePageData decodePage(
+      ByteBuffer pageData,
+      TSDataType dataType,
+      Decoder timeDecoder,
+      Decoder valueDecoder,
+      int expectedCount)
+      throws IOException {
+    int timeBufferLength = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+    ByteBuffer timeBuffer = pageData.slice();
+    timeBuffer.limit(timeBufferLength);
+    ByteBuffer valueBuffer = pageData.slice();
+    valueBuffer.position(timeBufferLength);
+
+    long[] times = decodeTimes(timeBuffer, timeDecoder, expectedCount);
+    List<PrimitiveColumn> valueColumns = new ArrayList<>(1);
+    valueColumns.add(decodeValues(valueBuffer, dataType, valueDecoder, times.length));
+    return new PrimitivePageData(times, valueColumns);
+  }
+
+  /**
+   * decode only the time column of a non-aligned page, the values are not read
+   *
+   * @param pageData uncompressed page data: [timeBufferLength][time column][value column]
+   * @param expectedCount point count from the page statistics, or -1 if unknown
+   */
+  public static long[] decodePageTimes(ByteBuffer pageData, Decoder timeDecoder, int expectedCount)
+      throws IOException {
+    int timeBufferLength = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+    ByteBuffer timeBuffer = pageData.slice();
+    timeBuffer.limit(timeBufferLength);
+    return decodeTimes(timeBuffer, timeDecoder, expectedCount);
+  }
+
+  /**
+   * decode a time column (a whole aligned time page, or the time part of a non-aligned page)
+   *
+   * @param expectedCount point count from the page statistics, or -1 if unknown
+   */
+  public static long[] decodeTimes(ByteBuffer timeBuffer, Decoder timeDecoder, int expectedCount)
+      throws IOException {
+    long[] times = new long[expectedCount > 0 ? expectedCount : DEFAULT_CAPACITY];
+    int size = 0;
+    while (timeDecoder.hasNext(timeBuffer)) {
+      if (size == times.length) {
+        times = Arrays.copyOf(times, times.length << 1);
+      }
+      times[size++] = timeDecoder.readLong(timeBuffer);
+    }
+    return size == times.length ? times : Arrays.copyOf(times, size);
+  }
+
+  /**
+   * decode a value page of an aligned chunk: [size][bitmap][values of the non-null rows]
+   *
+   * @param rowCount row count of the corresponding time page
+   */
+  public static PrimitiveColumn decodeValuePage(
+      ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder, int rowCount)
+      throws IOException {
+    PrimitiveColumn column = new PrimitiveColumn(dataType, rowCount);
+    if (pageData == null || !pageData.hasRemaining()) {
+      // empty page, every row is null
+      column.setBitmap(new byte[(rowCount + 7) >>> 3]);
+      return column;
+    }
+    int size = ReadWriteIOUtils.readInt(pageData);
+    byte[] bitmap = new byte[(size + 7) >>> 3];
+    pageData.get(bitmap);
+    ByteBuffer valueBuffer = pageData.slice();
+    column.setBitmap(bitmap);
+
+    int rows = Math.min(size, rowCount);
+    for (int i = 0; i < bitmap.length; i++) {
+      int bits = bitmap[i] & 0xFF;
+      if (bits == 0) {
+        // skip eight null rows at once
+        continue;
+      }
+      int base = i << 3;
+      for (int j = 0; j < 8 && base + j < rows; j++) {
+        if ((bits & (MASK >>> j)) != 0) {
+          readValue(column, base + j, valueBuffer, valueDecoder);
+        }
+      }
+    }
+    return column;
+  }
+
+  private static PrimitiveColumn decodeValues(
+      ByteBuffer valueBuffer, TSDataType dataType, Decoder valueDecoder, int count)
+      throws IOException {
+    PrimitiveColumn column = new PrimitiveColumn(dataType, count);
+    for (int i = 0; i < count && valueDecoder.hasNext(valueBuffer); i++) {
+      readValue(column, i, valueBuffer, valueDecoder);
+    }
+    return column;
+  }
+
+  private static void readValue(
+      PrimitiveColumn column, int row, ByteBuffer valueBuffer, Decoder valueDecoder) {
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        column.getBooleanValues()[row] = valueDecoder.readBoolean(valueBuffer);
+        break;
+      case INT32:
+        column.getIntValues()[row] = valueDecoder.readInt(valueBuffer);
+        break;
+      case INT64:
+        column.getLongValues()[row] = valueDecoder.readLong(valueBuffer);
+        break;
+      case FLOAT:
+        column.getFloatValues()[row] = valueDecoder.readFloat(valueBuffer);
+        break;
+      case DOUBLE:
+        column.getDoubleValues()[row] = valueDecoder.readDouble(valueBuffer);
+        break;
+      case TEXT:
+        column.getBinaryValues()[row] = valueDecoder.readBinary(valueBuffer);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(column.getDataType()));
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.ChunkGroupInfo;
+import org.apache.iotdb.tool.core.model.ChunkLayoutInfo;
+import org.apache.iotdb.tool.core.model.SizeDistributionReport;
+import org.apache.iotdb.tool.core.model.TsFileLayoutModel;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.tool.core.model.SizeDistributionReport.*;
+
+/** page-size and chunk-size distribution of a tsfile, used to tune the page and chunk settings */
+public class TsFileSizeDistributionUtil {
+
+  /** a page smaller than 1/16 of the configured page size is small */
+  private static final int SMALL_PAGE_DIVISOR = 16;
+
+  /** chunk header and page header bytes above this ratio of the chunk inflate metadata */
+  private static final double HEADER_OVERHEAD_RATIO = 0.1;
+
+  /**
+   * build the distribution report with thresholds derived from the configured page size
+   *
+   * @param layout chunk and page layout read from the headers
+   * @param chunkGroupInfoList chunk groups in file order
+   */
+  public static SizeDistributionReport analyse(
+      TsFileLayoutModel layout, List<ChunkGroupInfo> chunkGroupInfoList) {
+    int pageSizeInByte = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
+    return analyse(
+        layout, chunkGroupInfoList, pageSizeInByte / SMALL_PAGE_DIVISOR, pageSizeInByte);
+  }
+
+  /**
+   * @param smallPageBytes series whose average page is smaller are flagged
+   * @param smallChunkBytes series with several chunks whose average chunk is smaller are flagged
+   */
+  public static SizeDistributionReport analyse(
+      TsFileLayoutModel layout,
+      List<ChunkGroupInfo> chunkGroupInfoList,
+      long smallPageBytes,
+      long smallChunkBytes) {
+    SizeDistributionReport report = new SizeDistributionReport();
+    Map<String, SeriesSize> seriesSizeMap = new LinkedHashMap<>();
+    for (ChunkLayoutInfo chunk : layout.getChunkLayoutList()) {
+      String deviceId = chunk.getDeviceId();
+      String dataType = chunk.getDataType().name();
+      SeriesSize seriesSize =
+          seriesSizeMap.computeIfAbsent(
+              seriesName(chunk), k -> new SeriesSize(deviceId, dataType));
+      seriesSize.chunkCount++;
+      seriesSize.chunkBytes += chunk.getSize();
+      seriesSize.pageCount += chunk.getPageCount();
+      seriesSize.headerBytes += chunk.getSize();
+      report.add(PAGES_PER_CHUNK, deviceId, dataType, chunk.getPageCount());
+      for (int page = 0; page < chunk.getPageCount(); page++) {
+        report.add(BYTES_PER_PAGE, deviceId, dataType, chunk.getPageSize(page));
+        // 只有一个 page 且索引中没有统计信息时点数未知
+        if (chunk.getPagePointCount(page) >= 0) {
+          report.add(POINTS_PER_PAGE, deviceId, dataType, chunk.getPagePointCount(page));
+        }
+        seriesSize.headerBytes -= chunk.getPageCompressedSize(page);
+      }
+    }
+    for (Map.Entry<String, SeriesSize> entry : seriesSizeMap.entrySet()) {
+      SeriesSize seriesSize = entry.getValue();
+      report.add(
+          CHUNKS_PER_SERIES, seriesSize.deviceId, seriesSize.dataType, seriesSize.chunkCount);
+      flagSeries(report, entry.getKey(), seriesSize, smallPageBytes, smallChunkBytes);
+    }
+    addChunkGroupSizes(report, layout.getChunkLayoutList(), chunkGroupInfoList);
+    return report;
+  }
+
+  private static void flagSeries(
+      SizeDistributionReport report,
+      String series,
+      SeriesSize seriesSize,
+      long smallPageBytes,
+      long smallChunkBytes) {
+    List<String> reasons = new ArrayList<>();
+    long pageBytes = seriesSize.chunkBytes - seriesSize.headerBytes;
+    if (seriesSize.pageCount > seriesSize.chunkCount
+        && pageBytes / seriesSize.pageCount < smallPageBytes) {
+      reasons.add(
+          String.format(
+              "%d pages averaging %d bytes (< %d)",
+              seriesSize.pageCount, pageBytes / seriesSize.pageCount, smallPageBytes));
+    }
+    long averageChunkBytes = seriesSize.chunkBytes / seriesSize.chunkCount;
+    if (seriesSize.chunkCount > 1 && averageChunkBytes < smallChunkBytes) {
+      reasons.add(
+          String.format(
+              "%d chunks averaging %d bytes (< %d)",
+              seriesSize.chunkCount, averageChunkBytes, smallChunkBytes));
+    }
+    double headerRatio = (double) seriesSize.headerBytes / seriesSize.chunkBytes;
+    if (headerRatio > HEADER_OVERHEAD_RATIO) {
+      reasons.add(String.format("%.1f%% of bytes are chunk/page headers", headerRatio * 100));
+    }
+    if (!reasons.isEmpty()) {
+      report.flag(series, String.join(", ", reasons));
+    }
+  }
+
+  /** chunk group size: from the chunk group marker to the end of its last chunk */
+  private static void addChunkGroupSizes(
+      SizeDistributionReport report,
+      List<ChunkLayoutInfo> chunkLayoutList,
+      List<ChunkGroupInfo> chunkGroupInfoList) {
+    int chunkIndex = 0;
+    for (int i = 0; i < chunkGroupInfoList.size(); i++) {
+      ChunkGroupInfo chunkGroupInfo = chunkGroupInfoList.get(i);
+      long nextChunkGroupOffset =
+          i + 1 < chunkGroupInfoList.size()
+              ? chunkGroupInfoList.get(i + 1).getOffset()
+              : Long.MAX_VALUE;
+      long chunkGroupEnd = -1;
+      while (chunkIndex < chunkLayoutList.size()
+          && chunkLayoutList.get(chunkIndex).getOffset() < nextChunkGroupOffset) {
+        chunkGroupEnd = chunkLayoutList.get(chunkIndex).getEnd();
+        chunkIndex++;
+      }
+      if (chunkGroupEnd > 0) {
+        // ChunkGroupInfo 的 offset 位于 marker 之后
+        report.add(
+            BYTES_PER_CHUNK_GROUP,
+            chunkGroupInfo.getDeviceName(),
+            null,
+            chunkGroupEnd - chunkGroupInfo.getOffset() + Byte.BYTES);
+      }
+    }
+  }
+
+  /** the time column of an aligned device has an empty measurement id */
+  private static String seriesName(ChunkLayoutInfo chunk) {
+    return chunk.getDeviceId()
+        + "."
+        + (chunk.getMeasurementId().isEmpty() ? "(time)" : chunk.getMeasurementId());
+  }
+
+  private static class SeriesSize {
+    private final String deviceId;
+    private final String dataType;
+    private long chunkCount;
+    private long chunkBytes;
+    private long pageCount;
+    /** chunk marker, chunk header and page header bytes */
+    private long headerBytes;
+
+    private SeriesSize(String deviceId, String dataType) {
+      this.deviceId = deviceId;
+      this.dataType = dataType;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AlignmentCandidateReportTest {
+
+  @Test
+  public void testSavedBytes() {
+    AlignmentCandidateModel small = new AlignmentCandidateModel("root.sg.d1");
+    // a page of 10 points per chunk: 4 + 2 bitmap bytes each
+    small.addSharedGroup(new HashSet<>(Arrays.asList("s1", "s2")), 1, 10, 5, 12);
+    AlignmentCandidateModel large = new AlignmentCandidateModel("root.sg.d2");
+    large.addSharedGroup(new HashSet<>(Arrays.asList("s1", "s2", "s3")), 2, 2000, 600, 150);
+    large.addSharedGroup(new HashSet<>(Arrays.asList("s3", "s4")), 1, 1000, 300, 100);
+
+    assertEquals(-7, small.getNetSavedBytes());
+    assertEquals(650, large.getNetSavedBytes());
+    assertEquals(4, large.getMeasurements().size());
+    assertEquals(3, large.getRedundantChunkCount());
+    assertEquals(3000, large.getRedundantPointCount());
+
+    List<AlignmentCandidateModel> devices = new ArrayList<>(Arrays.asList(small, large));
+    AlignmentCandidateReport report = new AlignmentCandidateReport(devices, 3, 7, 9);
+    assertEquals("root.sg.d2", report.getDevices().get(0).getDeviceId());
+    // devices losing bytes are not counted
+    assertEquals(650, report.getNetSavedBytes());
+  }
+}
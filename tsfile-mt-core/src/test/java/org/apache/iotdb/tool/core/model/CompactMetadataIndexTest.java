@@ -0,0 +1,73 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactMetadataIndexTest {
+
+  @Test
+  public void testChildrenRanges() {
+    CompactMetadataIndex index = new CompactMetadataIndex();
+    int root = index.addRoot(MetadataIndexNodeType.LEAF_DEVICE);
+    int d1 = index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, "root.sg.d1", "root.sg.d1");
+    int d2 = index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, "root.sg.d2", "root.sg.d2");
+    index.setPosition(d1, 300);
+    index.setPosition(d2, 400);
+    int s1 = index.addSeries(d1, "root.sg.d1", "s1", 100, false, TSDataType.INT64, 1, 9, 5);
+    int s2 = index.addSeries(d1, "root.sg.d1", "s2", 200, true, TSDataType.VECTOR, 2, 8, 4);
+    int s3 = index.addSeries(d2, "root.sg.d2", "s1", 300, false, TSDataType.DOUBLE, 3, 7, 3);
+    index.trimToSize();
+
+    assertEquals(6, index.size());
+    assertEquals(2, index.getChildCount(root));
+    assertEquals(d1, index.getFirstChild(root));
+    assertEquals(s1, index.getFirstChild(d1));
+    assertEquals(2, index.getChildCount(d1));
+    assertEquals(d2, index.getParent(s3));
+    assertEquals(-1, index.getFirstChild(s3));
+    assertTrue(index.isSeries(s2) && index.isAligned(s2));
+    assertFalse(index.isSeries(d1));
+    assertEquals(TSDataType.DOUBLE, index.getDataType(s3));
+    assertEquals(8, index.getEndTime(s2));
+    // the next sibling or the end of the parent
+    assertEquals(200, index.getSeriesEnd(s1));
+    assertEquals(300, index.getSeriesEnd(s2));
+    assertEquals(400, index.getSeriesEnd(s3));
+    // device and measurement ids are dictionary-encoded
+    assertSame(index.getMeasurementId(s1), index.getMeasurementId(s3));
+    assertEquals(2, index.getMeasurementDictionary().size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testChildrenMustBeContiguous() {
+    CompactMetadataIndex index = new CompactMetadataIndex();
+    int root = index.addRoot(MetadataIndexNodeType.LEAF_DEVICE);
+    int d1 = index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, "root.sg.d1", "root.sg.d1");
+    index.addSeries(d1, "root.sg.d1", "s1", 100, false, TSDataType.INT64, 1, 9, 5);
+    index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, "root.sg.d2", "root.sg.d2");
+  }
+
+  @Test
+  public void testChunkGroupInfoList() {
+    ChunkGroupInfoList chunkGroupInfoList = new ChunkGroupInfoList();
+    for (int i = 0; i < 100; i++) {
+      chunkGroupInfoList.add("root.sg.d" + (i % 3), i * 10L);
+    }
+    chunkGroupInfoList.add(new ChunkGroupInfo("root.sg.d9", 1000));
+    chunkGroupInfoList.trimToSize();
+
+    assertEquals(101, chunkGroupInfoList.size());
+    assertEquals(4, chunkGroupInfoList.getDeviceDictionary().size());
+    assertEquals("root.sg.d1", chunkGroupInfoList.getDeviceName(4));
+    assertEquals(40, chunkGroupInfoList.getOffset(4));
+    assertEquals("root.sg.d9", chunkGroupInfoList.get(100).getDeviceName());
+    assertEquals(1000, chunkGroupInfoList.get(100).getOffset());
+  }
+}
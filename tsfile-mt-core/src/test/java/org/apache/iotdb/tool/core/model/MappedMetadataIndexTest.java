@@ -0,0 +1,86 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MappedMetadataIndexTest {
+
+  @Test
+  public void testWriteAndMap() throws IOException {
+    CompactMetadataIndex index = new CompactMetadataIndex();
+    int root = index.addRoot(MetadataIndexNodeType.LEAF_DEVICE);
+    int d1 = index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, "root.sg.d1", "root.sg.d1");
+    int d2 = index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, "root.sg.设备2", "root.sg.设备2");
+    index.setPosition(root, 500);
+    index.setPosition(d1, 300);
+    index.setPosition(d2, 400);
+    index.addSeries(d1, "root.sg.d1", "s1", 100, false, TSDataType.INT64, 1, 9, 5);
+    index.addSeries(d1, "root.sg.d1", "s2", 200, true, TSDataType.VECTOR, 2, 8, 4);
+    index.addSeries(d2, "root.sg.设备2", "s1", 300, false, TSDataType.DOUBLE, -3, 7, 3);
+
+    File file = File.createTempFile("mapped-index", ".idx");
+    try (MappedMetadataIndex mapped = MappedMetadataIndex.write(index, file)) {
+      assertEquals(index.size(), mapped.size());
+      for (int node = 0; node < index.size(); node++) {
+        assertEquals(index.getNodeType(node), mapped.getNodeType(node));
+        assertEquals(index.isSeries(node), mapped.isSeries(node));
+        assertEquals(index.isAligned(node), mapped.isAligned(node));
+        assertEquals(index.getDeviceId(node), mapped.getDeviceId(node));
+        assertEquals(index.getMeasurementId(node), mapped.getMeasurementId(node));
+        assertEquals(index.getParent(node), mapped.getParent(node));
+        assertEquals(index.getFirstChild(node), mapped.getFirstChild(node));
+        assertEquals(index.getChildCount(node), mapped.getChildCount(node));
+        assertEquals(index.getPosition(node), mapped.getPosition(node));
+        if (index.isSeries(node)) {
+          assertEquals(index.getSeriesEnd(node), mapped.getSeriesEnd(node));
+          assertEquals(index.getDataType(node), mapped.getDataType(node));
+          assertEquals(index.getStartTime(node), mapped.getStartTime(node));
+          assertEquals(index.getEndTime(node), mapped.getEndTime(node));
+          assertEquals(index.getCount(node), mapped.getCount(node));
+        }
+      }
+      assertEquals(5, mapped.findSeries("root.sg.设备2", "s1"));
+      assertEquals(3, mapped.findSeries("root.sg.d1", "s1"));
+      assertEquals(-1, mapped.findSeries("root.sg.d1", "s3"));
+      assertEquals(-1, mapped.findSeries("root.sg.d1", "root.sg.d1"));
+    }
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testFindByStringOrder() throws IOException {
+    // String order, as the TsFile index: a supplementary character sorts before U+FF21 as UTF-16
+    // though after it as UTF-8
+    String[] devices = {"root.sg.a", "root.sg.b\uD83D\uDE00", "root.sg.b\uFF21", "root.sg.设备"};
+    CompactMetadataIndex index = new CompactMetadataIndex();
+    int root = index.addRoot(MetadataIndexNodeType.LEAF_DEVICE);
+    int[] nodes = new int[devices.length];
+    for (int i = 0; i < devices.length; i++) {
+      nodes[i] = index.addNode(root, MetadataIndexNodeType.LEAF_DEVICE, devices[i], devices[i]);
+    }
+    for (int i = 0; i < devices.length; i++) {
+      index.addSeries(nodes[i], devices[i], "s" + i, i, false, TSDataType.INT64, 1, 1, 1);
+    }
+
+    File file = File.createTempFile("mapped-index", ".idx");
+    try (MappedMetadataIndex mapped = MappedMetadataIndex.write(index, file)) {
+      for (int i = 0; i < devices.length; i++) {
+        assertEquals(i, mapped.findDeviceCode(devices[i]));
+        assertEquals(devices[i], mapped.getName(nodes[i]));
+        assertEquals(index.findSeries(devices[i], "s" + i), mapped.findSeries(devices[i], "s" + i));
+        assertEquals(devices.length + 1 + i, mapped.findSeries(devices[i], "s" + i));
+      }
+      assertEquals(-1, mapped.findDeviceCode("root.sg.b"));
+      assertEquals(-1, mapped.findDeviceCode("root.sg.b\uD83D"));
+      assertEquals(-1, mapped.findSeries("root.sg.a", "s1"));
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class NullDensityStatisticsTest {
+
+  @Test
+  public void testPageDensities() {
+    NullDensityStatistics statistics = new NullDensityStatistics();
+    statistics.accept(100, 25, 17);
+    statistics.accept(100, 75, 17);
+    // an empty page
+    statistics.accept(0, 0, 0);
+
+    assertEquals(3, statistics.getPageCount());
+    assertEquals(200, statistics.getRowCount());
+    assertEquals(100, statistics.getNullCount());
+    assertEquals(34, statistics.getBitmapBytes());
+    assertEquals(0.5, statistics.getNullDensity(), 1e-9);
+    assertArrayEquals(new double[] {0.25, 0.75, 1}, statistics.getPageNullDensities(), 1e-9);
+    assertEquals(0.25, statistics.getMinPageNullDensity(), 1e-9);
+    assertEquals(1, statistics.getMaxPageNullDensity(), 1e-9);
+  }
+}
@@ -0,0 +1,46 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SeriesTimeIndexTest {
+
+  @Test
+  public void testFind() {
+    long[] startTimes = {0, 100, 200};
+    long[] endTimes = {99, 150, 299};
+    assertEquals(0, SeriesTimeIndex.find(startTimes, endTimes, 0));
+    assertEquals(1, SeriesTimeIndex.find(startTimes, endTimes, 150));
+    // gap between two ranges
+    assertEquals(-1, SeriesTimeIndex.find(startTimes, endTimes, 160));
+    assertEquals(2, SeriesTimeIndex.find(startTimes, endTimes, 200));
+    assertEquals(-1, SeriesTimeIndex.find(startTimes, endTimes, -1));
+    assertEquals(-1, SeriesTimeIndex.find(startTimes, endTimes, 300));
+    assertEquals(-1, SeriesTimeIndex.find(new long[0], new long[0], 1));
+  }
+
+  @Test
+  public void testFindOverlapped() {
+    // an unsequence range covering the others
+    long[] startTimes = {0, 10, 20};
+    long[] endTimes = {100, 15, 25};
+    assertEquals(0, SeriesTimeIndex.find(startTimes, endTimes, 18));
+    assertEquals(2, SeriesTimeIndex.find(startTimes, endTimes, 22));
+    assertEquals(0, SeriesTimeIndex.find(startTimes, endTimes, 50));
+  }
+
+  @Test
+  public void testFindBefore() {
+    // every range covering a time, from the latest start time down
+    long[] startTimes = {0, 10, 12, 20};
+    long[] endTimes = {100, 15, 13, 25};
+    assertEquals(2, SeriesTimeIndex.find(startTimes, endTimes, 12, startTimes.length));
+    assertEquals(1, SeriesTimeIndex.find(startTimes, endTimes, 12, 2));
+    assertEquals(0, SeriesTimeIndex.find(startTimes, endTimes, 12, 1));
+    assertEquals(-1, SeriesTimeIndex.find(startTimes, endTimes, 12, 0));
+    // the ranges ending before the time are skipped
+    assertEquals(0, SeriesTimeIndex.find(startTimes, endTimes, 14, 1));
+    assertEquals(0, SeriesTimeIndex.find(startTimes, endTimes, 22, 3));
+  }
+}
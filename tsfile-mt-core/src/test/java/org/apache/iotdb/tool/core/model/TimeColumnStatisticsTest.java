@@ -0,0 +1,35 @@
+package org.apache.iotdb.tool.core.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeColumnStatisticsTest {
+
+  @Test
+  public void testDeltaRegularity() {
+    TimeColumnStatistics statistics = new TimeColumnStatistics();
+    statistics.accept(new long[] {0, 1000, 2000, 3000, 4500});
+    // the delta between pages is not counted
+    statistics.accept(new long[] {10000, 11000});
+
+    assertEquals(7, statistics.getPointCount());
+    assertEquals(2, statistics.getPageCount());
+    assertEquals(5, statistics.getDeltaCount());
+    assertEquals(1000, statistics.getModeDelta());
+    assertEquals(1000, statistics.getMinDelta());
+    assertEquals(1500, statistics.getMaxDelta());
+    assertEquals(0.8, statistics.getRegularity(), 1e-9);
+    assertEquals(1100, statistics.getMeanDelta(), 1e-9);
+    assertEquals(200 / 1100.0, statistics.getJitter(), 1e-9);
+  }
+
+  @Test
+  public void testRegularColumn() {
+    TimeColumnStatistics statistics = new TimeColumnStatistics();
+    statistics.accept(new long[] {5, 10, 15, 20});
+
+    assertEquals(1, statistics.getRegularity(), 1e-9);
+    assertEquals(0, statistics.getJitter(), 1e-9);
+  }
+}
@@ -0,0 +1,67 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.AggregatedSeries;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TsFileAggregationTest {
+
+  private File file;
+
+  private TsFileAnalyserV13 analyser;
+
+  @Before
+  public void setUp() throws IOException {
+    // times 0, 10... 100 and 5, 15
+    file = TsFileTestFiles.writeOverlappedChunks();
+    analyser = new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    analyser.getReader().close();
+    file.delete();
+  }
+
+  @Test
+  public void testWholeSeries() throws IOException, InterruptedException {
+    AggregatedSeries series = aggregate(Long.MIN_VALUE, Long.MAX_VALUE, 30);
+    assertArrayEquals(new long[] {0, 30, 60, 90}, series.getBucketStartTimes());
+    assertArrayEquals(new long[] {5, 3, 3, 2}, series.getCounts());
+    assertEquals(0, series.getFirstValues()[0], 0);
+    assertEquals(200, series.getLastValues()[0], 0);
+    assertEquals(1000, series.getMaxValues()[3], 0);
+  }
+
+  @Test
+  public void testZeroAndNegativeBounds() throws IOException, InterruptedException {
+    // buckets from -20, not from the start of the series
+    AggregatedSeries series = aggregate(-20, Long.MAX_VALUE, 30);
+    assertArrayEquals(new long[] {-20, 10, 40, 70, 100}, series.getBucketStartTimes());
+    assertArrayEquals(new long[] {2, 4, 3, 3, 1}, series.getCounts());
+
+    // up to 0, not to the end of the series
+    series = aggregate(-20, 0, 30);
+    assertArrayEquals(new long[] {-20}, series.getBucketStartTimes());
+    assertArrayEquals(new long[] {1}, series.getCounts());
+    assertEquals(0, series.getAvg(0), 0);
+
+    series = aggregate(Long.MIN_VALUE, 0, 30);
+    assertArrayEquals(new long[] {0}, series.getBucketStartTimes());
+    assertArrayEquals(new long[] {1}, series.getCounts());
+  }
+
+  private AggregatedSeries aggregate(long startTime, long endTime, long interval)
+      throws IOException, InterruptedException {
+    return analyser.fetchAggregatedSeries(
+        TsFileTestFiles.DEVICE, "s1", startTime, endTime, interval);
+  }
+}
@@ -0,0 +1,114 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.util.ArrowLayoutUtil;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TsFileArrowVectorTest {
+
+  private File file;
+
+  private TsFileAnalyserV13 analyser;
+
+  private BufferAllocator allocator;
+
+  private TsFileArrowReader arrowReader;
+
+  @Before
+  public void setUp() throws IOException {
+    // root.sg.d3: s1 and s2 over times 1 to 4, s2 null on odd times
+    file = TsFileTestFiles.writeConsecutiveChunkGroups();
+    analyser = new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    allocator = new RootAllocator();
+    arrowReader = new TsFileArrowReader(analyser, allocator);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    // fails if a vector is not released
+    allocator.close();
+    analyser.getReader().close();
+    file.delete();
+  }
+
+  @Test
+  public void testAlignedChunkThroughArrowStream() throws IOException, InterruptedException {
+    List<VectorSchemaRoot> roots =
+        arrowReader.readChunk(
+            analyser.getReader().getAlignedChunkMetadata(TsFileTestFiles.ALIGNED_DEVICE).get(0));
+    assertEquals(1, roots.size());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (VectorSchemaRoot root = roots.get(0);
+        ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+      assertAlignedRows(root);
+      writer.start();
+      writer.writeBatch();
+      writer.end();
+    }
+
+    try (ArrowStreamReader reader =
+        new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+      assertTrue(reader.loadNextBatch());
+      assertAlignedRows(reader.getVectorSchemaRoot());
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testNonAlignedChunk() throws IOException, InterruptedException {
+    Path path = new Path(TsFileTestFiles.DEVICE, "s1");
+    List<VectorSchemaRoot> roots =
+        arrowReader.readChunk(analyser.getReader().getChunkMetadataList(path).get(0));
+    assertEquals(1, roots.size());
+    try (VectorSchemaRoot root = roots.get(0)) {
+      assertEquals(3, root.getRowCount());
+      BigIntVector time = (BigIntVector) root.getVector(ArrowLayoutUtil.TIME_COLUMN);
+      BigIntVector s1 = (BigIntVector) root.getVector("s1");
+      assertEquals(0, s1.getNullCount());
+      for (int row = 0; row < 3; row++) {
+        assertEquals(row + 1, time.get(row));
+        assertEquals((row + 1) * 10, s1.get(row));
+      }
+    }
+  }
+
+  private static void assertAlignedRows(VectorSchemaRoot root) {
+    assertEquals(4, root.getRowCount());
+    BigIntVector time = (BigIntVector) root.getVector(ArrowLayoutUtil.TIME_COLUMN);
+    BigIntVector s1 = (BigIntVector) root.getVector("s1");
+    BigIntVector s2 = (BigIntVector) root.getVector("s2");
+    assertEquals(0, time.getNullCount());
+    assertEquals(2, s2.getNullCount());
+    for (int row = 0; row < 4; row++) {
+      long timestamp = row + 1;
+      assertEquals(timestamp, time.get(row));
+      assertEquals(timestamp * 10, s1.get(row));
+      if (timestamp % 2 == 0) {
+        assertEquals(timestamp * 10 + 1, s2.get(row));
+      } else {
+        assertTrue(s2.isNull(row));
+      }
+    }
+  }
+}
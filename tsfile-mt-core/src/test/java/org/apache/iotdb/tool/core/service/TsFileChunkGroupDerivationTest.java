@@ -0,0 +1,125 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.ChunkGroupInfoList;
+import org.apache.iotdb.tool.core.model.ChunkLayoutInfo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class TsFileChunkGroupDerivationTest {
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = TsFileTestFiles.writeConsecutiveChunkGroups();
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void testConsecutiveChunkGroupsOfOneDevice() throws IOException, InterruptedException {
+    ChunkGroupInfoList scanned = chunkGroups(TsFileAnalyserV13.OpenMode.FULL_SCAN);
+    ChunkGroupInfoList derived = chunkGroups(TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+
+    // three ChunkGroups of root.sg.d1, one of root.sg.d2 and one of root.sg.d3
+    assertEquals(5, scanned.size());
+    assertEquals(scanned.size(), derived.size());
+    for (int i = 0; i < scanned.size(); i++) {
+      assertEquals(scanned.getDeviceName(i), derived.getDeviceName(i));
+      assertEquals(scanned.getOffset(i), derived.getOffset(i));
+    }
+    assertEquals(TsFileTestFiles.DEVICE, derived.getDeviceName(1));
+    assertEquals(TsFileTestFiles.DEVICE, derived.getDeviceName(2));
+  }
+
+  @Test(timeout = 10000)
+  public void testCorruptedChunkHeader() throws IOException, InterruptedException {
+    // an invalid data type in the second ChunkGroup: the scan keeps the first one
+    corrupt(dataTypePosition(2), file.length());
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FULL_SCAN);
+    try {
+      assertNotNull(analyser.getTimeSeriesMetadataNode());
+      assertEquals(1, analyser.getChunkGroupInfoList().size());
+      assertEquals(1.0, analyser.getRateOfProcess(), 0);
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testDefaultOpenModeScans() throws IOException, InterruptedException {
+    // the index is intact, only a scan of the data section stops at the corrupted header
+    corrupt(dataTypePosition(2), file.length());
+    TsFileAnalyserV13 analyser = new TsFileAnalyserV13(file.getPath());
+    try {
+      assertNotNull(analyser.getTimeSeriesMetadataNode());
+      assertEquals(1, analyser.getChunkGroupInfoList().size());
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testUnreadableFile() throws IOException, InterruptedException {
+    // unsealed and corrupted: the fallback scan stops early and the index cannot be read
+    corrupt(dataTypePosition(1), dataTypePosition(2));
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    try {
+      analyser.getTimeSeriesMetadataNode();
+      fail("the file has no readable index");
+    } catch (IllegalStateException e) {
+      assertNotNull(e.getCause());
+    } finally {
+      analyser.getReader().close();
+    }
+    assertEquals(1.0, analyser.getRateOfProcess(), 0);
+  }
+
+  /** @return position of the data type byte in the header of a chunk, in file order */
+  private long dataTypePosition(int chunk) throws IOException, InterruptedException {
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    try {
+      ChunkLayoutInfo chunkLayout = analyser.getFileLayout().getChunkLayoutList().get(chunk);
+      // the header ends with the data type, compression and encoding bytes
+      return chunkLayout.getPageOffset(0) - 3;
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+
+  /** write an invalid data type at position and cut the file at length */
+  private void corrupt(long position, long length) throws IOException {
+    try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+      out.seek(position);
+      out.write(127);
+      out.setLength(length);
+    }
+  }
+
+  private ChunkGroupInfoList chunkGroups(TsFileAnalyserV13.OpenMode openMode)
+      throws IOException, InterruptedException {
+    TsFileAnalyserV13 analyser = new TsFileAnalyserV13(file.getPath(), openMode);
+    try {
+      analyser.getTimeSeriesMetadataNode();
+      return analyser.getChunkGroupInfoList();
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.ChunkGroupInfo;
+import org.apache.iotdb.tool.core.model.ChunkGroupInfoList;
+import org.apache.iotdb.tool.core.model.ChunkLayoutInfo;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tool.core.model.TimeColumnStatistics;
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TsFileDataScannerTest {
+
+  /** one page per chunk: d1 2 + 1 + 1, d2 1, d3 time + 2 values */
+  private static final int PAGES = 8;
+
+  private static final int VALUE_PAGES = 2;
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = TsFileTestFiles.writeConsecutiveChunkGroups();
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void testLayoutAndTimeColumnsInOnePass() throws IOException, InterruptedException {
+    List<ChunkGroupInfo> chunkGroups = new ArrayList<>();
+    List<Long> progress = new ArrayList<>();
+    TsFileLayoutVisitor layoutVisitor = new TsFileLayoutVisitor(chunkGroups, progress::add);
+    TimeColumnStatisticsVisitor timeColumnVisitor = new TimeColumnStatisticsVisitor();
+    TsFileDataScanner scanner = new TsFileDataScanner(file.getPath(), ScanIoOptions.DEFAULT);
+    scanner.register(layoutVisitor).register(timeColumnVisitor).scan();
+
+    assertEquals(PAGES, scanner.getPageCount());
+    // the times only, the value chunks of the aligned device are not decoded
+    assertEquals(PAGES - VALUE_PAGES, scanner.getDecompressedPageCount());
+    assertEquals(PAGES - VALUE_PAGES, scanner.getDecodedPageCount());
+
+    ChunkGroupInfoList derived = footerFirstChunkGroups();
+    assertEquals(derived.size(), chunkGroups.size());
+    for (int i = 0; i < chunkGroups.size(); i++) {
+      assertEquals(derived.getDeviceName(i), chunkGroups.get(i).getDeviceName());
+      assertEquals(derived.getOffset(i), chunkGroups.get(i).getOffset());
+    }
+    List<ChunkLayoutInfo> chunks = layoutVisitor.getChunkLayouts();
+    assertEquals(PAGES, chunks.size());
+    List<Long> chunkGroupEnds = new ArrayList<>();
+    for (int i = 1; i < chunkGroups.size(); i++) {
+      chunkGroupEnds.add(chunkGroups.get(i).getOffset() - Byte.BYTES);
+    }
+    for (int i = 0; i < chunks.size(); i++) {
+      ChunkLayoutInfo chunk = chunks.get(i);
+      assertEquals(chunk.getPageOffset(0) + chunk.getPageSize(0), chunk.getEnd());
+      // a chunk is followed by the next chunk of its chunk group or by the next chunk group
+      if (i + 1 < chunks.size() && !chunkGroupEnds.contains(chunk.getEnd())) {
+        assertEquals(chunk.getEnd(), chunks.get(i + 1).getOffset());
+      }
+    }
+    // a progress report per chunk group and chunk
+    assertEquals(chunkGroups.size() + chunks.size(), progress.size());
+
+    Map<String, TimeColumnStatistics> timeColumns = timeColumnVisitor.getTimeColumns();
+    assertEquals(4, timeColumns.size());
+    TimeColumnStatistics s1 = timeColumns.get(TsFileTestFiles.DEVICE + ".s1");
+    assertEquals(6, s1.getPointCount());
+    assertEquals(2, s1.getPageCount());
+    TimeColumnStatistics aligned = timeColumns.get(TsFileTestFiles.ALIGNED_DEVICE);
+    assertEquals(4, aligned.getPointCount());
+    assertEquals(1, aligned.getMinDelta());
+  }
+
+  @Test
+  public void testPageDecodedOnceForAllVisitors() throws IOException {
+    RecordingVisitor first = new RecordingVisitor();
+    RecordingVisitor second = new RecordingVisitor();
+    TsFileDataScanner scanner = new TsFileDataScanner(file.getPath(), ScanIoOptions.DEFAULT);
+    scanner.register(first).register(second).scan();
+
+    assertEquals(PAGES, scanner.getPageCount());
+    assertEquals(PAGES, scanner.getDecompressedPageCount());
+    assertEquals(PAGES, scanner.getDecodedPageCount());
+    assertEquals(PAGES, first.pages.size());
+    assertEquals(PAGES, second.pages.size());
+    for (int i = 0; i < PAGES; i++) {
+      assertSame(first.pages.get(i), second.pages.get(i));
+    }
+    assertEquals(1, first.ends);
+    assertEquals(1, second.ends);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testScanOnce() throws IOException {
+    TsFileDataScanner scanner = new TsFileDataScanner(file.getPath(), ScanIoOptions.DEFAULT);
+    scanner.register(new RecordingVisitor());
+    scanner.scan();
+    scanner.scan();
+  }
+
+  @Test(timeout = 10000)
+  public void testFileLayoutRightAfterOpen() throws IOException, InterruptedException {
+    // waits for the loading thread, which takes the lock of the analyser to load the index
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    try {
+      assertEquals(PAGES, analyser.getFileLayout().getChunkLayoutList().size());
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+
+  private ChunkGroupInfoList footerFirstChunkGroups() throws IOException, InterruptedException {
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    try {
+      analyser.getTimeSeriesMetadataNode();
+      return analyser.getChunkGroupInfoList();
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+
+  private static class RecordingVisitor implements TsFileScanVisitor {
+
+    private final List<PrimitivePageData> pages = new ArrayList<>();
+
+    private int ends;
+
+    @Override
+    public boolean needsDecodedPages() {
+      return true;
+    }
+
+    @Override
+    public void onDecodedPage(
+        String deviceId,
+        ChunkHeader chunkHeader,
+        PageHeader pageHeader,
+        PrimitivePageData pageData) {
+      pages.add(pageData);
+    }
+
+    @Override
+    public void onEnd() {
+      ends++;
+    }
+  }
+}
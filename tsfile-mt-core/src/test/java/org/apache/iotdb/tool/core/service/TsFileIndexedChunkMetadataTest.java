@@ -0,0 +1,232 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.ChunkGroupInfoList;
+import org.apache.iotdb.tool.core.model.ChunkListInfo;
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.TimeStatistics;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TsFileIndexedChunkMetadataTest {
+
+  private File file;
+
+  private File unsealed;
+
+  @Before
+  public void setUp() throws IOException {
+    // every chunk of the file has one page, whose statistics are only in the index
+    file = TsFileTestFiles.writeConsecutiveChunkGroups();
+    unsealed = File.createTempFile("unsealed", ".tsfile");
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+    unsealed.delete();
+  }
+
+  @Test
+  public void testChunkListsMatchTheReader() throws IOException, InterruptedException {
+    for (TsFileAnalyserV13.IndexMode indexMode : TsFileAnalyserV13.IndexMode.values()) {
+      TsFileAnalyserV13 analyser =
+          new TsFileAnalyserV13(
+              file.getPath(),
+              TsFileAnalyserV13.OpenMode.FOOTER_FIRST,
+              ScanIoOptions.DEFAULT,
+              indexMode);
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+        // waits for the load in every index mode
+        analyser.getFileLayout();
+        for (Path path :
+            new Path[] {
+              new Path(TsFileTestFiles.DEVICE, "s1"),
+              new Path(TsFileTestFiles.DEVICE, "s2"),
+              new Path(TsFileTestFiles.OTHER_DEVICE, "s1")
+            }) {
+          List<IChunkMetadata> expected = new ArrayList<>(reader.getChunkMetadataList(path));
+          assertChunkLists(
+              indexMode + " " + path,
+              expected,
+              analyser.fetchChunkListsByDeviceIdAndMeasurementId(
+                  path.getDevice(), path.getMeasurement()));
+        }
+        // the value columns of the aligned device
+        List<AlignedChunkMetadata> aligned =
+            reader.getAlignedChunkMetadata(TsFileTestFiles.ALIGNED_DEVICE);
+        for (int column = 0; column < 2; column++) {
+          List<IChunkMetadata> expected = new ArrayList<>();
+          for (AlignedChunkMetadata alignedChunkMetadata : aligned) {
+            expected.add(alignedChunkMetadata.getValueChunkMetadataList().get(column));
+          }
+          String measurement = "s" + (column + 1);
+          assertChunkLists(
+              indexMode + " " + measurement,
+              expected,
+              analyser.fetchChunkListsByDeviceIdAndMeasurementId(
+                  TsFileTestFiles.ALIGNED_DEVICE, measurement));
+        }
+      } finally {
+        analyser.getReader().close();
+      }
+    }
+  }
+
+  @Test
+  public void testIndexedStatisticsMatchTheDecodedOnes() throws IOException, InterruptedException {
+    // the same chunk groups without the index: an unsealed file, whose statistics are decoded
+    long metaOffset;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      metaOffset = reader.readFileMetadata().getMetaOffset();
+    }
+    Files.copy(file.toPath(), unsealed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    try (RandomAccessFile out = new RandomAccessFile(unsealed, "rw")) {
+      // the data section and the separator after it, without the index
+      out.setLength(metaOffset + Byte.BYTES);
+    }
+
+    TsFileAnalyserV13 indexed =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    TsFileAnalyserV13 decoded =
+        new TsFileAnalyserV13(unsealed.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      indexed.getTimeSeriesMetadataNode();
+      try {
+        decoded.getTimeSeriesMetadataNode();
+        fail("an unsealed file has no index");
+      } catch (IllegalStateException e) {
+        // the chunk groups were still scanned
+      }
+      ChunkGroupInfoList chunkGroups = indexed.getChunkGroupInfoList();
+      assertEquals(5, chunkGroups.size());
+      assertEquals(chunkGroups.size(), decoded.getChunkGroupInfoList().size());
+      int chunkCount = 0;
+      for (int group = 0; group < chunkGroups.size(); group++) {
+        long offset = chunkGroups.getOffset(group);
+        List<ChunkMetadata> fromIndex = flatten(indexed.fetchChunkListByChunkGroupOffset(offset));
+        List<ChunkMetadata> fromDecode =
+            flatten(decoded.fetchChunkListByChunkGroupOffset(offset));
+        assertEquals(fromDecode.size(), fromIndex.size());
+        for (int i = 0; i < fromIndex.size(); i++) {
+          ChunkMetadata chunk = fromIndex.get(i);
+          String name = chunkGroups.getDeviceName(group) + "." + chunk.getMeasurementUid();
+          assertEquals(
+              name, fromDecode.get(i).getOffsetOfChunkHeader(), chunk.getOffsetOfChunkHeader());
+          assertEquals(
+              name, describe(fromDecode.get(i).getStatistics()), describe(chunk.getStatistics()));
+          assertEquals(
+              name,
+              describe(indexStatistics(reader, chunkGroups.getDeviceName(group), chunk)),
+              describe(chunk.getStatistics()));
+          chunkCount++;
+        }
+      }
+      // d1: s1, s2 | s1 | s2, d2: s1, d3: time, s1, s2
+      assertEquals(8, chunkCount);
+    } finally {
+      indexed.getReader().close();
+      decoded.getReader().close();
+    }
+  }
+
+  private static void assertChunkLists(
+      String message, List<IChunkMetadata> expected, List<ChunkMetadata> actual) {
+    expected.sort(Comparator.comparingLong(IChunkMetadata::getStartTime));
+    assertFalse(message, expected.isEmpty());
+    assertEquals(message, expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(
+          message,
+          expected.get(i).getOffsetOfChunkHeader(),
+          actual.get(i).getOffsetOfChunkHeader());
+      assertEquals(
+          message,
+          describe(expected.get(i).getStatistics()),
+          describe(actual.get(i).getStatistics()));
+    }
+  }
+
+  /** the chunk metadata of a chunk group, the time and value columns of an aligned chunk apart */
+  private static List<ChunkMetadata> flatten(ChunkListInfo chunkListInfo) {
+    List<ChunkMetadata> chunks = new ArrayList<>();
+    for (IChunkMetadata chunkMetadata : chunkListInfo.getChunkMetadataList()) {
+      if (chunkMetadata instanceof AlignedChunkMetadata) {
+        AlignedChunkMetadata aligned = (AlignedChunkMetadata) chunkMetadata;
+        chunks.add((ChunkMetadata) aligned.getTimeChunkMetadata());
+        for (IChunkMetadata valueChunkMetadata : aligned.getValueChunkMetadataList()) {
+          chunks.add((ChunkMetadata) valueChunkMetadata);
+        }
+      } else {
+        chunks.add((ChunkMetadata) chunkMetadata);
+      }
+    }
+    return chunks;
+  }
+
+  /** statistics of the chunk in the index, read by TsFileSequenceReader */
+  private static Statistics<?> indexStatistics(
+      TsFileSequenceReader reader, String device, ChunkMetadata chunk) throws IOException {
+    List<IChunkMetadata> candidates = new ArrayList<>();
+    if (TsFileTestFiles.ALIGNED_DEVICE.equals(device)) {
+      for (AlignedChunkMetadata aligned : reader.getAlignedChunkMetadata(device)) {
+        candidates.add(aligned.getTimeChunkMetadata());
+        candidates.addAll(aligned.getValueChunkMetadataList());
+      }
+    } else {
+      candidates.addAll(reader.getChunkMetadataList(new Path(device, chunk.getMeasurementUid())));
+    }
+    for (IChunkMetadata candidate : candidates) {
+      if (candidate.getOffsetOfChunkHeader() == chunk.getOffsetOfChunkHeader()) {
+        return candidate.getStatistics();
+      }
+    }
+    throw new AssertionError("no chunk at " + chunk.getOffsetOfChunkHeader() + " in the index");
+  }
+
+  private static String describe(Statistics<?> statistics) {
+    assertTrue(statistics.getCount() > 0);
+    StringBuilder description =
+        new StringBuilder()
+            .append(statistics.getCount())
+            .append(' ')
+            .append(statistics.getStartTime())
+            .append(' ')
+            .append(statistics.getEndTime());
+    if (!(statistics instanceof TimeStatistics)) {
+      description
+          .append(' ')
+          .append(statistics.getMinValue())
+          .append(' ')
+          .append(statistics.getMaxValue())
+          .append(' ')
+          .append(statistics.getFirstValue())
+          .append(' ')
+          .append(statistics.getLastValue())
+          .append(' ')
+          .append(statistics.getSumDoubleValue());
+    }
+    return description.toString();
+  }
+}
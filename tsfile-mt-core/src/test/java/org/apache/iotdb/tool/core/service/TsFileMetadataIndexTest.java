@@ -0,0 +1,188 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.ChunkGroupInfoList;
+import org.apache.iotdb.tool.core.model.ChunkLayoutInfo;
+import org.apache.iotdb.tool.core.model.CompactMetadataIndex;
+import org.apache.iotdb.tool.core.model.LastPoint;
+import org.apache.iotdb.tool.core.model.MappedMetadataIndex;
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TsFileMetadataIndexTest {
+
+  private static final int DEVICES = 7;
+
+  private static final int MEASUREMENTS = 10;
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+
+  private int maxDegreeOfIndexNode;
+
+  private File file;
+
+  private TsFileAnalyserV13 analyser;
+
+  @Before
+  public void setUp() throws IOException {
+    // index nodes of 3 entries: 8 devices and 10 measurements need internal levels
+    maxDegreeOfIndexNode = config.getMaxDegreeOfIndexNode();
+    config.setMaxDegreeOfIndexNode(3);
+    file = TsFileTestFiles.writeManySeries(DEVICES, MEASUREMENTS);
+    analyser = new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setMaxDegreeOfIndexNode(maxDegreeOfIndexNode);
+    analyser.getReader().close();
+    file.delete();
+  }
+
+  @Test
+  public void testFindEverySeries() throws IOException, InterruptedException {
+    analyser.getTimeSeriesMetadataNode();
+    CompactMetadataIndex compact = analyser.getCompactMetadataIndex();
+    boolean internalDevice = false;
+    boolean internalMeasurement = false;
+    for (int node = 0; node < compact.size(); node++) {
+      internalDevice |= compact.getNodeType(node) == MetadataIndexNodeType.INTERNAL_DEVICE;
+      internalMeasurement |=
+          compact.getNodeType(node) == MetadataIndexNodeType.INTERNAL_MEASUREMENT;
+    }
+    assertTrue(internalDevice && internalMeasurement);
+
+    List<String[]> series = new ArrayList<>();
+    for (int i = 0; i < DEVICES; i++) {
+      for (int j = 0; j < MEASUREMENTS; j++) {
+        series.add(new String[] {"root.sg.n" + i, "s" + j});
+      }
+    }
+    series.add(new String[] {TsFileTestFiles.ALIGNED_DEVICE, ""});
+    for (int j = 0; j < MEASUREMENTS; j++) {
+      series.add(new String[] {TsFileTestFiles.ALIGNED_DEVICE, "s" + j});
+    }
+    int timeColumn = compact.findSeries(TsFileTestFiles.ALIGNED_DEVICE, "");
+    assertEquals(TSDataType.VECTOR, compact.getDataType(timeColumn));
+    for (String[] path : series) {
+      int node = compact.findSeries(path[0], path[1]);
+      assertTrue(path[0] + "." + path[1], node >= 0);
+      assertEquals(path[0], compact.getDeviceId(node));
+      assertEquals(path[1], compact.getMeasurementId(node));
+      boolean valueColumn = path[0].equals(TsFileTestFiles.ALIGNED_DEVICE) && !path[1].isEmpty();
+      assertEquals(valueColumn ? timeColumn : -1, compact.getTimeColumn(node));
+    }
+    assertEquals(-1, compact.findSeries("root.sg.n0", "s" + MEASUREMENTS));
+    assertEquals(-1, compact.findSeries("root.sg.n" + DEVICES, "s0"));
+    assertEquals(-1, compact.findSeries("root.sg.m", "s0"));
+    assertEquals(-1, compact.findSeries("root.sg.n0", ""));
+
+    List<String> lastPoints = format(analyser.fetchLastPoints());
+    assertEquals(DEVICES * MEASUREMENTS + MEASUREMENTS, lastPoints.size());
+
+    MappedMetadataIndex mapped = analyser.materializeMappedIndex();
+    for (String[] path : series) {
+      assertEquals(compact.findSeries(path[0], path[1]), mapped.findSeries(path[0], path[1]));
+    }
+    assertEquals(-1, mapped.findSeries("root.sg.n0", "s" + MEASUREMENTS));
+    assertEquals(-1, mapped.findSeries("root.sg.m", "s0"));
+    // read from the mapped index, not from a reloaded object tree
+    assertEquals(lastPoints, format(analyser.fetchLastPoints()));
+    try {
+      analyser.getTimeSeriesMetadataNode();
+      fail("the object tree is released");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    ITimeSeriesMetadata valueColumn =
+        analyser.readTimeseriesMetadata(mapped.findSeries(TsFileTestFiles.ALIGNED_DEVICE, "s2"));
+    assertTrue(valueColumn instanceof AlignedTimeSeriesMetadata);
+    AlignedTimeSeriesMetadata aligned = (AlignedTimeSeriesMetadata) valueColumn;
+    assertEquals("", aligned.getTimeseriesMetadata().getMeasurementId());
+    assertEquals("s2", aligned.getValueTimeseriesMetadataList().get(0).getMeasurementId());
+    // s2 misses time 1
+    assertEquals(2, aligned.getValueTimeseriesMetadataList().get(0).getStatistics().getCount());
+
+    // one-page chunks take their point count from the mapped index
+    for (ChunkLayoutInfo chunk : analyser.getFileLayout().getChunkLayoutList()) {
+      for (int page = 0; page < chunk.getPageCount(); page++) {
+        assertTrue(chunk.getPagePointCount(page) > 0);
+      }
+    }
+  }
+
+  @Test
+  public void testOpenWithFlatIndex() throws IOException, InterruptedException {
+    List<String> lastPoints = format(analyser.fetchLastPoints());
+    ChunkGroupInfoList chunkGroups = analyser.getChunkGroupInfoList();
+    List<ChunkLayoutInfo> chunks = analyser.getFileLayout().getChunkLayoutList();
+    for (TsFileAnalyserV13.IndexMode indexMode :
+        new TsFileAnalyserV13.IndexMode[] {
+          TsFileAnalyserV13.IndexMode.COMPACT, TsFileAnalyserV13.IndexMode.MAPPED
+        }) {
+      TsFileAnalyserV13 flat =
+          new TsFileAnalyserV13(
+              file.getPath(),
+              TsFileAnalyserV13.OpenMode.FOOTER_FIRST,
+              ScanIoOptions.DEFAULT,
+              indexMode);
+      try {
+        assertEquals(lastPoints, format(flat.fetchLastPoints()));
+        assertEquals(analyser.getAllCount(), flat.getAllCount());
+        // derived from the flat index, without a fallback to the data section scan
+        assertEquals(DEVICES + 1, flat.getChunkGroupInfoList().size());
+        assertEquals(chunkGroups.size(), flat.getChunkGroupInfoList().size());
+        for (int i = 0; i < chunkGroups.size(); i++) {
+          assertEquals(chunkGroups.getOffset(i), flat.getChunkGroupInfoList().getOffset(i));
+        }
+        List<ChunkLayoutInfo> flatChunks = flat.getFileLayout().getChunkLayoutList();
+        assertEquals(chunks.size(), flatChunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+          assertEquals(chunks.get(i).getPagePointCount(0), flatChunks.get(i).getPagePointCount(0));
+        }
+        assertEquals(indexMode, flat.getIndexMode());
+        try {
+          flat.getTimeSeriesMetadataNode();
+          fail("no object tree in " + indexMode);
+        } catch (IllegalStateException e) {
+          // expected
+        }
+      } finally {
+        flat.getReader().close();
+      }
+    }
+  }
+
+  private static List<String> format(List<LastPoint> lastPoints) {
+    List<String> formatted = new ArrayList<>();
+    for (LastPoint lastPoint : lastPoints) {
+      formatted.add(
+          lastPoint.getDeviceId()
+              + "."
+              + lastPoint.getMeasurementId()
+              + "="
+              + lastPoint.getTimestamp()
+              + ","
+              + lastPoint.getValue());
+    }
+    return formatted;
+  }
+}
@@ -0,0 +1,66 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.model.PointLookupResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TsFilePointLookupTest {
+
+  private File file;
+
+  private TsFileAnalyserV13 analyser;
+
+  @Before
+  public void setUp() throws IOException {
+    file = TsFileTestFiles.writeOverlappedChunks();
+    analyser = new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    analyser.getReader().close();
+    file.delete();
+  }
+
+  @Test
+  public void testLookupInOverlappedChunks() throws IOException, InterruptedException {
+    // only in the later chunk [5, 15]
+    assertPoint(15);
+    // the later chunk [5, 15] covers 10 without a point at it, the earlier one holds it
+    assertPoint(10);
+    // only the earlier chunk covers 50
+    assertPoint(50);
+    assertPoint(0);
+
+    // covered by both chunks, held by none: the page of the latest covering chunk
+    PointLookupResult missing = lookup(7);
+    assertFalse(missing.isFound());
+    assertNotNull(missing.getPageInfo());
+    assertEquals(lookup(15).getPageInfo().getPosition(), missing.getPageInfo().getPosition());
+
+    PointLookupResult outside = lookup(101);
+    assertFalse(outside.isFound());
+    assertNull(outside.getPageInfo());
+  }
+
+  private void assertPoint(long time) throws IOException, InterruptedException {
+    PointLookupResult result = lookup(time);
+    assertTrue(String.valueOf(time), result.isFound());
+    assertEquals(time * 10, result.getValue());
+  }
+
+  private PointLookupResult lookup(long time) throws IOException, InterruptedException {
+    return analyser.lookupPoint(TsFileTestFiles.DEVICE, "s1", time);
+  }
+}
@@ -0,0 +1,73 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.util.ScanIoOptions;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TsFileQueryCacheTest {
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = TsFileTestFiles.writeConsecutiveChunkGroups();
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void testWarmUpSelectedDevices() throws IOException, InterruptedException {
+    for (TsFileAnalyserV13.IndexMode indexMode : TsFileAnalyserV13.IndexMode.values()) {
+      TsFileAnalyserV13 analyser =
+          new TsFileAnalyserV13(
+              file.getPath(),
+              TsFileAnalyserV13.OpenMode.FOOTER_FIRST,
+              ScanIoOptions.DEFAULT,
+              indexMode);
+      try {
+        TsFileQueryEngine engine = analyser.getQueryEngine();
+        // s1 and s2 of root.sg.d1, the value columns of the aligned device, not its time column
+        assertEquals(
+            4,
+            analyser.warmUpQueryEngine(
+                Arrays.asList(TsFileTestFiles.DEVICE, TsFileTestFiles.ALIGNED_DEVICE)));
+        assertSame(engine, analyser.getQueryEngine());
+        assertEquals(0, analyser.warmUpQueryEngine(Collections.singletonList("root.sg.none")));
+      } finally {
+        analyser.getReader().close();
+      }
+    }
+  }
+
+  @Test
+  public void testWarmUpWithinCacheSize() throws IOException, InterruptedException {
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    try {
+      TsFileQueryEngine engine = analyser.getQueryEngine();
+      analyser.setQueryCacheSize(1, 10);
+      assertEquals(1, analyser.getQueryMetadataCacheSize());
+      assertEquals(10, analyser.getQueryChunkCacheSize());
+      // recreated with the new sizes
+      assertNotSame(engine, analyser.getQueryEngine());
+      assertEquals(
+          1, analyser.warmUpQueryEngine(Collections.singletonList(TsFileTestFiles.DEVICE)));
+    } finally {
+      analyser.getReader().close();
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tsfile.read.common.Path;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.PrimitiveType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TsFileSeriesExporterTest {
+
+  private File file;
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    file = TsFileTestFiles.writeConsecutiveChunkGroups();
+    directory = Files.createTempDirectory("series-export").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+    File[] exported = directory.listFiles();
+    if (exported != null) {
+      for (File csv : exported) {
+        csv.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void testExportRoundTrip() throws IOException, InterruptedException {
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    long pointCount;
+    try {
+      pointCount = analyser.exportSeriesToCsv(directory, 2);
+    } finally {
+      analyser.getReader().close();
+    }
+
+    // non-aligned, over consecutive chunk groups of the device
+    List<String> d1s1 = rows(1, 3, 1, 0);
+    d1s1.addAll(rows(10, 12, 1, 0));
+    assertExported(new Path(TsFileTestFiles.DEVICE, "s1"), d1s1);
+    List<String> d1s2 = rows(1, 3, 1, 1);
+    d1s2.addAll(rows(20, 22, 1, 0));
+    assertExported(new Path(TsFileTestFiles.DEVICE, "s2"), d1s2);
+    assertExported(new Path(TsFileTestFiles.OTHER_DEVICE, "s1"), rows(1, 5, 1, 0));
+    // the value columns of the aligned device share its time chunk, null rows are skipped
+    assertExported(new Path(TsFileTestFiles.ALIGNED_DEVICE, "s1"), rows(1, 4, 1, 0));
+    assertExported(new Path(TsFileTestFiles.ALIGNED_DEVICE, "s2"), rows(2, 4, 2, 1));
+
+    assertEquals(5, directory.listFiles().length);
+    assertEquals(6 + 6 + 5 + 4 + 2, pointCount);
+  }
+
+  @Test
+  public void testExportParquet() throws IOException, InterruptedException {
+    TsFileAnalyserV13 analyser =
+        new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+    long pointCount;
+    try {
+      pointCount = analyser.exportSeriesToParquet(directory, 2);
+    } finally {
+      analyser.getReader().close();
+    }
+
+    // a row group per chunk
+    List<String> d1s1 = rows(1, 3, 1, 0);
+    d1s1.addAll(rows(10, 12, 1, 0));
+    assertExportedParquet(new Path(TsFileTestFiles.DEVICE, "s1"), d1s1, 2);
+    List<String> d1s2 = rows(1, 3, 1, 1);
+    d1s2.addAll(rows(20, 22, 1, 0));
+    assertExportedParquet(new Path(TsFileTestFiles.DEVICE, "s2"), d1s2, 2);
+    assertExportedParquet(new Path(TsFileTestFiles.OTHER_DEVICE, "s1"), rows(1, 5, 1, 0), 1);
+    // null rows of the aligned column are skipped
+    assertExportedParquet(new Path(TsFileTestFiles.ALIGNED_DEVICE, "s1"), rows(1, 4, 1, 0), 1);
+    assertExportedParquet(new Path(TsFileTestFiles.ALIGNED_DEVICE, "s2"), rows(2, 4, 2, 1), 1);
+
+    assertEquals(5, directory.listFiles().length);
+    assertEquals(6 + 6 + 5 + 4 + 2, pointCount);
+  }
+
+  /** read back with parquet-hadoop */
+  private void assertExportedParquet(Path path, List<String> expectedRows, int rowGroupCount)
+      throws IOException {
+    org.apache.hadoop.fs.Path parquet =
+        new org.apache.hadoop.fs.Path(
+            new File(
+                    directory,
+                    TsFileSeriesExporter.fileName(path, TsFileSeriesExporter.Format.PARQUET))
+                .toURI());
+    Configuration conf = new Configuration();
+    try (ParquetFileReader reader =
+        ParquetFileReader.open(HadoopInputFile.fromPath(parquet, conf))) {
+      assertEquals(rowGroupCount, reader.getRowGroups().size());
+      assertEquals(expectedRows.size(), reader.getRecordCount());
+      PrimitiveType value = reader.getFileMetaData().getSchema().getType(1).asPrimitiveType();
+      assertEquals(path.getFullPath(), value.getName());
+      assertEquals(PrimitiveType.PrimitiveTypeName.INT64, value.getPrimitiveTypeName());
+    }
+    List<String> actualRows = new ArrayList<>();
+    try (ParquetReader<Group> reader =
+        ParquetReader.builder(new GroupReadSupport(), parquet).withConf(conf).build()) {
+      for (Group group = reader.read(); group != null; group = reader.read()) {
+        actualRows.add(group.getLong(0, 0) + "," + group.getLong(1, 0));
+      }
+    }
+    assertEquals(expectedRows, actualRows);
+  }
+
+  private void assertExported(Path path, List<String> expectedRows) throws IOException {
+    File csv =
+        new File(directory, TsFileSeriesExporter.fileName(path, TsFileSeriesExporter.Format.CSV));
+    List<String> expected = new ArrayList<>();
+    expected.add("Time," + path.getFullPath());
+    expected.addAll(expectedRows);
+    assertEquals(expected, Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8));
+  }
+
+  /** rows "time,time * 10 + measurement" from startTime to endTime */
+  private static List<String> rows(long startTime, long endTime, long step, int measurement) {
+    List<String> rows = new ArrayList<>();
+    for (long time = startTime; time <= endTime; time += step) {
+      rows.add(time + "," + (time * 10 + measurement));
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,169 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** small TsFiles written for the tests, every value is time * 10 + index of the measurement */
+class TsFileTestFiles {
+
+  static final String DEVICE = "root.sg.d1";
+
+  static final String OTHER_DEVICE = "root.sg.d2";
+
+  static final String ALIGNED_DEVICE = "root.sg.d3";
+
+  private TsFileTestFiles() {}
+
+  /**
+   * root.sg.d1 in three consecutive ChunkGroups with different measurements, as flushes write them,
+   * then root.sg.d2 and the aligned device root.sg.d3 (s2 null on odd times)
+   */
+  static File writeConsecutiveChunkGroups() throws IOException {
+    File file = File.createTempFile("consecutive-chunk-groups", ".tsfile");
+    file.delete();
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      registerSeries(writer, DEVICE, "s1", "s2");
+      registerSeries(writer, OTHER_DEVICE, "s1");
+      List<MeasurementSchema> alignedSchemas = new ArrayList<>();
+      alignedSchemas.add(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN));
+      alignedSchemas.add(new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.PLAIN));
+      writer.registerAlignedTimeseries(new Path(ALIGNED_DEVICE), alignedSchemas);
+
+      writeChunkGroup(writer, DEVICE, 1, 3, "s1", "s2");
+      writeChunkGroup(writer, DEVICE, 10, 12, "s1");
+      writeChunkGroup(writer, DEVICE, 20, 22, "s2");
+      writeChunkGroup(writer, OTHER_DEVICE, 1, 5, "s1");
+      for (long time = 1; time <= 4; time++) {
+        TSRecord record = new TSRecord(time, ALIGNED_DEVICE);
+        record.addTuple(new LongDataPoint("s1", time * 10));
+        if (time % 2 == 0) {
+          record.addTuple(new LongDataPoint("s2", time * 10 + 1));
+        }
+        writer.writeAligned(record);
+      }
+      writer.flushAllChunkGroups();
+    } catch (WriteProcessException e) {
+      throw new IOException(e);
+    }
+    return file;
+  }
+
+  /**
+   * devices root.sg.n0, root.sg.n1... with the measurements s0, s1... over times 1 to 3, then the
+   * aligned device {@link #ALIGNED_DEVICE} with as many value columns, sj null where time + j is
+   * divisible by 3
+   */
+  static File writeManySeries(int deviceCount, int measurementCount) throws IOException {
+    File file = File.createTempFile("many-series", ".tsfile");
+    file.delete();
+    String[] measurements = new String[measurementCount];
+    List<MeasurementSchema> alignedSchemas = new ArrayList<>();
+    for (int j = 0; j < measurementCount; j++) {
+      measurements[j] = "s" + j;
+      alignedSchemas.add(
+          new MeasurementSchema(measurements[j], TSDataType.INT64, TSEncoding.PLAIN));
+    }
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      for (int i = 0; i < deviceCount; i++) {
+        registerSeries(writer, "root.sg.n" + i, measurements);
+      }
+      writer.registerAlignedTimeseries(new Path(ALIGNED_DEVICE), alignedSchemas);
+      for (int i = 0; i < deviceCount; i++) {
+        writeChunkGroup(writer, "root.sg.n" + i, 1, 3, measurements);
+      }
+      for (long time = 1; time <= 3; time++) {
+        TSRecord record = new TSRecord(time, ALIGNED_DEVICE);
+        for (int j = 0; j < measurementCount; j++) {
+          if ((time + j) % 3 != 0) {
+            record.addTuple(new LongDataPoint(measurements[j], time * 10 + j));
+          }
+        }
+        writer.writeAligned(record);
+      }
+      writer.flushAllChunkGroups();
+    } catch (WriteProcessException e) {
+      throw new IOException(e);
+    }
+    return file;
+  }
+
+  /**
+   * root.sg.d1.s1 in two overlapping chunks, as an unsequence flush writes them: times 0, 10...
+   * 100, then 5 and 15; TsFileWriter refuses data older than what it wrote
+   */
+  static File writeOverlappedChunks() throws IOException {
+    File file = File.createTempFile("overlapped-chunks", ".tsfile");
+    file.delete();
+    MeasurementSchema schema = new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN);
+    TsFileIOWriter writer = new TsFileIOWriter(file);
+    long[][] chunks = {{0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100}, {5, 15}};
+    for (long[] times : chunks) {
+      writer.startChunkGroup(DEVICE);
+      ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+      for (long time : times) {
+        chunkWriter.write(time, time * 10);
+      }
+      chunkWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+    }
+    writer.endFile();
+    return file;
+  }
+
+  /**
+   * root.sg.d1.s1 and s2 over times -3 to 3, across 0; TsFileWriter refuses timestamps below 0
+   */
+  static File writeAroundZero() throws IOException {
+    File file = File.createTempFile("around-zero", ".tsfile");
+    file.delete();
+    TsFileIOWriter writer = new TsFileIOWriter(file);
+    writer.startChunkGroup(DEVICE);
+    for (int i = 0; i < 2; i++) {
+      MeasurementSchema schema =
+          new MeasurementSchema("s" + (i + 1), TSDataType.INT64, TSEncoding.PLAIN);
+      ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+      for (long time = -3; time <= 3; time++) {
+        chunkWriter.write(time, time * 10 + i);
+      }
+      chunkWriter.writeToFileWriter(writer);
+    }
+    writer.endChunkGroup();
+    writer.endFile();
+    return file;
+  }
+
+  static void registerSeries(TsFileWriter writer, String device, String... measurements)
+      throws WriteProcessException {
+    for (String measurement : measurements) {
+      writer.registerTimeseries(
+          new Path(device), new MeasurementSchema(measurement, TSDataType.INT64, TSEncoding.PLAIN));
+    }
+  }
+
+  /** one point per time in [startTime, endTime] for each measurement, then a flush */
+  static void writeChunkGroup(
+      TsFileWriter writer, String device, long startTime, long endTime, String... measurements)
+      throws IOException, WriteProcessException {
+    for (long time = startTime; time <= endTime; time++) {
+      TSRecord record = new TSRecord(time, device);
+      for (int i = 0; i < measurements.length; i++) {
+        record.addTuple(new LongDataPoint(measurements[i], time * 10 + i));
+      }
+      writer.write(record);
+    }
+    writer.flushAllChunkGroups();
+  }
+}
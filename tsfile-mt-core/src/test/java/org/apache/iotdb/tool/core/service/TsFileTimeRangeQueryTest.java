@@ -0,0 +1,90 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tool.core.util.TimeRangeUtil;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TsFileTimeRangeQueryTest {
+
+  private File file;
+
+  private TsFileAnalyserV13 analyser;
+
+  @Before
+  public void setUp() throws IOException {
+    // times -3 to 3
+    file = TsFileTestFiles.writeAroundZero();
+    analyser = new TsFileAnalyserV13(file.getPath(), TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    analyser.getReader().close();
+    file.delete();
+  }
+
+  @Test
+  public void testAlignedRowsAroundZero() throws IOException, InterruptedException {
+    // (start, end]: 0 and negative timestamps are bounds, not open
+    assertEquals(Arrays.asList(-1L, 0L), alignedRowTimes(-2, 0));
+    assertEquals(Arrays.asList(-3L, -2L, -1L, 0L), alignedRowTimes(TimeRangeUtil.UNSET_START, 0));
+    assertEquals(Arrays.asList(1L, 2L, 3L), alignedRowTimes(0, TimeRangeUtil.UNSET_END));
+    assertEquals(
+        Arrays.asList(-3L, -2L, -1L, 0L, 1L, 2L, 3L),
+        alignedRowTimes(TimeRangeUtil.UNSET_START, TimeRangeUtil.UNSET_END));
+    assertNull(
+        MultiSeriesQueryExecutor.timeFilter(TimeRangeUtil.UNSET_START, TimeRangeUtil.UNSET_END));
+  }
+
+  @Test
+  public void testQueryResultAroundZero() throws IOException, InterruptedException {
+    assertEquals(Arrays.asList(-1L, 0L), resultTimes(-2, 0));
+    assertEquals(Arrays.asList(-3L, -2L), resultTimes(-4, -2));
+    assertEquals(
+        Arrays.asList(-3L, -2L, -1L, 0L, 1L, 2L, 3L),
+        resultTimes(TimeRangeUtil.UNSET_START, TimeRangeUtil.UNSET_END));
+  }
+
+  private List<Long> alignedRowTimes(long startTime, long endTime)
+      throws IOException, InterruptedException {
+    List<Long> times = new ArrayList<>();
+    List<Path> paths =
+        Arrays.asList(
+            new Path(TsFileTestFiles.DEVICE, "s1"), new Path(TsFileTestFiles.DEVICE, "s2"));
+    analyser.queryAlignedRows(
+        paths,
+        startTime,
+        endTime,
+        (timestamp, values) -> {
+          assertEquals(timestamp * 10, values[0]);
+          assertEquals(timestamp * 10 + 1, values[1]);
+          times.add(timestamp);
+          return true;
+        });
+    return times;
+  }
+
+  private List<Long> resultTimes(long startTime, long endTime)
+      throws IOException, InterruptedException {
+    QueryDataSet dataSet =
+        analyser.queryResult(startTime, endTime, TsFileTestFiles.DEVICE, "s1", "", 0, 0);
+    List<Long> times = new ArrayList<>();
+    while (dataSet.hasNext()) {
+      times.add(dataSet.next().getTimestamp());
+    }
+    return times;
+  }
+}
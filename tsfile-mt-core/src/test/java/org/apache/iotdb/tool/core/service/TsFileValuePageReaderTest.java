@@ -0,0 +1,73 @@
+package org.apache.iotdb.tool.core.service;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TsFileValuePageReaderTest {
+
+  @Test
+  public void testSparsePage() throws IOException {
+    // 10 rows, rows 0, 3 and 9 have a value, the bits past row 9 are not rows
+    byte[] bitmapSection = {0, 0, 0, 10, (byte) 0x90, (byte) 0x7F};
+    TsFileValuePageReader pageReader = pageReader(bitmapSection, 7, 8, 9);
+
+    assertEquals(10, pageReader.getRowCount());
+    assertEquals(3, pageReader.getNonNullCount());
+    assertArrayEquals(bitmapSection, pageReader.getBitmapSection());
+    TsPrimitiveType[] rows = pageReader.allValueBatch();
+    assertEquals(10, rows.length);
+    assertEquals(7, rows[0].getInt());
+    assertNull(rows[1]);
+    assertEquals(8, rows[3].getInt());
+    assertNull(rows[8]);
+    assertEquals(9, rows[9].getInt());
+
+    TsPrimitiveType[] values = pageReader(bitmapSection, 7, 8, 9).nonNullValueBatch();
+    assertEquals(3, values.length);
+    assertEquals(9, values[2].getInt());
+  }
+
+  @Test
+  public void testEmptyPage() {
+    TsFileValuePageReader pageReader =
+        new TsFileValuePageReader(
+            null,
+            ByteBuffer.allocate(0),
+            TSDataType.INT32,
+            Decoder.getDecoderByType(TSEncoding.PLAIN, TSDataType.INT32));
+
+    assertEquals(0, pageReader.getRowCount());
+    assertEquals(0, pageReader.nonNullValueBatch().length);
+    assertEquals(0, pageReader.allValueBatch().length);
+    assertEquals(0, pageReader.getBitmapSection().length);
+  }
+
+  private static TsFileValuePageReader pageReader(byte[] bitmapSection, int... values)
+      throws IOException {
+    PublicBAOS baos = new PublicBAOS();
+    baos.write(bitmapSection);
+    PlainEncoder encoder = new PlainEncoder(TSDataType.INT32, 0);
+    for (int value : values) {
+      encoder.encode(value, baos);
+    }
+    encoder.flush(baos);
+    return new TsFileValuePageReader(
+        null,
+        ByteBuffer.wrap(baos.toByteArray()),
+        TSDataType.INT32,
+        Decoder.getDecoderByType(TSEncoding.PLAIN, TSDataType.INT32));
+  }
+}
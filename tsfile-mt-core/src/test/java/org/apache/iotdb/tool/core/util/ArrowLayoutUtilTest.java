@@ -0,0 +1,62 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.ArrowBatch;
+import org.apache.iotdb.tool.core.model.ArrowVector;
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ArrowLayoutUtilTest {
+
+  @Test
+  public void testAlignedColumnValidity() {
+    PrimitiveColumn column = new PrimitiveColumn(TSDataType.INT32, 3);
+    column.getIntValues()[0] = 7;
+    column.getIntValues()[2] = 9;
+    // MSB first: rows 0 and 2 are present
+    column.setBitmap(new byte[] {(byte) 0xA0});
+    PrimitivePageData page =
+        new PrimitivePageData(new long[] {1, 2, 3}, Collections.singletonList(column));
+
+    ArrowBatch batch = ArrowLayoutUtil.toArrowBatch(page, Collections.singletonList("s1"));
+
+    assertEquals(3, batch.getRowCount());
+    assertEquals(ByteOrder.LITTLE_ENDIAN, batch.getTimeVector().getValues().order());
+    assertEquals(3L, batch.getTimeVector().getValues().getLong(2 * Long.BYTES));
+    ArrowVector vector = batch.getValueVectors().get(0);
+    assertEquals(1, vector.getNullCount());
+    assertEquals(0x05, vector.getValidity().get(0));
+    assertFalse(vector.isNull(0));
+    assertTrue(vector.isNull(1));
+    assertEquals(9, vector.getValues().getInt(2 * Integer.BYTES));
+  }
+
+  @Test
+  public void testTextOffsets() {
+    PrimitiveColumn column = new PrimitiveColumn(TSDataType.TEXT, 2);
+    column.getBinaryValues()[0] = new Binary("ab");
+    column.getBinaryValues()[1] = new Binary("c");
+
+    ArrowVector vector = ArrowLayoutUtil.toArrowVector("s1", column, 2);
+
+    assertNull(vector.getValidity());
+    assertEquals(0, vector.getOffsets().getInt(0));
+    assertEquals(2, vector.getOffsets().getInt(Integer.BYTES));
+    assertEquals(3, vector.getOffsets().getInt(2 * Integer.BYTES));
+    byte[] data = new byte[vector.getValues().remaining()];
+    vector.getValues().duplicate().get(data);
+    assertTrue(Arrays.equals("abc".getBytes(), data));
+  }
+}
@@ -0,0 +1,142 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.ArrowVector;
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArrowVectorUtilTest {
+
+  /** more than one byte of validity */
+  private static final int ROWS = 11;
+
+  /** MSB first: rows 0, 2, 3, 8 and 10 are present, the others are null */
+  private static final byte[] BITMAP = {(byte) 0xB0, (byte) 0xA0};
+
+  private static final int[] PRESENT = {0, 2, 3, 8, 10};
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator();
+  }
+
+  @After
+  public void tearDown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testEveryDataType() {
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE,
+          TSDataType.TEXT
+        }) {
+      PrimitiveColumn column = column(dataType);
+      ArrowVector layout = ArrowLayoutUtil.toArrowVector("s", column, ROWS);
+      try (FieldVector vector = ArrowVectorUtil.toFieldVector("s", column, ROWS, allocator)) {
+        assertEquals(dataType.toString(), ROWS, vector.getValueCount());
+        assertEquals(dataType.toString(), ROWS - PRESENT.length, vector.getNullCount());
+        assertEquals(dataType.toString(), layout.getNullCount(), vector.getNullCount());
+        for (int row = 0; row < ROWS; row++) {
+          boolean present = Arrays.binarySearch(PRESENT, row) >= 0;
+          assertEquals(dataType + "@" + row, !present, vector.isNull(row));
+          assertEquals(dataType + "@" + row, !present, layout.isNull(row));
+          if (present) {
+            assertEquals(dataType + "@" + row, column.getObject(row), value(vector, row));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPageAsVectorSchemaRoot() {
+    long[] times = new long[ROWS];
+    for (int row = 0; row < ROWS; row++) {
+      times[row] = 100 + row;
+    }
+    PrimitivePageData page =
+        new PrimitivePageData(
+            times, Arrays.asList(column(TSDataType.INT64), column(TSDataType.TEXT)));
+    try (VectorSchemaRoot root =
+        ArrowVectorUtil.toVectorSchemaRoot(page, Arrays.asList("s1", "s2"), allocator)) {
+      assertEquals(ROWS, root.getRowCount());
+      BigIntVector time = (BigIntVector) root.getVector(ArrowLayoutUtil.TIME_COLUMN);
+      assertEquals(0, time.getNullCount());
+      assertEquals(110, time.get(ROWS - 1));
+      assertTrue(root.getVector("s1") instanceof BigIntVector);
+      assertTrue(root.getVector("s2") instanceof VarCharVector);
+      assertEquals(ROWS - PRESENT.length, root.getVector("s2").getNullCount());
+    }
+  }
+
+  /** value of row in the column: row * 3, present rows as in {@link #BITMAP} */
+  private static PrimitiveColumn column(TSDataType dataType) {
+    PrimitiveColumn column = new PrimitiveColumn(dataType, ROWS);
+    for (int row : PRESENT) {
+      switch (dataType) {
+        case BOOLEAN:
+          column.getBooleanValues()[row] = row % 2 == 0;
+          break;
+        case INT32:
+          column.getIntValues()[row] = row * 3;
+          break;
+        case INT64:
+          column.getLongValues()[row] = row * 3L;
+          break;
+        case FLOAT:
+          column.getFloatValues()[row] = row * 3f;
+          break;
+        case DOUBLE:
+          column.getDoubleValues()[row] = row * 3d;
+          break;
+        default:
+          column.getBinaryValues()[row] = new Binary("v" + row * 3);
+      }
+    }
+    column.setBitmap(BITMAP);
+    return column;
+  }
+
+  private static Object value(FieldVector vector, int row) {
+    if (vector instanceof BitVector) {
+      return ((BitVector) vector).get(row) == 1;
+    } else if (vector instanceof IntVector) {
+      return ((IntVector) vector).get(row);
+    } else if (vector instanceof BigIntVector) {
+      return ((BigIntVector) vector).get(row);
+    } else if (vector instanceof Float4Vector) {
+      return ((Float4Vector) vector).get(row);
+    } else if (vector instanceof Float8Vector) {
+      return ((Float8Vector) vector).get(row);
+    }
+    return new Binary(((VarCharVector) vector).get(row));
+  }
+}
@@ -0,0 +1,27 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tsfile.read.common.Path;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CsvRowWriterTest {
+
+  @Test
+  public void testAlignedRows() throws IOException {
+    StringWriter out = new StringWriter();
+    List<Path> paths = Arrays.asList(new Path("root.sg.d1", "s1"), new Path("root.sg.d2", "s1"));
+    try (CsvRowWriter writer = new CsvRowWriter(out, paths)) {
+      writer.accept(1, new Object[] {1.5, "a,b"});
+      writer.accept(2, new Object[] {null, "say \"hi\""});
+    }
+    assertEquals(
+        "Time,root.sg.d1.s1,root.sg.d2.s1\n1,1.5,\"a,b\"\n2,,\"say \"\"hi\"\"\"\n", out.toString());
+  }
+}
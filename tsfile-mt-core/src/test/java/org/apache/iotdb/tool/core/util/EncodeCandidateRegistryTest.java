@@ -0,0 +1,39 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EncodeCandidateRegistryTest {
+
+  @Test
+  public void testPruneKeepsBaselineAndCurrentEncoding() {
+    TsPrimitiveType[] sample = new TsPrimitiveType[1000];
+    for (int i = 0; i < sample.length; i++) {
+      sample[i] = new TsPrimitiveType.TsLong(1_600_000_000_000L + i * 1000L);
+    }
+    EncodeCandidateRegistry registry = EncodeCandidateRegistry.withParameterSweeps();
+    assertTrue(registry.hasParameterSweeps());
+
+    EncodeCandidateRegistry pruned = registry.prune(sample, 1, Collections.singleton("GORILLA"));
+
+    List<String> names = new ArrayList<>();
+    for (EncodeCandidate candidate : pruned.getEncodeCandidates(TSDataType.INT64)) {
+      names.add(candidate.getName());
+    }
+    assertEquals(3, names.size());
+    assertTrue(names.contains("PLAIN"));
+    assertTrue(names.contains("GORILLA"));
+    // a delta encoding wins on regular timestamps
+    assertTrue(names.get(2).startsWith("TS_2DIFF"));
+    assertEquals(registry.getCompressCandidates().size(), pruned.getCompressCandidates().size());
+  }
+}
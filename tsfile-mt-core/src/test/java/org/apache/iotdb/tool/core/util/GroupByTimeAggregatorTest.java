@@ -0,0 +1,44 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.AggregatedSeries;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GroupByTimeAggregatorTest {
+
+  @Test
+  public void testStatisticsAndPointsInOneBucket() {
+    // buckets [0, 100), [100, 200), [200, 300)
+    GroupByTimeAggregator aggregator = new GroupByTimeAggregator(0, 299, 100);
+    assertTrue(aggregator.inSingleBucket(100, 199));
+    assertFalse(aggregator.inSingleBucket(150, 250));
+
+    Statistics<?> statistics = Statistics.getStatsByType(TSDataType.INT32);
+    statistics.update(110, 7);
+    statistics.update(120, 1);
+    statistics.update(150, 4);
+    aggregator.accept(statistics);
+    // decoded points of a page straddling the boundary of the second and third bucket
+    aggregator.accept(180, 10);
+    aggregator.accept(105, -2);
+    aggregator.accept(250, 5);
+
+    AggregatedSeries series = aggregator.result("root.sg.d1.s1");
+    assertArrayEquals(new long[] {100, 200}, series.getBucketStartTimes());
+    assertArrayEquals(new long[] {5, 1}, series.getCounts());
+    assertEquals(4, series.getAvg(0), 0);
+    assertArrayEquals(new double[] {-2, 5}, series.getMinValues(), 0);
+    assertArrayEquals(new double[] {10, 5}, series.getMaxValues(), 0);
+    assertArrayEquals(new double[] {-2, 5}, series.getFirstValues(), 0);
+    assertArrayEquals(new double[] {10, 5}, series.getLastValues(), 0);
+    assertEquals(3, series.getDecodedPointCount());
+    assertEquals(3, series.getStatisticsPointCount());
+  }
+}
@@ -0,0 +1,33 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IoThrottleTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void testBytesPerSecond() {
+    IoThrottle throttle = new IoThrottle(1000, IoThrottle.UNLIMITED);
+    assertEquals(0, throttle.reserve(500, 0));
+    // the first 500 bytes take half a second
+    assertEquals(SECOND / 2, throttle.reserve(500, 0));
+    assertEquals(SECOND / 2, throttle.reserve(1000, SECOND / 2));
+  }
+
+  @Test
+  public void testIopsAndIdleTime() {
+    IoThrottle throttle = new IoThrottle(IoThrottle.UNLIMITED, 10);
+    assertEquals(0, throttle.reserve(1 << 20, 0));
+    assertEquals(SECOND / 10, throttle.reserve(1 << 20, 0));
+    // idle time does not allow a burst afterwards
+    assertEquals(0, throttle.reserve(1 << 20, 10 * SECOND));
+    assertEquals(SECOND / 10, throttle.reserve(1 << 20, 10 * SECOND));
+    assertTrue(new IoThrottle(IoThrottle.UNLIMITED, IoThrottle.UNLIMITED).isUnlimited());
+  }
+}
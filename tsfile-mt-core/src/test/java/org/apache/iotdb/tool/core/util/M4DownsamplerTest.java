@@ -0,0 +1,46 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.DownsampledSeries;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class M4DownsamplerTest {
+
+  @Test
+  public void testFirstLastMinMaxPerBucket() {
+    // two buckets of 10 ms
+    M4Downsampler downsampler = new M4Downsampler(0, 19, 2);
+    for (int i = 0; i < 20; i++) {
+      downsampler.accept(i, i == 3 ? -5 : (i == 6 ? 50 : i));
+    }
+    DownsampledSeries series = downsampler.result("root.sg.d1.s1");
+    assertArrayEquals(new long[] {0, 3, 6, 9, 10, 19}, series.getTimes());
+    assertArrayEquals(new double[] {0, -5, 50, 9, 10, 19}, series.getValues(), 0);
+    assertEquals(20, series.getDecodedPointCount());
+  }
+
+  @Test
+  public void testStatisticsInSingleBucket() {
+    M4Downsampler downsampler = new M4Downsampler(0, 999, 10);
+    assertTrue(downsampler.inSingleBucket(100, 199));
+    assertFalse(downsampler.inSingleBucket(150, 250));
+    assertFalse(downsampler.overlaps(1000, 2000));
+
+    Statistics<?> statistics = Statistics.getStatsByType(TSDataType.INT64);
+    statistics.update(100, 7L);
+    statistics.update(120, 1L);
+    statistics.update(199, 3L);
+    downsampler.accept(statistics);
+    DownsampledSeries series = downsampler.result("root.sg.d1.s1");
+    assertArrayEquals(new double[] {7, 1, 3}, series.getValues(), 0);
+    assertEquals(0, series.getDecodedPointCount());
+    assertEquals(3, series.getStatisticsPointCount());
+  }
+}
@@ -0,0 +1,154 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.PrimitiveColumn;
+import org.apache.iotdb.tool.core.model.PrimitivePageData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParquetSeriesWriterTest {
+
+  private static final int ROWS = 11;
+
+  /** MSB first: rows 0, 2, 3, 8 and 10 are present, the others are null */
+  private static final byte[] BITMAP = {(byte) 0xB0, (byte) 0xA0};
+
+  private static final int[] PRESENT = {0, 2, 3, 8, 10};
+
+  @Test
+  public void testEveryDataType() throws IOException {
+    for (TSDataType dataType :
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE,
+          TSDataType.TEXT
+        }) {
+      File file = File.createTempFile("series", ".parquet");
+      try {
+        // a dense page and a page with null rows, then a row group of the dense page only
+        PrimitivePageData dense = page(dataType, 0, false);
+        PrimitivePageData sparse = page(dataType, 100, true);
+        try (ParquetSeriesWriter writer =
+            new ParquetSeriesWriter(file, new Path("root.sg.d1", "s1"), dataType)) {
+          assertEquals(ROWS + PRESENT.length, writer.writeRowGroup(Arrays.asList(dense, sparse)));
+          assertEquals(ROWS, writer.writeRowGroup(Collections.singletonList(dense)));
+        }
+
+        List<String> expected = new ArrayList<>();
+        expected.addAll(rows(dense, ROWS));
+        expected.addAll(rows(sparse, ROWS));
+        expected.addAll(rows(dense, ROWS));
+        assertEquals(dataType.toString(), expected, read(file, dataType, 2));
+      } finally {
+        file.delete();
+      }
+    }
+  }
+
+  /** the file as "time,value" rows, through parquet-hadoop */
+  private static List<String> read(File file, TSDataType dataType, int rowGroupCount)
+      throws IOException {
+    org.apache.hadoop.fs.Path path = new org.apache.hadoop.fs.Path(file.toURI());
+    Configuration conf = new Configuration();
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf))) {
+      assertEquals(dataType.toString(), rowGroupCount, reader.getRowGroups().size());
+    }
+    List<String> rows = new ArrayList<>();
+    try (ParquetReader<Group> reader =
+        ParquetReader.builder(new GroupReadSupport(), path).withConf(conf).build()) {
+      for (Group group = reader.read(); group != null; group = reader.read()) {
+        Object value;
+        switch (dataType) {
+          case BOOLEAN:
+            value = group.getBoolean(1, 0);
+            break;
+          case INT32:
+            value = group.getInteger(1, 0);
+            break;
+          case INT64:
+            value = group.getLong(1, 0);
+            break;
+          case FLOAT:
+            value = group.getFloat(1, 0);
+            break;
+          case DOUBLE:
+            value = group.getDouble(1, 0);
+            break;
+          default:
+            value = group.getString(1, 0);
+        }
+        rows.add(group.getLong(0, 0) + "," + value);
+      }
+    }
+    return rows;
+  }
+
+  /** the non-null rows of the page as "time,value" */
+  private static List<String> rows(PrimitivePageData page, int rowCount) {
+    List<String> rows = new ArrayList<>();
+    PrimitiveColumn column = page.getValueColumns().get(0);
+    for (int row = 0; row < rowCount; row++) {
+      if (!column.isNull(row)) {
+        Object value = column.getObject(row);
+        rows.add(
+            page.getTimes()[row]
+                + ","
+                + (value instanceof Binary ? ((Binary) value).getStringValue() : value));
+      }
+    }
+    return rows;
+  }
+
+  /** times from startTime, value of row: (startTime + row) * 3 */
+  private static PrimitivePageData page(TSDataType dataType, long startTime, boolean withNulls) {
+    long[] times = new long[ROWS];
+    PrimitiveColumn column = new PrimitiveColumn(dataType, ROWS);
+    for (int row = 0; row < ROWS; row++) {
+      times[row] = startTime + row;
+      long value = times[row] * 3;
+      switch (dataType) {
+        case BOOLEAN:
+          column.getBooleanValues()[row] = value % 2 == 0;
+          break;
+        case INT32:
+          column.getIntValues()[row] = (int) value;
+          break;
+        case INT64:
+          column.getLongValues()[row] = value;
+          break;
+        case FLOAT:
+          column.getFloatValues()[row] = value + 0.5f;
+          break;
+        case DOUBLE:
+          column.getDoubleValues()[row] = value + 0.25;
+          break;
+        default:
+          column.getBinaryValues()[row] = new Binary("v,\"" + value);
+      }
+    }
+    if (withNulls) {
+      column.setBitmap(BITMAP);
+    }
+    return new PrimitivePageData(times, Collections.singletonList(column));
+  }
+}
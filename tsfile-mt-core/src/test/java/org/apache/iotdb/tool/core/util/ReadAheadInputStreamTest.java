@@ -0,0 +1,63 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReadAheadInputStreamTest {
+
+  private static final int FILE_SIZE = 10_000;
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("read-ahead", ".bin");
+    byte[] bytes = new byte[FILE_SIZE];
+    for (int i = 0; i < FILE_SIZE; i++) {
+      bytes[i] = (byte) i;
+    }
+    Files.write(file.toPath(), bytes);
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void testReadAcrossBlocks() throws IOException {
+    try (ReadAheadInputStream in = new ReadAheadInputStream(file.getPath(), 3, 64, 3)) {
+      for (int i = 3; i < FILE_SIZE; i++) {
+        assertEquals((byte) i, (byte) in.read());
+      }
+      assertEquals(-1, in.read());
+      assertEquals(FILE_SIZE, in.position());
+    }
+  }
+
+  @Test
+  public void testSkipInsideAndBeyondWindow() throws IOException {
+    try (ReadAheadInputStream in = new ReadAheadInputStream(file.getPath(), 0, 64, 3)) {
+      assertEquals(0, in.read());
+      // inside the read-ahead window
+      in.skip(100);
+      assertEquals((byte) 101, (byte) in.read());
+      assertEquals(102, in.position());
+      // far beyond the window: seek
+      in.skip(5000);
+      assertEquals((byte) 5102, (byte) in.read());
+      byte[] bytes = new byte[10];
+      assertEquals(10, in.read(bytes, 0, 10));
+      assertEquals((byte) 5103, bytes[0]);
+      in.skip(FILE_SIZE - in.position());
+      assertEquals(-1, in.read());
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.SeriesOverlapModel;
+import org.apache.iotdb.tool.core.model.TimeRangeList;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TimeRangeOverlapUtilTest {
+
+  @Test
+  public void testOverlapIntervalsAndDepth() {
+    TimeRangeList ranges = new TimeRangeList();
+    // seq file 0: [0, 99] [100, 199], unseq file 1: [150, 250], unseq file 2: [180, 300]
+    ranges.add(0, 99, 100, 0);
+    ranges.add(100, 199, 100, 0);
+    ranges.add(150, 250, 50, 1);
+    ranges.add(180, 300, 250, 2);
+    ranges.add(1000, 1100, 10, 0);
+    boolean[] unseqSources = new boolean[] {false, true, true};
+    SeriesOverlapModel model =
+        TimeRangeOverlapUtil.analyse("root.sg.d1.s1", ranges, unseqSources, 100);
+
+    assertEquals(5, model.getChunkCount());
+    assertEquals(3, model.getOverlappedChunkCount());
+    assertEquals(2, model.getUnseqOverlappedChunkCount());
+    assertEquals(3, model.getMaxDepth());
+    assertEquals(1, model.getOverlapIntervals().size());
+    assertArrayEquals(new long[] {150, 250}, model.getOverlapIntervals().get(0));
+    assertEquals(101, model.getOverlappedDuration());
+    assertEquals(1101, model.getSeriesDuration());
+    // 1 + 1 + 3 pages of 100 points
+    assertEquals(5, model.getEstimatedExtraPages());
+    assertEquals(Arrays.asList(0, 1, 2), model.getOverlappedSources());
+  }
+
+  @Test
+  public void testNoOverlap() {
+    TimeRangeList ranges = new TimeRangeList();
+    ranges.add(0, 9, 10, 0);
+    ranges.add(10, 19, 10, 1);
+    SeriesOverlapModel model = TimeRangeOverlapUtil.analyse("root.sg.d1.s1", ranges, null, 100);
+    assertFalse(model.isOverlapped());
+    assertEquals(1, model.getMaxDepth());
+    assertEquals(0, model.getOverlapIntervals().size());
+  }
+}
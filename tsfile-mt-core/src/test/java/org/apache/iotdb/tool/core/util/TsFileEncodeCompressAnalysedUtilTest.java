@@ -0,0 +1,45 @@
+package org.apache.iotdb.tool.core.util;
+
+import org.apache.iotdb.tool.core.model.EncodeCompressAnalysedModel;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TsFileEncodeCompressAnalysedUtilTest {
+
+  @Test
+  public void testReadWeightedProfile() {
+    Map<String, EncodeCompressAnalysedModel> map = new HashMap<>();
+    // GZIP: smaller and cheap to write, slow to read
+    map.put("TS_2DIFF-GZIP", model("TS_2DIFF", "GZIP", 100, 10, 1000));
+    // LZ4: a little larger, fast to read
+    map.put("TS_2DIFF-LZ4", model("TS_2DIFF", "LZ4", 120, 100, 10));
+
+    List<EncodeCompressAnalysedModel> balanced =
+        TsFileEncodeCompressAnalysedUtil.sortedAnalysedModel(
+            map, TsFileEncodeCompressAnalysedUtil.ScoringProfile.BALANCED);
+    assertEquals("GZIP", balanced.get(0).getCompressName());
+
+    List<EncodeCompressAnalysedModel> readWeighted =
+        TsFileEncodeCompressAnalysedUtil.sortedAnalysedModel(
+            map, TsFileEncodeCompressAnalysedUtil.ScoringProfile.READ_WEIGHTED);
+    assertEquals("LZ4", readWeighted.get(0).getCompressName());
+  }
+
+  private static EncodeCompressAnalysedModel model(
+      String encodeName, String compressName, long compressedSize, long writeCost, long readCost) {
+    EncodeCompressAnalysedModel model = new EncodeCompressAnalysedModel();
+    model.setEncodeName(encodeName);
+    model.setCompressName(compressName);
+    model.setOriginSize(1000);
+    model.setCompressedSize(compressedSize);
+    model.setCompressedCost(writeCost);
+    model.setDecodeCost(readCost);
+    return model;
+  }
+}
@@ -7,6 +7,10 @@ public class StageConstant {
   public static final int MEASUREMENT_SEARCH_PAGE_HEIGHT = 300;
   public static final int SEARCH_FILTER_BOX_WIDTH = MEASUREMENT_SEARCH_PAGE_WIDTH >> 2;
   public static final int SEARCH_FILTER_BOX_HEIGHT = MEASUREMENT_SEARCH_PAGE_HEIGHT;
+  /** rows of a multi-series search shown in the table, the export has no limit */
+  public static final int SEARCH_TABLE_MAX_ROWS = 100000;
+
+  public static final int SEARCH_TABLE_BATCH_ROWS = 1000;
 
   public static final int ENCODE_ANALYSE_PAGE_WIDTH = 1080;
 
@@ -16,4 +20,27 @@ public class StageConstant {
   public static final int ALIGNED_PAGE_INFO_PAGE_WIDTH = 1080;
 
   public static final int ALIGNED_PAGE_INFO_PAGE_HEIGHT = 300;
+
+  /** Timeseries Chart Constant */
+  public static final int CHART_PAGE_WIDTH = 1080;
+
+  public static final int CHART_PAGE_HEIGHT = 450;
+
+  public static final int CHART_FILTER_BOX_WIDTH = CHART_PAGE_WIDTH >> 2;
+
+  /** File Layout Constant */
+  public static final int LAYOUT_PAGE_WIDTH = 1080;
+
+  public static final int LAYOUT_PAGE_HEIGHT = 450;
+
+  public static final int LAYOUT_TOOL_BAR_HEIGHT = 30;
+
+  public static final int LAYOUT_CELL_SIZE = 4;
+
+  /** Analyse Report Constant */
+  public static final int REPORT_PAGE_WIDTH = 1080;
+
+  public static final int REPORT_PAGE_HEIGHT = 600;
+
+  public static final int REPORT_TOOL_BAR_HEIGHT = 30;
 }
@@ -1,5 +1,6 @@
 package org.apache.iotdb.tool.ui.scene;
 
+import org.apache.iotdb.tool.core.model.DownsampledSeries;
 import org.apache.iotdb.tool.core.model.IPageInfo;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
@@ -10,19 +11,23 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.cell.MapValueFactory;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 
 import static org.apache.iotdb.tool.ui.common.constant.StageConstant.ALIGNED_PAGE_INFO_PAGE_HEIGHT;
 import static org.apache.iotdb.tool.ui.common.constant.StageConstant.ALIGNED_PAGE_INFO_PAGE_WIDTH;
+import static org.apache.iotdb.tool.ui.common.constant.StageConstant.CHART_PAGE_WIDTH;
 
 /**
  * AlignedPageInfoPage
@@ -34,6 +39,7 @@ public class AlignedPageInfoPage {
 
   private static final String TIMESTAMP_COLUMN = "timestamp";
   private static final String VALUE_COLUMN = "value";
+  private static final double CHART_BUTTON_HEIGHT = 30;
 
   private AnchorPane anchorPane;
   private Scene scene;
@@ -139,9 +145,14 @@ public class AlignedPageInfoPage {
 
     alignedTableView.setItems(columnDataList);
     alignedTableView.setLayoutX(0);
-    alignedTableView.setLayoutY(0);
+    alignedTableView.setLayoutY(CHART_BUTTON_HEIGHT);
     alignedTableView.setPrefWidth(ALIGNED_PAGE_INFO_PAGE_WIDTH);
-    alignedTableView.setPrefHeight(ALIGNED_PAGE_INFO_PAGE_HEIGHT);
+    alignedTableView.setPrefHeight(ALIGNED_PAGE_INFO_PAGE_HEIGHT - CHART_BUTTON_HEIGHT);
+
+    // chart of the value columns
+    Button chartButton = new Button("chart");
+    chartButton.setOnAction(event -> showPageChart(pageItemParams));
+    pageDataPane.getChildren().add(chartButton);
 
     stage.show();
     URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
@@ -149,4 +160,26 @@ public class AlignedPageInfoPage {
       this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
     }
   }
+
+  private void showPageChart(IoTDBParsePageV3.AlignedPageItemParams pageItemParams) {
+    IPageInfo pageInfo = pageItemParams.getPageInfoList();
+    try {
+      List<DownsampledSeries> seriesList =
+          ioTDBParsePage.getTsFileAnalyserV13().fetchDownsampledPage(pageInfo, CHART_PAGE_WIDTH);
+      // chunkHeaderList: time chunk header, then value chunk headers
+      for (int i = 0; i < seriesList.size(); i++) {
+        seriesList
+            .get(i)
+            .setName(pageItemParams.getChunkHeaderList().get(i + 1).getMeasurementID());
+      }
+      Stage chartStage = new Stage();
+      chartStage.initStyle(StageStyle.UTILITY);
+      new TimeseriesChartPage(chartStage, "Aligned Page Chart", seriesList);
+    } catch (Exception e) {
+      logger.error(
+          "Failed to draw the chart of the Aligned Page, the TimePage statistics:{}",
+          pageInfo.getStatistics(),
+          e);
+    }
+  }
 }
@@ -0,0 +1,75 @@
+package org.apache.iotdb.tool.ui.scene;
+
+import org.apache.iotdb.tool.core.service.TsFileAnalyserV13;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+import static org.apache.iotdb.tool.ui.common.constant.StageConstant.*;
+
+/**
+ * Chunk overlap check: out-of-order and overlapping chunks and pages of each series in the loaded
+ * file, and the chunk groups a compaction has to rewrite
+ *
+ * @author shenguanchu
+ */
+public class ChunkOverlapCheckPage {
+
+  private static final Logger logger = LoggerFactory.getLogger(IoTDBParsePageV3.class);
+
+  private AnchorPane anchorPane;
+  private Scene scene;
+  private IoTDBParsePageV3 ioTDBParsePage;
+
+  public ChunkOverlapCheckPage(Stage stage, IoTDBParsePageV3 ioTDBParsePage) {
+    this.ioTDBParsePage = ioTDBParsePage;
+    init(stage);
+  }
+
+  public Scene getScene() {
+    return scene;
+  }
+
+  private void init(Stage stage) {
+    anchorPane = new AnchorPane();
+    scene = new Scene(anchorPane, REPORT_PAGE_WIDTH, REPORT_PAGE_HEIGHT);
+    stage.setScene(scene);
+    stage.setTitle("Chunk Overlap Check: " + ioTDBParsePage.getLoadedTSFileName());
+    stage.show();
+
+    TextArea reportArea = new TextArea("checking ...");
+    reportArea.setEditable(false);
+    reportArea.setFont(Font.font("Monospaced", 12));
+    reportArea.setPrefSize(REPORT_PAGE_WIDTH, REPORT_PAGE_HEIGHT);
+    anchorPane.getChildren().add(reportArea);
+
+    // 需要读取每个 ChunkGroup，放到后台线程
+    TsFileAnalyserV13 tsFileAnalyserV13 = ioTDBParsePage.getTsFileAnalyserV13();
+    new Thread(
+            () -> {
+              String text;
+              try {
+                text = tsFileAnalyserV13.checkChunkOverlap().format();
+              } catch (Exception e) {
+                logger.error("Failed to check the chunk overlap", e);
+                text = "Failed to check the chunk overlap: " + e.getMessage();
+              }
+              String reportText = text;
+              Platform.runLater(() -> reportArea.setText(reportText));
+            })
+        .start();
+
+    URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
+    if (uiDarkCssResource != null) {
+      this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
+    }
+  }
+}
@@ -2,6 +2,8 @@ package org.apache.iotdb.tool.ui.scene;
 
 import org.apache.iotdb.tool.core.model.AnalysedResultModel;
 import org.apache.iotdb.tool.core.model.EncodeCompressAnalysedModel;
+import org.apache.iotdb.tool.core.util.EncodeCandidateRegistry;
+import org.apache.iotdb.tool.core.util.TsFileEncodeCompressAnalysedUtil;
 import org.apache.iotdb.tool.ui.config.TableAlign;
 import org.apache.iotdb.tool.ui.table.EncodeCompressAnalyseTable;
 import org.apache.iotdb.tool.ui.view.BaseTableView;
@@ -41,6 +43,9 @@ public class EncodeAnalysePage {
 
   private TableView analyseTableView;
 
+  /** delta statistics of an analysed time column */
+  private Label timeColumnLabel;
+
   public EncodeAnalysePage() {}
 
   public EncodeAnalysePage(Stage stage, IoTDBParsePageV3 ioTDBParsePage) {
@@ -75,24 +80,52 @@ public class EncodeAnalysePage {
     TextField deviceIdText = new TextField();
     Label measurementIdLabel = new Label("measurementID:");
     TextField measurementIdText = new TextField();
+    CheckBox readWeightedCheckBox = new CheckBox("read-weighted");
+    CheckBox parameterSweepCheckBox = new CheckBox("parameter sweep");
+    CheckBox timeColumnCheckBox = new CheckBox("time column");
     Button searchButton = new Button("Analyse");
     searchButton.setGraphic(new ImageView("/icons/find-light.png"));
     searchButton.getStyleClass().add("search-button");
 
     searchFilterBoxChildren.addAll(
-        deviceIdLabel, deviceIdText, measurementIdLabel, measurementIdText, searchButton);
+        deviceIdLabel,
+        deviceIdText,
+        measurementIdLabel,
+        measurementIdText,
+        readWeightedCheckBox,
+        parameterSweepCheckBox,
+        timeColumnCheckBox,
+        searchButton);
+
+    timeColumnLabel = new Label();
+    timeColumnLabel.setLayoutX(10);
+    timeColumnLabel.setLayoutY(ENCODE_ANALYSE_PAGE_HEIGHT * 0.12);
+    anchorPane.getChildren().add(timeColumnLabel);
 
     // button click event
     searchButton.setOnMouseClicked(
         event -> {
           java.lang.String deviceIdTextText = deviceIdText.getText().trim();
           java.lang.String measurementIdTextText = measurementIdText.getText().trim();
+          TsFileEncodeCompressAnalysedUtil.ScoringProfile profile =
+              readWeightedCheckBox.isSelected()
+                  ? TsFileEncodeCompressAnalysedUtil.ScoringProfile.READ_WEIGHTED
+                  : TsFileEncodeCompressAnalysedUtil.ScoringProfile.BALANCED;
+          EncodeCandidateRegistry registry =
+              parameterSweepCheckBox.isSelected()
+                  ? EncodeCandidateRegistry.withParameterSweeps()
+                  : null;
           try {
             AnalysedResultModel analysedResultModel =
-                ioTDBParsePage
-                    .getTsFileAnalyserV13()
-                    .fetchAnalysedResultWithDeviceAndMeasurement(
-                        deviceIdTextText, measurementIdTextText);
+                timeColumnCheckBox.isSelected()
+                    ? ioTDBParsePage
+                        .getTsFileAnalyserV13()
+                        .fetchTimeColumnAnalysed(
+                            deviceIdTextText, measurementIdTextText, profile, registry)
+                    : ioTDBParsePage
+                        .getTsFileAnalyserV13()
+                        .fetchAnalysedResultWithDeviceAndMeasurement(
+                            deviceIdTextText, measurementIdTextText, profile, registry);
             showQueryDataSet(analysedResultModel);
           } catch (Exception exception) {
             logger.error(
@@ -128,6 +161,9 @@ public class EncodeAnalysePage {
             baseTableView.genColumn(TableAlign.CENTER_LEFT, "compressedRatio", "compressedRatio", "EncodeCompressAnalyseTable");
     TableColumn<String, String> compressedCostCol =
         baseTableView.genColumn(TableAlign.CENTER_LEFT, "compressedCost(ns)", "compressedCost", "EncodeCompressAnalyseTable");
+    TableColumn<String, String> readCostCol =
+        baseTableView.genColumn(
+            TableAlign.CENTER_LEFT, "readCost(ns)", "readCost", "EncodeCompressAnalyseTable");
     TableColumn<String, String> scoreCol =
             baseTableView.genColumn(TableAlign.CENTER_LEFT, "score", "score", "EncodeCompressAnalyseTable");
 
@@ -145,6 +181,7 @@ public class EncodeAnalysePage {
         compressedSizeCol,
         compressedRatioCol,
         compressedCostCol,
+        readCostCol,
             scoreCol);
     analyseTableView.setLayoutX(0);
     analyseTableView.setLayoutY(0);
@@ -159,6 +196,15 @@ public class EncodeAnalysePage {
 
   private void showQueryDataSet(AnalysedResultModel analysedResultModel) {
     analyseDataList.clear();
+    if (analysedResultModel.getTimeColumnStatistics() != null) {
+      timeColumnLabel.setText(
+          "time column " + analysedResultModel.getTimeColumnStatistics().format());
+    } else if (analysedResultModel.getNullDensityStatistics() != null) {
+      timeColumnLabel.setText(
+          "aligned value column " + analysedResultModel.getNullDensityStatistics().format());
+    } else {
+      timeColumnLabel.setText("");
+    }
     EncodeCompressAnalysedModel currentAnalysed = analysedResultModel.getCurrentAnalysed();
     List<EncodeCompressAnalysedModel> analysedList = analysedResultModel.getAnalysedList();
     // 1. currentAnalysed result
@@ -172,6 +218,7 @@ public class EncodeAnalysePage {
             currentAnalysed.getCompressedSize(),
             (double) (currentAnalysed.getUncompressSize() / currentAnalysed.getCompressedSize()),
             (double) currentAnalysed.getCompressedCost() / (1e-6),
+            (double) currentAnalysed.getReadCost(),
             currentAnalysed.getScore()
     ));
     // 2. others analysed results
@@ -189,6 +236,7 @@ public class EncodeAnalysePage {
               encodeCompressAnalysedModel.getCompressedSize(),
               (double) (encodeCompressAnalysedModel.getUncompressSize() / encodeCompressAnalysedModel.getCompressedSize()),
               (double) encodeCompressAnalysedModel.getCompressedCost() / (1e-6),
+              (double) encodeCompressAnalysedModel.getReadCost(),
               encodeCompressAnalysedModel.getScore()
       ));
     }
@@ -0,0 +1,122 @@
+package org.apache.iotdb.tool.ui.scene;
+
+import org.apache.iotdb.tool.core.model.TsFileLayoutModel;
+import org.apache.iotdb.tool.core.model.TsFileLayoutModel.LayoutMetric;
+import org.apache.iotdb.tool.core.service.TsFileAnalyserV13;
+import org.apache.iotdb.tool.ui.view.FileLayoutHeatmapView;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.scene.Scene;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+import static org.apache.iotdb.tool.ui.common.constant.StageConstant.*;
+
+/**
+ * File layout: heatmap of chunks and pages by byte offset, coloured by compression ratio, page
+ * point count or encoding
+ *
+ * @author shenguanchu
+ */
+public class FileLayoutPage {
+
+  private static final Logger logger = LoggerFactory.getLogger(IoTDBParsePageV3.class);
+
+  private AnchorPane anchorPane;
+  private Scene scene;
+  private IoTDBParsePageV3 ioTDBParsePage;
+
+  private FileLayoutHeatmapView heatmapView;
+  private Label legendLabel;
+
+  public FileLayoutPage(Stage stage, IoTDBParsePageV3 ioTDBParsePage) {
+    this.ioTDBParsePage = ioTDBParsePage;
+    init(stage);
+  }
+
+  public Scene getScene() {
+    return scene;
+  }
+
+  private void init(Stage stage) {
+    anchorPane = new AnchorPane();
+    scene = new Scene(anchorPane, LAYOUT_PAGE_WIDTH, LAYOUT_PAGE_HEIGHT + LAYOUT_TOOL_BAR_HEIGHT);
+    stage.setScene(scene);
+    stage.setTitle("File Layout: " + ioTDBParsePage.getLoadedTSFileName());
+    stage.show();
+
+    ChoiceBox<LayoutMetric> metricBox =
+        new ChoiceBox<>(FXCollections.observableArrayList(LayoutMetric.values()));
+    metricBox.setValue(LayoutMetric.COMPRESSION_RATIO);
+    legendLabel = new Label();
+    Label positionLabel = new Label();
+    HBox toolBar = new HBox(10, metricBox, legendLabel);
+    toolBar.setPrefHeight(LAYOUT_TOOL_BAR_HEIGHT);
+    positionLabel.setLayoutY(LAYOUT_PAGE_HEIGHT);
+
+    heatmapView =
+        new FileLayoutHeatmapView(
+            LAYOUT_PAGE_WIDTH, LAYOUT_PAGE_HEIGHT - LAYOUT_TOOL_BAR_HEIGHT, LAYOUT_CELL_SIZE);
+    heatmapView.setLayoutY(LAYOUT_TOOL_BAR_HEIGHT);
+    anchorPane.getChildren().addAll(toolBar, heatmapView, positionLabel);
+
+    // footer-first 打开的文件第一次需要遍历数据区，放到后台线程
+    ProgressIndicator progressIndicator = new ProgressIndicator();
+    toolBar.getChildren().add(progressIndicator);
+    legendLabel.setText("scanning the data section ...");
+    TsFileAnalyserV13 tsFileAnalyserV13 = ioTDBParsePage.getTsFileAnalyserV13();
+    Task<TsFileLayoutModel> layoutTask =
+        ScenesManager.getInstance()
+            .fileLayoutWorker(tsFileAnalyserV13, tsFileAnalyserV13::getFileLayout);
+    progressIndicator.progressProperty().bind(layoutTask.progressProperty());
+    layoutTask.setOnSucceeded(
+        event -> {
+          toolBar.getChildren().remove(progressIndicator);
+          TsFileLayoutModel layoutModel = layoutTask.getValue();
+          draw(layoutModel, metricBox.getValue());
+          metricBox.setOnAction(e -> draw(layoutModel, metricBox.getValue()));
+          heatmapView.setOnMouseMoved(
+              e -> {
+                long offset = heatmapView.offsetAt(e.getX(), e.getY());
+                positionLabel.setText(offset < 0 ? "" : layoutModel.describe(offset));
+              });
+        });
+    layoutTask.setOnFailed(
+        event -> {
+          toolBar.getChildren().remove(progressIndicator);
+          logger.error("Failed to load the file layout", layoutTask.getException());
+          legendLabel.setText("Failed to load the file layout");
+        });
+    new Thread(layoutTask).start();
+
+    URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
+    if (uiDarkCssResource != null) {
+      this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
+    }
+  }
+
+  private void draw(TsFileLayoutModel layoutModel, LayoutMetric metric) {
+    heatmapView.draw(layoutModel, metric);
+    StringBuilder legend = new StringBuilder();
+    legend
+        .append(layoutModel.getChunkLayoutList().size())
+        .append(" chunks, ")
+        .append(heatmapView.getBytesPerCell())
+        .append(" bytes/cell");
+    if (metric != LayoutMetric.ENCODING) {
+      legend.append(
+          String.format(
+              ", blue %.3f -> red %.3f", heatmapView.getMinValue(), heatmapView.getMaxValue()));
+    }
+    legendLabel.setText(legend.toString());
+  }
+}
@@ -42,8 +42,8 @@ public class IoTDBParsePageV3 extends IoTDBParsePage {
   public static final double WIDTH = 1080;
   public static final double HEIGHT = 750;
   private static final String TREE_ITEM_TYPE_CHUNK_GROUP = "cg";
-  private static final String TREE_ITEM_TYPE_CHUNK = "c";
-  private static final String TREE_ITEM_TYPE_CHUNK_PAGE = "cp";
+  static final String TREE_ITEM_TYPE_CHUNK = "c";
+  static final String TREE_ITEM_TYPE_CHUNK_PAGE = "cp";
   private static final String TREE_ITEM_TYPE_FOLDER = "folder";
   private static final String TREE_ITEM_TYPE_TSFILE = "tsfile";
 
@@ -82,6 +82,12 @@ public class IoTDBParsePageV3 extends IoTDBParsePage {
 
   private EncodeAnalysePage encodeAnalysePage;
 
+  private TimeseriesChartPage timeseriesChartPage;
+  private FileLayoutPage fileLayoutPage;
+  private SizeDistributionPage sizeDistributionPage;
+  private OverlapAnalysePage overlapAnalysePage;
+  private ChunkOverlapCheckPage chunkOverlapCheckPage;
+
   private File selectedFolder;
 
   private Stage tsfileLoadStage;
@@ -254,14 +260,23 @@ public class IoTDBParsePageV3 extends IoTDBParsePage {
 
     Menu searchMenu = new Menu("Search");
     CheckMenuItem searchMenuItem = new CheckMenuItem("Search Measurements");
-    searchMenu.getItems().addAll(searchMenuItem);
+    CheckMenuItem chartMenuItem = new CheckMenuItem("Timeseries Chart");
+    searchMenu.getItems().addAll(searchMenuItem, chartMenuItem);
     Menu encodeMenu = new Menu("Encode & Compress");
     CheckMenuItem encodeAnalyseMenuItem = new CheckMenuItem("Encode & Compress Analyse");
     encodeMenu.getItems().addAll(encodeAnalyseMenuItem);
+    Menu analyseMenu = new Menu("Analyse");
+    CheckMenuItem layoutMenuItem = new CheckMenuItem("File Layout");
+    CheckMenuItem distributionMenuItem = new CheckMenuItem("Size Distribution");
+    CheckMenuItem overlapMenuItem = new CheckMenuItem("Overlap Across Files");
+    CheckMenuItem chunkOverlapMenuItem = new CheckMenuItem("Chunk Overlap Check");
+    analyseMenu
+        .getItems()
+        .addAll(layoutMenuItem, distributionMenuItem, overlapMenuItem, chunkOverlapMenuItem);
     Menu configMenu = new Menu("Config");
     Menu helpManeu = new Menu("Help");
     helpManeu.getItems().addAll(new CheckMenuItem("Documentation"), new CheckMenuItem("Contact"));
-    menuBar.getMenus().addAll(fileMenu, searchMenu, encodeMenu, configMenu, helpManeu);
+    menuBar.getMenus().addAll(fileMenu, searchMenu, encodeMenu, analyseMenu, configMenu, helpManeu);
 
     // Measurement Search
     searchMenuItem.setSelected(false);
@@ -272,6 +287,51 @@ public class IoTDBParsePageV3 extends IoTDBParsePage {
           measurementSearchPage = new MeasurementSearchPage(measurementSearchStage, this);
         });
 
+    // Timeseries Chart
+    chartMenuItem.setSelected(false);
+    chartMenuItem.setOnAction(
+        event -> {
+          Stage chartStage = new Stage();
+          chartStage.initStyle(StageStyle.UTILITY);
+          timeseriesChartPage = new TimeseriesChartPage(chartStage, this);
+        });
+
+    // File Layout
+    layoutMenuItem.setSelected(false);
+    layoutMenuItem.setOnAction(
+        event -> {
+          Stage layoutStage = new Stage();
+          layoutStage.initStyle(StageStyle.UTILITY);
+          fileLayoutPage = new FileLayoutPage(layoutStage, this);
+        });
+
+    // Size Distribution
+    distributionMenuItem.setSelected(false);
+    distributionMenuItem.setOnAction(
+        event -> {
+          Stage distributionStage = new Stage();
+          distributionStage.initStyle(StageStyle.UTILITY);
+          sizeDistributionPage = new SizeDistributionPage(distributionStage, this);
+        });
+
+    // Overlap Across Files
+    overlapMenuItem.setSelected(false);
+    overlapMenuItem.setOnAction(
+        event -> {
+          Stage overlapStage = new Stage();
+          overlapStage.initStyle(StageStyle.UTILITY);
+          overlapAnalysePage = new OverlapAnalysePage(overlapStage, this);
+        });
+
+    // Chunk Overlap Check
+    chunkOverlapMenuItem.setSelected(false);
+    chunkOverlapMenuItem.setOnAction(
+        event -> {
+          Stage chunkOverlapStage = new Stage();
+          chunkOverlapStage.initStyle(StageStyle.UTILITY);
+          chunkOverlapCheckPage = new ChunkOverlapCheckPage(chunkOverlapStage, this);
+        });
+
     // TimeSeries search
     HBox searchHBox = new HBox();
     TextField searchText = new TextField();
@@ -355,6 +415,10 @@ public class IoTDBParsePageV3 extends IoTDBParsePage {
     return tsFileAnalyserV13;
   }
 
+  public File getSelectedFolder() {
+    return selectedFolder;
+  }
+
   private void openTSFile() {
     // create new stage
     TreeItem<ChunkTreeItemValue> currItem = treeView.getSelectionModel().getSelectedItem();
@@ -661,6 +725,11 @@ public class IoTDBParsePageV3 extends IoTDBParsePage {
     chunkInfoPage = null;
     pageInfoPage = null;
     measurementSearchPage = null;
+    timeseriesChartPage = null;
+    fileLayoutPage = null;
+    sizeDistributionPage = null;
+    overlapAnalysePage = null;
+    chunkOverlapCheckPage = null;
     // 4. 清空 others
     selectedFolder = null;
     loadedTSFileName = null;
@@ -1,8 +1,13 @@
 package org.apache.iotdb.tool.ui.scene;
 
+import org.apache.iotdb.tool.core.model.PageInfo;
+import org.apache.iotdb.tool.core.model.PointLookupResult;
+import org.apache.iotdb.tool.core.util.CsvRowWriter;
 import org.apache.iotdb.tool.ui.config.TableAlign;
 import org.apache.iotdb.tool.ui.view.BaseTableView;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
@@ -10,9 +15,13 @@ import com.browniebytes.javafx.control.DateTimePicker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.net.URL;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
@@ -21,7 +30,9 @@ import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 
 import static org.apache.iotdb.tool.ui.common.constant.StageConstant.*;
 
@@ -40,6 +51,9 @@ public class MeasurementSearchPage {
 
   private VBox searchFilterBox;
 
+  /** devices the query engine was last warmed up with */
+  private String warmedDeviceIds;
+
   private AnchorPane searchResultPane;
 
   /** table datas */
@@ -91,6 +105,7 @@ public class MeasurementSearchPage {
     ObservableList<Node> searchFilterBoxChildren = searchFilterBox.getChildren();
     searchFilterBoxChildren.addAll(startTime, startPicker, endTime, endPicker);
 
+    // 多个 device / measurement 用逗号分隔，查询它们的笛卡尔积并按时间对齐
     Label deviceIdLabel = new Label("deviceID:");
     TextField deviceIdText = new TextField();
     Label measurementIdLabel = new Label("measurementID:");
@@ -98,9 +113,62 @@ public class MeasurementSearchPage {
     Button searchButton = new Button("Search");
     searchButton.setGraphic(new ImageView("/icons/find-light.png"));
     searchButton.getStyleClass().add("search-button");
+    Button exportButton = new Button("Export CSV");
+    // 按时间戳定位到包含它的 page
+    Label pointTimeLabel = new Label("timestamp (ms):");
+    TextField pointTimeText = new TextField();
+    Button locateButton = new Button("Locate");
+    // 查询引擎缓存的序列数和 chunk 数，回车生效
+    Label queryCacheLabel = new Label("query cache (series,chunks):");
+    TextField queryCacheText = new TextField();
+    queryCacheText.setText(
+        ioTDBParsePage.getTsFileAnalyserV13().getQueryMetadataCacheSize()
+            + ","
+            + ioTDBParsePage.getTsFileAnalyserV13().getQueryChunkCacheSize());
+    Label statusLabel = new Label();
 
     searchFilterBoxChildren.addAll(
-        deviceIdLabel, deviceIdText, measurementIdLabel, measurementIdText, searchButton);
+        deviceIdLabel,
+        deviceIdText,
+        measurementIdLabel,
+        measurementIdText,
+        searchButton,
+        exportButton,
+        pointTimeLabel,
+        pointTimeText,
+        locateButton,
+        queryCacheLabel,
+        queryCacheText,
+        statusLabel);
+
+    // 选定设备后预热查询引擎，第一次查询不再等待 ChunkMetadata 加载
+    deviceIdText.setOnAction(event -> warmUpQueryEngine(deviceIdText.getText(), statusLabel));
+    deviceIdText
+        .focusedProperty()
+        .addListener(
+            (observable, oldValue, newValue) -> {
+              if (!newValue) {
+                warmUpQueryEngine(deviceIdText.getText(), statusLabel);
+              }
+            });
+
+    queryCacheText.setOnAction(
+        event -> {
+          String[] sizes = queryCacheText.getText().split(",");
+          try {
+            int metadataCacheSize = Integer.parseInt(sizes[0].trim());
+            int chunkCacheSize = Integer.parseInt(sizes[sizes.length - 1].trim());
+            ioTDBParsePage
+                .getTsFileAnalyserV13()
+                .setQueryCacheSize(metadataCacheSize, chunkCacheSize);
+            statusLabel.setText(
+                "query cache: " + metadataCacheSize + " series, " + chunkCacheSize + " chunks");
+            warmedDeviceIds = null;
+            warmUpQueryEngine(deviceIdText.getText(), statusLabel);
+          } catch (NumberFormatException e) {
+            statusLabel.setText("query cache: <series>,<chunks>");
+          }
+        });
 
     // button click event
     searchButton.setOnMouseClicked(
@@ -122,6 +190,11 @@ public class MeasurementSearchPage {
                   .toEpochMilli();
           String deviceIdTextText = deviceIdText.getText().trim();
           String measurementIdTextText = measurementIdText.getText().trim();
+          List<Path> paths = parsePaths(deviceIdTextText, measurementIdTextText);
+          if (paths.size() > 1) {
+            searchAlignedRows(paths, startLocalTime, endLocalTime, searchButton, statusLabel);
+            return;
+          }
           try {
             QueryDataSet queryDataSet =
                 ioTDBParsePage
@@ -143,6 +216,64 @@ public class MeasurementSearchPage {
           }
         });
 
+    exportButton.setOnMouseClicked(
+        event -> {
+          List<Path> paths =
+              parsePaths(deviceIdText.getText().trim(), measurementIdText.getText().trim());
+          if (paths.isEmpty()) {
+            return;
+          }
+          FileChooser fileChooser = new FileChooser();
+          fileChooser.setTitle("Export CSV");
+          fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+          File file = fileChooser.showSaveDialog(stage);
+          if (file == null) {
+            return;
+          }
+          exportCsv(
+              paths,
+              toEpochMilli(startPicker),
+              toEpochMilli(endPicker),
+              file,
+              exportButton,
+              statusLabel);
+        });
+
+    locateButton.setOnMouseClicked(
+        event -> {
+          String deviceId = deviceIdText.getText().trim();
+          String measurementId = measurementIdText.getText().trim();
+          try {
+            long timestamp = Long.parseLong(pointTimeText.getText().trim());
+            PointLookupResult result =
+                ioTDBParsePage
+                    .getTsFileAnalyserV13()
+                    .lookupPoint(deviceId, measurementId, timestamp);
+            if (result.getPageInfo() == null) {
+              statusLabel.setText("no page covers " + timestamp);
+              return;
+            }
+            statusLabel.setText(
+                result.isFound() ? "value: " + result.getValue() : "no point at " + timestamp);
+            Stage pageInfoStage = new Stage();
+            pageInfoStage.initStyle(StageStyle.UTILITY);
+            new PageInfoPage(
+                pageInfoStage,
+                ioTDBParsePage,
+                deviceId + TsFileConstant.PATH_SEPARATOR + measurementId,
+                (PageInfo) result.getPageInfo(),
+                timestamp);
+          } catch (Exception exception) {
+            logger.error(
+                "Failed to locate the point, deviceId:{}, measurementId:{}, timestamp:{}",
+                deviceId,
+                measurementId,
+                pointTimeText.getText(),
+                exception);
+            statusLabel.setText("Failed to locate: " + exception.getMessage());
+          }
+        });
+
     // search result
     searchResultPane = new AnchorPane();
     searchResultPane.setLayoutX(stage.getWidth() / 4);
@@ -197,6 +328,142 @@ public class MeasurementSearchPage {
     }
   }
 
+  private static long toEpochMilli(DateTimePicker picker) {
+    return picker
+        .dateTimeProperty()
+        .getValue()
+        .atZone(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  /** "d1,d2" and "s1,s2" -> d1.s1, d1.s2, d2.s1, d2.s2 */
+  private static List<Path> parsePaths(String deviceIds, String measurementIds) {
+    List<Path> paths = new ArrayList<>();
+    for (String deviceId : deviceIds.split(",")) {
+      for (String measurementId : measurementIds.split(",")) {
+        if (!deviceId.trim().isEmpty() && !measurementId.trim().isEmpty()) {
+          paths.add(new Path(deviceId.trim(), measurementId.trim()));
+        }
+      }
+    }
+    return paths;
+  }
+
+  /** 后台加载设备下各序列的 ChunkMetadata 到查询引擎缓存，同一组设备只预热一次 */
+  private void warmUpQueryEngine(String deviceIdsText, Label statusLabel) {
+    String deviceIds = deviceIdsText.trim();
+    if (deviceIds.isEmpty() || deviceIds.equals(warmedDeviceIds)) {
+      return;
+    }
+    warmedDeviceIds = deviceIds;
+    List<String> devices = new ArrayList<>();
+    for (String deviceId : deviceIds.split(",")) {
+      if (!deviceId.trim().isEmpty()) {
+        devices.add(deviceId.trim());
+      }
+    }
+    new Thread(
+            () -> {
+              try {
+                int seriesCount =
+                    ioTDBParsePage.getTsFileAnalyserV13().warmUpQueryEngine(devices);
+                Platform.runLater(
+                    () -> statusLabel.setText("ready to search " + seriesCount + " series"));
+              } catch (Exception e) {
+                logger.warn("Failed to warm up the query engine, devices:{}", devices, e);
+              }
+            })
+        .start();
+  }
+
+  /** 多序列查询，行分批追加到表格，超过 SEARCH_TABLE_MAX_ROWS 后停止查询 */
+  private void searchAlignedRows(
+      List<Path> paths, long startTime, long endTime, Button searchButton, Label statusLabel) {
+    tvDatas.clear();
+    searchButton.setDisable(true);
+    statusLabel.setText("searching " + paths.size() + " series ...");
+    new Thread(
+            () -> {
+              List<IoTDBParsePageV3.TimesValues> batch = new ArrayList<>();
+              long[] rowCount = new long[1];
+              String status;
+              try {
+                ioTDBParsePage
+                    .getTsFileAnalyserV13()
+                    .queryAlignedRows(
+                        paths,
+                        startTime,
+                        endTime,
+                        (timestamp, values) -> {
+                          StringBuilder sb = new StringBuilder();
+                          for (Object value : values) {
+                            sb.append("\t");
+                            sb.append(value == null ? "" : value);
+                          }
+                          batch.add(
+                              new IoTDBParsePageV3.TimesValues(
+                                  new Date(timestamp).toString(), sb.toString()));
+                          if (batch.size() == SEARCH_TABLE_BATCH_ROWS) {
+                            List<IoTDBParsePageV3.TimesValues> rows = new ArrayList<>(batch);
+                            Platform.runLater(() -> tvDatas.addAll(rows));
+                            batch.clear();
+                          }
+                          return ++rowCount[0] < SEARCH_TABLE_MAX_ROWS;
+                        });
+                status =
+                    rowCount[0] < SEARCH_TABLE_MAX_ROWS
+                        ? rowCount[0] + " rows"
+                        : "first " + rowCount[0] + " rows, export to see all";
+              } catch (Exception e) {
+                logger.error("Failed to query aligned rows, paths:{}", paths, e);
+                status = "Failed to query: " + e.getMessage();
+              }
+              String statusText = status;
+              Platform.runLater(
+                  () -> {
+                    tvDatas.addAll(batch);
+                    tvTableView.setVisible(true);
+                    statusLabel.setText(statusText);
+                    searchButton.setDisable(false);
+                  });
+            })
+        .start();
+  }
+
+  /** 导出不限行数，边查询边写文件 */
+  private void exportCsv(
+      List<Path> paths,
+      long startTime,
+      long endTime,
+      File file,
+      Button exportButton,
+      Label statusLabel) {
+    exportButton.setDisable(true);
+    statusLabel.setText("exporting " + paths.size() + " series ...");
+    new Thread(
+            () -> {
+              String status;
+              try (CsvRowWriter csvRowWriter = new CsvRowWriter(file, paths)) {
+                long rowCount =
+                    ioTDBParsePage
+                        .getTsFileAnalyserV13()
+                        .queryAlignedRows(paths, startTime, endTime, csvRowWriter);
+                status = rowCount + " rows exported to " + file.getName();
+              } catch (Exception e) {
+                logger.error("Failed to export, paths:{}, file:{}", paths, file, e);
+                status = "Failed to export: " + e.getMessage();
+              }
+              String statusText = status;
+              Platform.runLater(
+                  () -> {
+                    statusLabel.setText(statusText);
+                    exportButton.setDisable(false);
+                  });
+            })
+        .start();
+  }
+
   public void showQueryDataSet(QueryDataSet queryDataSet) throws Exception {
     tvDatas.clear();
     while (queryDataSet.hasNext()) {
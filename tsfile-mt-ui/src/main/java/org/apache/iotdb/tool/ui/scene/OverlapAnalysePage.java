@@ -0,0 +1,109 @@
+package org.apache.iotdb.tool.ui.scene;
+
+import org.apache.iotdb.tool.core.model.OverlapReport;
+import org.apache.iotdb.tool.core.service.TsFileOverlapAnalyser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URL;
+import java.util.List;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Font;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+
+import static org.apache.iotdb.tool.ui.common.constant.StageConstant.*;
+
+/**
+ * Overlap analyse: chunk time-range overlap of every series across the tsfiles of a folder, read
+ * from the index of each file only
+ *
+ * @author shenguanchu
+ */
+public class OverlapAnalysePage {
+
+  private static final Logger logger = LoggerFactory.getLogger(IoTDBParsePageV3.class);
+
+  private AnchorPane anchorPane;
+  private Scene scene;
+  private IoTDBParsePageV3 ioTDBParsePage;
+
+  public OverlapAnalysePage(Stage stage, IoTDBParsePageV3 ioTDBParsePage) {
+    this.ioTDBParsePage = ioTDBParsePage;
+    init(stage);
+  }
+
+  public Scene getScene() {
+    return scene;
+  }
+
+  private void init(Stage stage) {
+    anchorPane = new AnchorPane();
+    scene = new Scene(anchorPane, REPORT_PAGE_WIDTH, REPORT_PAGE_HEIGHT);
+    stage.setScene(scene);
+    stage.setTitle("Overlap Across Files");
+    stage.show();
+
+    Button folderButton = new Button("Choose Folder");
+    Label statusLabel = new Label();
+    HBox toolBar = new HBox(10, folderButton, statusLabel);
+    toolBar.setPrefHeight(REPORT_TOOL_BAR_HEIGHT);
+    TextArea reportArea = new TextArea();
+    reportArea.setEditable(false);
+    reportArea.setFont(Font.font("Monospaced", 12));
+    reportArea.setLayoutY(REPORT_TOOL_BAR_HEIGHT);
+    reportArea.setPrefSize(REPORT_PAGE_WIDTH, REPORT_PAGE_HEIGHT - REPORT_TOOL_BAR_HEIGHT);
+    anchorPane.getChildren().addAll(toolBar, reportArea);
+
+    folderButton.setOnMouseClicked(
+        event -> {
+          DirectoryChooser directoryChooser = new DirectoryChooser();
+          directoryChooser.setTitle("Open Folder");
+          if (ioTDBParsePage.getSelectedFolder() != null) {
+            directoryChooser.setInitialDirectory(ioTDBParsePage.getSelectedFolder());
+          }
+          File folder = directoryChooser.showDialog(stage);
+          if (folder == null) {
+            return;
+          }
+          List<String> filePaths = TsFileOverlapAnalyser.listTsFiles(folder);
+          statusLabel.setText("analysing " + filePaths.size() + " files ...");
+          folderButton.setDisable(true);
+          // 只读取索引，但文件很多时仍需放到后台线程
+          new Thread(
+                  () -> {
+                    String text;
+                    long startTime = System.currentTimeMillis();
+                    try {
+                      OverlapReport report = new TsFileOverlapAnalyser(filePaths).analyse();
+                      text = report.format();
+                    } catch (Exception e) {
+                      logger.error("Failed to analyse the overlap, folder:{}", folder, e);
+                      text = "Failed to analyse the overlap: " + e.getMessage();
+                    }
+                    String reportText = text;
+                    long cost = System.currentTimeMillis() - startTime;
+                    Platform.runLater(
+                        () -> {
+                          reportArea.setText(reportText);
+                          statusLabel.setText(filePaths.size() + " files, cost " + cost + " ms");
+                          folderButton.setDisable(false);
+                        });
+                  })
+              .start();
+        });
+
+    URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
+    if (uiDarkCssResource != null) {
+      this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package org.apache.iotdb.tool.ui.scene;
 
+import org.apache.iotdb.tool.core.model.DownsampledSeries;
 import org.apache.iotdb.tool.core.model.IPageInfo;
 import org.apache.iotdb.tool.core.model.PageInfo;
+import org.apache.iotdb.tool.ui.common.constant.StageConstant;
 import org.apache.iotdb.tool.ui.config.TableAlign;
 import org.apache.iotdb.tool.ui.view.BaseTableView;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -12,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.URL;
 import java.util.Date;
+import java.util.List;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.Scene;
@@ -26,6 +29,7 @@ public class PageInfoPage {
 
   private static final double WIDTH = 810;
   private static final double HEIGHT = 300;
+  private static final double CHART_BUTTON_WIDTH = 80;
 
   private Scene scene;
   private IoTDBParsePageV3 ioTDBParsePage;
@@ -40,6 +44,9 @@ public class PageInfoPage {
 
   private TableView pageTVTableView;
 
+  /** the row of this timestamp is selected and scrolled to, null for none */
+  private Long focusTimestamp;
+
   public PageInfoPage() {}
 
   public PageInfoPage(
@@ -51,6 +58,28 @@ public class PageInfoPage {
     init(stage);
   }
 
+  /** open a page found by a timestamp lookup, scrolled to the row of the timestamp */
+  public PageInfoPage(
+      Stage stage,
+      IoTDBParsePageV3 ioTDBParsePage,
+      String seriesName,
+      PageInfo pageInfo,
+      long focusTimestamp) {
+    this.ioTDBParsePage = ioTDBParsePage;
+    this.focusTimestamp = focusTimestamp;
+    // the parent item only provides the series name of the chart
+    IoTDBParsePageV3.ChunkTreeItemValue seriesValue =
+        ioTDBParsePage.new ChunkTreeItemValue(
+            seriesName, IoTDBParsePageV3.TREE_ITEM_TYPE_CHUNK, null);
+    IoTDBParsePageV3.ChunkTreeItemValue pageValue =
+        ioTDBParsePage.new ChunkTreeItemValue(
+            "page", IoTDBParsePageV3.TREE_ITEM_TYPE_CHUNK_PAGE, pageInfo);
+    TreeItem<IoTDBParsePageV3.ChunkTreeItemValue> seriesItem = new TreeItem<>(seriesValue);
+    this.pageItem = new TreeItem<>(pageValue);
+    seriesItem.getChildren().add(pageItem);
+    init(stage);
+  }
+
   public Scene getScene() {
     return scene;
   }
@@ -96,17 +125,28 @@ public class PageInfoPage {
 
     TextArea pageHeaderInfo = new TextArea(sb.toString());
     pageHeaderInfo.setEditable(false);
-    pageHeaderInfo.setPrefWidth(WIDTH);
+    pageHeaderInfo.setPrefWidth(WIDTH - CHART_BUTTON_WIDTH);
     pageHeaderInfo.setWrapText(true);
     pageHeaderPane.getChildren().add(pageHeaderInfo);
 
+    // chart of the page
+    Button chartButton = new Button("chart");
+    chartButton.setLayoutX(WIDTH - CHART_BUTTON_WIDTH + 10);
+    chartButton.setLayoutY(10);
+    chartButton.setOnAction(event -> showPageChart(pageInfo));
+    anchorPane.getChildren().add(chartButton);
+
     // 数据来源
+    int focusRow = -1;
     try {
       BatchData batchData =
           ioTDBParsePage
               .getTsFileAnalyserV13()
               .fetchBatchDataByPageInfo((PageInfo) pageItem.getValue().getParams());
       while (batchData.hasCurrent()) {
+        if (focusTimestamp != null && batchData.currentTime() == focusTimestamp) {
+          focusRow = tvDatas.size();
+        }
         Object currValue = batchData.currentValue();
         this.tvDatas.add(
             new IoTDBParsePageV3.TimesValues(
@@ -139,10 +179,32 @@ public class PageInfoPage {
     pageTVTableView.setLayoutY(HEIGHT * 0.12);
     pageTVTableView.setPrefWidth(WIDTH);
     pageTVTableView.setPrefHeight(HEIGHT * 0.65);
+    if (focusRow >= 0) {
+      pageTVTableView.getSelectionModel().select(focusRow);
+      pageTVTableView.scrollTo(focusRow);
+    }
 
     URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
     if (uiDarkCssResource != null) {
       this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
     }
   }
+
+  private void showPageChart(IPageInfo pageInfo) {
+    try {
+      List<DownsampledSeries> seriesList =
+          ioTDBParsePage
+              .getTsFileAnalyserV13()
+              .fetchDownsampledPage(pageInfo, StageConstant.CHART_PAGE_WIDTH);
+      if (seriesList.isEmpty()) {
+        return;
+      }
+      seriesList.get(0).setName(pageItem.getParent().getValue().getName());
+      Stage chartStage = new Stage();
+      chartStage.initStyle(StageStyle.UTILITY);
+      new TimeseriesChartPage(chartStage, "Page Chart", seriesList);
+    } catch (Exception e) {
+      logger.error("Failed to draw the chart of the page, the page:{}", pageInfo, e);
+    }
+  }
 }
@@ -1,8 +1,12 @@
 package org.apache.iotdb.tool.ui.scene;
 
+import org.apache.iotdb.tool.core.service.TsFileAnalyserV13;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.scene.control.*;
@@ -82,6 +86,27 @@ public class ScenesManager {
     };
   }
 
+  /**
+   * 需要文件布局的分析（footer-first 打开的文件第一次需要遍历数据区）放到后台线程，进度为数据区遍历的进度
+   *
+   * @param analysis calls {@link TsFileAnalyserV13#getFileLayout()} directly or not
+   */
+  public <T> Task<T> fileLayoutWorker(TsFileAnalyserV13 tsFileAnalyserV13, Callable<T> analysis) {
+    return new Task<T>() {
+      @Override
+      protected T call() throws Exception {
+        FutureTask<T> analysisTask = new FutureTask<>(analysis);
+        new Thread(analysisTask, "file-layout-scan").start();
+        while (!analysisTask.isDone()) {
+          updateProgress(tsFileAnalyserV13.getFileLayoutProgress(), 1);
+          Thread.sleep(100);
+        }
+        updateProgress(1, 1);
+        return analysisTask.get();
+      }
+    };
+  }
+
   // 清空缓存
   public void clearCache() {
     ioTDBParsePage.clearParsePageCache();
@@ -0,0 +1,84 @@
+package org.apache.iotdb.tool.ui.scene;
+
+import org.apache.iotdb.tool.core.model.SizeDistributionReport;
+import org.apache.iotdb.tool.core.service.TsFileAnalyserV13;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import javafx.concurrent.Task;
+import javafx.scene.Scene;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+import static org.apache.iotdb.tool.ui.common.constant.StageConstant.*;
+
+/**
+ * Size distribution: histograms of points/bytes per page, pages per chunk, chunks per series and
+ * chunk group size, plus the series with small pages or chunks
+ *
+ * @author shenguanchu
+ */
+public class SizeDistributionPage {
+
+  private static final Logger logger = LoggerFactory.getLogger(IoTDBParsePageV3.class);
+
+  private AnchorPane anchorPane;
+  private Scene scene;
+  private IoTDBParsePageV3 ioTDBParsePage;
+
+  public SizeDistributionPage(Stage stage, IoTDBParsePageV3 ioTDBParsePage) {
+    this.ioTDBParsePage = ioTDBParsePage;
+    init(stage);
+  }
+
+  public Scene getScene() {
+    return scene;
+  }
+
+  private void init(Stage stage) {
+    anchorPane = new AnchorPane();
+    scene = new Scene(anchorPane, REPORT_PAGE_WIDTH, REPORT_PAGE_HEIGHT);
+    stage.setScene(scene);
+    stage.setTitle("Size Distribution: " + ioTDBParsePage.getLoadedTSFileName());
+    stage.show();
+
+    TextArea reportArea = new TextArea("scanning the data section ...");
+    reportArea.setEditable(false);
+    reportArea.setFont(Font.font("Monospaced", 12));
+    reportArea.setPrefSize(REPORT_PAGE_WIDTH, REPORT_PAGE_HEIGHT);
+    ProgressIndicator progressIndicator = new ProgressIndicator();
+    progressIndicator.setLayoutX(REPORT_PAGE_WIDTH / 2.0);
+    progressIndicator.setLayoutY(REPORT_PAGE_HEIGHT / 2.0);
+    anchorPane.getChildren().addAll(reportArea, progressIndicator);
+
+    // 依赖文件布局，footer-first 打开的文件第一次需要遍历数据区，放到后台线程
+    TsFileAnalyserV13 tsFileAnalyserV13 = ioTDBParsePage.getTsFileAnalyserV13();
+    Task<SizeDistributionReport> reportTask =
+        ScenesManager.getInstance()
+            .fileLayoutWorker(tsFileAnalyserV13, tsFileAnalyserV13::fetchSizeDistribution);
+    progressIndicator.progressProperty().bind(reportTask.progressProperty());
+    reportTask.setOnSucceeded(
+        event -> {
+          anchorPane.getChildren().remove(progressIndicator);
+          reportArea.setText(reportTask.getValue().format());
+        });
+    reportTask.setOnFailed(
+        event -> {
+          anchorPane.getChildren().remove(progressIndicator);
+          logger.error("Failed to analyse the size distribution", reportTask.getException());
+          reportArea.setText(
+              "Failed to analyse the size distribution: " + reportTask.getException());
+        });
+    new Thread(reportTask).start();
+
+    URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
+    if (uiDarkCssResource != null) {
+      this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
+    }
+  }
+}
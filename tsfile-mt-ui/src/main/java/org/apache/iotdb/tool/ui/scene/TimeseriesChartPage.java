@@ -0,0 +1,168 @@
+package org.apache.iotdb.tool.ui.scene;
+
+import org.apache.iotdb.tool.core.model.DownsampledSeries;
+import org.apache.iotdb.tool.core.util.TimeRangeUtil;
+import org.apache.iotdb.tool.ui.view.TimeseriesChartView;
+
+import com.browniebytes.javafx.control.DateTimePicker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import static org.apache.iotdb.tool.ui.common.constant.StageConstant.*;
+
+/**
+ * Timeseries chart: M4 downsampled line chart of a series or of a page
+ *
+ * @author shenguanchu
+ */
+public class TimeseriesChartPage {
+
+  private static final Logger logger = LoggerFactory.getLogger(IoTDBParsePageV3.class);
+
+  private AnchorPane anchorPane;
+  private Scene scene;
+  private IoTDBParsePageV3 ioTDBParsePage;
+
+  private TimeseriesChartView chartView;
+
+  /** series chart with search filter */
+  public TimeseriesChartPage(Stage stage, IoTDBParsePageV3 ioTDBParsePage) {
+    this.ioTDBParsePage = ioTDBParsePage;
+    init(stage);
+  }
+
+  /** chart of already downsampled data, e.g. the columns of a page */
+  public TimeseriesChartPage(Stage stage, String title, List<DownsampledSeries> seriesList) {
+    anchorPane = new AnchorPane();
+    scene = new Scene(anchorPane, CHART_PAGE_WIDTH, CHART_PAGE_HEIGHT);
+    stage.setScene(scene);
+    stage.setTitle(title);
+    chartView = new TimeseriesChartView();
+    chartView.setPrefSize(CHART_PAGE_WIDTH, CHART_PAGE_HEIGHT);
+    anchorPane.getChildren().add(chartView);
+    chartView.showSeries(seriesList);
+    stage.show();
+    addStylesheet();
+  }
+
+  public Scene getScene() {
+    return scene;
+  }
+
+  private void init(Stage stage) {
+    anchorPane = new AnchorPane();
+    scene = new Scene(anchorPane, CHART_PAGE_WIDTH, CHART_PAGE_HEIGHT);
+    stage.setScene(scene);
+    stage.setTitle("Chart: Timeseries");
+    stage.show();
+
+    // search filter
+    VBox searchFilterBox = new VBox();
+    anchorPane.getChildren().add(searchFilterBox);
+    searchFilterBox.getStyleClass().add("search-filter-box");
+    searchFilterBox.setPrefWidth(CHART_FILTER_BOX_WIDTH);
+    searchFilterBox.setPrefHeight(CHART_PAGE_HEIGHT);
+
+    Label startTime = new Label("startTime:");
+    DateTimePicker startPicker = new DateTimePicker();
+    Label endTime = new Label("endTime:");
+    DateTimePicker endPicker = new DateTimePicker();
+    CheckBox wholeSeriesBox = new CheckBox("whole series");
+    wholeSeriesBox.setSelected(true);
+    Label deviceIdLabel = new Label("deviceID:");
+    TextField deviceIdText = new TextField();
+    Label measurementIdLabel = new Label("measurementID:");
+    TextField measurementIdText = new TextField();
+    Button drawButton = new Button("Draw");
+    drawButton.setGraphic(new ImageView("/icons/find-light.png"));
+    drawButton.getStyleClass().add("search-button");
+    ObservableList<Node> searchFilterBoxChildren = searchFilterBox.getChildren();
+    searchFilterBoxChildren.addAll(
+        startTime,
+        startPicker,
+        endTime,
+        endPicker,
+        wholeSeriesBox,
+        deviceIdLabel,
+        deviceIdText,
+        measurementIdLabel,
+        measurementIdText,
+        drawButton);
+
+    chartView = new TimeseriesChartView();
+    chartView.setLayoutX(CHART_FILTER_BOX_WIDTH);
+    chartView.setPrefSize(CHART_PAGE_WIDTH - CHART_FILTER_BOX_WIDTH, CHART_PAGE_HEIGHT);
+    anchorPane.getChildren().add(chartView);
+
+    drawButton.setOnMouseClicked(
+        event -> {
+          // the whole series
+          long startLocalTime = TimeRangeUtil.UNSET_START;
+          long endLocalTime = TimeRangeUtil.UNSET_END;
+          if (!wholeSeriesBox.isSelected()) {
+            startLocalTime =
+                startPicker
+                    .dateTimeProperty()
+                    .getValue()
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .toEpochMilli();
+            endLocalTime =
+                endPicker
+                    .dateTimeProperty()
+                    .getValue()
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .toEpochMilli();
+          }
+          String deviceIdTextText = deviceIdText.getText().trim();
+          String measurementIdTextText = measurementIdText.getText().trim();
+          try {
+            long drawStartTime = System.currentTimeMillis();
+            // one bucket per pixel
+            DownsampledSeries series =
+                ioTDBParsePage
+                    .getTsFileAnalyserV13()
+                    .fetchDownsampledSeries(
+                        deviceIdTextText,
+                        measurementIdTextText,
+                        startLocalTime,
+                        endLocalTime,
+                        CHART_PAGE_WIDTH - CHART_FILTER_BOX_WIDTH);
+            chartView.showSeries(Collections.singletonList(series));
+            logger.info("draw chart cost: {}", System.currentTimeMillis() - drawStartTime);
+          } catch (Exception exception) {
+            logger.error(
+                "Failed to draw the chart, deviceId:{}, measurementId:{}",
+                deviceIdTextText,
+                measurementIdTextText,
+                exception);
+          }
+        });
+
+    addStylesheet();
+  }
+
+  private void addStylesheet() {
+    URL uiDarkCssResource = getClass().getClassLoader().getResource("css/ui-dark.css");
+    if (uiDarkCssResource != null) {
+      this.getScene().getStylesheets().add(uiDarkCssResource.toExternalForm());
+    }
+  }
+}
@@ -187,8 +187,9 @@ public class TsFileLoadPage {
 
   private void loadTsFile(String filePath) {
     try {
-      // tsfile parse
-      this.tsFileAnalyserV13 = new TsFileAnalyserV13(filePath);
+      // tsfile parse, a sealed file from its index
+      this.tsFileAnalyserV13 =
+          new TsFileAnalyserV13(filePath, TsFileAnalyserV13.OpenMode.FOOTER_FIRST);
     } catch (IOException e) {
       logger.error("Failed to get TsFileAnalysedV13 instance.");
       e.printStackTrace();
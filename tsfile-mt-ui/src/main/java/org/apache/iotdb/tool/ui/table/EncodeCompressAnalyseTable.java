@@ -29,6 +29,8 @@ public class EncodeCompressAnalyseTable {
 
   private final SimpleDoubleProperty compressedCost;
 
+  private final SimpleDoubleProperty readCost;
+
   private final SimpleDoubleProperty score;
 
   public EncodeCompressAnalyseTable(
@@ -41,6 +43,7 @@ public class EncodeCompressAnalyseTable {
           Long compressedSize,
           Double compressedCost,
           Double compressedRatio,
+          Double readCost,
           Double score) {
     this.typeName = new SimpleStringProperty(typeName);
     this.encodeName = new SimpleStringProperty(encodeName);
@@ -51,6 +54,7 @@ public class EncodeCompressAnalyseTable {
     this.compressedSize = new SimpleLongProperty(compressedSize);
     this.compressedCost = new SimpleDoubleProperty(compressedCost);
     this.compressedRatio = new SimpleDoubleProperty(compressedRatio);
+    this.readCost = new SimpleDoubleProperty(readCost);
     this.score = new SimpleDoubleProperty(score);
   }
 
@@ -150,6 +154,18 @@ public class EncodeCompressAnalyseTable {
     this.compressedCost.set(compressedCost);
   }
 
+  public double getReadCost() {
+    return readCost.get();
+  }
+
+  public SimpleDoubleProperty readCostProperty() {
+    return readCost;
+  }
+
+  public void setReadCost(double readCost) {
+    this.readCost.set(readCost);
+  }
+
   public double getScore() {
     return score.get();
   }
@@ -0,0 +1,97 @@
+package org.apache.iotdb.tool.ui.view;
+
+import org.apache.iotdb.tool.core.model.TsFileLayoutModel;
+import org.apache.iotdb.tool.core.model.TsFileLayoutModel.LayoutMetric;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * heatmap of the file byte layout: cells are laid out row by row, each cell covers the same number
+ * of bytes of the file
+ *
+ * @author shenguanchu
+ */
+public class FileLayoutHeatmapView extends Canvas {
+
+  private static final Color EMPTY_CELL_COLOR = Color.rgb(60, 63, 65);
+
+  private final int cellSize;
+
+  private final int columns;
+
+  private final int cellCount;
+
+  private TsFileLayoutModel layoutModel;
+
+  private double minValue;
+
+  private double maxValue;
+
+  public FileLayoutHeatmapView(double width, double height, int cellSize) {
+    super(width, height);
+    this.cellSize = cellSize;
+    this.columns = (int) (width / cellSize);
+    this.cellCount = columns * (int) (height / cellSize);
+  }
+
+  public void draw(TsFileLayoutModel layoutModel, LayoutMetric metric) {
+    this.layoutModel = layoutModel;
+    double[] values = layoutModel.rasterize(cellCount, metric);
+    minValue = Double.MAX_VALUE;
+    maxValue = -Double.MAX_VALUE;
+    for (double value : values) {
+      if (!Double.isNaN(value)) {
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+      }
+    }
+    GraphicsContext gc = getGraphicsContext2D();
+    gc.clearRect(0, 0, getWidth(), getHeight());
+    for (int cell = 0; cell < cellCount; cell++) {
+      gc.setFill(color(values[cell], metric));
+      gc.fillRect(
+          (cell % columns) * cellSize, (cell / columns) * cellSize, cellSize - 1, cellSize - 1);
+    }
+  }
+
+  /** blue for low values and red for high values, one hue per encoding */
+  private Color color(double value, LayoutMetric metric) {
+    if (Double.isNaN(value)) {
+      return EMPTY_CELL_COLOR;
+    }
+    if (metric == LayoutMetric.ENCODING) {
+      return Color.hsb(value * 360 / TSEncoding.values().length, 0.8, 0.9);
+    }
+    double range = maxValue - minValue;
+    double t = range == 0 ? 0 : (value - minValue) / range;
+    return Color.hsb(240 * (1 - t), 0.8, 0.9);
+  }
+
+  /** file offset in the middle of the cell under the point, -1 if no cell is there */
+  public long offsetAt(double x, double y) {
+    if (layoutModel == null || x < 0 || y < 0 || x >= columns * cellSize) {
+      return -1;
+    }
+    int cell = (int) (y / cellSize) * columns + (int) (x / cellSize);
+    if (cell >= cellCount) {
+      return -1;
+    }
+    double bytesPerCell = Math.max(1.0, (double) layoutModel.getFileSize() / cellCount);
+    return (long) ((cell + 0.5) * bytesPerCell);
+  }
+
+  public double getMinValue() {
+    return minValue;
+  }
+
+  public double getMaxValue() {
+    return maxValue;
+  }
+
+  public long getBytesPerCell() {
+    return layoutModel == null ? 0 : Math.max(1, layoutModel.getFileSize() / cellCount);
+  }
+}
@@ -0,0 +1,59 @@
+package org.apache.iotdb.tool.ui.view;
+
+import org.apache.iotdb.tool.core.model.DownsampledSeries;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.util.StringConverter;
+
+/**
+ * line chart of downsampled series, the x axis is the timestamp
+ *
+ * @author shenguanchu
+ */
+public class TimeseriesChartView extends LineChart<Number, Number> {
+
+  public TimeseriesChartView() {
+    super(new NumberAxis(), new NumberAxis());
+    NumberAxis timeAxis = (NumberAxis) getXAxis();
+    timeAxis.setForceZeroInRange(false);
+    timeAxis.setTickLabelFormatter(
+        new StringConverter<Number>() {
+          private final SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss");
+
+          @Override
+          public String toString(Number time) {
+            return format.format(new Date(time.longValue()));
+          }
+
+          @Override
+          public Number fromString(String string) {
+            return null;
+          }
+        });
+    ((NumberAxis) getYAxis()).setForceZeroInRange(false);
+    setCreateSymbols(false);
+    setAnimated(false);
+  }
+
+  public void showSeries(List<DownsampledSeries> seriesList) {
+    getData().clear();
+    for (DownsampledSeries downsampledSeries : seriesList) {
+      XYChart.Series<Number, Number> series = new XYChart.Series<>();
+      series.setName(downsampledSeries.getName());
+      long[] times = downsampledSeries.getTimes();
+      double[] values = downsampledSeries.getValues();
+      List<XYChart.Data<Number, Number>> points = new ArrayList<>(times.length);
+      for (int i = 0; i < times.length; i++) {
+        points.add(new XYChart.Data<>(times[i], values[i]));
+      }
+      series.getData().setAll(points);
+      getData().add(series);
+    }
+  }
+}